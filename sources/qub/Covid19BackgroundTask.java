@@ -0,0 +1,78 @@
+package qub;
+
+/**
+ * A task that is running on its own background thread.
+ * @param <T> The type of value that the task produces.
+ */
+public class Covid19BackgroundTask<T>
+{
+    private final Thread thread;
+    private volatile T value;
+    private volatile Throwable error;
+
+    private Covid19BackgroundTask(String name, Function0<T> task)
+    {
+        PreCondition.assertNotNullAndNotEmpty(name, "name");
+        PreCondition.assertNotNull(task, "task");
+
+        this.thread = new Thread(() ->
+        {
+            try
+            {
+                this.value = task.run();
+            }
+            catch (Throwable error)
+            {
+                this.error = error;
+            }
+        }, name);
+        this.thread.setDaemon(true);
+    }
+
+    static <T> Covid19BackgroundTask<T> start(String name, Function0<T> task)
+    {
+        final Covid19BackgroundTask<T> result = new Covid19BackgroundTask<>(name, task);
+        result.thread.start();
+        return result;
+    }
+
+    /**
+     * Get whether or not this task has finished running.
+     * @return Whether or not this task has finished running.
+     */
+    public boolean isDone()
+    {
+        return !this.thread.isAlive();
+    }
+
+    /**
+     * Interrupt this task's thread. The task decides for itself whether or not to stop.
+     */
+    public void interrupt()
+    {
+        this.thread.interrupt();
+    }
+
+    /**
+     * Wait for this task to finish running.
+     * @return The value that this task produced. If the task failed, then its error is thrown.
+     */
+    public T await()
+    {
+        try
+        {
+            this.thread.join();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw Exceptions.asRuntime(e);
+        }
+
+        if (this.error != null)
+        {
+            throw Exceptions.asRuntime(this.error);
+        }
+        return this.value;
+    }
+}
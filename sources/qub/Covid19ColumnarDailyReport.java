@@ -0,0 +1,370 @@
+package qub;
+
+import java.util.Arrays;
+
+/**
+ * A daily report that stores its data rows as columns of primitive values instead of as
+ * Covid19DailyReportDataRow objects. The location strings are stored as codes from a
+ * Covid19StringDictionary and the confirmed cases are stored as ints with a bitmap that marks the
+ * data rows that don't have confirmed cases. getDataRows() creates data row objects on demand, so
+ * aggregations should use the getConfirmedCasesSum() methods instead. A daily report can also carry
+ * a Covid19LocationIndex, which lets getConfirmedCasesSum(Covid19LocationCondition) and where()
+ * visit only the data rows that match a condition's location values.
+ */
+public class Covid19ColumnarDailyReport extends Covid19DailyReport
+{
+    /**
+     * The code that matches any value in getConfirmedCasesSum(int,int,int).
+     */
+    public static final int anyCode = -2;
+
+    private final Covid19StringDictionary stringDictionary;
+    private int dataRowCount;
+    private int[] countyCodes;
+    private int[] stateOrProvinceCodes;
+    private int[] countryOrRegionCodes;
+    private int[] confirmedCases;
+    /**
+     * A bitmap with a set bit for each data row that doesn't have confirmed cases.
+     */
+    private long[] confirmedCasesNullBitmap;
+    private volatile Covid19LocationIndex locationIndex;
+
+    private Covid19ColumnarDailyReport(Covid19StringDictionary stringDictionary)
+    {
+        PreCondition.assertNotNull(stringDictionary, "stringDictionary");
+
+        this.stringDictionary = stringDictionary;
+        this.countyCodes = new int[16];
+        this.stateOrProvinceCodes = new int[16];
+        this.countryOrRegionCodes = new int[16];
+        this.confirmedCases = new int[16];
+        this.confirmedCasesNullBitmap = new long[1];
+    }
+
+    /**
+     * Create a new empty Covid19ColumnarDailyReport.
+     * @param stringDictionary The dictionary that the location strings will be stored in.
+     * @return The new Covid19ColumnarDailyReport.
+     */
+    public static Covid19ColumnarDailyReport create(Covid19StringDictionary stringDictionary)
+    {
+        return new Covid19ColumnarDailyReport(stringDictionary);
+    }
+
+    /**
+     * Create a new Covid19ColumnarDailyReport that contains the provided data rows.
+     * @param stringDictionary The dictionary that the location strings will be stored in.
+     * @param dataRows The data rows of the daily report.
+     * @return The new Covid19ColumnarDailyReport.
+     */
+    public static Covid19ColumnarDailyReport create(Covid19StringDictionary stringDictionary, Iterable<Covid19DailyReportDataRow> dataRows)
+    {
+        PreCondition.assertNotNull(stringDictionary, "stringDictionary");
+        PreCondition.assertNotNull(dataRows, "dataRows");
+
+        final Covid19ColumnarDailyReport result = Covid19ColumnarDailyReport.create(stringDictionary);
+        for (final Covid19DailyReportDataRow dataRow : dataRows)
+        {
+            result.addDataRow(dataRow);
+        }
+        return result;
+    }
+
+    /**
+     * Add the provided data row to the end of this daily report. This is only used while a daily
+     * report is being built, before it is shared with other threads.
+     * @param dataRow The data row to add.
+     * @return This object for method chaining.
+     */
+    Covid19ColumnarDailyReport addDataRow(Covid19DailyReportDataRow dataRow)
+    {
+        PreCondition.assertNotNull(dataRow, "dataRow");
+
+        final Integer confirmedCases = dataRow.getConfirmedCases();
+        return this.addDataRow(
+            this.stringDictionary.getCode(dataRow.getCounty()),
+            this.stringDictionary.getCode(dataRow.getStateOrProvince()),
+            this.stringDictionary.getCode(dataRow.getCountryOrRegion()),
+            confirmedCases != null,
+            confirmedCases == null ? 0 : confirmedCases);
+    }
+
+    /**
+     * Add a data row with the provided location codes and confirmed cases to the end of this daily
+     * report.
+     */
+    Covid19ColumnarDailyReport addDataRow(int countyCode, int stateOrProvinceCode, int countryOrRegionCode, boolean hasConfirmedCases, int confirmedCases)
+    {
+        final int dataRowIndex = this.dataRowCount;
+        if (dataRowIndex == this.countyCodes.length)
+        {
+            final int newCapacity = this.countyCodes.length * 2;
+            this.countyCodes = Arrays.copyOf(this.countyCodes, newCapacity);
+            this.stateOrProvinceCodes = Arrays.copyOf(this.stateOrProvinceCodes, newCapacity);
+            this.countryOrRegionCodes = Arrays.copyOf(this.countryOrRegionCodes, newCapacity);
+            this.confirmedCases = Arrays.copyOf(this.confirmedCases, newCapacity);
+        }
+        if ((dataRowIndex >> 6) == this.confirmedCasesNullBitmap.length)
+        {
+            this.confirmedCasesNullBitmap = Arrays.copyOf(this.confirmedCasesNullBitmap, this.confirmedCasesNullBitmap.length * 2);
+        }
+
+        this.countyCodes[dataRowIndex] = countyCode;
+        this.stateOrProvinceCodes[dataRowIndex] = stateOrProvinceCode;
+        this.countryOrRegionCodes[dataRowIndex] = countryOrRegionCode;
+        this.confirmedCases[dataRowIndex] = hasConfirmedCases ? confirmedCases : 0;
+        if (!hasConfirmedCases)
+        {
+            this.confirmedCasesNullBitmap[dataRowIndex >> 6] |= (1L << dataRowIndex);
+        }
+        ++this.dataRowCount;
+
+        return this;
+    }
+
+    /**
+     * Get the dictionary that this daily report's location strings are stored in.
+     * @return The dictionary that this daily report's location strings are stored in.
+     */
+    public Covid19StringDictionary getStringDictionary()
+    {
+        return this.stringDictionary;
+    }
+
+    @Override
+    public int getDataRowCount()
+    {
+        return this.dataRowCount;
+    }
+
+    /**
+     * Get the location index of this daily report.
+     * @return The location index of this daily report, or null if createLocationIndex() hasn't
+     * been called since the last data row was added.
+     */
+    public Covid19LocationIndex getLocationIndex()
+    {
+        final Covid19LocationIndex result = this.locationIndex;
+        return result == null || result.getDataRowCount() != this.dataRowCount ? null : result;
+    }
+
+    /**
+     * Create a location index for this daily report's data rows if it doesn't have one already.
+     * @return This object for method chaining.
+     */
+    public Covid19ColumnarDailyReport createLocationIndex()
+    {
+        if (this.getLocationIndex() == null)
+        {
+            this.locationIndex = Covid19LocationIndex.create(this);
+        }
+        return this;
+    }
+
+    public int getCountyCode(int dataRowIndex)
+    {
+        PreCondition.assertBetween(0, dataRowIndex, this.dataRowCount - 1, "dataRowIndex");
+
+        return this.countyCodes[dataRowIndex];
+    }
+
+    public int getStateOrProvinceCode(int dataRowIndex)
+    {
+        PreCondition.assertBetween(0, dataRowIndex, this.dataRowCount - 1, "dataRowIndex");
+
+        return this.stateOrProvinceCodes[dataRowIndex];
+    }
+
+    public int getCountryOrRegionCode(int dataRowIndex)
+    {
+        PreCondition.assertBetween(0, dataRowIndex, this.dataRowCount - 1, "dataRowIndex");
+
+        return this.countryOrRegionCodes[dataRowIndex];
+    }
+
+    public boolean hasConfirmedCases(int dataRowIndex)
+    {
+        PreCondition.assertBetween(0, dataRowIndex, this.dataRowCount - 1, "dataRowIndex");
+
+        return !this.isConfirmedCasesNull(dataRowIndex);
+    }
+
+    /**
+     * Get the confirmed cases of the data row at the provided index, or 0 if the data row doesn't
+     * have confirmed cases.
+     * @param dataRowIndex The index of the data row.
+     * @return The confirmed cases of the data row at the provided index.
+     */
+    public int getConfirmedCases(int dataRowIndex)
+    {
+        PreCondition.assertBetween(0, dataRowIndex, this.dataRowCount - 1, "dataRowIndex");
+
+        return this.confirmedCases[dataRowIndex];
+    }
+
+    private boolean isConfirmedCasesNull(int dataRowIndex)
+    {
+        return (this.confirmedCasesNullBitmap[dataRowIndex >> 6] & (1L << dataRowIndex)) != 0;
+    }
+
+    /**
+     * Get the data row at the provided index. A new data row object is created for each call.
+     * @param dataRowIndex The index of the data row.
+     * @return The data row at the provided index.
+     */
+    public Covid19DailyReportDataRow getDataRow(int dataRowIndex)
+    {
+        PreCondition.assertBetween(0, dataRowIndex, this.dataRowCount - 1, "dataRowIndex");
+
+        return Covid19DailyReportDataRow.create().setAll(
+            this.stringDictionary.getString(this.countyCodes[dataRowIndex]),
+            this.stringDictionary.getString(this.stateOrProvinceCodes[dataRowIndex]),
+            this.stringDictionary.getString(this.countryOrRegionCodes[dataRowIndex]),
+            this.isConfirmedCasesNull(dataRowIndex) ? null : this.confirmedCases[dataRowIndex]);
+    }
+
+    @Override
+    public Iterable<Covid19DailyReportDataRow> getDataRows()
+    {
+        final List<Covid19DailyReportDataRow> result = List.create();
+        for (int dataRowIndex = 0; dataRowIndex < this.dataRowCount; ++dataRowIndex)
+        {
+            result.add(this.getDataRow(dataRowIndex));
+        }
+        return result;
+    }
+
+    /**
+     * Get the sum of the confirmed cases of every data row.
+     * @return The sum of the confirmed cases of every data row.
+     */
+    public int getConfirmedCasesSum()
+    {
+        // Data rows without confirmed cases store 0, so they don't need to be skipped.
+        int result = 0;
+        for (int dataRowIndex = 0; dataRowIndex < this.dataRowCount; ++dataRowIndex)
+        {
+            result += this.confirmedCases[dataRowIndex];
+        }
+        return result;
+    }
+
+    @Override
+    public int getConfirmedCasesSum(Covid19LocationCondition locationCondition)
+    {
+        int result;
+        if (locationCondition == null)
+        {
+            result = this.getConfirmedCasesSum();
+        }
+        else
+        {
+            final Covid19LocationIndex locationIndex = this.getLocationIndex();
+            final Covid19RowBitmap matchingRows = locationIndex == null ? null : locationIndex.getRows(locationCondition);
+            if (matchingRows != null)
+            {
+                // Data rows without confirmed cases store 0, so they don't need to be skipped.
+                result = matchingRows.sum(this.confirmedCases);
+            }
+            else
+            {
+                result = 0;
+                final Covid19CompiledLocationCondition compiledLocationCondition = this.stringDictionary.getCompiledCondition(locationCondition);
+                final Covid19RowBitmap candidateRows = locationIndex == null ? null : locationIndex.getCandidateRows(locationCondition);
+                for (int dataRowIndex = Covid19ColumnarDailyReport.nextRow(candidateRows, 0); dataRowIndex < this.dataRowCount; dataRowIndex = Covid19ColumnarDailyReport.nextRow(candidateRows, dataRowIndex + 1))
+                {
+                    if (!this.isConfirmedCasesNull(dataRowIndex) && this.matches(compiledLocationCondition, dataRowIndex))
+                    {
+                        result += this.confirmedCases[dataRowIndex];
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the next data row at or after the provided data row that is in the provided candidate
+     * rows, or fromRow itself if every data row is a candidate.
+     */
+    private static int nextRow(Covid19RowBitmap candidateRows, int fromRow)
+    {
+        int result = fromRow;
+        if (candidateRows != null)
+        {
+            result = candidateRows.nextRow(fromRow);
+            if (result == -1)
+            {
+                result = Integer.MAX_VALUE;
+            }
+        }
+        return result;
+    }
+
+    private boolean matches(Covid19CompiledLocationCondition compiledLocationCondition, int dataRowIndex)
+    {
+        return compiledLocationCondition.matches(
+            this.countyCodes[dataRowIndex],
+            this.stateOrProvinceCodes[dataRowIndex],
+            this.countryOrRegionCodes[dataRowIndex],
+            !this.isConfirmedCasesNull(dataRowIndex),
+            this.confirmedCases[dataRowIndex]);
+    }
+
+    /**
+     * Get the sum of the confirmed cases of the data rows whose location codes equal the provided
+     * codes. This compares the codes directly, so no strings or data row objects are touched.
+     * @param countyCode The county code to match, nullCode to match data rows without a county, or
+     *                   anyCode to match any county.
+     * @param stateOrProvinceCode The state or province code to match, nullCode to match data rows
+     *                            without a state or province, or anyCode to match any state or
+     *                            province.
+     * @param countryOrRegionCode The country or region code to match, nullCode to match data rows
+     *                            without a country or region, or anyCode to match any country or
+     *                            region.
+     * @return The sum of the confirmed cases of the matching data rows.
+     */
+    public int getConfirmedCasesSum(int countyCode, int stateOrProvinceCode, int countryOrRegionCode)
+    {
+        final boolean anyCounty = (countyCode == Covid19ColumnarDailyReport.anyCode);
+        final boolean anyStateOrProvince = (stateOrProvinceCode == Covid19ColumnarDailyReport.anyCode);
+        final boolean anyCountryOrRegion = (countryOrRegionCode == Covid19ColumnarDailyReport.anyCode);
+
+        int result = 0;
+        for (int dataRowIndex = 0; dataRowIndex < this.dataRowCount; ++dataRowIndex)
+        {
+            if ((anyCountryOrRegion || this.countryOrRegionCodes[dataRowIndex] == countryOrRegionCode) &&
+                (anyStateOrProvince || this.stateOrProvinceCodes[dataRowIndex] == stateOrProvinceCode) &&
+                (anyCounty || this.countyCodes[dataRowIndex] == countyCode))
+            {
+                result += this.confirmedCases[dataRowIndex];
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Covid19ColumnarDailyReport where(Covid19LocationCondition locationCondition)
+    {
+        PreCondition.assertNotNull(locationCondition, "locationCondition");
+
+        final Covid19ColumnarDailyReport result = Covid19ColumnarDailyReport.create(this.stringDictionary);
+        final Covid19CompiledLocationCondition compiledLocationCondition = this.stringDictionary.getCompiledCondition(locationCondition);
+        final Covid19LocationIndex locationIndex = this.getLocationIndex();
+        final Covid19RowBitmap candidateRows = locationIndex == null ? null : locationIndex.getCandidateRows(locationCondition);
+        for (int dataRowIndex = Covid19ColumnarDailyReport.nextRow(candidateRows, 0); dataRowIndex < this.dataRowCount; dataRowIndex = Covid19ColumnarDailyReport.nextRow(candidateRows, dataRowIndex + 1))
+        {
+            if (this.matches(compiledLocationCondition, dataRowIndex))
+            {
+                result.addDataRow(
+                    this.countyCodes[dataRowIndex],
+                    this.stateOrProvinceCodes[dataRowIndex],
+                    this.countryOrRegionCodes[dataRowIndex],
+                    !this.isConfirmedCasesNull(dataRowIndex),
+                    this.confirmedCases[dataRowIndex]);
+            }
+        }
+        return result;
+    }
+}
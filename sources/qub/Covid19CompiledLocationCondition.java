@@ -0,0 +1,960 @@
+package qub;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+
+/**
+ * A Covid19LocationCondition that has been compiled into a tree of specialized predicates so that
+ * it can be evaluated against many data rows without interpreting the condition each time. Nested
+ * groups with the same operator are flattened into one array, each property condition's property
+ * getter, operator, and expected value type are resolved once when the condition is compiled, and
+ * expected strings have their hash and Covid19StringDictionary code precomputed. Evaluating a
+ * compiled condition doesn't allocate any objects except for the rare conditions that compare
+ * confirmed cases against a string or a non-integer number.
+ */
+public abstract class Covid19CompiledLocationCondition
+{
+    private static final int countyProperty = 0;
+    private static final int stateOrProvinceProperty = 1;
+    private static final int countryOrRegionProperty = 2;
+    private static final int confirmedCasesProperty = 3;
+
+    private Covid19StringDictionary stringDictionary;
+
+    private Covid19CompiledLocationCondition()
+    {
+    }
+
+    /**
+     * Compile the provided condition so that it can be evaluated against data rows.
+     * @param condition The condition to compile.
+     * @return The compiled condition.
+     */
+    public static Covid19CompiledLocationCondition compile(Covid19LocationCondition condition)
+    {
+        return Covid19CompiledLocationCondition.compile(condition, Covid19StringDictionary.create());
+    }
+
+    /**
+     * Compile the provided condition so that it can be evaluated against data rows and against
+     * location codes from the provided dictionary. The strings in the condition are added to the
+     * dictionary so that the condition keeps working for codes that are added after it has been
+     * compiled.
+     * @param condition The condition to compile.
+     * @param stringDictionary The dictionary that the location codes passed to
+     *                         matches(int,int,int,boolean,int) come from.
+     * @return The compiled condition.
+     */
+    public static Covid19CompiledLocationCondition compile(Covid19LocationCondition condition, Covid19StringDictionary stringDictionary)
+    {
+        PreCondition.assertNotNull(condition, "condition");
+        PreCondition.assertNotNull(stringDictionary, "stringDictionary");
+
+        final Covid19CompiledLocationCondition result = Covid19CompiledLocationCondition.compileCondition(condition, stringDictionary, null);
+        result.stringDictionary = stringDictionary;
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Compile the provided condition so that it can be evaluated against data rows and against
+     * location codes from the provided dictionary. The Contains conditions whose substrings are
+     * patterns of the provided matcher get their matching location codes from the matcher, so many
+     * compiled conditions can share one scan of each distinct location string.
+     * @param condition The condition to compile.
+     * @param stringDictionary The dictionary that the location codes passed to
+     *                         matches(int,int,int,boolean,int) come from.
+     * @param substringMatcher The substring matcher to use for Contains conditions. It must match
+     *                         the strings of the provided dictionary.
+     * @return The compiled condition.
+     */
+    public static Covid19CompiledLocationCondition compile(Covid19LocationCondition condition, Covid19StringDictionary stringDictionary, Covid19SubstringMatcher substringMatcher)
+    {
+        PreCondition.assertNotNull(condition, "condition");
+        PreCondition.assertNotNull(stringDictionary, "stringDictionary");
+        PreCondition.assertNotNull(substringMatcher, "substringMatcher");
+        PreCondition.assertTrue(stringDictionary == substringMatcher.getStringDictionary(), "stringDictionary == substringMatcher.getStringDictionary()");
+
+        final Covid19CompiledLocationCondition result = Covid19CompiledLocationCondition.compileCondition(condition, stringDictionary, substringMatcher);
+        result.stringDictionary = stringDictionary;
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    private static Covid19CompiledLocationCondition compileCondition(Covid19LocationCondition condition, Covid19StringDictionary stringDictionary, Covid19SubstringMatcher substringMatcher)
+    {
+        Covid19CompiledLocationCondition result;
+        if (condition instanceof Covid19LocationGroupCondition)
+        {
+            result = Covid19CompiledLocationCondition.compileGroup((Covid19LocationGroupCondition)condition, stringDictionary, substringMatcher);
+        }
+        else if (condition instanceof Covid19LocationPropertyCondition)
+        {
+            result = Covid19CompiledLocationCondition.compileProperty((Covid19LocationPropertyCondition)condition, stringDictionary, substringMatcher);
+        }
+        else
+        {
+            result = new InterpretedCondition(condition, stringDictionary);
+        }
+        return result;
+    }
+
+    private static Covid19CompiledLocationCondition compileGroup(Covid19LocationGroupCondition condition, Covid19StringDictionary stringDictionary, Covid19SubstringMatcher substringMatcher)
+    {
+        final boolean isAnd = (condition.getOperator() == Covid19LocationGroupConditionOperator.And);
+
+        // A child that always has the group's short-circuit value decides the whole group, and a
+        // child that never has it can't change the group's result.
+        final List<Covid19CompiledLocationCondition> children = List.create();
+        Covid19CompiledLocationCondition result = null;
+        for (final Covid19LocationCondition childCondition : Covid19CompiledLocationCondition.flatten(condition))
+        {
+            final Covid19CompiledLocationCondition child = Covid19CompiledLocationCondition.compileCondition(childCondition, stringDictionary, substringMatcher);
+            if (child instanceof ConstantCondition)
+            {
+                if (((ConstantCondition)child).value != isAnd)
+                {
+                    result = child;
+                    break;
+                }
+            }
+            else
+            {
+                children.add(child);
+            }
+        }
+
+        if (result == null)
+        {
+            if (children.getCount() == 0)
+            {
+                result = ConstantCondition.create(isAnd);
+            }
+            else if (children.getCount() == 1)
+            {
+                result = children.get(0);
+            }
+            else
+            {
+                final Covid19CompiledLocationCondition[] childArray = new Covid19CompiledLocationCondition[children.getCount()];
+                for (int i = 0; i < childArray.length; ++i)
+                {
+                    childArray[i] = children.get(i);
+                }
+                result = isAnd ? new AndCondition(childArray) : new OrCondition(childArray);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the conditions of the provided group condition, with the conditions of any nested group
+     * conditions that have the same operator inlined in their place.
+     */
+    private static Iterable<Covid19LocationCondition> flatten(Covid19LocationGroupCondition condition)
+    {
+        final List<Covid19LocationCondition> result = List.create();
+        for (final Covid19LocationCondition childCondition : condition.getConditions())
+        {
+            if (childCondition instanceof Covid19LocationGroupCondition &&
+                ((Covid19LocationGroupCondition)childCondition).getOperator() == condition.getOperator())
+            {
+                result.addAll(Covid19CompiledLocationCondition.flatten((Covid19LocationGroupCondition)childCondition));
+            }
+            else
+            {
+                result.add(childCondition);
+            }
+        }
+        return result;
+    }
+
+    private static Covid19CompiledLocationCondition compileProperty(Covid19LocationPropertyCondition condition, Covid19StringDictionary stringDictionary, Covid19SubstringMatcher substringMatcher)
+    {
+        final int property = Covid19CompiledLocationCondition.getProperty(condition.getPropertyName());
+        final Covid19LocationPropertyConditionOperator operator = condition.getOperator();
+        final Object expectedPropertyValue = condition.getExpectedPropertyValue();
+
+        // These cases mirror Covid19LocationPropertyCondition.matches().
+        Covid19CompiledLocationCondition result;
+        if (operator == Covid19LocationPropertyConditionOperator.In)
+        {
+            result = Covid19CompiledLocationCondition.compileIn(property, condition.getExpectedPropertyValues(), stringDictionary);
+        }
+        else if (property == Covid19CompiledLocationCondition.confirmedCasesProperty)
+        {
+            if (expectedPropertyValue == null)
+            {
+                result = new ConfirmedCasesNullCondition();
+            }
+            else if (operator == Covid19LocationPropertyConditionOperator.Contains)
+            {
+                result = expectedPropertyValue instanceof String
+                    ? new ConfirmedCasesContainsCondition((String)expectedPropertyValue)
+                    : ConstantCondition.create(false);
+            }
+            else if (expectedPropertyValue instanceof Integer)
+            {
+                result = new ConfirmedCasesEqualsCondition((Integer)expectedPropertyValue);
+            }
+            else
+            {
+                result = new ConfirmedCasesComparerEqualsCondition(expectedPropertyValue);
+            }
+        }
+        else
+        {
+            if (expectedPropertyValue == null)
+            {
+                result = new LocationNullCondition(property);
+            }
+            else if (!(expectedPropertyValue instanceof String))
+            {
+                result = ConstantCondition.create(false);
+            }
+            else if (operator == Covid19LocationPropertyConditionOperator.Contains)
+            {
+                result = new LocationContainsCondition(property, (String)expectedPropertyValue, stringDictionary, substringMatcher);
+            }
+            else
+            {
+                result = new LocationEqualsCondition(property, (String)expectedPropertyValue, stringDictionary);
+            }
+        }
+        return result;
+    }
+
+    private static Covid19CompiledLocationCondition compileIn(int property, Iterable<Object> expectedPropertyValues, Covid19StringDictionary stringDictionary)
+    {
+        // Only the expected values that a property value can be equal to are kept.
+        boolean matchesNull = false;
+        final LinkedHashSet<Object> expectedValues = new LinkedHashSet<>();
+        for (final Object expectedPropertyValue : expectedPropertyValues)
+        {
+            final Object expectedValue = Covid19LocationPropertyCondition.normalizeNumber(expectedPropertyValue);
+            if (expectedValue == null)
+            {
+                matchesNull = true;
+            }
+            else if (property == Covid19CompiledLocationCondition.confirmedCasesProperty ? expectedValue instanceof Integer : expectedValue instanceof String)
+            {
+                expectedValues.add(expectedValue);
+            }
+        }
+
+        Covid19CompiledLocationCondition result;
+        if (property == Covid19CompiledLocationCondition.confirmedCasesProperty)
+        {
+            if (expectedValues.isEmpty())
+            {
+                result = matchesNull ? new ConfirmedCasesNullCondition() : ConstantCondition.create(false);
+            }
+            else if (!matchesNull && expectedValues.size() == 1)
+            {
+                result = new ConfirmedCasesEqualsCondition((Integer)expectedValues.iterator().next());
+            }
+            else
+            {
+                result = new ConfirmedCasesInCondition(expectedValues, matchesNull);
+            }
+        }
+        else
+        {
+            if (expectedValues.isEmpty())
+            {
+                result = matchesNull ? new LocationNullCondition(property) : ConstantCondition.create(false);
+            }
+            else if (!matchesNull && expectedValues.size() == 1)
+            {
+                result = new LocationEqualsCondition(property, (String)expectedValues.iterator().next(), stringDictionary);
+            }
+            else
+            {
+                result = new LocationInCondition(property, expectedValues, matchesNull, stringDictionary);
+            }
+        }
+        return result;
+    }
+
+    private static int getProperty(String propertyName)
+    {
+        int result;
+        if (Covid19DailyReportDataRow.countyPropertyName.equalsIgnoreCase(propertyName))
+        {
+            result = Covid19CompiledLocationCondition.countyProperty;
+        }
+        else if (Covid19DailyReportDataRow.stateOrProvincePropertyName.equalsIgnoreCase(propertyName))
+        {
+            result = Covid19CompiledLocationCondition.stateOrProvinceProperty;
+        }
+        else if (Covid19DailyReportDataRow.countryOrRegionPropertyName.equalsIgnoreCase(propertyName))
+        {
+            result = Covid19CompiledLocationCondition.countryOrRegionProperty;
+        }
+        else
+        {
+            result = Covid19CompiledLocationCondition.confirmedCasesProperty;
+        }
+        return result;
+    }
+
+    private static String getLocation(Covid19DailyReportDataRow dataRow, int property)
+    {
+        String result;
+        switch (property)
+        {
+            case Covid19CompiledLocationCondition.countyProperty:
+                result = dataRow.getCounty();
+                break;
+
+            case Covid19CompiledLocationCondition.stateOrProvinceProperty:
+                result = dataRow.getStateOrProvince();
+                break;
+
+            default:
+                result = dataRow.getCountryOrRegion();
+                break;
+        }
+        return result;
+    }
+
+    private static int getLocationCode(int property, int countyCode, int stateOrProvinceCode, int countryOrRegionCode)
+    {
+        int result;
+        switch (property)
+        {
+            case Covid19CompiledLocationCondition.countyProperty:
+                result = countyCode;
+                break;
+
+            case Covid19CompiledLocationCondition.stateOrProvinceProperty:
+                result = stateOrProvinceCode;
+                break;
+
+            default:
+                result = countryOrRegionCode;
+                break;
+        }
+        return result;
+    }
+
+    /**
+     * Get the dictionary that the location codes passed to matches(int,int,int,boolean,int) must
+     * come from.
+     * @return The dictionary that the location codes passed to matches(int,int,int,boolean,int)
+     * must come from.
+     */
+    public Covid19StringDictionary getStringDictionary()
+    {
+        return this.stringDictionary;
+    }
+
+    /**
+     * Get whether or not the provided data row matches this condition.
+     * @param dataRow The data row to check.
+     * @return Whether or not the provided data row matches this condition.
+     */
+    public abstract boolean matches(Covid19DailyReportDataRow dataRow);
+
+    /**
+     * Get whether or not a data row with the provided values matches this condition. The location
+     * codes must come from getStringDictionary().
+     * @param countyCode The county code of the data row.
+     * @param stateOrProvinceCode The state or province code of the data row.
+     * @param countryOrRegionCode The country or region code of the data row.
+     * @param hasConfirmedCases Whether or not the data row has confirmed cases.
+     * @param confirmedCases The confirmed cases of the data row.
+     * @return Whether or not a data row with the provided values matches this condition.
+     */
+    public abstract boolean matches(int countyCode, int stateOrProvinceCode, int countryOrRegionCode, boolean hasConfirmedCases, int confirmedCases);
+
+    /**
+     * Get the county, state or province, and country or region codes that a data row must have to
+     * match this condition, with Covid19ColumnarDailyReport.anyCode for the locations that this
+     * condition doesn't check. This returns null if this condition can't be described by exact
+     * location codes, such as when it uses Contains, Or, or the confirmed cases.
+     * @return The location codes that a data row must have to match this condition, or null.
+     */
+    int[] getLocationCodes()
+    {
+        return null;
+    }
+
+    /**
+     * Get whether or not this condition only checks the county, state or province, and country or
+     * region of a data row. If it does, then this condition has the same result for every data row
+     * that has the same location codes.
+     * @return Whether or not this condition only checks the location of a data row.
+     */
+    public boolean isLocationOnly()
+    {
+        return true;
+    }
+
+    private static int[] createAnyLocationCodes()
+    {
+        return new int[] { Covid19ColumnarDailyReport.anyCode, Covid19ColumnarDailyReport.anyCode, Covid19ColumnarDailyReport.anyCode };
+    }
+
+    private static class ConstantCondition extends Covid19CompiledLocationCondition
+    {
+        private final boolean value;
+
+        private ConstantCondition(boolean value)
+        {
+            this.value = value;
+        }
+
+        private static ConstantCondition create(boolean value)
+        {
+            return new ConstantCondition(value);
+        }
+
+        @Override
+        public boolean matches(Covid19DailyReportDataRow dataRow)
+        {
+            return this.value;
+        }
+
+        @Override
+        public boolean matches(int countyCode, int stateOrProvinceCode, int countryOrRegionCode, boolean hasConfirmedCases, int confirmedCases)
+        {
+            return this.value;
+        }
+
+        @Override
+        int[] getLocationCodes()
+        {
+            return this.value ? Covid19CompiledLocationCondition.createAnyLocationCodes() : null;
+        }
+    }
+
+    private static class AndCondition extends Covid19CompiledLocationCondition
+    {
+        private final Covid19CompiledLocationCondition[] conditions;
+
+        private AndCondition(Covid19CompiledLocationCondition[] conditions)
+        {
+            this.conditions = conditions;
+        }
+
+        @Override
+        public boolean matches(Covid19DailyReportDataRow dataRow)
+        {
+            boolean result = true;
+            for (final Covid19CompiledLocationCondition condition : this.conditions)
+            {
+                if (!condition.matches(dataRow))
+                {
+                    result = false;
+                    break;
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public boolean matches(int countyCode, int stateOrProvinceCode, int countryOrRegionCode, boolean hasConfirmedCases, int confirmedCases)
+        {
+            boolean result = true;
+            for (final Covid19CompiledLocationCondition condition : this.conditions)
+            {
+                if (!condition.matches(countyCode, stateOrProvinceCode, countryOrRegionCode, hasConfirmedCases, confirmedCases))
+                {
+                    result = false;
+                    break;
+                }
+            }
+            return result;
+        }
+
+        @Override
+        int[] getLocationCodes()
+        {
+            int[] result = Covid19CompiledLocationCondition.createAnyLocationCodes();
+            for (final Covid19CompiledLocationCondition condition : this.conditions)
+            {
+                final int[] conditionLocationCodes = condition.getLocationCodes();
+                if (conditionLocationCodes == null)
+                {
+                    result = null;
+                    break;
+                }
+
+                for (int property = 0; property < result.length; ++property)
+                {
+                    final int conditionLocationCode = conditionLocationCodes[property];
+                    if (conditionLocationCode != Covid19ColumnarDailyReport.anyCode)
+                    {
+                        if (result[property] == Covid19ColumnarDailyReport.anyCode)
+                        {
+                            result[property] = conditionLocationCode;
+                        }
+                        else if (result[property] != conditionLocationCode)
+                        {
+                            // Two different codes for the same location can't both match.
+                            result = null;
+                            break;
+                        }
+                    }
+                }
+                if (result == null)
+                {
+                    break;
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public boolean isLocationOnly()
+        {
+            boolean result = true;
+            for (final Covid19CompiledLocationCondition condition : this.conditions)
+            {
+                if (!condition.isLocationOnly())
+                {
+                    result = false;
+                    break;
+                }
+            }
+            return result;
+        }
+    }
+
+    private static class OrCondition extends Covid19CompiledLocationCondition
+    {
+        private final Covid19CompiledLocationCondition[] conditions;
+
+        private OrCondition(Covid19CompiledLocationCondition[] conditions)
+        {
+            this.conditions = conditions;
+        }
+
+        @Override
+        public boolean matches(Covid19DailyReportDataRow dataRow)
+        {
+            boolean result = false;
+            for (final Covid19CompiledLocationCondition condition : this.conditions)
+            {
+                if (condition.matches(dataRow))
+                {
+                    result = true;
+                    break;
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public boolean matches(int countyCode, int stateOrProvinceCode, int countryOrRegionCode, boolean hasConfirmedCases, int confirmedCases)
+        {
+            boolean result = false;
+            for (final Covid19CompiledLocationCondition condition : this.conditions)
+            {
+                if (condition.matches(countyCode, stateOrProvinceCode, countryOrRegionCode, hasConfirmedCases, confirmedCases))
+                {
+                    result = true;
+                    break;
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public boolean isLocationOnly()
+        {
+            boolean result = true;
+            for (final Covid19CompiledLocationCondition condition : this.conditions)
+            {
+                if (!condition.isLocationOnly())
+                {
+                    result = false;
+                    break;
+                }
+            }
+            return result;
+        }
+    }
+
+    private static class LocationNullCondition extends Covid19CompiledLocationCondition
+    {
+        private final int property;
+
+        private LocationNullCondition(int property)
+        {
+            this.property = property;
+        }
+
+        @Override
+        public boolean matches(Covid19DailyReportDataRow dataRow)
+        {
+            return Covid19CompiledLocationCondition.getLocation(dataRow, this.property) == null;
+        }
+
+        @Override
+        public boolean matches(int countyCode, int stateOrProvinceCode, int countryOrRegionCode, boolean hasConfirmedCases, int confirmedCases)
+        {
+            return Covid19CompiledLocationCondition.getLocationCode(this.property, countyCode, stateOrProvinceCode, countryOrRegionCode) == Covid19StringDictionary.nullCode;
+        }
+
+        @Override
+        int[] getLocationCodes()
+        {
+            final int[] result = Covid19CompiledLocationCondition.createAnyLocationCodes();
+            result[this.property] = Covid19StringDictionary.nullCode;
+            return result;
+        }
+    }
+
+    private static class LocationEqualsCondition extends Covid19CompiledLocationCondition
+    {
+        private final int property;
+        private final String expectedValue;
+        private final int expectedValueHash;
+        private final int expectedValueCode;
+
+        private LocationEqualsCondition(int property, String expectedValue, Covid19StringDictionary stringDictionary)
+        {
+            this.property = property;
+            this.expectedValue = expectedValue;
+            this.expectedValueHash = expectedValue.hashCode();
+            this.expectedValueCode = stringDictionary.getCode(expectedValue);
+        }
+
+        @Override
+        public boolean matches(Covid19DailyReportDataRow dataRow)
+        {
+            final String value = Covid19CompiledLocationCondition.getLocation(dataRow, this.property);
+            return value == this.expectedValue ||
+                (value != null && value.hashCode() == this.expectedValueHash && value.equals(this.expectedValue));
+        }
+
+        @Override
+        public boolean matches(int countyCode, int stateOrProvinceCode, int countryOrRegionCode, boolean hasConfirmedCases, int confirmedCases)
+        {
+            return Covid19CompiledLocationCondition.getLocationCode(this.property, countyCode, stateOrProvinceCode, countryOrRegionCode) == this.expectedValueCode;
+        }
+
+        @Override
+        int[] getLocationCodes()
+        {
+            final int[] result = Covid19CompiledLocationCondition.createAnyLocationCodes();
+            result[this.property] = this.expectedValueCode;
+            return result;
+        }
+    }
+
+    /**
+     * Checks whether a location contains an expected substring. Location codes are checked against
+     * the set of codes whose strings contain the substring, which is looked up in the shared
+     * substring matcher (or the dictionary's substring index if the matcher doesn't have the
+     * substring) the first time that it is needed and again whenever a code that is newer than
+     * the set is checked.
+     */
+    private static class LocationContainsCondition extends Covid19CompiledLocationCondition
+    {
+        private final int property;
+        private final String expectedSubstring;
+        private final Covid19StringDictionary stringDictionary;
+        private final Covid19SubstringMatcher substringMatcher;
+        private final int patternIndex;
+        private volatile MatchingCodes matchingCodes;
+
+        private LocationContainsCondition(int property, String expectedSubstring, Covid19StringDictionary stringDictionary, Covid19SubstringMatcher substringMatcher)
+        {
+            this.property = property;
+            this.expectedSubstring = expectedSubstring;
+            this.stringDictionary = stringDictionary;
+            this.patternIndex = substringMatcher == null ? -1 : substringMatcher.getPatternIndex(expectedSubstring);
+            this.substringMatcher = this.patternIndex == -1 ? null : substringMatcher;
+        }
+
+        @Override
+        public boolean matches(Covid19DailyReportDataRow dataRow)
+        {
+            final String value = Covid19CompiledLocationCondition.getLocation(dataRow, this.property);
+            return value != null && value.contains(this.expectedSubstring);
+        }
+
+        @Override
+        public boolean matches(int countyCode, int stateOrProvinceCode, int countryOrRegionCode, boolean hasConfirmedCases, int confirmedCases)
+        {
+            final int code = Covid19CompiledLocationCondition.getLocationCode(this.property, countyCode, stateOrProvinceCode, countryOrRegionCode);
+
+            boolean result = false;
+            if (code != Covid19StringDictionary.nullCode)
+            {
+                MatchingCodes matchingCodes = this.matchingCodes;
+                if (matchingCodes == null || matchingCodes.codeCount <= code)
+                {
+                    // Read the count first so that every code below it is in the index's result.
+                    final int codeCount = this.stringDictionary.getCount();
+                    matchingCodes = new MatchingCodes(
+                        this.substringMatcher != null
+                            ? this.substringMatcher.getCodesContaining(this.patternIndex)
+                            : this.stringDictionary.getSubstringIndex().getCodesContaining(this.expectedSubstring),
+                        codeCount);
+                    this.matchingCodes = matchingCodes;
+                }
+                result = matchingCodes.codes.get(code);
+            }
+            return result;
+        }
+
+        /**
+         * The codes that contain the expected substring, out of the codes that are less than
+         * codeCount.
+         */
+        private static class MatchingCodes
+        {
+            private final BitSet codes;
+            private final int codeCount;
+
+            private MatchingCodes(BitSet codes, int codeCount)
+            {
+                this.codes = codes;
+                this.codeCount = codeCount;
+            }
+        }
+    }
+
+    /**
+     * Checks whether a location is one of a set of expected values. Data rows are checked against
+     * a hash set of the expected strings and location codes are checked against a bit set of the
+     * expected strings' codes, so the cost doesn't depend on how many values are expected.
+     */
+    private static class LocationInCondition extends Covid19CompiledLocationCondition
+    {
+        private final int property;
+        private final HashSet<String> expectedValues;
+        private final BitSet expectedValueCodes;
+        private final boolean matchesNull;
+
+        private LocationInCondition(int property, Collection<Object> expectedValues, boolean matchesNull, Covid19StringDictionary stringDictionary)
+        {
+            this.property = property;
+            this.expectedValues = new HashSet<>();
+            this.expectedValueCodes = new BitSet();
+            for (final Object expectedValue : expectedValues)
+            {
+                final String expectedValueString = (String)expectedValue;
+                this.expectedValues.add(expectedValueString);
+                this.expectedValueCodes.set(stringDictionary.getCode(expectedValueString));
+            }
+            this.matchesNull = matchesNull;
+        }
+
+        @Override
+        public boolean matches(Covid19DailyReportDataRow dataRow)
+        {
+            final String value = Covid19CompiledLocationCondition.getLocation(dataRow, this.property);
+            return value == null ? this.matchesNull : this.expectedValues.contains(value);
+        }
+
+        @Override
+        public boolean matches(int countyCode, int stateOrProvinceCode, int countryOrRegionCode, boolean hasConfirmedCases, int confirmedCases)
+        {
+            final int code = Covid19CompiledLocationCondition.getLocationCode(this.property, countyCode, stateOrProvinceCode, countryOrRegionCode);
+            return code == Covid19StringDictionary.nullCode ? this.matchesNull : this.expectedValueCodes.get(code);
+        }
+    }
+
+    private static class ConfirmedCasesNullCondition extends Covid19CompiledLocationCondition
+    {
+        @Override
+        public boolean matches(Covid19DailyReportDataRow dataRow)
+        {
+            return dataRow.getConfirmedCases() == null;
+        }
+
+        @Override
+        public boolean matches(int countyCode, int stateOrProvinceCode, int countryOrRegionCode, boolean hasConfirmedCases, int confirmedCases)
+        {
+            return !hasConfirmedCases;
+        }
+
+        @Override
+        public boolean isLocationOnly()
+        {
+            return false;
+        }
+    }
+
+    private static class ConfirmedCasesEqualsCondition extends Covid19CompiledLocationCondition
+    {
+        private final int expectedValue;
+
+        private ConfirmedCasesEqualsCondition(int expectedValue)
+        {
+            this.expectedValue = expectedValue;
+        }
+
+        @Override
+        public boolean matches(Covid19DailyReportDataRow dataRow)
+        {
+            final Integer value = dataRow.getConfirmedCases();
+            return value != null && value == this.expectedValue;
+        }
+
+        @Override
+        public boolean matches(int countyCode, int stateOrProvinceCode, int countryOrRegionCode, boolean hasConfirmedCases, int confirmedCases)
+        {
+            return hasConfirmedCases && confirmedCases == this.expectedValue;
+        }
+
+        @Override
+        public boolean isLocationOnly()
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Compares confirmed cases against an expected value that isn't an Integer the same way that
+     * Covid19LocationPropertyCondition does.
+     */
+    private static class ConfirmedCasesComparerEqualsCondition extends Covid19CompiledLocationCondition
+    {
+        private final Object expectedValue;
+
+        private ConfirmedCasesComparerEqualsCondition(Object expectedValue)
+        {
+            this.expectedValue = expectedValue;
+        }
+
+        @Override
+        public boolean matches(Covid19DailyReportDataRow dataRow)
+        {
+            return Comparer.equal(dataRow.getConfirmedCases(), this.expectedValue);
+        }
+
+        @Override
+        public boolean matches(int countyCode, int stateOrProvinceCode, int countryOrRegionCode, boolean hasConfirmedCases, int confirmedCases)
+        {
+            return Comparer.equal(hasConfirmedCases ? Integer.valueOf(confirmedCases) : null, this.expectedValue);
+        }
+
+        @Override
+        public boolean isLocationOnly()
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether the confirmed cases are one of a set of expected values. The expected values
+     * are kept in a sorted array so that checking a value doesn't box it.
+     */
+    private static class ConfirmedCasesInCondition extends Covid19CompiledLocationCondition
+    {
+        private final int[] expectedValues;
+        private final boolean matchesNull;
+
+        private ConfirmedCasesInCondition(Collection<Object> expectedValues, boolean matchesNull)
+        {
+            this.expectedValues = new int[expectedValues.size()];
+            int i = 0;
+            for (final Object expectedValue : expectedValues)
+            {
+                this.expectedValues[i] = (Integer)expectedValue;
+                ++i;
+            }
+            Arrays.sort(this.expectedValues);
+            this.matchesNull = matchesNull;
+        }
+
+        @Override
+        public boolean matches(Covid19DailyReportDataRow dataRow)
+        {
+            final Integer value = dataRow.getConfirmedCases();
+            return value == null ? this.matchesNull : Arrays.binarySearch(this.expectedValues, value) >= 0;
+        }
+
+        @Override
+        public boolean matches(int countyCode, int stateOrProvinceCode, int countryOrRegionCode, boolean hasConfirmedCases, int confirmedCases)
+        {
+            return hasConfirmedCases ? Arrays.binarySearch(this.expectedValues, confirmedCases) >= 0 : this.matchesNull;
+        }
+
+        @Override
+        public boolean isLocationOnly()
+        {
+            return false;
+        }
+    }
+
+    private static class ConfirmedCasesContainsCondition extends Covid19CompiledLocationCondition
+    {
+        private final String expectedSubstring;
+
+        private ConfirmedCasesContainsCondition(String expectedSubstring)
+        {
+            this.expectedSubstring = expectedSubstring;
+        }
+
+        @Override
+        public boolean matches(Covid19DailyReportDataRow dataRow)
+        {
+            final Integer value = dataRow.getConfirmedCases();
+            return value != null && value.toString().contains(this.expectedSubstring);
+        }
+
+        @Override
+        public boolean matches(int countyCode, int stateOrProvinceCode, int countryOrRegionCode, boolean hasConfirmedCases, int confirmedCases)
+        {
+            return hasConfirmedCases && Integer.toString(confirmedCases).contains(this.expectedSubstring);
+        }
+
+        @Override
+        public boolean isLocationOnly()
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Evaluates a Covid19LocationCondition implementation that can't be compiled by calling its
+     * matches() method.
+     */
+    private static class InterpretedCondition extends Covid19CompiledLocationCondition
+    {
+        private final Covid19LocationCondition condition;
+        private final Covid19StringDictionary stringDictionary;
+
+        private InterpretedCondition(Covid19LocationCondition condition, Covid19StringDictionary stringDictionary)
+        {
+            this.condition = condition;
+            this.stringDictionary = stringDictionary;
+        }
+
+        @Override
+        public boolean matches(Covid19DailyReportDataRow dataRow)
+        {
+            return this.condition.matches(dataRow);
+        }
+
+        @Override
+        public boolean matches(int countyCode, int stateOrProvinceCode, int countryOrRegionCode, boolean hasConfirmedCases, int confirmedCases)
+        {
+            return this.condition.matches(Covid19DailyReportDataRow.create().setAll(
+                this.stringDictionary.getString(countyCode),
+                this.stringDictionary.getString(stateOrProvinceCode),
+                this.stringDictionary.getString(countryOrRegionCode),
+                hasConfirmedCases ? confirmedCases : null));
+        }
+
+        @Override
+        public boolean isLocationOnly()
+        {
+            return false;
+        }
+    }
+}
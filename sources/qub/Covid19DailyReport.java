@@ -5,6 +5,13 @@ package qub;
  */
 public class Covid19DailyReport
 {
+    /**
+     * The dictionary that conditions are compiled against when they are evaluated against data
+     * rows, so that each condition is only compiled once. It only holds the strings of the
+     * conditions, never the strings of the data rows.
+     */
+    private static final Covid19StringDictionary locationConditionDictionary = Covid19StringDictionary.create();
+
     private final Iterable<Covid19DailyReportDataRow> dataRows;
 
     private Covid19DailyReport(Iterable<Covid19DailyReportDataRow> dataRows)
@@ -14,6 +21,14 @@ public class Covid19DailyReport
         this.dataRows = dataRows;
     }
 
+    /**
+     * Create a daily report whose data rows are provided by overriding getDataRows().
+     */
+    Covid19DailyReport()
+    {
+        this.dataRows = null;
+    }
+
     public static Covid19DailyReport create(Iterable<Covid19DailyReportDataRow> dataRows)
     {
         PreCondition.assertNotNull(dataRows, "dataRows");
@@ -43,55 +58,13 @@ public class Covid19DailyReport
                 final Covid19DailyReportColumnMapping columnMapping = Covid19DailyReportColumnMapping.parse(csvDocument.getRow(0)).await();
                 for (final CSVRow csvRow : csvDocument.getRows().skipFirst())
                 {
-                    final Covid19DailyReportDataRow dataRow = Covid19DailyReportDataRow.create();
-
-                    final String county = columnMapping.getCounty(csvRow).catchError().await();
-                    if (!Strings.isNullOrEmpty(county))
-                    {
-                        dataRow.setCounty(county);
-                    }
-
-                    final String stateOrProvince = columnMapping.getStateOrProvince(csvRow).catchError().await();
-                    if (!Strings.isNullOrEmpty(stateOrProvince))
-                    {
-                        dataRow.setStateOrProvince(stateOrProvince);
-                    }
-
-                    final String countryOrRegion = columnMapping.getCountryOrRegion(csvRow).catchError().await();
-                    if (!Strings.isNullOrEmpty(countryOrRegion))
-                    {
-                        dataRow.setCountryOrRegion(countryOrRegion);
-                    }
-
-                    columnMapping.getConfirmedCases(csvRow)
-                        .then(dataRow::setConfirmedCases)
-                        .catchError((Throwable error) ->
-                        {
-                            final CharacterList message = CharacterList.create();
-
-                            message.addAll(error.getMessage());
-
-                            final List<String> additionalDetails = List.create();
-                            additionalDetails.add("file path: " + Strings.escapeAndQuote(filePath));
-
-                            if (!Strings.isNullOrEmpty(countryOrRegion))
-                            {
-                                additionalDetails.add("country or region: " + Strings.escapeAndQuote(countryOrRegion));
-                            }
-
-                            if (!Strings.isNullOrEmpty(stateOrProvince))
-                            {
-                                additionalDetails.add("state or province: " + Strings.escapeAndQuote(stateOrProvince));
-                            }
-
-                            message.add(' ');
-                            message.addAll(Iterable.toString(additionalDetails, '(', ')'));
-
-                            onIssue.run(Covid19Issue.create(message.toString(true)).setFilePath(filePath));
-                        })
-                        .await();
-
-                    dataRows.add(dataRow);
+                    dataRows.add(Covid19DailyReport.createDataRow(
+                        columnMapping.getCounty(csvRow).catchError().await(),
+                        columnMapping.getStateOrProvince(csvRow).catchError().await(),
+                        columnMapping.getCountryOrRegion(csvRow).catchError().await(),
+                        columnMapping.getConfirmedCases(csvRow),
+                        filePath,
+                        onIssue));
                 }
             }
 
@@ -104,9 +77,43 @@ public class Covid19DailyReport
         PreCondition.assertNotNull(file, "file");
         PreCondition.assertNotNull(onIssue, "onIssue");
 
+        return Covid19DailyReport.parse(file, null, onIssue);
+    }
+
+    /**
+     * Parse the data rows from the provided file that match the provided location condition.
+     * @param file The daily report file to parse.
+     * @param locationCondition The condition that data rows must match in order to be included in
+     *                          the returned daily report, or null to include every data row.
+     * @param onIssue The action that will be invoked when an issue is found in a matching data row.
+     * @return The parsed daily report.
+     */
+    public static Result<Covid19DailyReport> parse(File file, Covid19LocationCondition locationCondition, Action1<Covid19Issue> onIssue)
+    {
+        PreCondition.assertNotNull(file, "file");
+        PreCondition.assertNotNull(onIssue, "onIssue");
+
+        return Covid19DailyReport.parse(file, locationCondition, null, onIssue);
+    }
+
+    /**
+     * Parse the data rows from the provided file that match the provided location condition.
+     * @param file The daily report file to parse.
+     * @param locationCondition The condition that data rows must match in order to be included in
+     *                          the returned daily report, or null to include every data row.
+     * @param stringDictionary The dictionary that the location strings will be canonicalized
+     *                         through, or null to not canonicalize the location strings.
+     * @param onIssue The action that will be invoked when an issue is found in a matching data row.
+     * @return The parsed daily report.
+     */
+    public static Result<Covid19DailyReport> parse(File file, Covid19LocationCondition locationCondition, Covid19StringDictionary stringDictionary, Action1<Covid19Issue> onIssue)
+    {
+        PreCondition.assertNotNull(file, "file");
+        PreCondition.assertNotNull(onIssue, "onIssue");
+
         return Result.createUsing(
             () -> ByteReadStream.buffer(file.getContentsReadStream().await()),
-            (ByteReadStream byteReadStream) -> Covid19DailyReport.parse(byteReadStream, file.getPath(), onIssue).await());
+            (ByteReadStream byteReadStream) -> Covid19DailyReport.parse(byteReadStream, file.getPath(), locationCondition, stringDictionary, onIssue).await());
     }
 
     public static Result<Covid19DailyReport> parse(ByteReadStream byteReadStream, Path filePath, Action1<Covid19Issue> onIssue)
@@ -116,18 +123,197 @@ public class Covid19DailyReport
         PreCondition.assertNotNull(filePath, "filePath");
         PreCondition.assertNotNull(onIssue, "onIssue");
 
+        return Covid19DailyReport.parse(byteReadStream, filePath, null, onIssue);
+    }
+
+    /**
+     * Parse the data rows from the provided stream that match the provided location condition.
+     * @param byteReadStream The stream to parse the daily report from.
+     * @param filePath The path of the daily report file that is being parsed.
+     * @param locationCondition The condition that data rows must match in order to be included in
+     *                          the returned daily report, or null to include every data row.
+     * @param onIssue The action that will be invoked when an issue is found in a matching data row.
+     * @return The parsed daily report.
+     */
+    public static Result<Covid19DailyReport> parse(ByteReadStream byteReadStream, Path filePath, Covid19LocationCondition locationCondition, Action1<Covid19Issue> onIssue)
+    {
+        PreCondition.assertNotNull(byteReadStream, "byteReadStream");
+        PreCondition.assertNotDisposed(byteReadStream, "byteReadStream");
+        PreCondition.assertNotNull(filePath, "filePath");
+        PreCondition.assertNotNull(onIssue, "onIssue");
+
+        return Covid19DailyReport.parse(byteReadStream, filePath, locationCondition, null, onIssue);
+    }
+
+    /**
+     * Parse the data rows from the provided stream that match the provided location condition.
+     * @param byteReadStream The stream to parse the daily report from.
+     * @param filePath The path of the daily report file that is being parsed.
+     * @param locationCondition The condition that data rows must match in order to be included in
+     *                          the returned daily report, or null to include every data row.
+     * @param stringDictionary The dictionary that the location strings will be canonicalized
+     *                         through, or null to not canonicalize the location strings. If a
+     *                         dictionary is provided, then the returned daily report will be a
+     *                         Covid19ColumnarDailyReport.
+     * @param onIssue The action that will be invoked when an issue is found in a matching data row.
+     * @return The parsed daily report.
+     */
+    public static Result<Covid19DailyReport> parse(ByteReadStream byteReadStream, Path filePath, Covid19LocationCondition locationCondition, Covid19StringDictionary stringDictionary, Action1<Covid19Issue> onIssue)
+    {
+        PreCondition.assertNotNull(byteReadStream, "byteReadStream");
+        PreCondition.assertNotDisposed(byteReadStream, "byteReadStream");
+        PreCondition.assertNotNull(filePath, "filePath");
+        PreCondition.assertNotNull(onIssue, "onIssue");
+
         return Result.create(() ->
         {
-            final CSVDocument csvDocument = CSV.parse(byteReadStream).await();
-            return Covid19DailyReport.parse(csvDocument, filePath, onIssue).await();
+            final Covid19DailyReportReader reader = Covid19DailyReportReader.create(byteReadStream, filePath, onIssue).await()
+                .setLocationCondition(locationCondition)
+                .setStringDictionary(stringDictionary);
+
+            Covid19DailyReport result;
+            if (stringDictionary != null)
+            {
+                final Covid19ColumnarDailyReport columnarDailyReport = Covid19ColumnarDailyReport.create(stringDictionary);
+                reader.readDataRows((Covid19DailyReportDataRow dataRow) ->
+                {
+                    columnarDailyReport.addDataRow(dataRow);
+                    return true;
+                }).await();
+                result = columnarDailyReport;
+            }
+            else
+            {
+                final List<Covid19DailyReportDataRow> dataRows = List.create();
+                reader.readDataRows((Covid19DailyReportDataRow dataRow) ->
+                {
+                    dataRows.add(dataRow);
+                    return true;
+                }).await();
+                result = Covid19DailyReport.create(dataRows);
+            }
+            return result;
         });
     }
 
+    static Covid19DailyReportDataRow createDataRow(String county, String stateOrProvince, String countryOrRegion, int confirmedCases)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(confirmedCases, 0, "confirmedCases");
+
+        return Covid19DailyReport.createDataRow(county, stateOrProvince, countryOrRegion)
+            .setConfirmedCases(confirmedCases);
+    }
+
+    static Covid19DailyReportDataRow createDataRow(String county, String stateOrProvince, String countryOrRegion, Result<Integer> confirmedCases, Path filePath, Action1<Covid19Issue> onIssue)
+    {
+        PreCondition.assertNotNull(confirmedCases, "confirmedCases");
+        PreCondition.assertNotNull(filePath, "filePath");
+        PreCondition.assertNotNull(onIssue, "onIssue");
+
+        final Covid19DailyReportDataRow dataRow = Covid19DailyReport.createDataRow(county, stateOrProvince, countryOrRegion);
+
+        confirmedCases
+            .then(dataRow::setConfirmedCases)
+            .catchError((Throwable error) ->
+            {
+                final CharacterList message = CharacterList.create();
+
+                message.addAll(error.getMessage());
+
+                final List<String> additionalDetails = List.create();
+                additionalDetails.add("file path: " + Strings.escapeAndQuote(filePath));
+
+                if (!Strings.isNullOrEmpty(countryOrRegion))
+                {
+                    additionalDetails.add("country or region: " + Strings.escapeAndQuote(countryOrRegion));
+                }
+
+                if (!Strings.isNullOrEmpty(stateOrProvince))
+                {
+                    additionalDetails.add("state or province: " + Strings.escapeAndQuote(stateOrProvince));
+                }
+
+                message.add(' ');
+                message.addAll(Iterable.toString(additionalDetails, '(', ')'));
+
+                onIssue.run(Covid19Issue.create(message.toString(true)).setFilePath(filePath));
+            })
+            .await();
+
+        return dataRow;
+    }
+
+    private static Covid19DailyReportDataRow createDataRow(String county, String stateOrProvince, String countryOrRegion)
+    {
+        final Covid19DailyReportDataRow result = Covid19DailyReportDataRow.create();
+
+        if (!Strings.isNullOrEmpty(county))
+        {
+            result.setCounty(county);
+        }
+
+        if (!Strings.isNullOrEmpty(stateOrProvince))
+        {
+            result.setStateOrProvince(stateOrProvince);
+        }
+
+        if (!Strings.isNullOrEmpty(countryOrRegion))
+        {
+            result.setCountryOrRegion(countryOrRegion);
+        }
+
+        return result;
+    }
+
     public Iterable<Covid19DailyReportDataRow> getDataRows()
     {
         return this.dataRows;
     }
 
+    public int getDataRowCount()
+    {
+        return this.getDataRows().getCount();
+    }
+
+    /**
+     * Get the sum of the confirmed cases of the data rows that match the provided condition. Data
+     * rows that don't have confirmed cases are skipped.
+     * @param locationCondition The condition that data rows must match in order to be counted, or
+     *                          null to count every data row.
+     * @return The sum of the confirmed cases of the matching data rows.
+     */
+    public int getConfirmedCasesSum(Covid19LocationCondition locationCondition)
+    {
+        final Covid19CompiledLocationCondition compiledLocationCondition = locationCondition == null ? null : Covid19DailyReport.locationConditionDictionary.getCompiledCondition(locationCondition);
+
+        int result = 0;
+        for (final Covid19DailyReportDataRow dataRow : this.getDataRows())
+        {
+            final Integer confirmedCases = dataRow.getConfirmedCases();
+            if (confirmedCases != null && (compiledLocationCondition == null || compiledLocationCondition.matches(dataRow)))
+            {
+                result += confirmedCases;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get a daily report that only contains the data rows of this daily report that match the
+     * provided condition.
+     * @param locationCondition The condition that data rows must match.
+     * @return A daily report that only contains the matching data rows.
+     */
+    public Covid19DailyReport where(Covid19LocationCondition locationCondition)
+    {
+        PreCondition.assertNotNull(locationCondition, "locationCondition");
+
+        final Covid19CompiledLocationCondition compiledLocationCondition = Covid19DailyReport.locationConditionDictionary.getCompiledCondition(locationCondition);
+        return Covid19DailyReport.create(this.getDataRows()
+            .where(compiledLocationCondition::matches)
+            .toList());
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -137,6 +323,6 @@ public class Covid19DailyReport
     public boolean equals(Covid19DailyReport rhs)
     {
         return rhs != null &&
-            this.dataRows.equals(rhs.dataRows);
+            this.getDataRows().equals(rhs.getDataRows());
     }
 }
@@ -0,0 +1,279 @@
+package qub;
+
+import java.util.LinkedHashMap;
+
+/**
+ * A bounded, least-recently-used cache of parsed daily reports. The cache is bounded both by the
+ * number of reports that it holds and by the total number of data rows (the weight) of those
+ * reports.
+ */
+public class Covid19DailyReportCache
+{
+    public static final int defaultMaximumReportCount = 64;
+    public static final long defaultMaximumWeight = 2_000_000;
+
+    private final LinkedHashMap<Integer,Entry> entries;
+    private int maximumReportCount;
+    private long maximumWeight;
+    private long weight;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    private Covid19DailyReportCache()
+    {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.maximumReportCount = Covid19DailyReportCache.defaultMaximumReportCount;
+        this.maximumWeight = Covid19DailyReportCache.defaultMaximumWeight;
+    }
+
+    /**
+     * Create a new empty cache with the default bounds.
+     * @return The new cache.
+     */
+    public static Covid19DailyReportCache create()
+    {
+        return new Covid19DailyReportCache();
+    }
+
+    /**
+     * Get the maximum number of daily reports that this cache will hold.
+     * @return The maximum number of daily reports that this cache will hold.
+     */
+    public synchronized int getMaximumReportCount()
+    {
+        return this.maximumReportCount;
+    }
+
+    /**
+     * Set the maximum number of daily reports that this cache will hold. If the cache currently
+     * holds more reports than the new maximum, then the least recently used reports will be
+     * evicted.
+     * @param maximumReportCount The maximum number of daily reports that this cache will hold.
+     * @return This object for method chaining.
+     */
+    public synchronized Covid19DailyReportCache setMaximumReportCount(int maximumReportCount)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(maximumReportCount, 0, "maximumReportCount");
+
+        this.maximumReportCount = maximumReportCount;
+        this.evict();
+
+        return this;
+    }
+
+    /**
+     * Get the maximum total number of data rows that this cache will hold.
+     * @return The maximum total number of data rows that this cache will hold.
+     */
+    public synchronized long getMaximumWeight()
+    {
+        return this.maximumWeight;
+    }
+
+    /**
+     * Set the maximum total number of data rows that this cache will hold. If the cache currently
+     * holds more data rows than the new maximum, then the least recently used reports will be
+     * evicted.
+     * @param maximumWeight The maximum total number of data rows that this cache will hold.
+     * @return This object for method chaining.
+     */
+    public synchronized Covid19DailyReportCache setMaximumWeight(long maximumWeight)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(maximumWeight, 0L, "maximumWeight");
+
+        this.maximumWeight = maximumWeight;
+        this.evict();
+
+        return this;
+    }
+
+    /**
+     * Get the number of daily reports that are currently in this cache.
+     * @return The number of daily reports that are currently in this cache.
+     */
+    public synchronized int getReportCount()
+    {
+        return this.entries.size();
+    }
+
+    /**
+     * Get the total number of data rows of the daily reports that are currently in this cache.
+     * @return The total number of data rows of the daily reports that are currently in this cache.
+     */
+    public synchronized long getWeight()
+    {
+        return this.weight;
+    }
+
+    /**
+     * Get the number of times that get() found the requested daily report in this cache.
+     * @return The number of times that get() found the requested daily report in this cache.
+     */
+    public synchronized long getHitCount()
+    {
+        return this.hitCount;
+    }
+
+    /**
+     * Get the number of times that get() didn't find the requested daily report in this cache.
+     * @return The number of times that get() didn't find the requested daily report in this cache.
+     */
+    public synchronized long getMissCount()
+    {
+        return this.missCount;
+    }
+
+    /**
+     * Get the number of daily reports that have been evicted from this cache to stay within its
+     * bounds.
+     * @return The number of daily reports that have been evicted from this cache.
+     */
+    public synchronized long getEvictionCount()
+    {
+        return this.evictionCount;
+    }
+
+    /**
+     * Get whether or not this cache contains a daily report for the provided date. This does not
+     * affect the hit/miss counts or the least recently used order.
+     * @param date The date to look for.
+     * @return Whether or not this cache contains a daily report for the provided date.
+     */
+    public synchronized boolean contains(DateTime date)
+    {
+        PreCondition.assertNotNull(date, "date");
+
+        return this.entries.containsKey(Covid19DailyReportFileIndex.getEpochDay(date));
+    }
+
+    /**
+     * Get the cached daily report for the provided date. Any issues that were reported when the
+     * daily report was originally loaded will be reported again to the provided onIssue action.
+     * @param date The date of the daily report to get.
+     * @param onIssue The action that will be invoked for each of the daily report's issues.
+     * @return The cached daily report, or a NotFoundException if the daily report isn't cached.
+     */
+    public Result<Covid19DailyReport> get(DateTime date, Action1<Covid19Issue> onIssue)
+    {
+        PreCondition.assertNotNull(date, "date");
+        PreCondition.assertNotNull(onIssue, "onIssue");
+
+        return Result.create(() ->
+        {
+            final Entry entry;
+            synchronized (this)
+            {
+                entry = this.entries.get(Covid19DailyReportFileIndex.getEpochDay(date));
+                if (entry == null)
+                {
+                    ++this.missCount;
+                }
+                else
+                {
+                    ++this.hitCount;
+                }
+            }
+
+            if (entry == null)
+            {
+                throw new NotFoundException("No daily report is cached for the date " + QubCovid19.toString(date) + ".");
+            }
+
+            for (final Covid19Issue issue : entry.issues)
+            {
+                onIssue.run(issue);
+            }
+            return entry.dailyReport;
+        });
+    }
+
+    /**
+     * Add the provided daily report to this cache, evicting the least recently used daily reports
+     * if necessary. A daily report that is heavier than this cache's maximum weight will not be
+     * cached.
+     * @param date The date of the daily report.
+     * @param dailyReport The daily report to cache.
+     * @param issues The issues that were reported when the daily report was loaded.
+     * @return This object for method chaining.
+     */
+    public synchronized Covid19DailyReportCache set(DateTime date, Covid19DailyReport dailyReport, Iterable<Covid19Issue> issues)
+    {
+        PreCondition.assertNotNull(date, "date");
+        PreCondition.assertNotNull(dailyReport, "dailyReport");
+        PreCondition.assertNotNull(issues, "issues");
+
+        final int epochDay = Covid19DailyReportFileIndex.getEpochDay(date);
+        this.removeEntry(epochDay);
+
+        final Entry entry = new Entry(dailyReport, issues.toList(), dailyReport.getDataRowCount());
+        if (entry.weight <= this.maximumWeight && this.maximumReportCount > 0)
+        {
+            this.entries.put(epochDay, entry);
+            this.weight += entry.weight;
+            this.evict();
+        }
+
+        return this;
+    }
+
+    /**
+     * Remove the daily report for the provided date from this cache.
+     * @param date The date of the daily report to remove.
+     * @return Whether or not a daily report was removed.
+     */
+    public synchronized boolean remove(DateTime date)
+    {
+        PreCondition.assertNotNull(date, "date");
+
+        return this.removeEntry(Covid19DailyReportFileIndex.getEpochDay(date));
+    }
+
+    /**
+     * Remove all of the daily reports from this cache. The hit and miss counts are not reset.
+     * @return This object for method chaining.
+     */
+    public synchronized Covid19DailyReportCache clear()
+    {
+        this.entries.clear();
+        this.weight = 0;
+
+        return this;
+    }
+
+    private boolean removeEntry(int epochDay)
+    {
+        final Entry removedEntry = this.entries.remove(epochDay);
+        if (removedEntry != null)
+        {
+            this.weight -= removedEntry.weight;
+        }
+        return removedEntry != null;
+    }
+
+    private void evict()
+    {
+        final java.util.Iterator<Entry> iterator = this.entries.values().iterator();
+        while (iterator.hasNext() && (this.entries.size() > this.maximumReportCount || this.weight > this.maximumWeight))
+        {
+            final Entry leastRecentlyUsedEntry = iterator.next();
+            iterator.remove();
+            this.weight -= leastRecentlyUsedEntry.weight;
+            ++this.evictionCount;
+        }
+    }
+
+    private static class Entry
+    {
+        private final Covid19DailyReport dailyReport;
+        private final Iterable<Covid19Issue> issues;
+        private final long weight;
+
+        private Entry(Covid19DailyReport dailyReport, Iterable<Covid19Issue> issues, long weight)
+        {
+            this.dailyReport = dailyReport;
+            this.issues = issues;
+            this.weight = weight;
+        }
+    }
+}
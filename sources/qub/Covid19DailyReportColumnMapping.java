@@ -1,5 +1,7 @@
 package qub;
 
+import java.util.TreeSet;
+
 /**
  * A mapping that determines which columns map to which data values.
  */
@@ -46,8 +48,14 @@ public class Covid19DailyReportColumnMapping
         {
             final Covid19DailyReportColumnMapping result = Covid19DailyReportColumnMapping.create();
             int columnIndex = 0;
-            for (final String columnHeader : headerRow)
+            for (String columnHeader : headerRow)
             {
+                // Some of the daily reports start with a UTF-8 byte order mark.
+                if (columnIndex == 0 && columnHeader != null && columnHeader.startsWith("\uFEFF"))
+                {
+                    columnHeader = columnHeader.substring(1);
+                }
+
                 if (Covid19DailyReportColumnMapping.columnHeaderMatches(columnHeader, Covid19DailyReportColumnMapping.countyHeaderNames))
                 {
                     if (result.hasCountyColumn())
@@ -133,21 +141,17 @@ public class Covid19DailyReportColumnMapping
     {
         PreCondition.assertNotNull(csvRow, "csvRow");
 
-        return Result.create(() ->
-        {
-            if (!this.hasCountyColumn())
-            {
-                throw new NotSupportedException("No county column index was detected.");
-            }
+        return this.getCounty(csvRow.getCellCount(), csvRow::getCell);
+    }
 
-            final int countyColumnIndex = this.getCountyColumnIndex();
-            if (csvRow.getCellCount() <= countyColumnIndex)
-            {
-                throw new NotFoundException("No county column was found in the CSV row.");
-            }
+    public Result<String> getCounty(int cellCount, Function1<Integer,String> getCell)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(cellCount, 0, "cellCount");
+        PreCondition.assertNotNull(getCell, "getCell");
 
-            return csvRow.getCell(countyColumnIndex);
-        });
+        return Covid19DailyReportColumnMapping.getCell(this.countyColumnIndex, cellCount, getCell,
+            "No county column index was detected.",
+            "No county column was found in the CSV row.");
     }
 
     public Integer getStateOrProvinceColumnIndex()
@@ -173,21 +177,17 @@ public class Covid19DailyReportColumnMapping
     {
         PreCondition.assertNotNull(csvRow, "csvRow");
 
-        return Result.create(() ->
-        {
-            if (!this.hasStateOrProvinceColumn())
-            {
-                throw new NotSupportedException("No county column index was detected.");
-            }
+        return this.getStateOrProvince(csvRow.getCellCount(), csvRow::getCell);
+    }
 
-            final int stateOrProvinceColumnIndex = this.getStateOrProvinceColumnIndex();
-            if (csvRow.getCellCount() <= stateOrProvinceColumnIndex)
-            {
-                throw new NotFoundException("No state/province column was found in the CSV row.");
-            }
+    public Result<String> getStateOrProvince(int cellCount, Function1<Integer,String> getCell)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(cellCount, 0, "cellCount");
+        PreCondition.assertNotNull(getCell, "getCell");
 
-            return csvRow.getCell(stateOrProvinceColumnIndex);
-        });
+        return Covid19DailyReportColumnMapping.getCell(this.stateOrProvinceColumnIndex, cellCount, getCell,
+            "No county column index was detected.",
+            "No state/province column was found in the CSV row.");
     }
 
     public Integer getCountryOrRegionColumnIndex()
@@ -213,21 +213,17 @@ public class Covid19DailyReportColumnMapping
     {
         PreCondition.assertNotNull(csvRow, "csvRow");
 
-        return Result.create(() ->
-        {
-            if (!this.hasCountryOrRegionColumn())
-            {
-                throw new NotSupportedException("No country/region column index was detected.");
-            }
+        return this.getCountryOrRegion(csvRow.getCellCount(), csvRow::getCell);
+    }
 
-            final int countryOrRegionColumnIndex = this.getCountryOrRegionColumnIndex();
-            if (csvRow.getCellCount() <= countryOrRegionColumnIndex)
-            {
-                throw new NotFoundException("No country/region column was found in the CSV row.");
-            }
+    public Result<String> getCountryOrRegion(int cellCount, Function1<Integer,String> getCell)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(cellCount, 0, "cellCount");
+        PreCondition.assertNotNull(getCell, "getCell");
 
-            return csvRow.getCell(countryOrRegionColumnIndex);
-        });
+        return Covid19DailyReportColumnMapping.getCell(this.countryOrRegionColumnIndex, cellCount, getCell,
+            "No country/region column index was detected.",
+            "No country/region column was found in the CSV row.");
     }
 
     public Integer getConfirmedCasesColumnIndex()
@@ -253,20 +249,50 @@ public class Covid19DailyReportColumnMapping
     {
         PreCondition.assertNotNull(csvRow, "csvRow");
 
+        return this.getConfirmedCases(csvRow.getCellCount(), csvRow::getCell);
+    }
+
+    public Result<Integer> getConfirmedCases(int cellCount, Function1<Integer,String> getCell)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(cellCount, 0, "cellCount");
+        PreCondition.assertNotNull(getCell, "getCell");
+
         return Result.create(() ->
         {
-            if (!this.hasConfirmedCasesColumn())
-            {
-                throw new NotSupportedException("No confirmed cases column index was detected.");
-            }
+            final String confirmedCasesString = Covid19DailyReportColumnMapping.getCell(this.confirmedCasesColumnIndex, cellCount, getCell,
+                "No confirmed cases column index was detected.",
+                "No confirmed cases column was found in the CSV row.")
+                .await();
+            return Covid19DailyReportColumnMapping.parseConfirmedCases(confirmedCasesString).await();
+        });
+    }
 
-            final int confirmedCasesColumnIndex = this.getConfirmedCasesColumnIndex();
-            if (csvRow.getCellCount() <= confirmedCasesColumnIndex)
+    public Iterable<Integer> getMappedColumnIndexes()
+    {
+        final TreeSet<Integer> sortedColumnIndexes = new TreeSet<>();
+        for (final Integer columnIndex : Iterable.create(this.countyColumnIndex, this.stateOrProvinceColumnIndex, this.countryOrRegionColumnIndex, this.confirmedCasesColumnIndex))
+        {
+            if (columnIndex != null)
             {
-                throw new NotFoundException("No confirmed cases column was found in the CSV row.");
+                sortedColumnIndexes.add(columnIndex);
             }
+        }
+
+        final List<Integer> result = List.create();
+        for (final Integer columnIndex : sortedColumnIndexes)
+        {
+            result.add(columnIndex);
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
 
-            final String confirmedCasesString = csvRow.getCell(confirmedCasesColumnIndex);
+    public static Result<Integer> parseConfirmedCases(String confirmedCasesString)
+    {
+        return Result.create(() ->
+        {
             final Integer result = Integers.parse(confirmedCasesString).await();
             if (result < 0)
             {
@@ -276,4 +302,22 @@ public class Covid19DailyReportColumnMapping
             return result;
         });
     }
+
+    private static Result<String> getCell(Integer columnIndex, int cellCount, Function1<Integer,String> getCell, String noColumnIndexMessage, String noColumnMessage)
+    {
+        return Result.create(() ->
+        {
+            if (columnIndex == null)
+            {
+                throw new NotSupportedException(noColumnIndexMessage);
+            }
+
+            if (cellCount <= columnIndex)
+            {
+                throw new NotFoundException(noColumnMessage);
+            }
+
+            return getCell.run(columnIndex);
+        });
+    }
 }
@@ -78,6 +78,21 @@ public class Covid19DailyReportDataRow
         return this;
     }
 
+    /**
+     * Overwrite all of this data row's values. Unlike the individual setters, this allows values
+     * to be null or empty (which are stored as null) so that a single data row can be reused to
+     * evaluate conditions against many rows.
+     */
+    Covid19DailyReportDataRow setAll(String county, String stateOrProvince, String countryOrRegion, Integer confirmedCases)
+    {
+        this.county = Strings.isNullOrEmpty(county) ? null : county;
+        this.stateOrProvince = Strings.isNullOrEmpty(stateOrProvince) ? null : stateOrProvince;
+        this.countryOrRegion = Strings.isNullOrEmpty(countryOrRegion) ? null : countryOrRegion;
+        this.confirmedCases = (confirmedCases == null || confirmedCases < 0) ? null : confirmedCases;
+
+        return this;
+    }
+
     public JSONObject toJson()
     {
         return JSONObject.create()
@@ -0,0 +1,375 @@
+package qub;
+
+import java.util.Arrays;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+/**
+ * An index of daily report files that is sorted and keyed by the date that each file reports on.
+ */
+public class Covid19DailyReportFileIndex
+{
+    private final int[] epochDays;
+    private final File[] files;
+    private final int[] positionsByDayOffset;
+
+    private Covid19DailyReportFileIndex(int[] epochDays, File[] files)
+    {
+        PreCondition.assertNotNull(epochDays, "epochDays");
+        PreCondition.assertNotNull(files, "files");
+        PreCondition.assertEqual(epochDays.length, files.length, "files.length");
+
+        this.epochDays = epochDays;
+        this.files = files;
+
+        if (epochDays.length == 0)
+        {
+            this.positionsByDayOffset = new int[0];
+        }
+        else
+        {
+            final int firstEpochDay = epochDays[0];
+            final int lastEpochDay = epochDays[epochDays.length - 1];
+            this.positionsByDayOffset = new int[lastEpochDay - firstEpochDay + 1];
+            Arrays.fill(this.positionsByDayOffset, -1);
+            for (int position = 0; position < epochDays.length; ++position)
+            {
+                this.positionsByDayOffset[epochDays[position] - firstEpochDay] = position;
+            }
+        }
+    }
+
+    /**
+     * Create a new index from the provided daily report files. Files whose names are not dates
+     * will not be included in the index.
+     * @param dailyReportFiles The daily report files to index.
+     * @return The new index.
+     */
+    public static Covid19DailyReportFileIndex create(Iterable<File> dailyReportFiles)
+    {
+        PreCondition.assertNotNull(dailyReportFiles, "dailyReportFiles");
+
+        final List<File> indexedFiles = List.create();
+        for (final File dailyReportFile : dailyReportFiles)
+        {
+            if (Covid19DailyReportFileIndex.parseDate(dailyReportFile).catchError().await() != null)
+            {
+                indexedFiles.add(dailyReportFile);
+            }
+        }
+
+        final int fileCount = indexedFiles.getCount();
+        final long[] sortKeys = new long[fileCount];
+        for (int i = 0; i < fileCount; ++i)
+        {
+            final DateTime date = Covid19DailyReportFileIndex.parseDate(indexedFiles.get(i)).await();
+            sortKeys[i] = (((long)Covid19DailyReportFileIndex.getEpochDay(date)) << 32) | i;
+        }
+        Arrays.sort(sortKeys);
+
+        final List<Integer> epochDays = List.create();
+        final List<File> files = List.create();
+        for (final long sortKey : sortKeys)
+        {
+            final int epochDay = (int)(sortKey >> 32);
+            if (!epochDays.any() || epochDays.last() != epochDay)
+            {
+                epochDays.add(epochDay);
+                files.add(indexedFiles.get((int)sortKey));
+            }
+        }
+
+        final int[] epochDaysArray = new int[epochDays.getCount()];
+        for (int i = 0; i < epochDaysArray.length; ++i)
+        {
+            epochDaysArray[i] = epochDays.get(i);
+        }
+        final File[] filesArray = new File[files.getCount()];
+        for (int i = 0; i < filesArray.length; ++i)
+        {
+            filesArray[i] = files.get(i);
+        }
+
+        return new Covid19DailyReportFileIndex(epochDaysArray, filesArray);
+    }
+
+    /**
+     * Create a new index from the CSV files in the provided daily reports folder.
+     * @param dailyReportsFolder The folder that contains the daily report files.
+     * @return The new index.
+     */
+    public static Result<Covid19DailyReportFileIndex> create(Folder dailyReportsFolder)
+    {
+        PreCondition.assertNotNull(dailyReportsFolder, "dailyReportsFolder");
+
+        return Result.create(() ->
+        {
+            final Iterable<File> dailyReportFiles = dailyReportsFolder.getFiles().await()
+                .where((File dailyReportFile) -> Comparer.equal(dailyReportFile.getFileExtension(), ".csv"));
+            return Covid19DailyReportFileIndex.create(dailyReportFiles);
+        });
+    }
+
+    /**
+     * Parse the date for the provided daily report file. Daily report files are named with the
+     * format "MM-dd-yyyy.csv".
+     * @param dailyReportFile The daily report file to get the date of.
+     * @return The date of the provided daily report file.
+     */
+    public static Result<DateTime> parseDate(File dailyReportFile)
+    {
+        PreCondition.assertNotNull(dailyReportFile, "dailyReportFile");
+
+        return Covid19DailyReportFileIndex.parseDate(dailyReportFile.getPath());
+    }
+
+    /**
+     * Parse the date for the provided daily report file path. Daily report files are named with
+     * the format "MM-dd-yyyy.csv".
+     * @param dailyReportFilePath The path of the daily report file to get the date of.
+     * @return The date of the provided daily report file path.
+     */
+    public static Result<DateTime> parseDate(Path dailyReportFilePath)
+    {
+        PreCondition.assertNotNull(dailyReportFilePath, "dailyReportFilePath");
+
+        return Result.create(() ->
+        {
+            final String filePathString = dailyReportFilePath.toString();
+            final String fileName = filePathString.substring(filePathString.lastIndexOf('/') + 1);
+            final int extensionIndex = fileName.lastIndexOf('.');
+            final String fileNameWithoutExtension = (extensionIndex == -1 ? fileName : fileName.substring(0, extensionIndex));
+
+            final String[] dateParts = fileNameWithoutExtension.split("-");
+            if (dateParts.length != 3)
+            {
+                throw new ParseException("Expected the daily report file name " + Strings.escapeAndQuote(fileName) + " to have the format \"MM-dd-yyyy.csv\".");
+            }
+            final int month = Integers.parse(dateParts[0]).await();
+            final int day = Integers.parse(dateParts[1]).await();
+            final int year = Integers.parse(dateParts[2]).await();
+            return DateTime.create(year, month, day);
+        });
+    }
+
+    /**
+     * Get the number of days since 1/1/1970 for the provided date. The time of day of the provided
+     * date is ignored.
+     * @param date The date to get the epoch day of.
+     * @return The number of days since 1/1/1970 for the provided date.
+     */
+    public static int getEpochDay(DateTime date)
+    {
+        PreCondition.assertNotNull(date, "date");
+
+        return (int)java.time.LocalDate.of(date.getYear(), date.getMonth(), date.getDayOfMonth()).toEpochDay();
+    }
+
+    /**
+     * Get the date that is the provided number of days since 1/1/1970.
+     * @param epochDay The number of days since 1/1/1970.
+     * @return The date that is the provided number of days since 1/1/1970.
+     */
+    public static DateTime getDate(int epochDay)
+    {
+        final java.time.LocalDate localDate = java.time.LocalDate.ofEpochDay(epochDay);
+        return DateTime.create(localDate.getYear(), localDate.getMonthValue(), localDate.getDayOfMonth());
+    }
+
+    /**
+     * Get the number of daily report files in this index.
+     * @return The number of daily report files in this index.
+     */
+    public int getCount()
+    {
+        return this.files.length;
+    }
+
+    /**
+     * Get whether or not this index contains a daily report file for the provided date.
+     * @param date The date to look for.
+     * @return Whether or not this index contains a daily report file for the provided date.
+     */
+    public boolean contains(DateTime date)
+    {
+        PreCondition.assertNotNull(date, "date");
+
+        return this.getPosition(Covid19DailyReportFileIndex.getEpochDay(date)) != -1;
+    }
+
+    /**
+     * Get the daily report file for the provided date.
+     * @param date The date to get the daily report file for.
+     * @return The daily report file for the provided date.
+     */
+    public Result<File> getFile(DateTime date)
+    {
+        PreCondition.assertNotNull(date, "date");
+
+        return Result.create(() ->
+        {
+            final int position = this.getPosition(Covid19DailyReportFileIndex.getEpochDay(date));
+            if (position == -1)
+            {
+                throw new NotFoundException("No daily report found for the date " + QubCovid19.toString(date) + ".");
+            }
+            return this.files[position];
+        });
+    }
+
+    /**
+     * Get the daily report files in this index, sorted from oldest to most recent.
+     * @return The daily report files in this index.
+     */
+    public Iterable<File> getFiles()
+    {
+        return Iterable.create(this.files);
+    }
+
+    /**
+     * Get the daily report files in this index whose dates are between the provided start and end
+     * dates (inclusive), sorted from oldest to most recent.
+     * @param startDate The first date to include.
+     * @param endDate The last date to include.
+     * @return The daily report files between the provided dates.
+     */
+    public Iterable<File> getFiles(DateTime startDate, DateTime endDate)
+    {
+        PreCondition.assertNotNull(startDate, "startDate");
+        PreCondition.assertNotNull(endDate, "endDate");
+
+        final int startPosition = this.getInsertPosition(Covid19DailyReportFileIndex.getEpochDay(startDate));
+        final int endPosition = this.getInsertPosition(Covid19DailyReportFileIndex.getEpochDay(endDate) + 1);
+
+        final List<File> result = List.create();
+        for (int position = startPosition; position < endPosition; ++position)
+        {
+            result.add(this.files[position]);
+        }
+        return result;
+    }
+
+    /**
+     * Get the dates in this index, sorted from oldest to most recent.
+     * @return The dates in this index.
+     */
+    public Iterable<DateTime> getDates()
+    {
+        final List<DateTime> result = List.create();
+        for (final int epochDay : this.epochDays)
+        {
+            result.add(Covid19DailyReportFileIndex.getDate(epochDay));
+        }
+        return result;
+    }
+
+    /**
+     * Get the most recent date in this index, or null if this index is empty.
+     * @return The most recent date in this index, or null if this index is empty.
+     */
+    public DateTime getMostRecentDate()
+    {
+        return this.epochDays.length == 0
+            ? null
+            : Covid19DailyReportFileIndex.getDate(this.epochDays[this.epochDays.length - 1]);
+    }
+
+    /**
+     * Get the most recent date in this index that is on or before the provided date, or null if
+     * there is no such date.
+     * @param date The latest date to consider.
+     * @return The most recent date in this index that is on or before the provided date.
+     */
+    public DateTime getMostRecentDate(DateTime date)
+    {
+        PreCondition.assertNotNull(date, "date");
+
+        final int position = this.getInsertPosition(Covid19DailyReportFileIndex.getEpochDay(date) + 1) - 1;
+        return position < 0
+            ? null
+            : Covid19DailyReportFileIndex.getDate(this.epochDays[position]);
+    }
+
+    /**
+     * Get the most recent daily report file in this index, or null if this index is empty.
+     * @return The most recent daily report file in this index, or null if this index is empty.
+     */
+    public File getMostRecentFile()
+    {
+        return this.files.length == 0 ? null : this.files[this.files.length - 1];
+    }
+
+    /**
+     * Create a new index that contains this index's files plus the provided added files and minus
+     * the files for the provided removed dates. An added file replaces any existing file for the
+     * same date. The existing file names are not parsed again, so the cost of this method doesn't
+     * depend on parsing the whole history.
+     * @param addedFiles The files to add to the new index.
+     * @param removedDates The dates whose files will not be in the new index.
+     * @return The new index.
+     */
+    public Covid19DailyReportFileIndex withChanges(Iterable<File> addedFiles, Iterable<DateTime> removedDates)
+    {
+        PreCondition.assertNotNull(addedFiles, "addedFiles");
+        PreCondition.assertNotNull(removedDates, "removedDates");
+
+        final TreeMap<Integer,File> entries = new TreeMap<>();
+        for (int position = 0; position < this.epochDays.length; ++position)
+        {
+            entries.put(this.epochDays[position], this.files[position]);
+        }
+
+        for (final DateTime removedDate : removedDates)
+        {
+            entries.remove(Covid19DailyReportFileIndex.getEpochDay(removedDate));
+        }
+
+        for (final File addedFile : addedFiles)
+        {
+            final DateTime addedDate = Covid19DailyReportFileIndex.parseDate(addedFile).catchError().await();
+            if (addedDate != null)
+            {
+                entries.put(Covid19DailyReportFileIndex.getEpochDay(addedDate), addedFile);
+            }
+        }
+
+        final int[] epochDaysArray = new int[entries.size()];
+        final File[] filesArray = new File[entries.size()];
+        int position = 0;
+        for (final Entry<Integer,File> entry : entries.entrySet())
+        {
+            epochDaysArray[position] = entry.getKey();
+            filesArray[position] = entry.getValue();
+            ++position;
+        }
+
+        return new Covid19DailyReportFileIndex(epochDaysArray, filesArray);
+    }
+
+    private int getPosition(int epochDay)
+    {
+        int result = -1;
+        if (this.epochDays.length > 0)
+        {
+            final int dayOffset = epochDay - this.epochDays[0];
+            if (0 <= dayOffset && dayOffset < this.positionsByDayOffset.length)
+            {
+                result = this.positionsByDayOffset[dayOffset];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the position of the first epoch day in this index that is greater than or equal to the
+     * provided epoch day.
+     * @param epochDay The epoch day to search for.
+     * @return The position of the first epoch day that is greater than or equal to the provided
+     * epoch day.
+     */
+    private int getInsertPosition(int epochDay)
+    {
+        final int searchResult = Arrays.binarySearch(this.epochDays, epochDay);
+        return searchResult >= 0 ? searchResult : -(searchResult + 1);
+    }
+}
@@ -0,0 +1,437 @@
+package qub;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A reader that parses the data rows of a daily report one row at a time. Unlike
+ * Covid19DailyReport.parse(), this never creates a CSVDocument, so only the current row's cells
+ * are held in memory and callers can stop reading as soon as they've found what they need.
+ */
+public class Covid19DailyReportReader
+{
+    private static final int bufferSize = 64 * 1024;
+
+    private final ByteReadStream byteReadStream;
+    private final Path filePath;
+    private final Action1<Covid19Issue> onIssue;
+    private final byte[] buffer;
+    private int bufferLength;
+    private int bufferIndex;
+    private boolean endOfStream;
+    private byte[] cellBytes;
+    private int cellLength;
+    private final ArrayList<String> cells;
+    private final Function1<Integer,String> cellAccessor;
+    private Covid19DailyReportColumnMapping columnMapping;
+    /**
+     * The indexes of the mapped columns, or -1 if the daily report doesn't have the column. These
+     * are read directly for each row so that a row that has the expected cells doesn't need any
+     * Results.
+     */
+    private int countyColumnIndex;
+    private int stateOrProvinceColumnIndex;
+    private int countryOrRegionColumnIndex;
+    private int confirmedCasesColumnIndex;
+    /**
+     * The columns that must be decoded, or null if every column must be decoded. Cells of columns
+     * that aren't projected are skipped without being copied and are stored as null.
+     */
+    private boolean[] projectedColumns;
+    /**
+     * The columns whose cells are location strings that are canonicalized through the string
+     * dictionary, indexed by column index.
+     */
+    private boolean[] locationColumns;
+    private Covid19StringDictionary stringDictionary;
+    private Covid19LocationCondition locationCondition;
+    private final Covid19DailyReportDataRow probeDataRow;
+
+    private Covid19DailyReportReader(ByteReadStream byteReadStream, Path filePath, Action1<Covid19Issue> onIssue)
+    {
+        PreCondition.assertNotNull(byteReadStream, "byteReadStream");
+        PreCondition.assertNotNull(filePath, "filePath");
+        PreCondition.assertNotNull(onIssue, "onIssue");
+
+        this.byteReadStream = byteReadStream;
+        this.filePath = filePath;
+        this.onIssue = onIssue;
+        this.buffer = new byte[Covid19DailyReportReader.bufferSize];
+        this.cellBytes = new byte[256];
+        this.cells = new ArrayList<>();
+        this.cellAccessor = this.cells::get;
+        this.countyColumnIndex = -1;
+        this.stateOrProvinceColumnIndex = -1;
+        this.countryOrRegionColumnIndex = -1;
+        this.confirmedCasesColumnIndex = -1;
+        this.probeDataRow = Covid19DailyReportDataRow.create();
+    }
+
+    /**
+     * Create a new Covid19DailyReportReader that reads from the provided ByteReadStream. The
+     * header row is read immediately so that problems with the column headers are reported here
+     * instead of by the first readDataRow() call.
+     * @param byteReadStream The stream to read the daily report from. The reader does not dispose
+     *                       this stream.
+     * @param filePath The path of the daily report file that is being read.
+     * @param onIssue The action that will be invoked when an issue is found in a data row.
+     * @return The new Covid19DailyReportReader.
+     */
+    public static Result<Covid19DailyReportReader> create(ByteReadStream byteReadStream, Path filePath, Action1<Covid19Issue> onIssue)
+    {
+        PreCondition.assertNotNull(byteReadStream, "byteReadStream");
+        PreCondition.assertNotDisposed(byteReadStream, "byteReadStream");
+        PreCondition.assertNotNull(filePath, "filePath");
+        PreCondition.assertNotNull(onIssue, "onIssue");
+
+        return Result.create(() ->
+        {
+            final Covid19DailyReportReader result = new Covid19DailyReportReader(byteReadStream, filePath, onIssue);
+            if (result.readRow())
+            {
+                result.columnMapping = Covid19DailyReportColumnMapping.parse(result.cells.toArray(new String[0])).await();
+                result.projectedColumns = Covid19DailyReportReader.getProjectedColumns(result.columnMapping);
+                result.locationColumns = Covid19DailyReportReader.getLocationColumns(result.columnMapping);
+                result.countyColumnIndex = Covid19DailyReportReader.getColumnIndex(result.columnMapping.getCountyColumnIndex());
+                result.stateOrProvinceColumnIndex = Covid19DailyReportReader.getColumnIndex(result.columnMapping.getStateOrProvinceColumnIndex());
+                result.countryOrRegionColumnIndex = Covid19DailyReportReader.getColumnIndex(result.columnMapping.getCountryOrRegionColumnIndex());
+                result.confirmedCasesColumnIndex = Covid19DailyReportReader.getColumnIndex(result.columnMapping.getConfirmedCasesColumnIndex());
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Get the column mapping that was parsed from the header row, or null if the daily report
+     * was empty.
+     * @return The column mapping that was parsed from the header row.
+     */
+    public Covid19DailyReportColumnMapping getColumnMapping()
+    {
+        return this.columnMapping;
+    }
+
+    /**
+     * Get the condition that rows must match in order to be returned by this reader, or null if
+     * every row is returned.
+     * @return The condition that rows must match in order to be returned by this reader.
+     */
+    public Covid19LocationCondition getLocationCondition()
+    {
+        return this.locationCondition;
+    }
+
+    /**
+     * Set the condition that rows must match in order to be returned by this reader. The
+     * condition is evaluated against the row's decoded cells before a data row is created for it,
+     * so rows that don't match are never materialized and don't report issues.
+     * @param locationCondition The condition that rows must match, or null to return every row.
+     * @return This object for method chaining.
+     */
+    public Covid19DailyReportReader setLocationCondition(Covid19LocationCondition locationCondition)
+    {
+        this.locationCondition = locationCondition;
+
+        return this;
+    }
+
+    /**
+     * Get the dictionary that location strings are canonicalized through, or null if location
+     * strings are not canonicalized.
+     * @return The dictionary that location strings are canonicalized through.
+     */
+    public Covid19StringDictionary getStringDictionary()
+    {
+        return this.stringDictionary;
+    }
+
+    /**
+     * Set the dictionary that location strings are canonicalized through. When a dictionary is
+     * set, the county, state/province, and country/region cells are looked up directly from their
+     * bytes, so a new String is only created the first time that the dictionary sees a value.
+     * @param stringDictionary The dictionary that location strings are canonicalized through, or
+     *                         null to not canonicalize location strings.
+     * @return This object for method chaining.
+     */
+    public Covid19DailyReportReader setStringDictionary(Covid19StringDictionary stringDictionary)
+    {
+        this.stringDictionary = stringDictionary;
+
+        return this;
+    }
+
+    /**
+     * Read the next data row from the daily report that matches this reader's location
+     * condition.
+     * @return The next data row, or null if there are no more data rows.
+     */
+    public Result<Covid19DailyReportDataRow> readDataRow()
+    {
+        return Result.create(() ->
+        {
+            Covid19DailyReportDataRow result = null;
+            if (this.columnMapping != null)
+            {
+                while (result == null && this.readRow())
+                {
+                    final String county = this.getMappedCell(this.countyColumnIndex);
+                    final String stateOrProvince = this.getMappedCell(this.stateOrProvinceColumnIndex);
+                    final String countryOrRegion = this.getMappedCell(this.countryOrRegionColumnIndex);
+
+                    // Only confirmed cases that aren't plain digits go through the column mapping,
+                    // which reports why they couldn't be parsed.
+                    final int confirmedCases = Covid19DailyReportReader.parseDigits(this.getMappedCell(this.confirmedCasesColumnIndex));
+                    final Result<Integer> confirmedCasesResult = confirmedCases != -1
+                        ? null
+                        : this.columnMapping.getConfirmedCases(this.cells.size(), this.cellAccessor);
+
+                    if (this.locationCondition == null ||
+                        this.locationCondition.matches(this.probeDataRow.setAll(county, stateOrProvince, countryOrRegion,
+                            confirmedCasesResult == null ? Integer.valueOf(confirmedCases) : confirmedCasesResult.catchError().await())))
+                    {
+                        result = confirmedCasesResult == null
+                            ? Covid19DailyReport.createDataRow(county, stateOrProvince, countryOrRegion, confirmedCases)
+                            : Covid19DailyReport.createDataRow(county, stateOrProvince, countryOrRegion, confirmedCasesResult, this.filePath, this.onIssue);
+                    }
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Read the data rows from the daily report until either the end of the daily report is
+     * reached or the provided function returns false.
+     * @param onDataRow The function that will be invoked for each data row. Returning false stops
+     *                  the reader.
+     * @return The number of data rows that were read.
+     */
+    public Result<Integer> readDataRows(Function1<Covid19DailyReportDataRow,Boolean> onDataRow)
+    {
+        PreCondition.assertNotNull(onDataRow, "onDataRow");
+
+        return Result.create(() ->
+        {
+            int result = 0;
+            Covid19DailyReportDataRow dataRow = this.readDataRow().await();
+            while (dataRow != null)
+            {
+                ++result;
+                if (!onDataRow.run(dataRow))
+                {
+                    break;
+                }
+                dataRow = this.readDataRow().await();
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Get the columns that need to be decoded in order to create data rows with the provided
+     * column mapping.
+     * @param columnMapping The column mapping of the daily report.
+     * @return The columns that need to be decoded, indexed by column index.
+     */
+    static boolean[] getProjectedColumns(Covid19DailyReportColumnMapping columnMapping)
+    {
+        PreCondition.assertNotNull(columnMapping, "columnMapping");
+
+        final Iterable<Integer> mappedColumnIndexes = columnMapping.getMappedColumnIndexes();
+        final boolean[] result = new boolean[mappedColumnIndexes.any() ? mappedColumnIndexes.last() + 1 : 0];
+        for (final Integer mappedColumnIndex : mappedColumnIndexes)
+        {
+            result[mappedColumnIndex] = true;
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Get the columns that contain location strings with the provided column mapping.
+     * @param columnMapping The column mapping of the daily report.
+     * @return The columns that contain location strings, indexed by column index.
+     */
+    static boolean[] getLocationColumns(Covid19DailyReportColumnMapping columnMapping)
+    {
+        PreCondition.assertNotNull(columnMapping, "columnMapping");
+
+        final Iterable<Integer> locationColumnIndexes = Iterable.create(
+                columnMapping.getCountyColumnIndex(),
+                columnMapping.getStateOrProvinceColumnIndex(),
+                columnMapping.getCountryOrRegionColumnIndex())
+            .where((Integer columnIndex) -> columnIndex != null)
+            .toList();
+        int resultLength = 0;
+        for (final Integer locationColumnIndex : locationColumnIndexes)
+        {
+            resultLength = Math.max(resultLength, locationColumnIndex + 1);
+        }
+        final boolean[] result = new boolean[resultLength];
+        for (final Integer locationColumnIndex : locationColumnIndexes)
+        {
+            result[locationColumnIndex] = true;
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    private static int getColumnIndex(Integer columnIndex)
+    {
+        return columnIndex == null ? -1 : columnIndex;
+    }
+
+    /**
+     * Get the cell of the current row at the provided mapped column index, or null if the daily
+     * report doesn't have the column or the current row doesn't have the cell.
+     */
+    private String getMappedCell(int columnIndex)
+    {
+        return 0 <= columnIndex && columnIndex < this.cells.size()
+            ? this.cells.get(columnIndex)
+            : null;
+    }
+
+    /**
+     * Parse the provided cell if it only contains between 1 and 9 decimal digits, which is how
+     * almost every confirmed cases cell is written.
+     * @return The parsed value, or -1 if the cell needs to be parsed the slow way.
+     */
+    static int parseDigits(String cell)
+    {
+        int result = -1;
+        if (cell != null && 1 <= cell.length() && cell.length() <= 9)
+        {
+            result = 0;
+            for (int i = 0; i < cell.length(); ++i)
+            {
+                final char c = cell.charAt(i);
+                if (c < '0' || '9' < c)
+                {
+                    result = -1;
+                    break;
+                }
+                result = result * 10 + (c - '0');
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Read the next non-empty row into this.cells. Cells of columns that aren't projected are
+     * added as null.
+     * @return Whether or not a row was read.
+     */
+    private boolean readRow()
+    {
+        int b = this.readByte();
+        while (b == '\r' || b == '\n')
+        {
+            b = this.readByte();
+        }
+
+        final boolean result = (b != -1);
+        if (result)
+        {
+            this.cells.clear();
+            while (true)
+            {
+                this.cellLength = 0;
+                final int columnIndex = this.cells.size();
+                final boolean projected = (this.projectedColumns == null) ||
+                    (columnIndex < this.projectedColumns.length && this.projectedColumns[columnIndex]);
+                if (b == '"')
+                {
+                    b = this.readByte();
+                    while (b != -1)
+                    {
+                        if (b == '"')
+                        {
+                            b = this.readByte();
+                            if (b != '"')
+                            {
+                                break;
+                            }
+                        }
+                        if (projected)
+                        {
+                            this.addCellByte(b);
+                        }
+                        b = this.readByte();
+                    }
+                }
+
+                while (b != ',' && b != '\r' && b != '\n' && b != -1)
+                {
+                    if (projected)
+                    {
+                        this.addCellByte(b);
+                    }
+                    b = this.readByte();
+                }
+
+                this.cells.add(projected ? this.getCellString(columnIndex) : null);
+
+                if (b == ',')
+                {
+                    b = this.readByte();
+                }
+                else
+                {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private String getCellString(int columnIndex)
+    {
+        return this.stringDictionary != null && this.locationColumns != null &&
+            columnIndex < this.locationColumns.length && this.locationColumns[columnIndex]
+            ? this.stringDictionary.getString(this.cellBytes, 0, this.cellLength)
+            : new String(this.cellBytes, 0, this.cellLength, StandardCharsets.UTF_8);
+    }
+
+    private void addCellByte(int b)
+    {
+        if (this.cellLength == this.cellBytes.length)
+        {
+            this.cellBytes = Arrays.copyOf(this.cellBytes, this.cellBytes.length * 2);
+        }
+        this.cellBytes[this.cellLength++] = (byte)b;
+    }
+
+    /**
+     * Read the next byte from the buffer, refilling the buffer from the stream when it is empty.
+     * @return The next byte as an unsigned value, or -1 if the end of the stream was reached.
+     */
+    private int readByte()
+    {
+        if (this.bufferIndex == this.bufferLength)
+        {
+            if (this.endOfStream)
+            {
+                return -1;
+            }
+
+            final Integer bytesRead = this.byteReadStream.readBytes(this.buffer, 0, this.buffer.length)
+                .catchError(EndOfStreamException.class)
+                .await();
+            this.bufferIndex = 0;
+            if (bytesRead == null || bytesRead <= 0)
+            {
+                this.bufferLength = 0;
+                this.endOfStream = true;
+                return -1;
+            }
+            this.bufferLength = bytesRead;
+        }
+        return this.buffer[this.bufferIndex++] & 0xFF;
+    }
+}
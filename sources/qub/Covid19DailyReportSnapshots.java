@@ -0,0 +1,412 @@
+package qub;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+
+/**
+ * A folder of binary snapshots of parsed daily reports. Each snapshot is keyed by a source key
+ * (such as the git blob id of the daily report file it was parsed from) so that a snapshot is only
+ * used while its source file is unchanged.
+ */
+public class Covid19DailyReportSnapshots
+{
+    private static final int magicNumber = 0x43313953; // "C19S"
+    private static final int formatVersion = 1;
+    private static final String snapshotFileExtension = ".snapshot";
+    private static final String temporaryFileExtension = ".tmp";
+
+    private final Folder snapshotsFolder;
+    private volatile Covid19StringDictionary stringDictionary;
+
+    private Covid19DailyReportSnapshots(Folder snapshotsFolder)
+    {
+        PreCondition.assertNotNull(snapshotsFolder, "snapshotsFolder");
+
+        this.snapshotsFolder = snapshotsFolder;
+    }
+
+    /**
+     * Create a new snapshots object that stores its snapshots in the provided folder.
+     * @param snapshotsFolder The folder that the snapshots will be stored in.
+     * @return The new snapshots object.
+     */
+    public static Covid19DailyReportSnapshots create(Folder snapshotsFolder)
+    {
+        return new Covid19DailyReportSnapshots(snapshotsFolder);
+    }
+
+    /**
+     * Get the folder that the snapshots are stored in.
+     * @return The folder that the snapshots are stored in.
+     */
+    public Folder getSnapshotsFolder()
+    {
+        return this.snapshotsFolder;
+    }
+
+    /**
+     * Get the dictionary that the location strings of read snapshots are canonicalized through,
+     * or null if they are not canonicalized.
+     * @return The dictionary that the location strings of read snapshots are canonicalized through.
+     */
+    public Covid19StringDictionary getStringDictionary()
+    {
+        return this.stringDictionary;
+    }
+
+    /**
+     * Set the dictionary that the location strings of read snapshots are canonicalized through.
+     * @param stringDictionary The dictionary that the location strings of read snapshots are
+     *                         canonicalized through, or null to not canonicalize them.
+     * @return This object for method chaining.
+     */
+    public Covid19DailyReportSnapshots setStringDictionary(Covid19StringDictionary stringDictionary)
+    {
+        this.stringDictionary = stringDictionary;
+
+        return this;
+    }
+
+    private Result<File> getSnapshotFile(DateTime date)
+    {
+        final String snapshotFileName = String.format("%02d-%02d-%04d%s", date.getMonth(), date.getDayOfMonth(), date.getYear(), Covid19DailyReportSnapshots.snapshotFileExtension);
+        return this.snapshotsFolder.getFile(snapshotFileName);
+    }
+
+    /**
+     * Read the snapshot of the daily report for the provided date. Any issues that were stored with
+     * the snapshot will be reported to the provided onIssue action.
+     * @param date The date of the daily report.
+     * @param sourceKey The key of the source file that the daily report must have been parsed from.
+     * @param onIssue The action that will be invoked for each of the daily report's issues.
+     * @return The daily report, or a NotFoundException if there is no up-to-date snapshot for the
+     * provided date.
+     */
+    public Result<Covid19DailyReport> read(DateTime date, String sourceKey, Action1<Covid19Issue> onIssue)
+    {
+        PreCondition.assertNotNull(date, "date");
+        PreCondition.assertNotNullAndNotEmpty(sourceKey, "sourceKey");
+        PreCondition.assertNotNull(onIssue, "onIssue");
+
+        return Result.create(() ->
+        {
+            final File snapshotFile = this.getSnapshotFile(date).await();
+            final byte[] snapshotBytes = snapshotFile.getContents()
+                .convertError(FileNotFoundException.class, () -> new NotFoundException("No snapshot exists for the date " + QubCovid19.toString(date) + "."))
+                .await();
+
+            final List<Covid19Issue> issues = List.create();
+            final Covid19DailyReport result = Covid19DailyReportSnapshots.decode(snapshotBytes, sourceKey, this.stringDictionary, issues)
+                .convertError(ParseException.class, () -> new NotFoundException("The snapshot for the date " + QubCovid19.toString(date) + " is out of date or malformed."))
+                .await();
+
+            for (final Covid19Issue issue : issues)
+            {
+                onIssue.run(issue);
+            }
+
+            return result;
+        });
+    }
+
+    /**
+     * Write a snapshot of the provided daily report, replacing any existing snapshot for the
+     * provided date. The snapshot is written to a temporary file in the snapshots folder first and
+     * is only copied over the existing snapshot once it has been completely written.
+     * @param date The date of the daily report.
+     * @param sourceKey The key of the source file that the daily report was parsed from.
+     * @param dailyReport The daily report to write.
+     * @param issues The issues that were reported when the daily report was parsed.
+     * @return The result of writing the snapshot.
+     */
+    public Result<Void> write(DateTime date, String sourceKey, Covid19DailyReport dailyReport, Iterable<Covid19Issue> issues)
+    {
+        PreCondition.assertNotNull(date, "date");
+        PreCondition.assertNotNullAndNotEmpty(sourceKey, "sourceKey");
+        PreCondition.assertNotNull(dailyReport, "dailyReport");
+        PreCondition.assertNotNull(issues, "issues");
+
+        return Result.create(() ->
+        {
+            final byte[] snapshotBytes = Covid19DailyReportSnapshots.encode(sourceKey, dailyReport, issues);
+            final File snapshotFile = this.getSnapshotFile(date).await();
+            final File temporaryFile = this.snapshotsFolder.getFile(snapshotFile.getName() + Covid19DailyReportSnapshots.temporaryFileExtension).await();
+            try
+            {
+                temporaryFile.setContents(snapshotBytes).await();
+                temporaryFile.copyTo(snapshotFile).await();
+            }
+            finally
+            {
+                temporaryFile.delete()
+                    .catchError(FileNotFoundException.class)
+                    .await();
+            }
+        });
+    }
+
+    /**
+     * Delete the snapshot for the provided date if it exists.
+     * @param date The date of the snapshot to delete.
+     * @return The result of deleting the snapshot.
+     */
+    public Result<Void> delete(DateTime date)
+    {
+        PreCondition.assertNotNull(date, "date");
+
+        return Result.create(() ->
+        {
+            this.getSnapshotFile(date).await()
+                .delete()
+                .catchError(FileNotFoundException.class)
+                .await();
+        });
+    }
+
+    /**
+     * Encode the provided daily report and its issues into the snapshot binary format. Each
+     * distinct location string is written once into a string table and the data rows refer to the
+     * strings by their index in that table.
+     * @param sourceKey The key of the source file that the daily report was parsed from.
+     * @param dailyReport The daily report to encode.
+     * @param issues The issues that were reported when the daily report was parsed.
+     * @return The encoded bytes.
+     */
+    static byte[] encode(String sourceKey, Covid19DailyReport dailyReport, Iterable<Covid19Issue> issues)
+    {
+        PreCondition.assertNotNullAndNotEmpty(sourceKey, "sourceKey");
+        PreCondition.assertNotNull(dailyReport, "dailyReport");
+        PreCondition.assertNotNull(issues, "issues");
+
+        final HashMap<String,Integer> stringIndexes = new HashMap<>();
+        final List<String> strings = List.create();
+        final Function1<String,Integer> getStringIndex = (String value) ->
+        {
+            int stringIndex = -1;
+            if (value != null)
+            {
+                final Integer existingIndex = stringIndexes.get(value);
+                if (existingIndex != null)
+                {
+                    stringIndex = existingIndex;
+                }
+                else
+                {
+                    stringIndex = strings.getCount();
+                    stringIndexes.put(value, stringIndex);
+                    strings.add(value);
+                }
+            }
+            return stringIndex;
+        };
+
+        final Iterable<Covid19DailyReportDataRow> dataRows = dailyReport.getDataRows();
+        final int rowCount = dataRows.getCount();
+        final int[] rowValues = new int[rowCount * 4];
+        int rowValueIndex = 0;
+        for (final Covid19DailyReportDataRow dataRow : dataRows)
+        {
+            rowValues[rowValueIndex++] = getStringIndex.run(dataRow.getCounty());
+            rowValues[rowValueIndex++] = getStringIndex.run(dataRow.getStateOrProvince());
+            rowValues[rowValueIndex++] = getStringIndex.run(dataRow.getCountryOrRegion());
+            final Integer confirmedCases = dataRow.getConfirmedCases();
+            rowValues[rowValueIndex++] = (confirmedCases == null ? -1 : confirmedCases);
+        }
+
+        final ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        try (final DataOutputStream output = new DataOutputStream(byteStream))
+        {
+            output.writeInt(Covid19DailyReportSnapshots.magicNumber);
+            output.writeInt(Covid19DailyReportSnapshots.formatVersion);
+            output.writeUTF(sourceKey);
+
+            output.writeInt(strings.getCount());
+            for (final String value : strings)
+            {
+                output.writeUTF(value);
+            }
+
+            output.writeInt(rowCount);
+            for (final int rowValue : rowValues)
+            {
+                output.writeInt(rowValue);
+            }
+
+            final Iterable<Covid19Issue> issueList = issues.toList();
+            output.writeInt(issueList.getCount());
+            for (final Covid19Issue issue : issueList)
+            {
+                output.writeUTF(issue.getMessage());
+                final Path filePath = issue.getFilePath();
+                output.writeUTF(filePath == null ? "" : filePath.toString());
+            }
+        }
+        catch (IOException e)
+        {
+            throw Exceptions.asRuntime(e);
+        }
+        return byteStream.toByteArray();
+    }
+
+    /**
+     * Decode a daily report from the provided snapshot bytes.
+     * @param snapshotBytes The bytes to decode.
+     * @param expectedSourceKey The source key that the snapshot must have been written with.
+     * @param issues The list that the snapshot's issues will be added to.
+     * @return The decoded daily report, or a ParseException if the snapshot is out of date or
+     * malformed.
+     */
+    static Result<Covid19DailyReport> decode(byte[] snapshotBytes, String expectedSourceKey, List<Covid19Issue> issues)
+    {
+        return Covid19DailyReportSnapshots.decode(snapshotBytes, expectedSourceKey, null, issues);
+    }
+
+    /**
+     * Decode a daily report and its issues from the snapshot binary format. If a dictionary is
+     * provided, then the snapshot's string table is added to it and the decoded daily report is a
+     * Covid19ColumnarDailyReport.
+     * @param snapshotBytes The bytes to decode.
+     * @param expectedSourceKey The source key that the snapshot must have been written with.
+     * @param stringDictionary The dictionary that the location strings will be canonicalized
+     *                         through, or null to not canonicalize the location strings.
+     * @param issues The list that the snapshot's issues will be added to.
+     * @return The decoded daily report, or a ParseException if the snapshot is out of date or
+     * malformed.
+     */
+    static Result<Covid19DailyReport> decode(byte[] snapshotBytes, String expectedSourceKey, Covid19StringDictionary stringDictionary, List<Covid19Issue> issues)
+    {
+        PreCondition.assertNotNull(snapshotBytes, "snapshotBytes");
+        PreCondition.assertNotNullAndNotEmpty(expectedSourceKey, "expectedSourceKey");
+        PreCondition.assertNotNull(issues, "issues");
+
+        return Result.create(() ->
+        {
+            try (final DataInputStream input = new DataInputStream(new ByteArrayInputStream(snapshotBytes)))
+            {
+                if (input.readInt() != Covid19DailyReportSnapshots.magicNumber)
+                {
+                    throw new ParseException("The snapshot doesn't start with the expected magic number.");
+                }
+
+                final int formatVersion = input.readInt();
+                if (formatVersion != Covid19DailyReportSnapshots.formatVersion)
+                {
+                    throw new ParseException("Expected snapshot format version " + Covid19DailyReportSnapshots.formatVersion + ", but found " + formatVersion + ".");
+                }
+
+                final String sourceKey = input.readUTF();
+                if (!expectedSourceKey.equals(sourceKey))
+                {
+                    throw new ParseException("The snapshot's source key " + Strings.escapeAndQuote(sourceKey) + " doesn't match the expected source key " + Strings.escapeAndQuote(expectedSourceKey) + ".");
+                }
+
+                // Every length is checked against the bytes that are left before anything is
+                // allocated, so a corrupt length can't cause a huge or negative allocation.
+                final String[] strings = new String[Covid19DailyReportSnapshots.readCount(input, 2, "string")];
+                for (int i = 0; i < strings.length; ++i)
+                {
+                    strings[i] = input.readUTF();
+                }
+
+                final int rowCount = Covid19DailyReportSnapshots.readCount(input, 16, "row");
+                final int[] rowValues = new int[rowCount * 4];
+                for (int i = 0; i < rowValues.length; ++i)
+                {
+                    rowValues[i] = input.readInt();
+                    if (i % 4 != 3 && (rowValues[i] < -1 || strings.length <= rowValues[i]))
+                    {
+                        throw new ParseException("The snapshot refers to the string " + rowValues[i] + ", but it only has " + strings.length + " strings.");
+                    }
+                }
+
+                final int issueCount = Covid19DailyReportSnapshots.readCount(input, 4, "issue");
+                final List<Covid19Issue> snapshotIssues = List.create();
+                for (int i = 0; i < issueCount; ++i)
+                {
+                    final Covid19Issue issue = Covid19Issue.create(input.readUTF());
+                    final String filePath = input.readUTF();
+                    if (!filePath.isEmpty())
+                    {
+                        issue.setFilePath(Path.parse(filePath));
+                    }
+                    snapshotIssues.add(issue);
+                }
+
+                // The snapshot is only added to the dictionary, which is shared by every daily
+                // report of the data source, once all of it has been validated.
+                final Covid19DailyReport result;
+                if (stringDictionary != null)
+                {
+                    final int[] stringCodes = new int[strings.length];
+                    for (int i = 0; i < strings.length; ++i)
+                    {
+                        stringCodes[i] = stringDictionary.getCode(strings[i]);
+                    }
+
+                    final Covid19ColumnarDailyReport columnarDailyReport = Covid19ColumnarDailyReport.create(stringDictionary);
+                    for (int i = 0; i < rowValues.length; i += 4)
+                    {
+                        columnarDailyReport.addDataRow(
+                            rowValues[i] >= 0 ? stringCodes[rowValues[i]] : Covid19StringDictionary.nullCode,
+                            rowValues[i + 1] >= 0 ? stringCodes[rowValues[i + 1]] : Covid19StringDictionary.nullCode,
+                            rowValues[i + 2] >= 0 ? stringCodes[rowValues[i + 2]] : Covid19StringDictionary.nullCode,
+                            rowValues[i + 3] >= 0,
+                            Math.max(0, rowValues[i + 3]));
+                    }
+                    result = columnarDailyReport;
+                }
+                else
+                {
+                    final List<Covid19DailyReportDataRow> dataRows = List.create();
+                    for (int i = 0; i < rowValues.length; i += 4)
+                    {
+                        final Covid19DailyReportDataRow dataRow = Covid19DailyReportDataRow.create();
+                        if (rowValues[i] >= 0)
+                        {
+                            dataRow.setCounty(strings[rowValues[i]]);
+                        }
+                        if (rowValues[i + 1] >= 0)
+                        {
+                            dataRow.setStateOrProvince(strings[rowValues[i + 1]]);
+                        }
+                        if (rowValues[i + 2] >= 0)
+                        {
+                            dataRow.setCountryOrRegion(strings[rowValues[i + 2]]);
+                        }
+                        if (rowValues[i + 3] >= 0)
+                        {
+                            dataRow.setConfirmedCases(rowValues[i + 3]);
+                        }
+                        dataRows.add(dataRow);
+                    }
+                    result = Covid19DailyReport.create(dataRows);
+                }
+                issues.addAll(snapshotIssues);
+
+                return result;
+            }
+            catch (IOException | IndexOutOfBoundsException e)
+            {
+                throw new ParseException("The snapshot is malformed: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Read a count of items that each take at least the provided number of bytes, and check that
+     * the rest of the snapshot is long enough to hold that many items.
+     */
+    private static int readCount(DataInputStream input, int minimumItemByteCount, String itemName) throws IOException
+    {
+        final int result = input.readInt();
+        if (result < 0 || input.available() / minimumItemByteCount < result)
+        {
+            throw new ParseException("The snapshot's " + itemName + " count " + result + " is more than the rest of the snapshot can hold.");
+        }
+        return result;
+    }
+}
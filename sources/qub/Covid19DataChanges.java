@@ -0,0 +1,225 @@
+package qub;
+
+/**
+ * The daily report changes that were made to a Covid19DataSource by refreshing its data.
+ */
+public class Covid19DataChanges
+{
+    private final boolean all;
+    private String previousCommitId;
+    private String currentCommitId;
+    private final List<Path> addedFilePaths;
+    private final List<Path> modifiedFilePaths;
+    private final List<Path> deletedFilePaths;
+
+    private Covid19DataChanges(boolean all)
+    {
+        this.all = all;
+        this.addedFilePaths = List.create();
+        this.modifiedFilePaths = List.create();
+        this.deletedFilePaths = List.create();
+    }
+
+    /**
+     * Create a new Covid19DataChanges object that doesn't contain any changes.
+     * @return A new Covid19DataChanges object that doesn't contain any changes.
+     */
+    public static Covid19DataChanges create()
+    {
+        return new Covid19DataChanges(false);
+    }
+
+    /**
+     * Create a new Covid19DataChanges object that indicates that any of the data may have changed,
+     * such as when the data is downloaded for the first time or when the individual changes can't
+     * be determined.
+     * @return A new Covid19DataChanges object that indicates that any of the data may have changed.
+     */
+    public static Covid19DataChanges all()
+    {
+        return new Covid19DataChanges(true);
+    }
+
+    /**
+     * Get whether or not any of the data may have changed. When this is true, the individual file
+     * paths will be empty and all derived data should be discarded.
+     * @return Whether or not any of the data may have changed.
+     */
+    public boolean isAll()
+    {
+        return this.all;
+    }
+
+    /**
+     * Get whether or not there are any changes.
+     * @return Whether or not there are any changes.
+     */
+    public boolean any()
+    {
+        return this.all ||
+            this.addedFilePaths.any() ||
+            this.modifiedFilePaths.any() ||
+            this.deletedFilePaths.any();
+    }
+
+    /**
+     * Get the id of the commit that the data was at before it was refreshed, or null if it isn't
+     * known.
+     * @return The id of the commit that the data was at before it was refreshed.
+     */
+    public String getPreviousCommitId()
+    {
+        return this.previousCommitId;
+    }
+
+    /**
+     * Set the id of the commit that the data was at before it was refreshed.
+     * @param previousCommitId The id of the commit that the data was at before it was refreshed.
+     * @return This object for method chaining.
+     */
+    public Covid19DataChanges setPreviousCommitId(String previousCommitId)
+    {
+        PreCondition.assertNotNullAndNotEmpty(previousCommitId, "previousCommitId");
+
+        this.previousCommitId = previousCommitId;
+
+        return this;
+    }
+
+    /**
+     * Get the id of the commit that the data is at after it was refreshed, or null if it isn't
+     * known.
+     * @return The id of the commit that the data is at after it was refreshed.
+     */
+    public String getCurrentCommitId()
+    {
+        return this.currentCommitId;
+    }
+
+    /**
+     * Set the id of the commit that the data is at after it was refreshed.
+     * @param currentCommitId The id of the commit that the data is at after it was refreshed.
+     * @return This object for method chaining.
+     */
+    public Covid19DataChanges setCurrentCommitId(String currentCommitId)
+    {
+        PreCondition.assertNotNullAndNotEmpty(currentCommitId, "currentCommitId");
+
+        this.currentCommitId = currentCommitId;
+
+        return this;
+    }
+
+    /**
+     * Get the paths of the daily report files that were added.
+     * @return The paths of the daily report files that were added.
+     */
+    public Iterable<Path> getAddedFilePaths()
+    {
+        return this.addedFilePaths;
+    }
+
+    /**
+     * Add the path of a daily report file that was added. This can't be called on a
+     * Covid19DataChanges object that was created with all().
+     * @param addedFilePath The path of the daily report file that was added.
+     * @return This object for method chaining.
+     */
+    public Covid19DataChanges addAddedFilePath(Path addedFilePath)
+    {
+        PreCondition.assertNotNull(addedFilePath, "addedFilePath");
+        PreCondition.assertFalse(this.isAll(), "this.isAll()");
+
+        this.addedFilePaths.add(addedFilePath);
+
+        return this;
+    }
+
+    /**
+     * Get the paths of the daily report files that already existed and were modified.
+     * @return The paths of the daily report files that already existed and were modified.
+     */
+    public Iterable<Path> getModifiedFilePaths()
+    {
+        return this.modifiedFilePaths;
+    }
+
+    /**
+     * Add the path of a daily report file that already existed and was modified. This can't be
+     * called on a Covid19DataChanges object that was created with all().
+     * @param modifiedFilePath The path of the daily report file that already existed and was
+     * modified.
+     * @return This object for method chaining.
+     */
+    public Covid19DataChanges addModifiedFilePath(Path modifiedFilePath)
+    {
+        PreCondition.assertNotNull(modifiedFilePath, "modifiedFilePath");
+        PreCondition.assertFalse(this.isAll(), "this.isAll()");
+
+        this.modifiedFilePaths.add(modifiedFilePath);
+
+        return this;
+    }
+
+    /**
+     * Get the paths of the daily report files that were deleted.
+     * @return The paths of the daily report files that were deleted.
+     */
+    public Iterable<Path> getDeletedFilePaths()
+    {
+        return this.deletedFilePaths;
+    }
+
+    /**
+     * Add the path of a daily report file that was deleted. This can't be called on a
+     * Covid19DataChanges object that was created with all().
+     * @param deletedFilePath The path of the daily report file that was deleted.
+     * @return This object for method chaining.
+     */
+    public Covid19DataChanges addDeletedFilePath(Path deletedFilePath)
+    {
+        PreCondition.assertNotNull(deletedFilePath, "deletedFilePath");
+        PreCondition.assertFalse(this.isAll(), "this.isAll()");
+
+        this.deletedFilePaths.add(deletedFilePath);
+
+        return this;
+    }
+
+    /**
+     * Get the dates of the daily reports that were added or modified.
+     * @return The dates of the daily reports that were added or modified.
+     */
+    public Iterable<DateTime> getChangedDates()
+    {
+        final List<DateTime> result = List.create();
+        Covid19DataChanges.addDates(this.addedFilePaths, result);
+        Covid19DataChanges.addDates(this.modifiedFilePaths, result);
+        return result;
+    }
+
+    /**
+     * Get the dates of the daily reports that were deleted.
+     * @return The dates of the daily reports that were deleted.
+     */
+    public Iterable<DateTime> getDeletedDates()
+    {
+        final List<DateTime> result = List.create();
+        Covid19DataChanges.addDates(this.deletedFilePaths, result);
+        return result;
+    }
+
+    private static void addDates(Iterable<Path> filePaths, List<DateTime> dates)
+    {
+        for (final Path filePath : filePaths)
+        {
+            final DateTime date = Covid19DailyReportFileIndex.parseDate(filePath)
+                .catchError()
+                .await();
+            if (date != null)
+            {
+                dates.add(date);
+            }
+        }
+    }
+}
@@ -7,9 +7,10 @@ public interface Covid19DataSource
 {
     /**
      * Get the latest data about the Covid-19 pandemic.
-     * @return The result of refreshing the data.
+     * @param verbose The stream that verbose logs will be written to.
+     * @return The daily report changes that were made by refreshing the data.
      */
-    Result<Void> refreshData(CharacterWriteStream verbose);
+    Result<Covid19DataChanges> refreshData(CharacterWriteStream verbose);
 
     /**
      * Get the basic details of the covid-19 data set.
@@ -23,4 +24,83 @@ public interface Covid19DataSource
      * @return The daily report for the provided date.
      */
     Result<Covid19DailyReport> getDailyReport(DateTime date, Action1<Covid19Issue> onIssue);
+
+    /**
+     * Get the data rows of the daily report for the provided date that match the provided
+     * location condition.
+     * @param date The date to get the daily report for.
+     * @param locationCondition The condition that data rows must match in order to be included in
+     *                          the returned daily report, or null to include every data row.
+     * @return The daily report for the provided date that only contains the matching data rows.
+     */
+    default Result<Covid19DailyReport> getDailyReport(DateTime date, Covid19LocationCondition locationCondition, Action1<Covid19Issue> onIssue)
+    {
+        PreCondition.assertNotNull(date, "date");
+        PreCondition.assertNotNull(onIssue, "onIssue");
+
+        return Result.create(() ->
+        {
+            Covid19DailyReport result = this.getDailyReport(date, onIssue).await();
+            if (locationCondition != null)
+            {
+                result = result.where(locationCondition);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Get the daily reports for the provided dates. Issues are reported in the order of the
+     * provided dates.
+     * @param dates The dates to get the daily reports for.
+     * @return The daily reports for the provided dates, in the same order as the provided dates.
+     */
+    default Result<Iterable<Covid19DailyReport>> getDailyReports(Iterable<DateTime> dates, Action1<Covid19Issue> onIssue)
+    {
+        PreCondition.assertNotNull(dates, "dates");
+        PreCondition.assertNotNull(onIssue, "onIssue");
+
+        return Result.create(() ->
+        {
+            final List<Covid19DailyReport> result = List.create();
+            for (final DateTime date : dates)
+            {
+                result.add(this.getDailyReport(date, onIssue).await());
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Get the confirmed cases of the provided locations on the provided dates. Issues are reported
+     * in the order of the provided dates.
+     * @param locations The locations to get the confirmed cases of.
+     * @param dates The dates to get the confirmed cases for.
+     * @return A time series that contains at least the provided dates.
+     */
+    default Result<Covid19TimeSeries> getTimeSeries(Iterable<Covid19Location> locations, Iterable<DateTime> dates, Action1<Covid19Issue> onIssue)
+    {
+        PreCondition.assertNotNull(locations, "locations");
+        PreCondition.assertNotNull(dates, "dates");
+        PreCondition.assertNotNull(onIssue, "onIssue");
+
+        return Result.create(() ->
+        {
+            final Covid19TimeSeries result = Covid19TimeSeries.create(locations);
+            for (final DateTime date : dates)
+            {
+                if (!result.contains(date))
+                {
+                    final List<Covid19Issue> issues = List.create();
+                    final Covid19DailyReport dailyReport = this.getDailyReport(date, issues::add).await();
+                    result.set(date, dailyReport, issues);
+                }
+                for (final Covid19Issue issue : result.getIssues(date).await())
+                {
+                    onIssue.run(issue);
+                }
+            }
+            return result;
+        });
+    }
 }
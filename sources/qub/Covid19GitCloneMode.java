@@ -0,0 +1,19 @@
+package qub;
+
+/**
+ * The different ways that Covid19GitDataSource can clone the Covid-19 data repository.
+ */
+public enum Covid19GitCloneMode
+{
+    /**
+     * Clone the entire repository, including its full history and all of its files.
+     */
+    Full,
+
+    /**
+     * Clone the repository without downloading any file contents up front (a blob-less partial
+     * clone) and only check out the daily reports folder (a sparse checkout). File contents are
+     * downloaded on demand for the checked out files only.
+     */
+    SparseDailyReports,
+}
@@ -1,57 +1,1014 @@
 package qub;
 
+import java.util.HashMap;
+import java.util.UUID;
+
 public class Covid19GitDataSource implements Covid19DataSource
 {
     private static final String githubRepositoryUrl = "https://github.com/CSSEGISandData/COVID-19.git";
     private static final String gitRepositoryName = "COVID-19";
+    private static final String dailyReportsFolderPath = "csse_covid_19_data/csse_covid_19_daily_reports/";
+    private static final String snapshotsFolderName = "COVID-19-snapshots";
+    private static final String lastRefreshFileName = "COVID-19-last-refresh.txt";
+    private static final String refreshLockFileName = "COVID-19-refresh.lock";
+    private static final String refreshLockBreakFileName = "COVID-19-refresh.lock.break";
+    private static final Duration refreshLockTimeout = Duration.minutes(10);
+    private static final Duration refreshLockPollInterval = Duration.milliseconds(200);
+    private static final Duration refreshLockHeartbeatInterval = Duration.minutes(1);
 
     private final Git git;
+    private final Folder projectDataFolder;
     private final Folder gitRepositoryFolder;
+    private String repositoryUrl;
+    private Covid19GitCloneMode cloneMode;
+    private int parallelism;
+    private Duration refreshTimeToLive;
+    private final Clock clock;
+    private boolean dataRead;
+    private DateTime lastObservedRefreshTime;
+    private String lastObservedCommitId;
+    private final String refreshLockOwner;
+    private final Object refreshLockMonitor;
+    private Covid19BackgroundTask<Void> refreshLockHeartbeat;
+    private int refreshLockGeneration;
+    private volatile Covid19StringDictionary stringDictionary;
+    private final Covid19DailyReportCache dailyReportCache;
+    private final Covid19DailyReportSnapshots dailyReportSnapshots;
+    private volatile Covid19DailyReportFileIndex dailyReportFileIndex;
+    private volatile HashMap<String,String> dailyReportBlobIds;
+    private volatile Covid19TimeSeries timeSeries;
+    private long dataGeneration;
 
-    private Covid19GitDataSource(Folder projectDataFolder, Git git)
+    private Covid19GitDataSource(Folder projectDataFolder, Git git, Clock clock)
     {
         PreCondition.assertNotNull(projectDataFolder, "projectDataFolder");
         PreCondition.assertNotNull(git, "git");
+        PreCondition.assertNotNull(clock, "clock");
+
+        this.git = git;
+        this.projectDataFolder = projectDataFolder;
+        this.repositoryUrl = Covid19GitDataSource.githubRepositoryUrl;
+        this.cloneMode = Covid19GitCloneMode.Full;
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+        this.clock = clock;
+        this.refreshLockOwner = UUID.randomUUID().toString();
+        this.refreshLockMonitor = new Object();
+        this.gitRepositoryFolder = projectDataFolder.getFolder(Covid19GitDataSource.gitRepositoryName).await();
+        this.stringDictionary = Covid19StringDictionary.create();
+        this.dailyReportCache = Covid19DailyReportCache.create();
+        this.dailyReportSnapshots = Covid19DailyReportSnapshots.create(projectDataFolder.getFolder(Covid19GitDataSource.snapshotsFolderName).await())
+            .setStringDictionary(this.stringDictionary);
+    }
+
+    /**
+     * Create a new Covid19GitDataSource.
+     * @param projectDataFolder The folder that the Covid-19 data repository is cloned into.
+     * @param git The git object used to clone and pull the Covid-19 data repository.
+     * @param clock The clock that is used to record and check the time of the last refresh and
+     *              of the refresh lock.
+     * @return The new Covid19GitDataSource.
+     */
+    public static Covid19GitDataSource create(Folder projectDataFolder, Git git, Clock clock)
+    {
+        return new Covid19GitDataSource(projectDataFolder, git, clock);
+    }
+
+    /**
+     * Get the URL of the repository that the Covid-19 data will be cloned from.
+     * @return The URL of the repository that the Covid-19 data will be cloned from.
+     */
+    public String getRepositoryUrl()
+    {
+        return this.repositoryUrl;
+    }
+
+    /**
+     * Set the URL of the repository that the Covid-19 data will be cloned from. This only has an
+     * effect if the repository hasn't been cloned yet.
+     * @param repositoryUrl The URL of the repository that the Covid-19 data will be cloned from.
+     * @return This object for method chaining.
+     */
+    public Covid19GitDataSource setRepositoryUrl(String repositoryUrl)
+    {
+        PreCondition.assertNotNullAndNotEmpty(repositoryUrl, "repositoryUrl");
+
+        this.repositoryUrl = repositoryUrl;
+
+        return this;
+    }
+
+    /**
+     * Get the way that the Covid-19 data repository will be cloned.
+     * @return The way that the Covid-19 data repository will be cloned.
+     */
+    public Covid19GitCloneMode getCloneMode()
+    {
+        return this.cloneMode;
+    }
+
+    /**
+     * Set the way that the Covid-19 data repository will be cloned. This only has an effect if the
+     * repository hasn't been cloned yet.
+     * @param cloneMode The way that the Covid-19 data repository will be cloned.
+     * @return This object for method chaining.
+     */
+    public Covid19GitDataSource setCloneMode(Covid19GitCloneMode cloneMode)
+    {
+        PreCondition.assertNotNull(cloneMode, "cloneMode");
+
+        this.cloneMode = cloneMode;
+
+        return this;
+    }
+
+    /**
+     * Get the maximum number of daily report files that getDailyReports() will read and parse at
+     * the same time.
+     * @return The maximum number of daily report files that will be parsed at the same time.
+     */
+    public int getParallelism()
+    {
+        return this.parallelism;
+    }
+
+    /**
+     * Set the maximum number of daily report files that getDailyReports() will read and parse at
+     * the same time. A parallelism of 1 parses the files on the calling thread.
+     * @param parallelism The maximum number of daily report files that will be parsed at the same
+     *                    time.
+     * @return This object for method chaining.
+     */
+    public Covid19GitDataSource setParallelism(int parallelism)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(parallelism, 1, "parallelism");
+
+        this.parallelism = parallelism;
+
+        return this;
+    }
+
+    /**
+     * Get how long the data is considered fresh after it has been refreshed, or null if every
+     * refreshData() call pulls the latest data without coordinating with other processes.
+     * @return How long the data is considered fresh after it has been refreshed.
+     */
+    public Duration getRefreshTimeToLive()
+    {
+        return this.refreshTimeToLive;
+    }
+
+    /**
+     * Set how long the data is considered fresh after it has been refreshed. refreshData() calls
+     * (from any process) that happen within this time after the last successful refresh won't
+     * pull the data again.
+     * @param refreshTimeToLive How long the data is considered fresh after it has been refreshed,
+     *                          or null if every refreshData() call should pull the latest data
+     *                          without taking the refresh lock or recording the refresh.
+     * @return This object for method chaining.
+     */
+    public Covid19GitDataSource setRefreshTimeToLive(Duration refreshTimeToLive)
+    {
+        PreCondition.assertTrue(refreshTimeToLive == null || refreshTimeToLive.getValue() >= 0, "refreshTimeToLive == null || refreshTimeToLive.getValue() >= 0");
+
+        this.refreshTimeToLive = refreshTimeToLive;
+
+        return this;
+    }
+
+    /**
+     * Get the clock that is used to record and check the time of the last refresh and of the
+     * refresh lock.
+     * @return The clock that is used to record and check the time of the last refresh.
+     */
+    public Clock getClock()
+    {
+        return this.clock;
+    }
+
+    /**
+     * Get the folder that the Covid-19 data repository is cloned into.
+     * @return The folder that the Covid-19 data repository is cloned into.
+     */
+    public Folder getGitRepositoryFolder()
+    {
+        return this.gitRepositoryFolder;
+    }
+
+    /**
+     * Get the dictionary that the location strings of every daily report that this data source
+     * parses are canonicalized through. A dictionary only grows, so it is replaced with a new one
+     * whenever all of the data may have changed, which keeps it from holding on to location strings
+     * that are no longer in the data.
+     * @return The dictionary that the location strings of this data source's daily reports are
+     * canonicalized through.
+     */
+    public Covid19StringDictionary getStringDictionary()
+    {
+        return this.stringDictionary;
+    }
+
+    /**
+     * Get the cache that holds the daily reports that this data source has already parsed.
+     * @return The cache that holds the daily reports that this data source has already parsed.
+     */
+    public Covid19DailyReportCache getDailyReportCache()
+    {
+        return this.dailyReportCache;
+    }
+
+    /**
+     * Get the binary snapshots of the daily reports that this data source has already parsed.
+     * @return The binary snapshots of the daily reports that this data source has already parsed.
+     */
+    public Covid19DailyReportSnapshots getDailyReportSnapshots()
+    {
+        return this.dailyReportSnapshots;
+    }
+
+    /**
+     * Refresh the data. If there is no refresh time to live, then the data is always pulled. If the
+     * data was refreshed (by this or any other process) within the refresh time to live, then the
+     * data isn't pulled again. Otherwise a lock file in the project data folder ensures that only
+     * one process pulls at a time. Processes that waited for the lock reuse the data that was
+     * pulled while they waited instead of pulling again. Each refresh that has a time to live
+     * records its time and commit, so the returned changes only include the daily reports that
+     * changed since this data source read its data, even when the refresh was done by another
+     * process.
+     * @param verbose The stream that verbose logs will be written to.
+     * @return The daily report changes that were made by refreshing the data.
+     */
+    @Override
+    public Result<Covid19DataChanges> refreshData(CharacterWriteStream verbose)
+    {
+        PreCondition.assertNotNull(verbose, "verbose");
+
+        return Result.create(() ->
+        {
+            Covid19DataChanges result = null;
+
+            final DateTime refreshStartTime = this.clock.getCurrentDateTime();
+            String lastRefreshContents = this.getLastRefreshContents().await();
+            DateTime lastRefreshTime = Covid19GitDataSource.parseLastRefreshTime(lastRefreshContents);
+            if (this.refreshTimeToLive == null)
+            {
+                // Refreshes are only shared between processes when they can be reused, so without a
+                // time to live there is nothing to lock or record.
+                result = this.pullData(verbose).await();
+            }
+            else if (this.isFresh(lastRefreshTime, refreshStartTime) && this.gitRepositoryFolder.exists().await())
+            {
+                verbose.writeLine("Data was refreshed at " + lastRefreshTime + ", which is within the refresh time to live.").await();
+                result = this.getReusedRefreshChanges(lastRefreshContents);
+            }
+            else
+            {
+                this.acquireRefreshLock(verbose).await();
+                try
+                {
+                    lastRefreshContents = this.getLastRefreshContents().await();
+                    lastRefreshTime = Covid19GitDataSource.parseLastRefreshTime(lastRefreshContents);
+                    if (lastRefreshTime != null && !lastRefreshTime.lessThan(refreshStartTime) && this.gitRepositoryFolder.exists().await())
+                    {
+                        verbose.writeLine("Data was refreshed by another process at " + lastRefreshTime + ".").await();
+                        result = this.getReusedRefreshChanges(lastRefreshContents);
+                    }
+                    else
+                    {
+                        final boolean observedLastRefresh = this.hasObservedRefresh(lastRefreshContents);
+
+                        // pullData() throws if git fails, so only a successful pull or clone is
+                        // recorded as a refresh.
+                        final Covid19DataChanges pulledChanges = this.pullData(verbose).await();
+                        String commitId = pulledChanges.getCurrentCommitId();
+                        if (commitId == null)
+                        {
+                            commitId = this.getHeadCommitId().catchError().await();
+                        }
+                        final String refreshContents = Covid19GitDataSource.createLastRefreshContents(this.clock.getCurrentDateTime(), commitId);
+                        this.getLastRefreshFile().setContentsAsString(refreshContents).await();
+
+                        // If another process refreshed the data after this data source read it,
+                        // then the pulled changes don't include that process's changes.
+                        result = observedLastRefresh
+                            ? pulledChanges
+                            : this.getReusedRefreshChanges(refreshContents);
+                        this.observeRefresh(refreshContents);
+                    }
+                }
+                finally
+                {
+                    this.releaseRefreshLock().await();
+                }
+            }
+
+            if (result.isAll())
+            {
+                verbose.writeLine("Daily report changes: all").await();
+            }
+            else
+            {
+                verbose.writeLine("Daily report changes: " + result.getAddedFilePaths().getCount() + " added, " + result.getModifiedFilePaths().getCount() + " modified, " + result.getDeletedFilePaths().getCount() + " deleted").await();
+            }
+            this.applyChanges(result);
+
+            PostCondition.assertNotNull(result, "result");
+
+            return result;
+        });
+    }
+
+    /**
+     * Get whether or not data that was refreshed at the provided time is still within the refresh
+     * time to live.
+     */
+    private boolean isFresh(DateTime lastRefreshTime, DateTime now)
+    {
+        PreCondition.assertNotNull(now, "now");
+
+        return this.refreshTimeToLive != null &&
+            lastRefreshTime != null &&
+            now.lessThan(lastRefreshTime.plus(this.refreshTimeToLive));
+    }
+
+    /**
+     * Get the changes between the data that this data source has already read and the data that
+     * the refresh with the provided last refresh contents left in the cloned repository. If this
+     * data source hasn't read any data yet, or has already observed that refresh, then there are no
+     * changes. Otherwise the changes are taken from the commits of both refreshes, or are all of the
+     * data if either commit isn't known.
+     * @param lastRefreshContents The contents of the last refresh file that was written by the
+     *                            refresh.
+     * @return The changes that this data source needs to apply.
+     */
+    private Covid19DataChanges getReusedRefreshChanges(String lastRefreshContents)
+    {
+        PreCondition.assertNotNullAndNotEmpty(lastRefreshContents, "lastRefreshContents");
+
+        final String commitId = Covid19GitDataSource.parseLastRefreshCommitId(lastRefreshContents);
+        final String observedCommitId;
+        final boolean observed;
+        synchronized (this)
+        {
+            observedCommitId = this.lastObservedCommitId;
+            observed = this.hasObservedRefresh(lastRefreshContents) ||
+                (commitId != null && commitId.equals(observedCommitId));
+        }
+
+        Covid19DataChanges result = null;
+        if (observed)
+        {
+            result = Covid19DataChanges.create();
+        }
+        else
+        {
+            result = this.getDailyReportChanges(observedCommitId, commitId)
+                .catchError()
+                .await();
+            if (result == null)
+            {
+                result = Covid19DataChanges.all();
+            }
+        }
+        this.observeRefresh(lastRefreshContents);
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Get whether or not the data that this data source has read (if any) came from the refresh
+     * with the provided last refresh contents.
+     */
+    private synchronized boolean hasObservedRefresh(String lastRefreshContents)
+    {
+        return !this.dataRead ||
+            Comparer.equal(this.lastObservedRefreshTime, Covid19GitDataSource.parseLastRefreshTime(lastRefreshContents));
+    }
+
+    /**
+     * Remember that the data that this data source reads from now on comes from the refresh with the
+     * provided last refresh contents.
+     */
+    private synchronized void observeRefresh(String lastRefreshContents)
+    {
+        this.lastObservedRefreshTime = Covid19GitDataSource.parseLastRefreshTime(lastRefreshContents);
+        this.lastObservedCommitId = Covid19GitDataSource.parseLastRefreshCommitId(lastRefreshContents);
+    }
+
+    /**
+     * Remember that this data source is reading data from the cloned repository. If this data source
+     * hasn't refreshed the data itself, then the data comes from the most recent refresh.
+     */
+    private synchronized void observeDataRead()
+    {
+        if (!this.dataRead)
+        {
+            this.dataRead = true;
+            if (this.lastObservedRefreshTime == null)
+            {
+                this.observeRefresh(this.getLastRefreshContents().await());
+            }
+        }
+    }
+
+    private File getLastRefreshFile()
+    {
+        return this.projectDataFolder.getFile(Covid19GitDataSource.lastRefreshFileName).await();
+    }
+
+    /**
+     * Get the contents of the last refresh file, or null if no refresh has been recorded. The first
+     * line is the time that the data was last successfully refreshed by any process, and the second
+     * line (if it exists) is the commit that the refresh left the cloned repository at.
+     * @return The contents of the last refresh file.
+     */
+    Result<String> getLastRefreshContents()
+    {
+        return Result.create(() ->
+        {
+            return this.getLastRefreshFile().getContentsAsString()
+                .catchError()
+                .await();
+        });
+    }
+
+    /**
+     * Get the contents of the last refresh file for a refresh that finished at the provided time
+     * and left the cloned repository at the provided commit.
+     */
+    static String createLastRefreshContents(DateTime refreshTime, String commitId)
+    {
+        PreCondition.assertNotNull(refreshTime, "refreshTime");
+
+        return Strings.isNullOrEmpty(commitId)
+            ? refreshTime.toString()
+            : refreshTime + "\n" + commitId;
+    }
+
+    /**
+     * Get the refresh time that is recorded in the provided last refresh contents, or null if the
+     * contents don't record a time.
+     */
+    static DateTime parseLastRefreshTime(String lastRefreshContents)
+    {
+        DateTime result = null;
+        if (!Strings.isNullOrEmpty(lastRefreshContents))
+        {
+            final int newLineIndex = lastRefreshContents.indexOf('\n');
+            result = Covid19GitDataSource.parseDateTime(newLineIndex < 0 ? lastRefreshContents : lastRefreshContents.substring(0, newLineIndex));
+        }
+        return result;
+    }
+
+    /**
+     * Get the commit id that is recorded in the provided last refresh contents, or null if the
+     * contents don't record a commit id.
+     */
+    static String parseLastRefreshCommitId(String lastRefreshContents)
+    {
+        String result = null;
+        if (!Strings.isNullOrEmpty(lastRefreshContents))
+        {
+            final int newLineIndex = lastRefreshContents.indexOf('\n');
+            if (newLineIndex >= 0)
+            {
+                result = lastRefreshContents.substring(newLineIndex + 1).trim();
+                if (result.isEmpty())
+                {
+                    result = null;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static DateTime parseDateTime(String text)
+    {
+        return Strings.isNullOrEmpty(text)
+            ? null
+            : DateTime.parse(text.trim()).catchError().await();
+    }
+
+    private File getRefreshLockFile()
+    {
+        return this.projectDataFolder.getFile(Covid19GitDataSource.refreshLockFileName).await();
+    }
+
+    /**
+     * Get the identifier that this data source writes into the refresh lock file while it holds
+     * the refresh lock.
+     * @return The identifier that this data source writes into the refresh lock file.
+     */
+    String getRefreshLockOwner()
+    {
+        return this.refreshLockOwner;
+    }
+
+    /**
+     * Get the contents that this data source writes into the refresh lock file: the lock's owner on
+     * the first line and the time of the owner's most recent heartbeat on the second line.
+     */
+    private String createRefreshLockContents()
+    {
+        return this.refreshLockOwner + "\n" + this.clock.getCurrentDateTime();
+    }
+
+    /**
+     * Get the owner that is recorded in the provided refresh lock contents, or null if the contents
+     * don't record an owner.
+     */
+    static String parseRefreshLockOwner(String lockContents)
+    {
+        String result = null;
+        if (!Strings.isNullOrEmpty(lockContents))
+        {
+            final int newLineIndex = lockContents.indexOf('\n');
+            if (newLineIndex > 0)
+            {
+                result = lockContents.substring(0, newLineIndex);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the heartbeat time that is recorded in the provided refresh lock contents, or null if the
+     * contents don't record a time.
+     */
+    static DateTime parseRefreshLockTime(String lockContents)
+    {
+        return Strings.isNullOrEmpty(lockContents)
+            ? null
+            : Covid19GitDataSource.parseDateTime(lockContents.substring(lockContents.lastIndexOf('\n') + 1));
+    }
+
+    /**
+     * Get whether or not the provided refresh lock file belongs to a process that stopped
+     * heartbeating more than the refresh lock timeout ago. This only depends on the lock's own
+     * time (or the lock file's last modified time if the lock doesn't record one), never on how
+     * long this process has been waiting for the lock.
+     */
+    private boolean isStale(File lockFile, String lockContents)
+    {
+        DateTime lockTime = Covid19GitDataSource.parseRefreshLockTime(lockContents);
+        if (lockTime == null)
+        {
+            lockTime = lockFile.getLastModified().catchError().await();
+        }
+        return lockTime != null &&
+            lockTime.lessThan(this.clock.getCurrentDateTime().minus(Covid19GitDataSource.refreshLockTimeout));
+    }
+
+    /**
+     * Delete the provided stale refresh lock file if it still has the provided contents. Only one
+     * process at a time can break a stale lock (the one that creates the refresh lock break file),
+     * so a waiter can never delete a lock that another waiter created after the stale lock was
+     * removed.
+     * @return Whether or not the stale refresh lock file was deleted.
+     */
+    private Result<Boolean> breakStaleRefreshLock(File lockFile, String staleLockContents)
+    {
+        return Result.create(() ->
+        {
+            boolean result = false;
+
+            final File breakFile = this.projectDataFolder.getFile(Covid19GitDataSource.refreshLockBreakFileName).await();
+            final File createdBreakFile = breakFile.create()
+                .then(() -> breakFile)
+                .catchError(FileAlreadyExistsException.class)
+                .await();
+            if (createdBreakFile != null)
+            {
+                try
+                {
+                    final String currentLockContents = lockFile.getContentsAsString().catchError().await();
+                    if (Comparer.equal(staleLockContents, currentLockContents))
+                    {
+                        lockFile.delete()
+                            .catchError(FileNotFoundException.class)
+                            .await();
+                        result = true;
+                    }
+                }
+                finally
+                {
+                    createdBreakFile.delete()
+                        .catchError(FileNotFoundException.class)
+                        .await();
+                }
+            }
+            else if (this.isStale(breakFile, null))
+            {
+                // The process that was breaking the stale lock crashed while it held the break file.
+                breakFile.delete()
+                    .catchError(FileNotFoundException.class)
+                    .await();
+            }
+
+            return result;
+        });
+    }
+
+    /**
+     * Acquire the cross-process refresh lock by creating the refresh lock file. If another process
+     * holds the lock, then this waits until that process releases it. While this data source holds
+     * the lock, a background task rewrites the lock's time as a heartbeat once per heartbeat
+     * interval of this data source's clock, which is the same clock that other processes' staleness
+     * checks use. A lock whose owner hasn't sent a heartbeat within the refresh lock timeout is
+     * assumed to belong to a process that crashed and is removed.
+     * @param verbose The stream that verbose logs will be written to.
+     */
+    Result<Void> acquireRefreshLock(CharacterWriteStream verbose)
+    {
+        PreCondition.assertNotNull(verbose, "verbose");
+
+        return Result.create(() ->
+        {
+            this.projectDataFolder.create()
+                .catchError(FolderAlreadyExistsException.class)
+                .await();
+
+            final File lockFile = this.getRefreshLockFile();
+            boolean waiting = false;
+            while (true)
+            {
+                final File createdLockFile = lockFile.create()
+                    .then(() -> lockFile)
+                    .catchError(FileAlreadyExistsException.class)
+                    .await();
+                if (createdLockFile != null)
+                {
+                    synchronized (this.refreshLockMonitor)
+                    {
+                        createdLockFile.setContentsAsString(this.createRefreshLockContents()).await();
+                        final int generation = ++this.refreshLockGeneration;
+                        this.refreshLockHeartbeat = Covid19Tasks.startInBackground("COVID-19 refresh lock heartbeat",
+                            () -> this.runRefreshLockHeartbeat(generation));
+                    }
+                    break;
+                }
+
+                final String lockContents = lockFile.getContentsAsString().catchError().await();
+                if (this.isStale(lockFile, lockContents) && this.breakStaleRefreshLock(lockFile, lockContents).await())
+                {
+                    verbose.writeLine("Removed stale refresh lock " + lockFile + ".").await();
+                }
+                else
+                {
+                    if (!waiting)
+                    {
+                        verbose.writeLine("Waiting for another process to finish refreshing the data...").await();
+                        waiting = true;
+                    }
+
+                    this.clock.delay(Covid19GitDataSource.refreshLockPollInterval).await();
+                }
+            }
+        });
+    }
+
+    /**
+     * Send a heartbeat once per heartbeat interval until the refresh lock that was acquired with
+     * the provided generation is released or taken over by another process.
+     */
+    private Void runRefreshLockHeartbeat(int generation)
+    {
+        boolean holdsLock = true;
+        while (holdsLock)
+        {
+            // Releasing the lock interrupts this delay.
+            this.clock.delay(Covid19GitDataSource.refreshLockHeartbeatInterval)
+                .catchError()
+                .await();
+            synchronized (this.refreshLockMonitor)
+            {
+                holdsLock = generation == this.refreshLockGeneration &&
+                    this.heartbeatRefreshLock().catchError().await() == Boolean.TRUE;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Rewrite the time in the refresh lock file if this data source still holds the refresh lock,
+     * so that waiting processes can tell that the lock's owner is still alive.
+     * @return Whether or not this data source still holds the refresh lock.
+     */
+    Result<Boolean> heartbeatRefreshLock()
+    {
+        return Result.create(() ->
+        {
+            boolean result = false;
+
+            synchronized (this.refreshLockMonitor)
+            {
+                if (this.refreshLockHeartbeat != null)
+                {
+                    final File lockFile = this.getRefreshLockFile();
+                    final String lockContents = lockFile.getContentsAsString().catchError().await();
+                    result = this.refreshLockOwner.equals(Covid19GitDataSource.parseRefreshLockOwner(lockContents));
+                    if (result)
+                    {
+                        lockFile.setContentsAsString(this.createRefreshLockContents()).await();
+                    }
+                }
+            }
 
-        this.git = git;
-        this.gitRepositoryFolder = projectDataFolder.getFolder(Covid19GitDataSource.gitRepositoryName).await();
+            return result;
+        });
     }
 
-    public static Covid19GitDataSource create(Folder projectDataFolder, Git git)
+    /**
+     * Release the cross-process refresh lock by stopping its heartbeat and deleting the refresh
+     * lock file. The refresh lock file is only deleted if this data source owns it.
+     */
+    Result<Void> releaseRefreshLock()
     {
-        return new Covid19GitDataSource(projectDataFolder, git);
+        return Result.create(() ->
+        {
+            synchronized (this.refreshLockMonitor)
+            {
+                if (this.refreshLockHeartbeat != null)
+                {
+                    this.refreshLockHeartbeat.interrupt();
+                    this.refreshLockHeartbeat = null;
+                }
+
+                final File lockFile = this.getRefreshLockFile();
+                final String lockContents = lockFile.getContentsAsString().catchError().await();
+                if (this.refreshLockOwner.equals(Covid19GitDataSource.parseRefreshLockOwner(lockContents)))
+                {
+                    lockFile.delete()
+                        .catchError(FileNotFoundException.class)
+                        .await();
+                }
+            }
+        });
     }
 
-    @Override
-    public Result<Void> refreshData(CharacterWriteStream verbose)
+    /**
+     * Pull the latest data into the cloned repository, or clone the repository if it doesn't exist
+     * yet.
+     * @param verbose The stream that verbose logs will be written to.
+     * @return The daily report changes that were pulled.
+     */
+    private Result<Covid19DataChanges> pullData(CharacterWriteStream verbose)
     {
         PreCondition.assertNotNull(verbose, "verbose");
 
         return Result.create(() ->
         {
+            Covid19DataChanges result;
             if (this.gitRepositoryFolder.exists().await())
             {
-                this.git.getPullProcessBuilder().await()
+                final String previousCommitId = this.getHeadCommitId().catchError().await();
+
+                final List<String> errorLines = List.create();
+                final int exitCode = this.git.getPullProcessBuilder().await()
                     .setWorkingFolder(this.gitRepositoryFolder)
                     .setVerbose(verbose)
                     .redirectOutputLines((String outputLine) -> verbose.writeLine(outputLine).await())
-                    .redirectErrorLines((String errorLine) -> verbose.writeLine(errorLine).await())
+                    .redirectErrorLines((String errorLine) ->
+                    {
+                        errorLines.add(errorLine);
+                        verbose.writeLine(errorLine).await();
+                    })
                     .run()
                     .await();
+                Covid19GitDataSource.assertGitSucceeded("pull", exitCode, errorLines);
+
+                final String currentCommitId = this.getHeadCommitId().catchError().await();
+                result = this.getDailyReportChanges(previousCommitId, currentCommitId)
+                    .catchError()
+                    .await();
+                if (result == null)
+                {
+                    result = Covid19DataChanges.all();
+                }
+            }
+            else if (this.cloneMode == Covid19GitCloneMode.SparseDailyReports)
+            {
+                final Action1<String> writeVerboseLine = (String line) -> verbose.writeLine(line).await();
+
+                this.projectDataFolder.create()
+                    .catchError(FolderAlreadyExistsException.class)
+                    .await();
+                try
+                {
+                    this.runGit(this.projectDataFolder, writeVerboseLine, writeVerboseLine,
+                        "clone", "--filter=blob:none", "--sparse", this.repositoryUrl, this.gitRepositoryFolder.toString())
+                        .await();
+                    this.runGit(this.gitRepositoryFolder, writeVerboseLine, writeVerboseLine,
+                        "sparse-checkout", "set", Covid19GitDataSource.dailyReportsFolderPath)
+                        .await();
+                }
+                catch (Throwable error)
+                {
+                    // Don't leave a partial clone behind that the next refresh would try to pull.
+                    this.gitRepositoryFolder.delete()
+                        .catchError(FolderNotFoundException.class)
+                        .await();
+                    throw Exceptions.asRuntime(error);
+                }
+
+                result = Covid19DataChanges.all();
             }
             else
             {
-                this.git.getCloneProcessBuilder(Covid19GitDataSource.githubRepositoryUrl).await()
+                final List<String> errorLines = List.create();
+                final int exitCode = this.git.getCloneProcessBuilder(this.repositoryUrl).await()
                     .setDirectory(this.gitRepositoryFolder)
                     .setVerbose(verbose)
                     .redirectOutputLines((String outputLine) -> verbose.writeLine(outputLine).await())
-                    .redirectErrorLines((String errorLine) -> verbose.writeLine(errorLine).await())
+                    .redirectErrorLines((String errorLine) ->
+                    {
+                        errorLines.add(errorLine);
+                        verbose.writeLine(errorLine).await();
+                    })
                     .run()
                     .await();
+                if (exitCode != 0)
+                {
+                    // Don't leave a partial clone behind that the next refresh would try to pull.
+                    this.gitRepositoryFolder.delete()
+                        .catchError(FolderNotFoundException.class)
+                        .await();
+                }
+                Covid19GitDataSource.assertGitSucceeded("clone", exitCode, errorLines);
+
+                result = Covid19DataChanges.all();
+            }
+
+            PostCondition.assertNotNull(result, "result");
+
+            return result;
+        });
+    }
+
+    /**
+     * Get the id of the commit that the cloned repository is currently at.
+     * @return The id of the commit that the cloned repository is currently at.
+     */
+    private Result<String> getHeadCommitId()
+    {
+        return Result.create(() ->
+        {
+            final List<String> outputLines = List.create();
+            this.runGit(outputLines::add, "rev-parse", "HEAD").await();
+
+            final String result = outputLines.any() ? outputLines.first().trim() : null;
+            if (Strings.isNullOrEmpty(result))
+            {
+                throw new NotFoundException("Could not determine the HEAD commit of " + this.gitRepositoryFolder + ".");
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Get the daily report files that changed between the provided commits. The blob ids of the
+     * added and modified files are recorded so that their snapshots can be validated without
+     * listing the whole daily reports folder again.
+     * @param previousCommitId The commit that the cloned repository was at before it was refreshed.
+     * @param currentCommitId The commit that the cloned repository is at after it was refreshed.
+     * @return The daily report files that changed between the provided commits.
+     */
+    private Result<Covid19DataChanges> getDailyReportChanges(String previousCommitId, String currentCommitId)
+    {
+        return Result.create(() ->
+        {
+            if (Strings.isNullOrEmpty(previousCommitId) || Strings.isNullOrEmpty(currentCommitId))
+            {
+                throw new NotFoundException("The commits before and after the refresh are not known.");
+            }
+
+            final Covid19DataChanges result = Covid19DataChanges.create()
+                .setPreviousCommitId(previousCommitId)
+                .setCurrentCommitId(currentCommitId);
+            if (!previousCommitId.equals(currentCommitId))
+            {
+                final HashMap<String,String> changedBlobIds = new HashMap<>();
+                this.runGit(
+                    (String outputLine) ->
+                    {
+                        // Each line has the format ":<old mode> <new mode> <old blob id> <new blob id> <status>\t<path>".
+                        final int tabIndex = outputLine.indexOf('\t');
+                        if (outputLine.startsWith(":") && tabIndex > 0)
+                        {
+                            final String[] diffParts = outputLine.substring(1, tabIndex).split(" ");
+                            final String filePathString = outputLine.substring(tabIndex + 1);
+                            if (diffParts.length == 5 && filePathString.endsWith(".csv"))
+                            {
+                                final Path filePath = Path.parse(filePathString);
+                                final String newBlobId = diffParts[3];
+                                final char status = diffParts[4].charAt(0);
+                                switch (status)
+                                {
+                                    case 'A':
+                                        result.addAddedFilePath(filePath);
+                                        changedBlobIds.put(filePathString.substring(filePathString.lastIndexOf('/') + 1), newBlobId);
+                                        break;
+
+                                    case 'D':
+                                        result.addDeletedFilePath(filePath);
+                                        break;
+
+                                    default:
+                                        result.addModifiedFilePath(filePath);
+                                        changedBlobIds.put(filePathString.substring(filePathString.lastIndexOf('/') + 1), newBlobId);
+                                        break;
+                                }
+                            }
+                        }
+                    },
+                    "diff", "--raw", "--no-abbrev", "--no-renames", previousCommitId, currentCommitId, "--", Covid19GitDataSource.dailyReportsFolderPath)
+                    .await();
+
+                synchronized (this)
+                {
+                    // The blob ids map is never modified after it is published, so readers that
+                    // are loading daily reports don't need to lock. Publish an updated copy instead.
+                    final HashMap<String,String> dailyReportBlobIds = this.dailyReportBlobIds;
+                    if (dailyReportBlobIds != null)
+                    {
+                        final HashMap<String,String> newDailyReportBlobIds = new HashMap<>(dailyReportBlobIds);
+                        for (final Path deletedFilePath : result.getDeletedFilePaths())
+                        {
+                            final String deletedFilePathString = deletedFilePath.toString();
+                            newDailyReportBlobIds.remove(deletedFilePathString.substring(deletedFilePathString.lastIndexOf('/') + 1));
+                        }
+                        newDailyReportBlobIds.putAll(changedBlobIds);
+                        this.dailyReportBlobIds = newDailyReportBlobIds;
+                    }
+                }
             }
+
+            return result;
         });
     }
 
+    /**
+     * Update this data source's index, cache, and snapshots so that they reflect the provided
+     * changes. Only the entries for the changed dates are touched unless all of the data may have
+     * changed.
+     * @param changes The changes that were made by refreshing the data.
+     */
+    private synchronized void applyChanges(Covid19DataChanges changes)
+    {
+        PreCondition.assertNotNull(changes, "changes");
+
+        if (changes.any())
+        {
+            ++this.dataGeneration;
+        }
+
+        if (changes.isAll())
+        {
+            this.dailyReportFileIndex = null;
+            this.dailyReportBlobIds = null;
+            this.dailyReportCache.clear();
+            this.timeSeries = null;
+            this.stringDictionary = Covid19StringDictionary.create();
+            this.dailyReportSnapshots.setStringDictionary(this.stringDictionary);
+        }
+        else if (changes.any())
+        {
+            final Iterable<DateTime> changedDates = changes.getChangedDates();
+            final Iterable<DateTime> deletedDates = changes.getDeletedDates();
+
+            for (final DateTime changedDate : changedDates)
+            {
+                this.dailyReportCache.remove(changedDate);
+            }
+            for (final DateTime deletedDate : deletedDates)
+            {
+                this.dailyReportCache.remove(deletedDate);
+                this.dailyReportSnapshots.delete(deletedDate).catchError().await();
+            }
+
+            // Replace the time series instead of modifying it so that a report that is being
+            // written from the old time series isn't affected.
+            final Covid19TimeSeries timeSeries = this.timeSeries;
+            if (timeSeries != null)
+            {
+                final List<DateTime> removedDates = List.create();
+                removedDates.addAll(changedDates);
+                removedDates.addAll(deletedDates);
+                this.timeSeries = timeSeries.without(removedDates);
+            }
+
+            final Covid19DailyReportFileIndex dailyReportFileIndex = this.dailyReportFileIndex;
+            if (dailyReportFileIndex != null)
+            {
+                final Iterable<File> addedFiles = changes.getAddedFilePaths()
+                    .map((Path addedFilePath) -> this.gitRepositoryFolder.getFile(addedFilePath).await())
+                    .toList();
+                this.dailyReportFileIndex = dailyReportFileIndex.withChanges(addedFiles, deletedDates);
+            }
+        }
+    }
+
     @Override
     public Result<Covid19Summary> getDataSummary(Action1<Covid19Issue> onIssue)
     {
@@ -61,30 +1018,42 @@ public class Covid19GitDataSource implements Covid19DataSource
         {
             final Covid19Summary result = Covid19Summary.create();
 
-            final Iterable<File> dailyReportFiles = this.getDailyReportFiles().await();
-            result.setDatesReportedCount(dailyReportFiles.getCount());
+            final Covid19DailyReportFileIndex dailyReportFileIndex = this.getDailyReportFileIndex().await();
+            result.setDatesReportedCount(dailyReportFileIndex.getCount());
 
-            final File mostRecentDailyReportFile = Covid19GitDataSource.getMostRecentDailyReportFile(dailyReportFiles);
-            result.setMostRecentDateReported(Covid19GitDataSource.parseDailyReportFileDate(mostRecentDailyReportFile).await());
+            final DateTime mostRecentDateReported = dailyReportFileIndex.getMostRecentDate();
+            if (mostRecentDateReported != null)
+            {
+                result.setMostRecentDateReported(mostRecentDateReported);
 
-            final Covid19DailyReport mostRecentDailyReport = Covid19DailyReport.parse(mostRecentDailyReportFile, onIssue).await();
-            result.setCountriesReportedCount(mostRecentDailyReport.getDataRows()
-                .map(Covid19DailyReportDataRow::getCountryOrRegion)
-                .toSet()
-                .getCount());
+                final Covid19DailyReport mostRecentDailyReport = this.getDailyReport(mostRecentDateReported, onIssue).await();
+                result.setCountriesReportedCount(mostRecentDailyReport.getDataRows()
+                    .map(Covid19DailyReportDataRow::getCountryOrRegion)
+                    .toSet()
+                    .getCount());
+            }
 
             return result;
         });
     }
 
-    private Result<Iterable<File>> getDailyReportFiles()
+    /**
+     * Get the index of the daily report files in the cloned repository. The index is built the
+     * first time it is requested and then reused until the data is refreshed.
+     * @return The index of the daily report files in the cloned repository.
+     */
+    private synchronized Result<Covid19DailyReportFileIndex> getDailyReportFileIndex()
     {
         return Result.create(() ->
         {
-            final Folder dailyReportsFolder = this.gitRepositoryFolder.getFolder("csse_covid_19_data/csse_covid_19_daily_reports/").await();
-            final Iterable<File> result = dailyReportsFolder.getFiles().await()
-                .where((File dailyReportFile) -> Comparer.equal(dailyReportFile.getFileExtension(), ".csv"))
-                .toList();
+            Covid19DailyReportFileIndex result = this.dailyReportFileIndex;
+            if (result == null)
+            {
+                this.observeDataRead();
+                final Folder dailyReportsFolder = this.gitRepositoryFolder.getFolder(Covid19GitDataSource.dailyReportsFolderPath).await();
+                result = Covid19DailyReportFileIndex.create(dailyReportsFolder).await();
+                this.dailyReportFileIndex = result;
+            }
 
             PostCondition.assertNotNull(result, "result");
 
@@ -92,43 +1061,121 @@ public class Covid19GitDataSource implements Covid19DataSource
         });
     }
 
-    private Result<File> getMostRecentDailyReportFile()
+    /**
+     * Get the git blob ids of the daily report files in the cloned repository, keyed by file name.
+     * The blob ids are used to determine whether or not a daily report's snapshot is up to date. If
+     * the blob ids can't be determined, then an empty map will be returned and snapshots won't be
+     * used.
+     * @return The git blob ids of the daily report files, keyed by file name.
+     */
+    private synchronized Result<HashMap<String,String>> getDailyReportBlobIds()
     {
         return Result.create(() ->
         {
-            final Iterable<File> dailyReportFiles = this.getDailyReportFiles().await();
-            return Covid19GitDataSource.getMostRecentDailyReportFile(dailyReportFiles);
+            HashMap<String,String> result = this.dailyReportBlobIds;
+            if (result == null)
+            {
+                this.observeDataRead();
+                final HashMap<String,String> blobIds = new HashMap<>();
+                this.runGit(
+                    (String outputLine) ->
+                    {
+                        // Each line has the format "<mode> <blob id> <stage>\t<path>".
+                        final int tabIndex = outputLine.indexOf('\t');
+                        if (tabIndex > 0)
+                        {
+                            final String[] stageParts = outputLine.substring(0, tabIndex).split(" ");
+                            final String filePath = outputLine.substring(tabIndex + 1);
+                            if (stageParts.length == 3)
+                            {
+                                blobIds.put(filePath.substring(filePath.lastIndexOf('/') + 1), stageParts[1]);
+                            }
+                        }
+                    },
+                    "ls-files", "--stage", "--", Covid19GitDataSource.dailyReportsFolderPath)
+                    .catchError((Throwable error) -> blobIds.clear())
+                    .await();
+                result = blobIds;
+                this.dailyReportBlobIds = result;
+            }
+
+            PostCondition.assertNotNull(result, "result");
+
+            return result;
         });
     }
 
-    private static File getMostRecentDailyReportFile(Iterable<File> dailyReportFiles)
+    /**
+     * Run git with the provided arguments in the cloned repository.
+     * @param onOutputLine The action that will be invoked for each line that git writes to its
+     *                     output stream.
+     * @param arguments The arguments to pass to git.
+     * @return The result of running git.
+     */
+    private Result<Void> runGit(Action1<String> onOutputLine, String... arguments)
+    {
+        return this.runGit(this.gitRepositoryFolder, onOutputLine, (String errorLine) -> {}, arguments);
+    }
+
+    /**
+     * Run git with the provided arguments in the provided working folder.
+     * @param workingFolder The folder that git will run in.
+     * @param onOutputLine The action that will be invoked for each line that git writes to its
+     *                     output stream.
+     * @param onErrorLine The action that will be invoked for each line that git writes to its
+     *                    error stream.
+     * @param arguments The arguments to pass to git.
+     * @return The result of running git.
+     */
+    private Result<Void> runGit(Folder workingFolder, Action1<String> onOutputLine, Action1<String> onErrorLine, String... arguments)
     {
-        PreCondition.assertNotNull(dailyReportFiles, "dailyReportFiles");
+        PreCondition.assertNotNull(workingFolder, "workingFolder");
+        PreCondition.assertNotNull(onOutputLine, "onOutputLine");
+        PreCondition.assertNotNull(onErrorLine, "onErrorLine");
+        PreCondition.assertNotNull(arguments, "arguments");
 
-        return dailyReportFiles.maximum((File lhs, File rhs) ->
+        return Result.create(() ->
         {
-            final DateTime lhsDate = Covid19GitDataSource.parseDailyReportFileDate(lhs).catchError().await();
-            final DateTime rhsDate = Covid19GitDataSource.parseDailyReportFileDate(rhs).catchError().await();
-            return Comparer.compare(lhsDate, rhsDate);
+            final List<String> errorLines = List.create();
+            final int exitCode = this.git.getProcessBuilder().await()
+                .addArguments(arguments)
+                .setWorkingFolder(workingFolder)
+                .redirectOutputLines(onOutputLine)
+                .redirectErrorLines((String errorLine) ->
+                {
+                    errorLines.add(errorLine);
+                    onErrorLine.run(errorLine);
+                })
+                .run()
+                .await();
+            Covid19GitDataSource.assertGitSucceeded(String.join(" ", arguments), exitCode, errorLines);
         });
     }
 
     /**
-     * Parse the date for the provided daily report file.
-     * @param dailyReportFile The daily report file to get the date of.
-     * @return The date of the provided daily report file.
+     * Throw an exception if the provided git command didn't exit successfully.
+     * @param command The git command (without "git") that was run.
+     * @param exitCode The exit code of the git command.
+     * @param errorLines The lines that the git command wrote to its error stream.
      */
-    private static Result<DateTime> parseDailyReportFileDate(File dailyReportFile)
+    private static void assertGitSucceeded(String command, int exitCode, Iterable<String> errorLines)
     {
-        PreCondition.assertNotNull(dailyReportFile, "dailyReportFile");
+        if (exitCode != 0)
+        {
+            throw new RuntimeException("\"git " + command + "\" failed with exit code " + exitCode + ": " + String.join("\n", errorLines));
+        }
+    }
 
+    private Result<File> getMostRecentDailyReportFile()
+    {
         return Result.create(() ->
         {
-            final String[] dateParts = dailyReportFile.getNameWithoutFileExtension().split("-");
-            final int month = Integers.parse(dateParts[0]).await();
-            final int day = Integers.parse(dateParts[1]).await();
-            final int year = Integers.parse(dateParts[2]).await();
-            return DateTime.create(year, month, day);
+            final File result = this.getDailyReportFileIndex().await().getMostRecentFile();
+            if (result == null)
+            {
+                throw new NotFoundException("No daily reports found.");
+            }
+            return result;
         });
     }
 
@@ -140,14 +1187,356 @@ public class Covid19GitDataSource implements Covid19DataSource
 
         return Result.create(() ->
         {
-            final DateTime onlyDate = DateTime.create(date.getYear(), date.getMonth(), date.getDayOfMonth());
-            final Iterable<File> dailyReportFiles = this.getDailyReportFiles().await();
-            final File dailyReportFile = dailyReportFiles.first((File file) -> onlyDate.equals(Covid19GitDataSource.parseDailyReportFileDate(file).await()));
-            if (dailyReportFile == null)
+            Covid19DailyReport result = this.dailyReportCache.get(date, onIssue)
+                .catchError(NotFoundException.class)
+                .await();
+            if (result == null)
+            {
+                final long dataGeneration = this.getDataGeneration();
+                final File dailyReportFile = this.getDailyReportFileIndex().await().getFile(date).await();
+
+                final List<Covid19Issue> issues = List.create();
+                result = this.loadDailyReport(date, dailyReportFile, issues).await();
+                this.setCachedDailyReport(dataGeneration, date, result, issues);
+
+                for (final Covid19Issue issue : issues)
+                {
+                    onIssue.run(issue);
+                }
+            }
+
+            PostCondition.assertNotNull(result, "result");
+
+            return result;
+        });
+    }
+
+    /**
+     * Get the daily reports for the provided dates. Daily reports that aren't cached are loaded in
+     * parallel, up to this data source's parallelism. Each file's issues are collected while it is
+     * loaded and are reported afterwards in the order of the provided dates, so the issues
+     * are the same as if the daily reports had been loaded one at a time.
+     * @param dates The dates to get the daily reports for.
+     * @return The daily reports for the provided dates, in the same order as the provided dates.
+     */
+    @Override
+    public Result<Iterable<Covid19DailyReport>> getDailyReports(Iterable<DateTime> dates, Action1<Covid19Issue> onIssue)
+    {
+        PreCondition.assertNotNull(dates, "dates");
+        PreCondition.assertNotNull(onIssue, "onIssue");
+
+        return Result.create(() ->
+        {
+            final List<DateTime> dateList = List.create();
+            for (final DateTime date : dates)
+            {
+                PreCondition.assertNotNull(date, "date");
+                dateList.add(date);
+            }
+            final int dateCount = dateList.getCount();
+
+            final Covid19DailyReport[] dailyReports = new Covid19DailyReport[dateCount];
+            @SuppressWarnings("unchecked")
+            final List<Covid19Issue>[] dailyReportIssues = new List[dateCount];
+            final List<Integer> uncachedIndexes = List.create();
+            for (int i = 0; i < dateCount; ++i)
+            {
+                final List<Covid19Issue> issues = List.create();
+                dailyReportIssues[i] = issues;
+                dailyReports[i] = this.dailyReportCache.get(dateList.get(i), issues::add)
+                    .catchError(NotFoundException.class)
+                    .await();
+                if (dailyReports[i] == null)
+                {
+                    uncachedIndexes.add(i);
+                }
+            }
+
+            if (uncachedIndexes.any())
+            {
+                // Build the lazily-created state up front so that the loading tasks only read it.
+                final long dataGeneration = this.getDataGeneration();
+                final Covid19DailyReportFileIndex dailyReportFileIndex = this.getDailyReportFileIndex().await();
+                this.getDailyReportBlobIds().await();
+
+                final List<Function0<Covid19DailyReport>> loadTasks = List.create();
+                for (final int index : uncachedIndexes)
+                {
+                    final DateTime date = dateList.get(index);
+                    final File dailyReportFile = dailyReportFileIndex.getFile(date).await();
+                    loadTasks.add(() -> this.loadDailyReport(date, dailyReportFile, dailyReportIssues[index]).await());
+                }
+
+                final List<Covid19DailyReport> loadedDailyReports = Covid19Tasks.runAll(loadTasks, this.parallelism);
+                for (int i = 0; i < loadedDailyReports.getCount(); ++i)
+                {
+                    final int index = uncachedIndexes.get(i);
+                    dailyReports[index] = loadedDailyReports.get(i);
+                    this.setCachedDailyReport(dataGeneration, dateList.get(index), dailyReports[index], dailyReportIssues[index]);
+                }
+            }
+
+            for (final List<Covid19Issue> issues : dailyReportIssues)
+            {
+                for (final Covid19Issue issue : issues)
+                {
+                    onIssue.run(issue);
+                }
+            }
+
+            final Iterable<Covid19DailyReport> result = Iterable.create(dailyReports);
+
+            PostCondition.assertNotNull(result, "result");
+            PostCondition.assertEqual(dateCount, result.getCount(), "result.getCount()");
+
+            return result;
+        });
+    }
+
+    /**
+     * Get the confirmed cases of the provided locations on every date that has a daily report.
+     * @param locations The locations to get the confirmed cases of.
+     * @param onIssue The action that will be invoked for each issue in the daily reports.
+     * @return A time series that contains every date that has a daily report.
+     */
+    public Result<Covid19TimeSeries> getTimeSeries(Iterable<Covid19Location> locations, Action1<Covid19Issue> onIssue)
+    {
+        PreCondition.assertNotNull(locations, "locations");
+        PreCondition.assertNotNull(onIssue, "onIssue");
+
+        return Result.create(() ->
+        {
+            final Iterable<DateTime> dates = this.getDailyReportFileIndex().await().getDates();
+            return this.getTimeSeries(locations, dates, onIssue).await();
+        });
+    }
+
+    /**
+     * Get the confirmed cases of the provided locations on the provided dates. The time series is
+     * kept between calls (as long as the same locations are requested), so only the dates that
+     * haven't been requested before, or whose daily reports have changed since they were
+     * requested, are loaded. Missing dates are loaded in parallel.
+     * @param locations The locations to get the confirmed cases of.
+     * @param dates The dates to get the confirmed cases for.
+     * @param onIssue The action that will be invoked for each issue in the daily reports.
+     * @return A time series that contains at least the provided dates.
+     */
+    @Override
+    public Result<Covid19TimeSeries> getTimeSeries(Iterable<Covid19Location> locations, Iterable<DateTime> dates, Action1<Covid19Issue> onIssue)
+    {
+        PreCondition.assertNotNull(locations, "locations");
+        PreCondition.assertNotNull(dates, "dates");
+        PreCondition.assertNotNull(onIssue, "onIssue");
+
+        return Result.create(() ->
+        {
+            final Covid19TimeSeries result = this.getOrCreateTimeSeries(locations);
+
+            final List<DateTime> missingDates = List.create();
+            for (final DateTime date : dates)
+            {
+                PreCondition.assertNotNull(date, "date");
+                if (!result.contains(date) && !missingDates.any(date::equals))
+                {
+                    missingDates.add(date);
+                }
+            }
+
+            if (missingDates.any())
+            {
+                // Build the lazily-created state up front so that the loading tasks only read it.
+                this.getDailyReportFileIndex().await();
+                this.getDailyReportBlobIds().await();
+
+                final List<Function0<Void>> loadTasks = List.create();
+                for (final DateTime missingDate : missingDates)
+                {
+                    loadTasks.add(() ->
+                    {
+                        final List<Covid19Issue> issues = List.create();
+                        final Covid19DailyReport dailyReport = this.getDailyReport(missingDate, issues::add).await();
+                        result.set(missingDate, dailyReport, issues);
+                        return null;
+                    });
+                }
+                Covid19Tasks.runAll(loadTasks, this.parallelism);
+            }
+
+            for (final DateTime date : dates)
+            {
+                for (final Covid19Issue issue : result.getIssues(date).await())
+                {
+                    onIssue.run(issue);
+                }
+            }
+
+            PostCondition.assertNotNull(result, "result");
+
+            return result;
+        });
+    }
+
+    /**
+     * Get the number of times that refreshed data has been applied to this data source.
+     */
+    private synchronized long getDataGeneration()
+    {
+        return this.dataGeneration;
+    }
+
+    /**
+     * Cache the provided daily report, unless refreshed data was applied to this data source since
+     * the provided data generation. A daily report that was loaded while the data was being
+     * refreshed may be out of date, so it must not replace the entry that applyChanges() evicted.
+     */
+    private synchronized void setCachedDailyReport(long dataGeneration, DateTime date, Covid19DailyReport dailyReport, Iterable<Covid19Issue> issues)
+    {
+        if (dataGeneration == this.dataGeneration)
+        {
+            this.dailyReportCache.set(date, dailyReport, issues);
+        }
+    }
+
+    /**
+     * Get the time series for the provided locations, creating a new one if the current time series
+     * doesn't track the provided locations.
+     */
+    private synchronized Covid19TimeSeries getOrCreateTimeSeries(Iterable<Covid19Location> locations)
+    {
+        PreCondition.assertNotNull(locations, "locations");
+
+        Covid19TimeSeries result = this.timeSeries;
+        if (result == null || !result.hasLocations(locations))
+        {
+            result = Covid19TimeSeries.create(locations);
+            this.timeSeries = result;
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Get the data rows of the daily report for the provided date that match the provided location
+     * condition. A daily report that is cached or has an up-to-date snapshot is loaded whole (and
+     * cached), filtered in memory, and all of its issues are reported. Otherwise the daily report
+     * file is parsed with the condition pushed down into the parser, so data rows are only created
+     * (and issues are only reported) for the rows that match. Daily reports that are parsed this
+     * way are not cached or snapshotted because they are incomplete.
+     * @param date The date to get the daily report for.
+     * @param locationCondition The condition that data rows must match in order to be included in
+     *                          the returned daily report, or null to include every data row.
+     * @return The daily report for the provided date that only contains the matching data rows.
+     */
+    @Override
+    public Result<Covid19DailyReport> getDailyReport(DateTime date, Covid19LocationCondition locationCondition, Action1<Covid19Issue> onIssue)
+    {
+        PreCondition.assertNotNull(date, "date");
+        PreCondition.assertNotNull(onIssue, "onIssue");
+
+        return Result.create(() ->
+        {
+            Covid19DailyReport result;
+            if (locationCondition == null)
+            {
+                result = this.getDailyReport(date, onIssue).await();
+            }
+            else
+            {
+                Covid19DailyReport fullDailyReport = this.dailyReportCache.get(date, onIssue)
+                    .catchError(NotFoundException.class)
+                    .await();
+                File dailyReportFile = null;
+                if (fullDailyReport == null)
+                {
+                    final long dataGeneration = this.getDataGeneration();
+                    dailyReportFile = this.getDailyReportFileIndex().await().getFile(date).await();
+
+                    final List<Covid19Issue> issues = List.create();
+                    fullDailyReport = this.readDailyReportSnapshot(date, dailyReportFile, issues).await();
+                    if (fullDailyReport != null)
+                    {
+                        this.setCachedDailyReport(dataGeneration, date, fullDailyReport, issues);
+                        for (final Covid19Issue issue : issues)
+                        {
+                            onIssue.run(issue);
+                        }
+                    }
+                }
+
+                if (fullDailyReport != null)
+                {
+                    result = fullDailyReport.where(locationCondition);
+                }
+                else
+                {
+                    result = Covid19DailyReport.parse(dailyReportFile, locationCondition, this.stringDictionary, onIssue).await();
+                }
+            }
+
+            PostCondition.assertNotNull(result, "result");
+
+            return result;
+        });
+    }
+
+    /**
+     * Read the up-to-date snapshot of the provided daily report file.
+     * @param date The date of the daily report.
+     * @param dailyReportFile The daily report file.
+     * @param issues The list that the daily report's issues will be added to.
+     * @return The daily report from the snapshot, or null if no up-to-date snapshot exists.
+     */
+    private Result<Covid19DailyReport> readDailyReportSnapshot(DateTime date, File dailyReportFile, List<Covid19Issue> issues)
+    {
+        PreCondition.assertNotNull(date, "date");
+        PreCondition.assertNotNull(dailyReportFile, "dailyReportFile");
+        PreCondition.assertNotNull(issues, "issues");
+
+        return Result.create(() ->
+        {
+            Covid19DailyReport result = null;
+            final String sourceKey = this.getDailyReportBlobIds().await().get(dailyReportFile.getName());
+            if (sourceKey != null)
+            {
+                result = this.dailyReportSnapshots.read(date, sourceKey, issues::add)
+                    .catchError()
+                    .await();
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Load the daily report from the provided daily report file. If an up-to-date snapshot of the
+     * daily report exists, then the snapshot will be read instead of parsing the file. Otherwise
+     * the file will be parsed and a new snapshot will be written.
+     * @param date The date of the daily report.
+     * @param dailyReportFile The daily report file.
+     * @param issues The list that the daily report's issues will be added to.
+     * @return The loaded daily report.
+     */
+    private Result<Covid19DailyReport> loadDailyReport(DateTime date, File dailyReportFile, List<Covid19Issue> issues)
+    {
+        PreCondition.assertNotNull(date, "date");
+        PreCondition.assertNotNull(dailyReportFile, "dailyReportFile");
+        PreCondition.assertNotNull(issues, "issues");
+
+        return Result.create(() ->
+        {
+            Covid19DailyReport result = this.readDailyReportSnapshot(date, dailyReportFile, issues).await();
+            if (result == null)
             {
-                throw new NotFoundException("No daily report found for the date " + QubCovid19.toString(onlyDate) + ".");
+                final String sourceKey = this.getDailyReportBlobIds().await().get(dailyReportFile.getName());
+                result = Covid19DailyReport.parse(dailyReportFile, null, this.stringDictionary, issues::add).await();
+                if (sourceKey != null)
+                {
+                    this.dailyReportSnapshots.write(date, sourceKey, result, issues)
+                        .catchError()
+                        .await();
+                }
             }
-            final Covid19DailyReport result = Covid19DailyReport.parse(dailyReportFile, onIssue).await();
 
             PostCondition.assertNotNull(result, "result");
 
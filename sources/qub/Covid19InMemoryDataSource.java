@@ -3,10 +3,12 @@ package qub;
 public class Covid19InMemoryDataSource implements Covid19DataSource
 {
     private final MutableMap<DateTime,Covid19DailyReport> dailyReports;
+    private Function1<CharacterWriteStream,Result<Covid19DataChanges>> refreshDataFunction;
 
     private Covid19InMemoryDataSource()
     {
         this.dailyReports = Map.create();
+        this.refreshDataFunction = (CharacterWriteStream verbose) -> Result.success(Covid19DataChanges.create());
     }
 
     public static Covid19InMemoryDataSource create()
@@ -31,12 +33,27 @@ public class Covid19InMemoryDataSource implements Covid19DataSource
         return this;
     }
 
+    /**
+     * Set the function that will be invoked when this data source's data is refreshed. By default
+     * refreshing the data doesn't change anything.
+     * @param refreshDataFunction The function that will be invoked when the data is refreshed.
+     * @return This object for method chaining.
+     */
+    public Covid19InMemoryDataSource setRefreshDataFunction(Function1<CharacterWriteStream,Result<Covid19DataChanges>> refreshDataFunction)
+    {
+        PreCondition.assertNotNull(refreshDataFunction, "refreshDataFunction");
+
+        this.refreshDataFunction = refreshDataFunction;
+
+        return this;
+    }
+
     @Override
-    public Result<Void> refreshData(CharacterWriteStream verbose)
+    public Result<Covid19DataChanges> refreshData(CharacterWriteStream verbose)
     {
         PreCondition.assertNotNull(verbose, "verbose");
 
-        return Result.success();
+        return this.refreshDataFunction.run(verbose);
     }
 
     @Override
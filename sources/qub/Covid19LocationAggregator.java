@@ -0,0 +1,333 @@
+package qub;
+
+import java.util.Arrays;
+
+/**
+ * Computes the confirmed cases of many locations from a daily report in one scan over the daily
+ * report's data rows. Locations whose conditions only check for exact county, state or province,
+ * and country or region values (which is most of them) are put in hash tables that are keyed by
+ * location codes, so each data row only costs one lookup per combination of checked location
+ * properties instead of one condition evaluation per location. The matches of the remaining
+ * locations that only check location properties are remembered per distinct tuple of location
+ * codes, so they are evaluated once per tuple across every daily report that uses the same
+ * dictionary. The Contains conditions of every location share one Covid19SubstringMatcher, so each
+ * distinct location string is scanned once for all of their substrings. Only the locations that
+ * check confirmed cases are evaluated for every data row.
+ */
+public class Covid19LocationAggregator
+{
+    private final List<Covid19Location> locations;
+    private final Covid19StringDictionary stringDictionary;
+    private volatile Plan plan;
+
+    private Covid19LocationAggregator(Iterable<Covid19Location> locations)
+    {
+        PreCondition.assertNotNull(locations, "locations");
+
+        this.locations = List.create();
+        this.locations.addAll(locations);
+        this.stringDictionary = Covid19StringDictionary.create();
+    }
+
+    /**
+     * Create a new Covid19LocationAggregator for the provided locations.
+     * @param locations The locations to compute the confirmed cases of.
+     * @return The new Covid19LocationAggregator.
+     */
+    public static Covid19LocationAggregator create(Iterable<Covid19Location> locations)
+    {
+        return new Covid19LocationAggregator(locations);
+    }
+
+    /**
+     * Get the locations that this aggregator computes the confirmed cases of.
+     * @return The locations that this aggregator computes the confirmed cases of.
+     */
+    public Iterable<Covid19Location> getLocations()
+    {
+        return this.locations;
+    }
+
+    /**
+     * Get the sum of the confirmed cases of the data rows that match each of this aggregator's
+     * locations. A location without a condition matches every data row. This can be called for
+     * different daily reports at the same time.
+     * @param dailyReport The daily report to get the confirmed cases from.
+     * @return The confirmed cases of each location, in the same order as getLocations().
+     */
+    public int[] getConfirmedCasesSums(Covid19DailyReport dailyReport)
+    {
+        PreCondition.assertNotNull(dailyReport, "dailyReport");
+
+        final int[] result = new int[this.locations.getCount()];
+        if (result.length > 0)
+        {
+            if (dailyReport instanceof Covid19ColumnarDailyReport)
+            {
+                final Covid19ColumnarDailyReport columnarDailyReport = (Covid19ColumnarDailyReport)dailyReport;
+                final Plan plan = this.getPlan(columnarDailyReport.getStringDictionary(), dailyReport);
+                final Covid19LocationCodesMap newMatches = Covid19LocationCodesMap.create();
+                final int dataRowCount = columnarDailyReport.getDataRowCount();
+                for (int dataRowIndex = 0; dataRowIndex < dataRowCount; ++dataRowIndex)
+                {
+                    if (columnarDailyReport.hasConfirmedCases(dataRowIndex))
+                    {
+                        plan.add(
+                            columnarDailyReport.getCountyCode(dataRowIndex),
+                            columnarDailyReport.getStateOrProvinceCode(dataRowIndex),
+                            columnarDailyReport.getCountryOrRegionCode(dataRowIndex),
+                            columnarDailyReport.getConfirmedCases(dataRowIndex),
+                            newMatches,
+                            result);
+                    }
+                }
+                plan.matchCache.addMatches(newMatches);
+            }
+            else
+            {
+                final Plan plan = this.getPlan(this.stringDictionary, dailyReport);
+                final Covid19LocationCodesMap newMatches = Covid19LocationCodesMap.create();
+                for (final Covid19DailyReportDataRow dataRow : dailyReport.getDataRows())
+                {
+                    final Integer confirmedCases = dataRow.getConfirmedCases();
+                    if (confirmedCases != null)
+                    {
+                        plan.add(
+                            this.stringDictionary.getCode(dataRow.getCounty()),
+                            this.stringDictionary.getCode(dataRow.getStateOrProvince()),
+                            this.stringDictionary.getCode(dataRow.getCountryOrRegion()),
+                            confirmedCases,
+                            newMatches,
+                            result);
+                    }
+                }
+                plan.matchCache.addMatches(newMatches);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the plan for location codes from the provided dictionary. The most recently used plan is
+     * kept, so a data source that uses one dictionary only compiles its locations once. A new
+     * plan's location conditions are optimized with the value statistics of the provided daily
+     * report. Callers that race to create a plan for a new dictionary each create an equivalent
+     * plan, and the last one is kept.
+     */
+    private Plan getPlan(Covid19StringDictionary stringDictionary, Covid19DailyReport dailyReport)
+    {
+        Plan result = this.plan;
+        if (result == null || result.stringDictionary != stringDictionary)
+        {
+            result = new Plan(this.locations, stringDictionary, Covid19LocationConditionOptimizer.create().addDailyReport(dailyReport));
+            this.plan = result;
+        }
+        return result;
+    }
+
+    private static class Plan
+    {
+        private final Covid19StringDictionary stringDictionary;
+        private final LocationCodesTable locationCodesTable;
+        private final int[] cachedLocationIndexes;
+        private final Covid19LocationMatchCache matchCache;
+        private final int[] conditionLocationIndexes;
+        private final Covid19CompiledLocationCondition[] conditions;
+
+        private Plan(List<Covid19Location> locations, Covid19StringDictionary stringDictionary, Covid19LocationConditionOptimizer optimizer)
+        {
+            this.stringDictionary = stringDictionary;
+            this.locationCodesTable = new LocationCodesTable();
+
+            final Covid19LocationCondition[] locationConditions = new Covid19LocationCondition[locations.getCount()];
+            final List<String> containsSubstrings = List.create();
+            for (int locationIndex = 0; locationIndex < locationConditions.length; ++locationIndex)
+            {
+                final Covid19LocationCondition locationCondition = locations.get(locationIndex).getCondition();
+                if (locationCondition != null)
+                {
+                    locationConditions[locationIndex] = optimizer.optimize(locationCondition);
+                    Plan.addContainsSubstrings(locationConditions[locationIndex], containsSubstrings);
+                }
+            }
+            final Covid19SubstringMatcher substringMatcher = Covid19SubstringMatcher.create(stringDictionary, containsSubstrings);
+
+            final List<Integer> cachedLocationIndexes = List.create();
+            final List<Covid19CompiledLocationCondition> cachedConditions = List.create();
+            final List<Integer> conditionLocationIndexes = List.create();
+            final List<Covid19CompiledLocationCondition> conditions = List.create();
+            for (int locationIndex = 0; locationIndex < locationConditions.length; ++locationIndex)
+            {
+                final Covid19LocationCondition locationCondition = locationConditions[locationIndex];
+                if (locationCondition == null)
+                {
+                    this.locationCodesTable.add(Covid19ColumnarDailyReport.anyCode, Covid19ColumnarDailyReport.anyCode, Covid19ColumnarDailyReport.anyCode, locationIndex);
+                }
+                else
+                {
+                    final Covid19CompiledLocationCondition compiledLocationCondition = Covid19CompiledLocationCondition.compile(locationCondition, stringDictionary, substringMatcher);
+                    final int[] locationCodes = compiledLocationCondition.getLocationCodes();
+                    if (locationCodes != null)
+                    {
+                        this.locationCodesTable.add(locationCodes[0], locationCodes[1], locationCodes[2], locationIndex);
+                    }
+                    else if (compiledLocationCondition.isLocationOnly())
+                    {
+                        cachedLocationIndexes.add(locationIndex);
+                        cachedConditions.add(compiledLocationCondition);
+                    }
+                    else
+                    {
+                        conditionLocationIndexes.add(locationIndex);
+                        conditions.add(compiledLocationCondition);
+                    }
+                }
+            }
+
+            this.cachedLocationIndexes = new int[cachedLocationIndexes.getCount()];
+            for (int i = 0; i < this.cachedLocationIndexes.length; ++i)
+            {
+                this.cachedLocationIndexes[i] = cachedLocationIndexes.get(i);
+            }
+            this.matchCache = Covid19LocationMatchCache.create(cachedConditions);
+
+            this.conditionLocationIndexes = new int[conditionLocationIndexes.getCount()];
+            this.conditions = new Covid19CompiledLocationCondition[conditions.getCount()];
+            for (int i = 0; i < this.conditions.length; ++i)
+            {
+                this.conditionLocationIndexes[i] = conditionLocationIndexes.get(i);
+                this.conditions[i] = conditions.get(i);
+            }
+        }
+
+        /**
+         * Add the substrings of the provided condition's location Contains conditions to the
+         * provided list.
+         */
+        private static void addContainsSubstrings(Covid19LocationCondition condition, List<String> containsSubstrings)
+        {
+            if (condition instanceof Covid19LocationGroupCondition)
+            {
+                for (final Covid19LocationCondition childCondition : ((Covid19LocationGroupCondition)condition).getConditions())
+                {
+                    Plan.addContainsSubstrings(childCondition, containsSubstrings);
+                }
+            }
+            else if (condition instanceof Covid19LocationPropertyCondition)
+            {
+                final Covid19LocationPropertyCondition propertyCondition = (Covid19LocationPropertyCondition)condition;
+                if (propertyCondition.getOperator() == Covid19LocationPropertyConditionOperator.Contains &&
+                    propertyCondition.getExpectedPropertyValue() instanceof String &&
+                    !Covid19DailyReportDataRow.confirmedCasesPropertyName.equalsIgnoreCase(propertyCondition.getPropertyName()))
+                {
+                    containsSubstrings.add((String)propertyCondition.getExpectedPropertyValue());
+                }
+            }
+        }
+
+        /**
+         * Add the confirmed cases of a data row with the provided location codes to the sums of the
+         * locations that the data row matches. Location code tuples that the match cache hasn't
+         * seen yet are added to the provided new matches.
+         */
+        private void add(int countyCode, int stateOrProvinceCode, int countryOrRegionCode, int confirmedCases, Covid19LocationCodesMap newMatches, int[] confirmedCasesSums)
+        {
+            this.locationCodesTable.add(countyCode, stateOrProvinceCode, countryOrRegionCode, confirmedCases, confirmedCasesSums);
+
+            if (this.cachedLocationIndexes.length > 0)
+            {
+                for (final int cachedConditionIndex : this.matchCache.getMatches(countyCode, stateOrProvinceCode, countryOrRegionCode, newMatches))
+                {
+                    confirmedCasesSums[this.cachedLocationIndexes[cachedConditionIndex]] += confirmedCases;
+                }
+            }
+
+            for (int i = 0; i < this.conditions.length; ++i)
+            {
+                if (this.conditions[i].matches(countyCode, stateOrProvinceCode, countryOrRegionCode, true, confirmedCases))
+                {
+                    confirmedCasesSums[this.conditionLocationIndexes[i]] += confirmedCases;
+                }
+            }
+        }
+    }
+
+    /**
+     * A map from exact location codes to the indexes of the locations that match those codes. The
+     * entries are grouped by which of the location properties they check so that a data row only
+     * needs one lookup per group.
+     */
+    private static class LocationCodesTable
+    {
+        /**
+         * The distinct masks of checked location properties, where bit 0 is the county, bit 1 is
+         * the state or province, and bit 2 is the country or region.
+         */
+        private int[] masks;
+        private final Covid19LocationCodesMap locationIndexes;
+
+        private LocationCodesTable()
+        {
+            this.masks = new int[0];
+            this.locationIndexes = Covid19LocationCodesMap.create();
+        }
+
+        private static int getMask(int countyCode, int stateOrProvinceCode, int countryOrRegionCode)
+        {
+            return (countyCode == Covid19ColumnarDailyReport.anyCode ? 0 : 1) |
+                (stateOrProvinceCode == Covid19ColumnarDailyReport.anyCode ? 0 : 2) |
+                (countryOrRegionCode == Covid19ColumnarDailyReport.anyCode ? 0 : 4);
+        }
+
+        /**
+         * Add the location with the provided index to the entry for the provided location codes.
+         */
+        private void add(int countyCode, int stateOrProvinceCode, int countryOrRegionCode, int locationIndex)
+        {
+            final int mask = LocationCodesTable.getMask(countyCode, stateOrProvinceCode, countryOrRegionCode);
+            boolean hasMask = false;
+            for (final int existingMask : this.masks)
+            {
+                if (existingMask == mask)
+                {
+                    hasMask = true;
+                    break;
+                }
+            }
+            if (!hasMask)
+            {
+                this.masks = Arrays.copyOf(this.masks, this.masks.length + 1);
+                this.masks[this.masks.length - 1] = mask;
+            }
+
+            final int[] existingLocationIndexes = this.locationIndexes.get(countyCode, stateOrProvinceCode, countryOrRegionCode);
+            final int[] locationIndexes = existingLocationIndexes == null
+                ? new int[1]
+                : Arrays.copyOf(existingLocationIndexes, existingLocationIndexes.length + 1);
+            locationIndexes[locationIndexes.length - 1] = locationIndex;
+            this.locationIndexes.set(countyCode, stateOrProvinceCode, countryOrRegionCode, locationIndexes);
+        }
+
+        /**
+         * Add the provided confirmed cases to the sums of every location whose entry matches the
+         * provided location codes.
+         */
+        private void add(int countyCode, int stateOrProvinceCode, int countryOrRegionCode, int confirmedCases, int[] confirmedCasesSums)
+        {
+            for (final int mask : this.masks)
+            {
+                final int[] locationIndexes = this.locationIndexes.get(
+                    (mask & 1) == 0 ? Covid19ColumnarDailyReport.anyCode : countyCode,
+                    (mask & 2) == 0 ? Covid19ColumnarDailyReport.anyCode : stateOrProvinceCode,
+                    (mask & 4) == 0 ? Covid19ColumnarDailyReport.anyCode : countryOrRegionCode);
+                if (locationIndexes != null)
+                {
+                    for (final int locationIndex : locationIndexes)
+                    {
+                        confirmedCasesSums[locationIndex] += confirmedCases;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package qub;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash map from a (county, state or province, country or region) tuple of
+ * Covid19StringDictionary codes to an array of ints. The codes are compared directly, so looking
+ * up a tuple doesn't create any objects.
+ */
+public class Covid19LocationCodesMap
+{
+    private int[] entryCodes;
+    private int[][] entryValues;
+    private int entryCount;
+    /**
+     * The entry index + 1 of each slot, or 0 for an empty slot.
+     */
+    private int[] table;
+
+    private Covid19LocationCodesMap()
+    {
+        this.entryCodes = new int[3 * 8];
+        this.entryValues = new int[8][];
+        this.table = new int[16];
+    }
+
+    /**
+     * Create a new empty Covid19LocationCodesMap.
+     * @return The new Covid19LocationCodesMap.
+     */
+    public static Covid19LocationCodesMap create()
+    {
+        return new Covid19LocationCodesMap();
+    }
+
+    /**
+     * Get the number of tuples in this map.
+     * @return The number of tuples in this map.
+     */
+    public int getCount()
+    {
+        return this.entryCount;
+    }
+
+    private static int hash(int countyCode, int stateOrProvinceCode, int countryOrRegionCode)
+    {
+        int result = countyCode * 0x9E3779B1;
+        result = (result ^ stateOrProvinceCode) * 0x85EBCA6B;
+        result = (result ^ countryOrRegionCode) * 0xC2B2AE35;
+        return result ^ (result >>> 16);
+    }
+
+    private int getEntryIndex(int countyCode, int stateOrProvinceCode, int countryOrRegionCode)
+    {
+        final int tableMask = this.table.length - 1;
+        int slot = Covid19LocationCodesMap.hash(countyCode, stateOrProvinceCode, countryOrRegionCode) & tableMask;
+        int result = -1;
+        while (this.table[slot] != 0)
+        {
+            final int entryIndex = this.table[slot] - 1;
+            final int codesIndex = entryIndex * 3;
+            if (this.entryCodes[codesIndex] == countyCode &&
+                this.entryCodes[codesIndex + 1] == stateOrProvinceCode &&
+                this.entryCodes[codesIndex + 2] == countryOrRegionCode)
+            {
+                result = entryIndex;
+                break;
+            }
+            slot = (slot + 1) & tableMask;
+        }
+        return result;
+    }
+
+    /**
+     * Get the value that is associated with the provided location codes.
+     * @param countyCode The county code.
+     * @param stateOrProvinceCode The state or province code.
+     * @param countryOrRegionCode The country or region code.
+     * @return The value that is associated with the provided location codes, or null if the
+     * location codes aren't in this map.
+     */
+    public int[] get(int countyCode, int stateOrProvinceCode, int countryOrRegionCode)
+    {
+        final int entryIndex = this.getEntryIndex(countyCode, stateOrProvinceCode, countryOrRegionCode);
+        return entryIndex == -1 ? null : this.entryValues[entryIndex];
+    }
+
+    /**
+     * Associate the provided value with the provided location codes.
+     * @param countyCode The county code.
+     * @param stateOrProvinceCode The state or province code.
+     * @param countryOrRegionCode The country or region code.
+     * @param value The value to associate with the location codes.
+     * @return This object for method chaining.
+     */
+    public Covid19LocationCodesMap set(int countyCode, int stateOrProvinceCode, int countryOrRegionCode, int[] value)
+    {
+        PreCondition.assertNotNull(value, "value");
+
+        int entryIndex = this.getEntryIndex(countyCode, stateOrProvinceCode, countryOrRegionCode);
+        if (entryIndex == -1)
+        {
+            entryIndex = this.entryCount;
+            if (entryIndex == this.entryValues.length)
+            {
+                this.entryCodes = Arrays.copyOf(this.entryCodes, this.entryCodes.length * 2);
+                this.entryValues = Arrays.copyOf(this.entryValues, this.entryValues.length * 2);
+            }
+            this.entryCodes[entryIndex * 3] = countyCode;
+            this.entryCodes[entryIndex * 3 + 1] = stateOrProvinceCode;
+            this.entryCodes[entryIndex * 3 + 2] = countryOrRegionCode;
+            ++this.entryCount;
+
+            // Keep the table at most half full so that probe sequences stay short.
+            if (this.entryCount * 2 > this.table.length)
+            {
+                this.table = new int[this.table.length * 2];
+                for (int i = 0; i < this.entryCount; ++i)
+                {
+                    this.insert(i);
+                }
+            }
+            else
+            {
+                this.insert(entryIndex);
+            }
+        }
+        this.entryValues[entryIndex] = value;
+
+        return this;
+    }
+
+    /**
+     * Associate each of the values in the provided map with its location codes in this map.
+     * @param map The map to copy the values from.
+     * @return This object for method chaining.
+     */
+    public Covid19LocationCodesMap setAll(Covid19LocationCodesMap map)
+    {
+        PreCondition.assertNotNull(map, "map");
+
+        for (int entryIndex = 0; entryIndex < map.entryCount; ++entryIndex)
+        {
+            this.set(map.entryCodes[entryIndex * 3], map.entryCodes[entryIndex * 3 + 1], map.entryCodes[entryIndex * 3 + 2], map.entryValues[entryIndex]);
+        }
+
+        return this;
+    }
+
+    /**
+     * Create a new Covid19LocationCodesMap that contains the same values as this map. Changes to
+     * the new map don't affect this map.
+     * @return The new Covid19LocationCodesMap.
+     */
+    public Covid19LocationCodesMap copy()
+    {
+        return Covid19LocationCodesMap.create().setAll(this);
+    }
+
+    private void insert(int entryIndex)
+    {
+        final int tableMask = this.table.length - 1;
+        int slot = Covid19LocationCodesMap.hash(this.entryCodes[entryIndex * 3], this.entryCodes[entryIndex * 3 + 1], this.entryCodes[entryIndex * 3 + 2]) & tableMask;
+        while (this.table[slot] != 0)
+        {
+            slot = (slot + 1) & tableMask;
+        }
+        this.table[slot] = entryIndex + 1;
+    }
+}
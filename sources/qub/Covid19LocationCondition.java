@@ -120,6 +120,16 @@ public interface Covid19LocationCondition
             expectedCountryOrRegionSubstring);
     }
 
+    static Covid19LocationPropertyCondition countryOrRegionIn(String... expectedCountriesOrRegions)
+    {
+        PreCondition.assertNotNull(expectedCountriesOrRegions, "expectedCountriesOrRegions");
+
+        return Covid19LocationPropertyCondition.create(
+            Covid19DailyReportDataRow.countryOrRegionPropertyName,
+            Covid19LocationPropertyConditionOperator.In,
+            Iterable.create(expectedCountriesOrRegions));
+    }
+
     static Covid19LocationPropertyCondition stateOrProvinceEquals(String expectedStateOrProvince)
     {
         return Covid19LocationPropertyCondition.create(
@@ -136,6 +146,16 @@ public interface Covid19LocationCondition
             expectedStateOrProvinceSubstring);
     }
 
+    static Covid19LocationPropertyCondition stateOrProvinceIn(String... expectedStatesOrProvinces)
+    {
+        PreCondition.assertNotNull(expectedStatesOrProvinces, "expectedStatesOrProvinces");
+
+        return Covid19LocationPropertyCondition.create(
+            Covid19DailyReportDataRow.stateOrProvincePropertyName,
+            Covid19LocationPropertyConditionOperator.In,
+            Iterable.create(expectedStatesOrProvinces));
+    }
+
     static Covid19LocationPropertyCondition countyEquals(String expectedCounty)
     {
         return Covid19LocationPropertyCondition.create(
@@ -151,4 +171,14 @@ public interface Covid19LocationCondition
             Covid19LocationPropertyConditionOperator.Contains,
             expectedCounty);
     }
+
+    static Covid19LocationPropertyCondition countyIn(String... expectedCounties)
+    {
+        PreCondition.assertNotNull(expectedCounties, "expectedCounties");
+
+        return Covid19LocationPropertyCondition.create(
+            Covid19DailyReportDataRow.countyPropertyName,
+            Covid19LocationPropertyConditionOperator.In,
+            Iterable.create(expectedCounties));
+    }
 }
@@ -0,0 +1,471 @@
+package qub;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+
+/**
+ * Rewrites Covid19LocationCondition trees into equivalent trees that are cheaper to evaluate.
+ * Nested groups with the same operator are flattened, duplicate conditions are removed, groups that
+ * contain an always true or always false condition are short-circuited, the Equals conditions in an
+ * Or group that check the same location property are merged into one In condition, and the
+ * conditions in each group are ordered so that the group is decided by as few and as cheap evaluations as possible.
+ * The order is based on each condition's estimated cost and selectivity, which use the location
+ * value statistics of the daily reports that have been added to this optimizer. An empty And group
+ * is always true and an empty Or group is always false.
+ */
+public class Covid19LocationConditionOptimizer
+{
+    private static final double equalsCost = 1;
+    private static final double containsCost = 4;
+    private static final double defaultSelectivity = 0.5;
+
+    private final HashMap<String,Integer> countyCounts;
+    private final HashMap<String,Integer> stateOrProvinceCounts;
+    private final HashMap<String,Integer> countryOrRegionCounts;
+    private int dataRowCount;
+
+    private Covid19LocationConditionOptimizer()
+    {
+        this.countyCounts = new HashMap<>();
+        this.stateOrProvinceCounts = new HashMap<>();
+        this.countryOrRegionCounts = new HashMap<>();
+    }
+
+    /**
+     * Create a new Covid19LocationConditionOptimizer without any value statistics.
+     * @return The new Covid19LocationConditionOptimizer.
+     */
+    public static Covid19LocationConditionOptimizer create()
+    {
+        return new Covid19LocationConditionOptimizer();
+    }
+
+    /**
+     * Get the number of data rows that the value statistics of this optimizer are based on.
+     * @return The number of data rows that the value statistics of this optimizer are based on.
+     */
+    public int getDataRowCount()
+    {
+        return this.dataRowCount;
+    }
+
+    /**
+     * Add the location values of the provided daily report's data rows to this optimizer's value
+     * statistics.
+     * @param dailyReport The daily report to add the location values of.
+     * @return This object for method chaining.
+     */
+    public Covid19LocationConditionOptimizer addDailyReport(Covid19DailyReport dailyReport)
+    {
+        PreCondition.assertNotNull(dailyReport, "dailyReport");
+
+        if (dailyReport instanceof Covid19ColumnarDailyReport)
+        {
+            final Covid19ColumnarDailyReport columnarDailyReport = (Covid19ColumnarDailyReport)dailyReport;
+            final Covid19StringDictionary stringDictionary = columnarDailyReport.getStringDictionary();
+            final int dataRowCount = columnarDailyReport.getDataRowCount();
+            for (int dataRowIndex = 0; dataRowIndex < dataRowCount; ++dataRowIndex)
+            {
+                this.addDataRow(
+                    stringDictionary.getString(columnarDailyReport.getCountyCode(dataRowIndex)),
+                    stringDictionary.getString(columnarDailyReport.getStateOrProvinceCode(dataRowIndex)),
+                    stringDictionary.getString(columnarDailyReport.getCountryOrRegionCode(dataRowIndex)));
+            }
+        }
+        else
+        {
+            for (final Covid19DailyReportDataRow dataRow : dailyReport.getDataRows())
+            {
+                this.addDataRow(dataRow.getCounty(), dataRow.getStateOrProvince(), dataRow.getCountryOrRegion());
+            }
+        }
+
+        return this;
+    }
+
+    private void addDataRow(String county, String stateOrProvince, String countryOrRegion)
+    {
+        this.countyCounts.merge(county, 1, Integer::sum);
+        this.stateOrProvinceCounts.merge(stateOrProvince, 1, Integer::sum);
+        this.countryOrRegionCounts.merge(countryOrRegion, 1, Integer::sum);
+        ++this.dataRowCount;
+    }
+
+    /**
+     * Get the Covid19DailyReportDataRow constant for the provided property name if it names a
+     * location property, or null if it doesn't.
+     */
+    private static String getLocationPropertyName(String propertyName)
+    {
+        String result;
+        if (Covid19DailyReportDataRow.countyPropertyName.equalsIgnoreCase(propertyName))
+        {
+            result = Covid19DailyReportDataRow.countyPropertyName;
+        }
+        else if (Covid19DailyReportDataRow.stateOrProvincePropertyName.equalsIgnoreCase(propertyName))
+        {
+            result = Covid19DailyReportDataRow.stateOrProvincePropertyName;
+        }
+        else if (Covid19DailyReportDataRow.countryOrRegionPropertyName.equalsIgnoreCase(propertyName))
+        {
+            result = Covid19DailyReportDataRow.countryOrRegionPropertyName;
+        }
+        else
+        {
+            result = null;
+        }
+        return result;
+    }
+
+    private HashMap<String,Integer> getValueCounts(String propertyName)
+    {
+        final String locationPropertyName = Covid19LocationConditionOptimizer.getLocationPropertyName(propertyName);
+
+        HashMap<String,Integer> result;
+        if (Covid19DailyReportDataRow.countyPropertyName.equals(locationPropertyName))
+        {
+            result = this.countyCounts;
+        }
+        else if (Covid19DailyReportDataRow.stateOrProvincePropertyName.equals(locationPropertyName))
+        {
+            result = this.stateOrProvinceCounts;
+        }
+        else if (Covid19DailyReportDataRow.countryOrRegionPropertyName.equals(locationPropertyName))
+        {
+            result = this.countryOrRegionCounts;
+        }
+        else
+        {
+            result = null;
+        }
+        return result;
+    }
+
+    /**
+     * Get whether or not the provided condition always matches.
+     * @param condition The condition to check.
+     * @return Whether or not the provided condition is an empty And group.
+     */
+    public static boolean isAlwaysTrue(Covid19LocationCondition condition)
+    {
+        return Covid19LocationConditionOptimizer.isEmptyGroup(condition, Covid19LocationGroupConditionOperator.And);
+    }
+
+    /**
+     * Get whether or not the provided condition never matches.
+     * @param condition The condition to check.
+     * @return Whether or not the provided condition is an empty Or group.
+     */
+    public static boolean isAlwaysFalse(Covid19LocationCondition condition)
+    {
+        return Covid19LocationConditionOptimizer.isEmptyGroup(condition, Covid19LocationGroupConditionOperator.Or);
+    }
+
+    private static boolean isEmptyGroup(Covid19LocationCondition condition, Covid19LocationGroupConditionOperator operator)
+    {
+        return condition instanceof Covid19LocationGroupCondition &&
+            ((Covid19LocationGroupCondition)condition).getOperator() == operator &&
+            !((Covid19LocationGroupCondition)condition).getConditions().any();
+    }
+
+    /**
+     * Get the estimated fraction of data rows that the provided condition matches. The estimate is
+     * exact for property conditions on location properties when value statistics have been added,
+     * and group estimates assume that their conditions are independent.
+     * @param condition The condition to estimate the selectivity of.
+     * @return The estimated fraction of data rows that the provided condition matches, between 0
+     * and 1.
+     */
+    public double getSelectivity(Covid19LocationCondition condition)
+    {
+        PreCondition.assertNotNull(condition, "condition");
+
+        double result;
+        if (condition instanceof Covid19LocationGroupCondition)
+        {
+            final Covid19LocationGroupCondition groupCondition = (Covid19LocationGroupCondition)condition;
+            if (groupCondition.getOperator() == Covid19LocationGroupConditionOperator.And)
+            {
+                result = 1;
+                for (final Covid19LocationCondition childCondition : groupCondition.getConditions())
+                {
+                    result *= this.getSelectivity(childCondition);
+                }
+            }
+            else
+            {
+                double notMatchedFraction = 1;
+                for (final Covid19LocationCondition childCondition : groupCondition.getConditions())
+                {
+                    notMatchedFraction *= 1 - this.getSelectivity(childCondition);
+                }
+                result = 1 - notMatchedFraction;
+            }
+        }
+        else if (condition instanceof Covid19LocationPropertyCondition)
+        {
+            result = this.getSelectivity((Covid19LocationPropertyCondition)condition);
+        }
+        else
+        {
+            result = Covid19LocationConditionOptimizer.defaultSelectivity;
+        }
+
+        return result;
+    }
+
+    private double getSelectivity(Covid19LocationPropertyCondition condition)
+    {
+        final HashMap<String,Integer> valueCounts = this.getValueCounts(condition.getPropertyName());
+        final Object expectedPropertyValue = condition.getExpectedPropertyValue();
+
+        // These cases mirror Covid19LocationPropertyCondition.matches().
+        double result;
+        if (valueCounts == null || this.dataRowCount == 0)
+        {
+            result = Covid19LocationConditionOptimizer.defaultSelectivity;
+        }
+        else if (condition.getOperator() == Covid19LocationPropertyConditionOperator.In)
+        {
+            final HashSet<Object> expectedValues = new HashSet<>();
+            int matchCount = 0;
+            for (final Object expectedValue : condition.getExpectedPropertyValues())
+            {
+                if ((expectedValue == null || expectedValue instanceof String) && expectedValues.add(expectedValue))
+                {
+                    matchCount += valueCounts.getOrDefault(expectedValue, 0);
+                }
+            }
+            result = (double)matchCount / this.dataRowCount;
+        }
+        else if (expectedPropertyValue == null)
+        {
+            result = (double)valueCounts.getOrDefault(null, 0) / this.dataRowCount;
+        }
+        else if (!(expectedPropertyValue instanceof String))
+        {
+            result = 0;
+        }
+        else if (condition.getOperator() == Covid19LocationPropertyConditionOperator.Contains)
+        {
+            final String expectedSubstring = (String)expectedPropertyValue;
+            int matchCount = 0;
+            for (final Entry<String,Integer> entry : valueCounts.entrySet())
+            {
+                if (entry.getKey() != null && entry.getKey().contains(expectedSubstring))
+                {
+                    matchCount += entry.getValue();
+                }
+            }
+            result = (double)matchCount / this.dataRowCount;
+        }
+        else
+        {
+            result = (double)valueCounts.getOrDefault(expectedPropertyValue, 0) / this.dataRowCount;
+        }
+        return result;
+    }
+
+    /**
+     * Get the estimated cost of evaluating the provided condition against one data row. A group's
+     * cost takes into account that its evaluation stops at the first condition that decides the
+     * group's result.
+     * @param condition The condition to estimate the cost of.
+     * @return The estimated cost of evaluating the provided condition against one data row.
+     */
+    public double getCost(Covid19LocationCondition condition)
+    {
+        PreCondition.assertNotNull(condition, "condition");
+
+        double result;
+        if (condition instanceof Covid19LocationGroupCondition)
+        {
+            final Covid19LocationGroupCondition groupCondition = (Covid19LocationGroupCondition)condition;
+            final boolean isAnd = (groupCondition.getOperator() == Covid19LocationGroupConditionOperator.And);
+
+            result = 0;
+            double evaluatedFraction = 1;
+            for (final Covid19LocationCondition childCondition : groupCondition.getConditions())
+            {
+                result += evaluatedFraction * this.getCost(childCondition);
+
+                final double childSelectivity = this.getSelectivity(childCondition);
+                evaluatedFraction *= isAnd ? childSelectivity : 1 - childSelectivity;
+            }
+        }
+        else if (condition instanceof Covid19LocationPropertyCondition &&
+            ((Covid19LocationPropertyCondition)condition).getOperator() != Covid19LocationPropertyConditionOperator.Contains)
+        {
+            // An In condition costs one hash lookup no matter how many values it expects.
+            result = Covid19LocationConditionOptimizer.equalsCost;
+        }
+        else
+        {
+            result = Covid19LocationConditionOptimizer.containsCost;
+        }
+        return result;
+    }
+
+    /**
+     * Get a condition that matches the same data rows as the provided condition but that is
+     * cheaper to evaluate. The provided condition is not modified.
+     * @param condition The condition to optimize.
+     * @return The optimized condition.
+     */
+    public Covid19LocationCondition optimize(Covid19LocationCondition condition)
+    {
+        PreCondition.assertNotNull(condition, "condition");
+
+        Covid19LocationCondition result = condition;
+        if (condition instanceof Covid19LocationGroupCondition)
+        {
+            result = this.optimize((Covid19LocationGroupCondition)condition);
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    private Covid19LocationCondition optimize(Covid19LocationGroupCondition condition)
+    {
+        final Covid19LocationGroupConditionOperator operator = condition.getOperator();
+        final boolean isAnd = (operator == Covid19LocationGroupConditionOperator.And);
+
+        final ArrayList<Covid19LocationCondition> children = new ArrayList<>();
+        boolean isDecided = false;
+        for (final Covid19LocationCondition childCondition : condition.getConditions())
+        {
+            final Covid19LocationCondition optimizedChildCondition = this.optimize(childCondition);
+
+            final Iterable<Covid19LocationCondition> flattenedChildConditions =
+                optimizedChildCondition instanceof Covid19LocationGroupCondition &&
+                ((Covid19LocationGroupCondition)optimizedChildCondition).getOperator() == operator
+                    ? ((Covid19LocationGroupCondition)optimizedChildCondition).getConditions()
+                    : Iterable.create(optimizedChildCondition);
+            for (final Covid19LocationCondition flattenedChildCondition : flattenedChildConditions)
+            {
+                // An always false condition decides an And group and an always true condition
+                // decides an Or group.
+                if (isAnd ? Covid19LocationConditionOptimizer.isAlwaysFalse(flattenedChildCondition) : Covid19LocationConditionOptimizer.isAlwaysTrue(flattenedChildCondition))
+                {
+                    isDecided = true;
+                    break;
+                }
+                else if (!children.contains(flattenedChildCondition))
+                {
+                    children.add(flattenedChildCondition);
+                }
+            }
+
+            if (isDecided)
+            {
+                break;
+            }
+        }
+
+        if (!isDecided && !isAnd)
+        {
+            Covid19LocationConditionOptimizer.mergeEqualsConditions(children);
+        }
+
+        Covid19LocationCondition result;
+        if (isDecided)
+        {
+            result = Covid19LocationGroupCondition.create(isAnd ? Covid19LocationGroupConditionOperator.Or : Covid19LocationGroupConditionOperator.And);
+        }
+        else if (children.size() == 1)
+        {
+            result = children.get(0);
+        }
+        else
+        {
+            // For independent conditions, the expected cost of a group is lowest when its
+            // conditions are ordered by their cost divided by the probability that they decide the
+            // group's result.
+            final IdentityHashMap<Covid19LocationCondition,Double> ranks = new IdentityHashMap<>();
+            for (final Covid19LocationCondition child : children)
+            {
+                final double selectivity = this.getSelectivity(child);
+                final double decideProbability = isAnd ? 1 - selectivity : selectivity;
+                ranks.put(child, decideProbability == 0 ? Double.POSITIVE_INFINITY : this.getCost(child) / decideProbability);
+            }
+            children.sort((Covid19LocationCondition lhs, Covid19LocationCondition rhs) -> Double.compare(ranks.get(lhs), ranks.get(rhs)));
+
+            final Covid19LocationGroupCondition groupResult = Covid19LocationGroupCondition.create(operator);
+            for (final Covid19LocationCondition child : children)
+            {
+                groupResult.addCondition(child);
+            }
+            result = groupResult;
+        }
+        return result;
+    }
+
+    /**
+     * Get the location property that the provided condition checks if the condition can be merged
+     * into an In condition, or null if it can't.
+     */
+    private static String getMergeablePropertyName(Covid19LocationCondition condition)
+    {
+        String result = null;
+        if (condition instanceof Covid19LocationPropertyCondition)
+        {
+            final Covid19LocationPropertyCondition propertyCondition = (Covid19LocationPropertyCondition)condition;
+            final Covid19LocationPropertyConditionOperator operator = propertyCondition.getOperator();
+            final Object expectedPropertyValue = propertyCondition.getExpectedPropertyValue();
+            if (operator == Covid19LocationPropertyConditionOperator.In ||
+                (operator == Covid19LocationPropertyConditionOperator.Equals && (expectedPropertyValue == null || expectedPropertyValue instanceof String)))
+            {
+                result = Covid19LocationConditionOptimizer.getLocationPropertyName(propertyCondition.getPropertyName());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Replace the Equals and In conditions of an Or group that check the same location property
+     * with one In condition that expects all of their values.
+     */
+    private static void mergeEqualsConditions(ArrayList<Covid19LocationCondition> conditions)
+    {
+        final LinkedHashMap<String,ArrayList<Covid19LocationPropertyCondition>> mergeableConditions = new LinkedHashMap<>();
+        for (final Covid19LocationCondition condition : conditions)
+        {
+            final String propertyName = Covid19LocationConditionOptimizer.getMergeablePropertyName(condition);
+            if (propertyName != null)
+            {
+                mergeableConditions.computeIfAbsent(propertyName, (String key) -> new ArrayList<>())
+                    .add((Covid19LocationPropertyCondition)condition);
+            }
+        }
+
+        for (final Entry<String,ArrayList<Covid19LocationPropertyCondition>> entry : mergeableConditions.entrySet())
+        {
+            final ArrayList<Covid19LocationPropertyCondition> propertyConditions = entry.getValue();
+            if (propertyConditions.size() >= 2)
+            {
+                final HashSet<Object> distinctExpectedValues = new HashSet<>();
+                final List<Object> expectedValues = List.create();
+                for (final Covid19LocationPropertyCondition propertyCondition : propertyConditions)
+                {
+                    for (final Object expectedValue : propertyCondition.getExpectedPropertyValues())
+                    {
+                        if (distinctExpectedValues.add(expectedValue))
+                        {
+                            expectedValues.add(expectedValue);
+                        }
+                    }
+                }
+
+                final int index = conditions.indexOf(propertyConditions.get(0));
+                conditions.removeAll(propertyConditions);
+                conditions.add(index, Covid19LocationPropertyCondition.create(entry.getKey(), Covid19LocationPropertyConditionOperator.In, expectedValues));
+            }
+        }
+    }
+}
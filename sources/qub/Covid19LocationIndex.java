@@ -0,0 +1,401 @@
+package qub;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Inverted indexes from the county, state or province, and country or region codes of a
+ * Covid19ColumnarDailyReport to the sets of data rows that have those codes. The Equals, In, and
+ * Contains conditions of a Covid19LocationCondition can be resolved to row sets that are combined
+ * with And and Or, so only the data rows that match need to be visited. Contains conditions are
+ * resolved to codes with the dictionary's Covid19SubstringIndex.
+ */
+public class Covid19LocationIndex
+{
+    private final Covid19StringDictionary stringDictionary;
+    private final int dataRowCount;
+    private final CodeRows countyRows;
+    private final CodeRows stateOrProvinceRows;
+    private final CodeRows countryOrRegionRows;
+    private final Covid19RowBitmap noRows;
+
+    private Covid19LocationIndex(Covid19ColumnarDailyReport dailyReport)
+    {
+        PreCondition.assertNotNull(dailyReport, "dailyReport");
+
+        this.stringDictionary = dailyReport.getStringDictionary();
+        this.dataRowCount = dailyReport.getDataRowCount();
+
+        final int[] countyCodes = new int[this.dataRowCount];
+        final int[] stateOrProvinceCodes = new int[this.dataRowCount];
+        final int[] countryOrRegionCodes = new int[this.dataRowCount];
+        for (int dataRowIndex = 0; dataRowIndex < this.dataRowCount; ++dataRowIndex)
+        {
+            countyCodes[dataRowIndex] = dailyReport.getCountyCode(dataRowIndex);
+            stateOrProvinceCodes[dataRowIndex] = dailyReport.getStateOrProvinceCode(dataRowIndex);
+            countryOrRegionCodes[dataRowIndex] = dailyReport.getCountryOrRegionCode(dataRowIndex);
+        }
+        this.countyRows = CodeRows.create(countyCodes);
+        this.stateOrProvinceRows = CodeRows.create(stateOrProvinceCodes);
+        this.countryOrRegionRows = CodeRows.create(countryOrRegionCodes);
+        this.noRows = Covid19RowBitmap.createEmpty(this.dataRowCount);
+    }
+
+    /**
+     * Create a new Covid19LocationIndex for the data rows that the provided daily report contains
+     * now.
+     * @param dailyReport The daily report to index.
+     * @return The new Covid19LocationIndex.
+     */
+    public static Covid19LocationIndex create(Covid19ColumnarDailyReport dailyReport)
+    {
+        return new Covid19LocationIndex(dailyReport);
+    }
+
+    /**
+     * Get the number of data rows that this index covers.
+     * @return The number of data rows that this index covers.
+     */
+    public int getDataRowCount()
+    {
+        return this.dataRowCount;
+    }
+
+    /**
+     * Get the dictionary that this index's location codes come from.
+     * @return The dictionary that this index's location codes come from.
+     */
+    public Covid19StringDictionary getStringDictionary()
+    {
+        return this.stringDictionary;
+    }
+
+    private Covid19RowBitmap getRows(CodeRows rows, int code)
+    {
+        final Covid19RowBitmap result = rows.get(code);
+        return result == null ? this.noRows : result;
+    }
+
+    /**
+     * Get the data rows that have the provided county code.
+     * @param countyCode The county code, or nullCode for data rows without a county.
+     * @return The data rows that have the provided county code.
+     */
+    public Covid19RowBitmap getCountyRows(int countyCode)
+    {
+        return this.getRows(this.countyRows, countyCode);
+    }
+
+    /**
+     * Get the data rows that have the provided state or province code.
+     * @param stateOrProvinceCode The state or province code, or nullCode for data rows without a
+     *                            state or province.
+     * @return The data rows that have the provided state or province code.
+     */
+    public Covid19RowBitmap getStateOrProvinceRows(int stateOrProvinceCode)
+    {
+        return this.getRows(this.stateOrProvinceRows, stateOrProvinceCode);
+    }
+
+    /**
+     * Get the data rows that have the provided country or region code.
+     * @param countryOrRegionCode The country or region code, or nullCode for data rows without a
+     *                            country or region.
+     * @return The data rows that have the provided country or region code.
+     */
+    public Covid19RowBitmap getCountryOrRegionRows(int countryOrRegionCode)
+    {
+        return this.getRows(this.countryOrRegionRows, countryOrRegionCode);
+    }
+
+    /**
+     * Get exactly the data rows that match the provided condition.
+     * @param condition The condition to resolve.
+     * @return The data rows that match the provided condition, or null if the condition checks
+     * something that this index doesn't cover, such as the confirmed cases.
+     */
+    public Covid19RowBitmap getRows(Covid19LocationCondition condition)
+    {
+        PreCondition.assertNotNull(condition, "condition");
+
+        return this.resolve(condition, true);
+    }
+
+    /**
+     * Get the data rows that could match the provided condition. The conditions that this index
+     * doesn't cover are treated as if they match every data row, so the returned data rows still
+     * need to be checked against the condition.
+     * @param condition The condition to resolve.
+     * @return The data rows that could match the provided condition, or null if the condition
+     * could match every data row.
+     */
+    public Covid19RowBitmap getCandidateRows(Covid19LocationCondition condition)
+    {
+        PreCondition.assertNotNull(condition, "condition");
+
+        return this.resolve(condition, false);
+    }
+
+    /**
+     * Resolve the provided condition to a set of data rows. If exact is true, then null is
+     * returned for a condition that this index can't resolve exactly. Otherwise null means that
+     * any data row could match.
+     */
+    private Covid19RowBitmap resolve(Covid19LocationCondition condition, boolean exact)
+    {
+        Covid19RowBitmap result;
+        if (condition instanceof Covid19LocationGroupCondition)
+        {
+            final Covid19LocationGroupCondition groupCondition = (Covid19LocationGroupCondition)condition;
+            if (groupCondition.getOperator() == Covid19LocationGroupConditionOperator.And)
+            {
+                result = exact ? Covid19RowBitmap.createAll(this.dataRowCount) : null;
+                for (final Covid19LocationCondition childCondition : groupCondition.getConditions())
+                {
+                    final Covid19RowBitmap childRows = this.resolve(childCondition, exact);
+                    if (childRows == null)
+                    {
+                        if (exact)
+                        {
+                            result = null;
+                            break;
+                        }
+                    }
+                    else
+                    {
+                        result = (result == null) ? childRows : result.and(childRows);
+                    }
+                }
+            }
+            else
+            {
+                result = this.noRows;
+                for (final Covid19LocationCondition childCondition : groupCondition.getConditions())
+                {
+                    final Covid19RowBitmap childRows = this.resolve(childCondition, exact);
+                    if (childRows == null)
+                    {
+                        result = null;
+                        break;
+                    }
+                    result = result.or(childRows);
+                }
+            }
+        }
+        else if (condition instanceof Covid19LocationPropertyCondition)
+        {
+            result = this.resolve((Covid19LocationPropertyCondition)condition);
+        }
+        else
+        {
+            result = null;
+        }
+        return result;
+    }
+
+    private Covid19RowBitmap resolve(Covid19LocationPropertyCondition condition)
+    {
+        final CodeRows rows = this.getPropertyRows(condition.getPropertyName());
+        final Covid19LocationPropertyConditionOperator operator = condition.getOperator();
+
+        // These cases mirror Covid19LocationPropertyCondition.matches().
+        Covid19RowBitmap result;
+        if (rows == null)
+        {
+            result = null;
+        }
+        else if (operator == Covid19LocationPropertyConditionOperator.Contains && condition.getExpectedPropertyValue() instanceof String)
+        {
+            result = this.getContainsRows(rows, (String)condition.getExpectedPropertyValue());
+        }
+        else if (operator == Covid19LocationPropertyConditionOperator.In)
+        {
+            result = this.noRows;
+            for (final Object expectedValue : condition.getExpectedPropertyValues())
+            {
+                result = result.or(this.getValueRows(rows, expectedValue));
+            }
+        }
+        else
+        {
+            result = this.getValueRows(rows, condition.getExpectedPropertyValue());
+        }
+        return result;
+    }
+
+    private Covid19RowBitmap getValueRows(CodeRows rows, Object expectedValue)
+    {
+        Covid19RowBitmap result;
+        if (expectedValue == null)
+        {
+            result = this.getRows(rows, Covid19StringDictionary.nullCode);
+        }
+        else if (expectedValue instanceof String)
+        {
+            result = this.getRows(rows, this.stringDictionary.getCode((String)expectedValue));
+        }
+        else
+        {
+            // A location is never equal to a number.
+            result = this.noRows;
+        }
+        return result;
+    }
+
+    /**
+     * Get the data rows whose value contains the provided substring by combining the data rows of
+     * every code in this daily report whose string contains the substring.
+     */
+    private Covid19RowBitmap getContainsRows(CodeRows rows, String expectedSubstring)
+    {
+        final BitSet codes = this.stringDictionary.getSubstringIndex().getCodesContaining(expectedSubstring);
+        final int codeCount = rows.getCodeCount();
+        int count = 0;
+        for (int i = 0; i < codeCount; ++i)
+        {
+            final int code = rows.getCode(i);
+            if (code >= 0 && codes.get(code))
+            {
+                count += rows.getRows(i).getCount();
+            }
+        }
+
+        final int[] matchingRows = new int[count];
+        int matchingRowCount = 0;
+        for (int i = 0; i < codeCount; ++i)
+        {
+            final int code = rows.getCode(i);
+            if (code >= 0 && codes.get(code))
+            {
+                final Covid19RowBitmap codeRows = rows.getRows(i);
+                for (int row = codeRows.nextRow(0); row != -1; row = codeRows.nextRow(row + 1))
+                {
+                    matchingRows[matchingRowCount] = row;
+                    ++matchingRowCount;
+                }
+            }
+        }
+        Arrays.sort(matchingRows);
+        return Covid19RowBitmap.create(this.dataRowCount, matchingRows, count);
+    }
+
+    private CodeRows getPropertyRows(String propertyName)
+    {
+        CodeRows result;
+        if (Covid19DailyReportDataRow.countyPropertyName.equalsIgnoreCase(propertyName))
+        {
+            result = this.countyRows;
+        }
+        else if (Covid19DailyReportDataRow.stateOrProvincePropertyName.equalsIgnoreCase(propertyName))
+        {
+            result = this.stateOrProvinceRows;
+        }
+        else if (Covid19DailyReportDataRow.countryOrRegionPropertyName.equalsIgnoreCase(propertyName))
+        {
+            result = this.countryOrRegionRows;
+        }
+        else
+        {
+            result = null;
+        }
+        return result;
+    }
+
+    /**
+     * The data rows of each location code that a daily report uses, sorted by code. Only the codes
+     * that the daily report uses have an entry, so the size of the index doesn't grow with the
+     * number of strings in the shared dictionary.
+     */
+    private static class CodeRows
+    {
+        private final int[] codes;
+        private final Covid19RowBitmap[] rows;
+
+        private CodeRows(int[] codes, Covid19RowBitmap[] rows)
+        {
+            this.codes = codes;
+            this.rows = rows;
+        }
+
+        /**
+         * Group the data rows by the provided codes of each data row. The (code, data row) pairs
+         * are sorted together, so each code's data rows are in increasing order.
+         */
+        private static CodeRows create(int[] dataRowCodes)
+        {
+            final int dataRowCount = dataRowCodes.length;
+            final long[] sortedPairs = new long[dataRowCount];
+            for (int dataRowIndex = 0; dataRowIndex < dataRowCount; ++dataRowIndex)
+            {
+                // Shift the codes by one so that nullCode sorts first as 0.
+                sortedPairs[dataRowIndex] = ((long)(dataRowCodes[dataRowIndex] + 1) << 32) | dataRowIndex;
+            }
+            Arrays.sort(sortedPairs);
+
+            int codeCount = 0;
+            for (int i = 0; i < dataRowCount; ++i)
+            {
+                if (i == 0 || (sortedPairs[i] >>> 32) != (sortedPairs[i - 1] >>> 32))
+                {
+                    ++codeCount;
+                }
+            }
+
+            final int[] codes = new int[codeCount];
+            final Covid19RowBitmap[] rows = new Covid19RowBitmap[codeCount];
+            final int[] codeDataRows = new int[dataRowCount];
+            int codeIndex = 0;
+            int startIndex = 0;
+            while (startIndex < dataRowCount)
+            {
+                final long shiftedCode = sortedPairs[startIndex] >>> 32;
+                int endIndex = startIndex;
+                while (endIndex < dataRowCount && (sortedPairs[endIndex] >>> 32) == shiftedCode)
+                {
+                    codeDataRows[endIndex - startIndex] = (int)sortedPairs[endIndex];
+                    ++endIndex;
+                }
+
+                codes[codeIndex] = (int)shiftedCode - 1;
+                rows[codeIndex] = Covid19RowBitmap.create(dataRowCount, codeDataRows, endIndex - startIndex);
+                ++codeIndex;
+                startIndex = endIndex;
+            }
+
+            return new CodeRows(codes, rows);
+        }
+
+        /**
+         * Get the number of distinct codes that the data rows have.
+         */
+        private int getCodeCount()
+        {
+            return this.codes.length;
+        }
+
+        /**
+         * Get the code at the provided index in increasing code order.
+         */
+        private int getCode(int index)
+        {
+            return this.codes[index];
+        }
+
+        /**
+         * Get the data rows of the code at the provided index.
+         */
+        private Covid19RowBitmap getRows(int index)
+        {
+            return this.rows[index];
+        }
+
+        /**
+         * Get the data rows that have the provided code, or null if no data row has the code.
+         */
+        private Covid19RowBitmap get(int code)
+        {
+            final int index = Arrays.binarySearch(this.codes, code);
+            return index < 0 ? null : this.rows[index];
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package qub;
+
+import java.util.Arrays;
+
+/**
+ * Remembers which of a set of location-only conditions match each distinct (county, state or
+ * province, country or region) tuple of location codes. The same tuples appear in every daily
+ * report, so evaluating the conditions across a long history costs one evaluation of each condition
+ * per distinct tuple plus one hash lookup per data row. The remembered matches are read without
+ * locking. A scan that finds new tuples keeps their matches in its own Covid19LocationCodesMap and
+ * adds them to this cache when it finishes, so scans of different daily reports don't contend
+ * with each other.
+ */
+public class Covid19LocationMatchCache
+{
+    private static final int[] noMatches = new int[0];
+
+    private final Covid19CompiledLocationCondition[] conditions;
+    /**
+     * The remembered matches. The map is replaced instead of being modified, so it can be read
+     * without locking.
+     */
+    private volatile Covid19LocationCodesMap matches;
+
+    private Covid19LocationMatchCache(Iterable<Covid19CompiledLocationCondition> conditions)
+    {
+        PreCondition.assertNotNull(conditions, "conditions");
+
+        final int conditionCount = conditions.getCount();
+        this.conditions = new Covid19CompiledLocationCondition[conditionCount];
+        int conditionIndex = 0;
+        for (final Covid19CompiledLocationCondition condition : conditions)
+        {
+            PreCondition.assertNotNull(condition, "condition");
+            PreCondition.assertTrue(condition.isLocationOnly(), "condition.isLocationOnly()");
+
+            this.conditions[conditionIndex] = condition;
+            ++conditionIndex;
+        }
+        this.matches = Covid19LocationCodesMap.create();
+    }
+
+    /**
+     * Create a new Covid19LocationMatchCache for the provided conditions. Each condition must only
+     * check the location of a data row and must have been compiled with the dictionary that the
+     * location codes passed to getMatches() come from.
+     * @param conditions The conditions to remember the matches of.
+     * @return The new Covid19LocationMatchCache.
+     */
+    public static Covid19LocationMatchCache create(Iterable<Covid19CompiledLocationCondition> conditions)
+    {
+        return new Covid19LocationMatchCache(conditions);
+    }
+
+    /**
+     * Get the number of conditions that this cache remembers the matches of.
+     * @return The number of conditions that this cache remembers the matches of.
+     */
+    public int getConditionCount()
+    {
+        return this.conditions.length;
+    }
+
+    /**
+     * Get the number of distinct location code tuples that this cache has evaluated the conditions
+     * for.
+     * @return The number of distinct location code tuples that this cache has evaluated the
+     * conditions for.
+     */
+    public int getCount()
+    {
+        return this.matches.getCount();
+    }
+
+    /**
+     * Get the indexes of the conditions that match a data row with the provided location codes.
+     * The conditions are only evaluated the first time that a tuple of location codes is seen.
+     * @param countyCode The county code of the data row.
+     * @param stateOrProvinceCode The state or province code of the data row.
+     * @param countryOrRegionCode The country or region code of the data row.
+     * @return The indexes of the conditions that match, in increasing order. The returned array
+     * must not be modified.
+     */
+    public int[] getMatches(int countyCode, int stateOrProvinceCode, int countryOrRegionCode)
+    {
+        final Covid19LocationCodesMap newMatches = Covid19LocationCodesMap.create();
+        final int[] result = this.getMatches(countyCode, stateOrProvinceCode, countryOrRegionCode, newMatches);
+        this.addMatches(newMatches);
+        return result;
+    }
+
+    /**
+     * Get the indexes of the conditions that match a data row with the provided location codes.
+     * The matches of a tuple that isn't in this cache or in the provided new matches are evaluated
+     * and added to the new matches, which must be passed to addMatches() when the caller is done.
+     * @param countyCode The county code of the data row.
+     * @param stateOrProvinceCode The state or province code of the data row.
+     * @param countryOrRegionCode The country or region code of the data row.
+     * @param newMatches The matches that the caller has found that aren't in this cache yet.
+     * @return The indexes of the conditions that match, in increasing order. The returned array
+     * must not be modified.
+     */
+    public int[] getMatches(int countyCode, int stateOrProvinceCode, int countryOrRegionCode, Covid19LocationCodesMap newMatches)
+    {
+        PreCondition.assertNotNull(newMatches, "newMatches");
+
+        int[] result = this.matches.get(countyCode, stateOrProvinceCode, countryOrRegionCode);
+        if (result == null)
+        {
+            result = newMatches.get(countyCode, stateOrProvinceCode, countryOrRegionCode);
+            if (result == null)
+            {
+                int matchCount = 0;
+                final int[] matches = new int[this.conditions.length];
+                for (int conditionIndex = 0; conditionIndex < this.conditions.length; ++conditionIndex)
+                {
+                    if (this.conditions[conditionIndex].matches(countyCode, stateOrProvinceCode, countryOrRegionCode, false, 0))
+                    {
+                        matches[matchCount] = conditionIndex;
+                        ++matchCount;
+                    }
+                }
+                result = matchCount == 0 ? Covid19LocationMatchCache.noMatches : Arrays.copyOf(matches, matchCount);
+                newMatches.set(countyCode, stateOrProvinceCode, countryOrRegionCode, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Add the provided matches that were found by getMatches() to this cache.
+     * @param newMatches The matches to add.
+     * @return This object for method chaining.
+     */
+    public Covid19LocationMatchCache addMatches(Covid19LocationCodesMap newMatches)
+    {
+        PreCondition.assertNotNull(newMatches, "newMatches");
+
+        if (newMatches.getCount() > 0)
+        {
+            synchronized (this)
+            {
+                this.matches = this.matches.copy().setAll(newMatches);
+            }
+        }
+
+        return this;
+    }
+}
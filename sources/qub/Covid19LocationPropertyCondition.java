@@ -1,5 +1,7 @@
 package qub;
 
+import java.util.HashSet;
+
 public class Covid19LocationPropertyCondition implements Covid19LocationCondition
 {
     private static final String propertyNamePropertyName = "propertyName";
@@ -17,6 +19,7 @@ public class Covid19LocationPropertyCondition implements Covid19LocationConditio
     private Function1<Covid19DailyReportDataRow,Object> propertyGetter;
     private Covid19LocationPropertyConditionOperator operator;
     private Object expectedPropertyValue;
+    private HashSet<Object> expectedPropertyValueSet;
 
     private Covid19LocationPropertyCondition(JSONObject json)
     {
@@ -52,28 +55,48 @@ public class Covid19LocationPropertyCondition implements Covid19LocationConditio
 
             final JSONSegment expectedPropertySegment = json.get(Covid19LocationPropertyCondition.expectedPropertyValuePropertyName).await();
             Object expectedPropertyValue;
-            if (expectedPropertySegment instanceof JSONNull)
-            {
-                expectedPropertyValue = null;
-            }
-            else if (expectedPropertySegment instanceof JSONString)
-            {
-                expectedPropertyValue = ((JSONString)expectedPropertySegment).getValue();
-            }
-            else if (expectedPropertySegment instanceof JSONNumber)
+            if (expectedPropertySegment instanceof JSONArray)
             {
-                expectedPropertyValue = ((JSONNumber)expectedPropertySegment).getValue();
+                final List<Object> expectedPropertyValues = List.create();
+                for (final JSONSegment expectedPropertyValueSegment : (JSONArray)expectedPropertySegment)
+                {
+                    expectedPropertyValues.add(Covid19LocationPropertyCondition.parseExpectedPropertyValue(expectedPropertyValueSegment));
+                }
+                expectedPropertyValue = expectedPropertyValues;
             }
             else
             {
-                throw new ParseException("Unexpected expected property value type: " + Types.getTypeName(expectedPropertySegment) + "(" + expectedPropertySegment.toString() + ")");
+                expectedPropertyValue = Covid19LocationPropertyCondition.parseExpectedPropertyValue(expectedPropertySegment);
             }
             result.expectedPropertyValue = expectedPropertyValue;
+            result.expectedPropertyValueSet = Covid19LocationPropertyCondition.createExpectedPropertyValueSet(expectedPropertyValue);
 
             return result;
         });
     }
 
+    private static Object parseExpectedPropertyValue(JSONSegment expectedPropertySegment)
+    {
+        Object result;
+        if (expectedPropertySegment instanceof JSONNull)
+        {
+            result = null;
+        }
+        else if (expectedPropertySegment instanceof JSONString)
+        {
+            result = ((JSONString)expectedPropertySegment).getValue();
+        }
+        else if (expectedPropertySegment instanceof JSONNumber)
+        {
+            result = ((JSONNumber)expectedPropertySegment).getValue();
+        }
+        else
+        {
+            throw new ParseException("Unexpected expected property value type: " + Types.getTypeName(expectedPropertySegment) + "(" + expectedPropertySegment.toString() + ")");
+        }
+        return result;
+    }
+
     public String getPropertyName()
     {
         return this.propertyName;
@@ -106,37 +129,136 @@ public class Covid19LocationPropertyCondition implements Covid19LocationConditio
         return this;
     }
 
+    /**
+     * Get the value that this condition compares the property value against. This is an Iterable
+     * of values when this condition uses the In operator.
+     * @return The value that this condition compares the property value against.
+     */
     public Object getExpectedPropertyValue()
     {
         return this.expectedPropertyValue;
     }
 
-    public Covid19LocationPropertyCondition setExpectedPropertyValue(Object expectedPropertyValue)
+    /**
+     * Get the values that the In operator checks the property value against. If the expected
+     * property value isn't an Iterable, then this only contains the expected property value.
+     * @return The values that the In operator checks the property value against.
+     */
+    public Iterable<Object> getExpectedPropertyValues()
     {
-        PreCondition.assertTrue(expectedPropertyValue == null || expectedPropertyValue instanceof Number || expectedPropertyValue instanceof String, "expectedPropertyValue == null || expectedPropertyValue instanceof Number || expectedPropertyValue instanceof String");
+        final List<Object> result = List.create();
+        if (this.expectedPropertyValue instanceof Iterable<?>)
+        {
+            for (final Object expectedPropertyValue : (Iterable<?>)this.expectedPropertyValue)
+            {
+                result.add(expectedPropertyValue);
+            }
+        }
+        else
+        {
+            result.add(this.expectedPropertyValue);
+        }
+        return result;
+    }
 
-        JSONSegment expectedPropertySegment;
+    private static boolean isExpectedPropertyValue(Object value)
+    {
+        return value == null || value instanceof Number || value instanceof String;
+    }
+
+    private static JSONSegment toJsonSegment(Object expectedPropertyValue)
+    {
+        JSONSegment result;
         if (expectedPropertyValue == null)
         {
-            expectedPropertySegment = JSONNull.segment;
+            result = JSONNull.segment;
         }
         else
         {
             if (expectedPropertyValue instanceof Number)
             {
-                expectedPropertySegment = JSONNumber.get(expectedPropertyValue.toString());
+                result = JSONNumber.get(expectedPropertyValue.toString());
             }
             else // if (expectedPropertyValue instanceof String)
             {
-                expectedPropertySegment = JSONString.get(expectedPropertyValue.toString());
+                result = JSONString.get(expectedPropertyValue.toString());
             }
         }
+        return result;
+    }
+
+    /**
+     * Set the value that this condition compares the property value against. The value can be
+     * null, a Number, a String, or an Iterable of those values for the In operator.
+     * @param expectedPropertyValue The value that this condition compares the property value
+     *                              against.
+     * @return This object for method chaining.
+     */
+    public Covid19LocationPropertyCondition setExpectedPropertyValue(Object expectedPropertyValue)
+    {
+        PreCondition.assertTrue(Covid19LocationPropertyCondition.isExpectedPropertyValue(expectedPropertyValue) || expectedPropertyValue instanceof Iterable<?>, "expectedPropertyValue == null || expectedPropertyValue instanceof Number || expectedPropertyValue instanceof String || expectedPropertyValue instanceof Iterable<?>");
+
+        JSONSegment expectedPropertySegment;
+        if (expectedPropertyValue instanceof Iterable<?>)
+        {
+            final JSONArray expectedPropertyArray = JSONArray.create();
+            final List<Object> expectedPropertyValues = List.create();
+            for (final Object value : (Iterable<?>)expectedPropertyValue)
+            {
+                PreCondition.assertTrue(Covid19LocationPropertyCondition.isExpectedPropertyValue(value), "value == null || value instanceof Number || value instanceof String");
+
+                expectedPropertyArray.add(Covid19LocationPropertyCondition.toJsonSegment(value));
+                expectedPropertyValues.add(value);
+            }
+            expectedPropertySegment = expectedPropertyArray;
+            expectedPropertyValue = expectedPropertyValues;
+        }
+        else
+        {
+            expectedPropertySegment = Covid19LocationPropertyCondition.toJsonSegment(expectedPropertyValue);
+        }
         this.json.set(Covid19LocationPropertyCondition.expectedPropertyValuePropertyName, expectedPropertySegment);
         this.expectedPropertyValue = expectedPropertyValue;
+        this.expectedPropertyValueSet = Covid19LocationPropertyCondition.createExpectedPropertyValueSet(expectedPropertyValue);
 
         return this;
     }
 
+    /**
+     * Create the hash set that the In operator looks property values up in. Numbers with integral
+     * values are stored as Integers so that they can be found by a data row's confirmed cases.
+     */
+    private static HashSet<Object> createExpectedPropertyValueSet(Object expectedPropertyValue)
+    {
+        final HashSet<Object> result = new HashSet<>();
+        if (expectedPropertyValue instanceof Iterable<?>)
+        {
+            for (final Object value : (Iterable<?>)expectedPropertyValue)
+            {
+                result.add(Covid19LocationPropertyCondition.normalizeNumber(value));
+            }
+        }
+        else
+        {
+            result.add(Covid19LocationPropertyCondition.normalizeNumber(expectedPropertyValue));
+        }
+        return result;
+    }
+
+    static Object normalizeNumber(Object value)
+    {
+        Object result = value;
+        if (value instanceof Number && !(value instanceof Integer))
+        {
+            final double doubleValue = ((Number)value).doubleValue();
+            if (doubleValue == Math.rint(doubleValue) && Integer.MIN_VALUE <= doubleValue && doubleValue <= Integer.MAX_VALUE)
+            {
+                result = (int)doubleValue;
+            }
+        }
+        return result;
+    }
+
     @Override
     public boolean matches(Covid19DailyReportDataRow dataRow)
     {
@@ -145,7 +267,11 @@ public class Covid19LocationPropertyCondition implements Covid19LocationConditio
         final Object propertyValue = this.propertyGetter.run(dataRow);
 
         boolean result;
-        if (this.expectedPropertyValue instanceof String)
+        if (this.operator == Covid19LocationPropertyConditionOperator.In)
+        {
+            result = this.expectedPropertyValueSet.contains(propertyValue);
+        }
+        else if (this.expectedPropertyValue instanceof String)
         {
             final String expectedPropertyValueString = (String)this.expectedPropertyValue;
             if (this.operator == Covid19LocationPropertyConditionOperator.Contains)
@@ -4,4 +4,5 @@ public enum Covid19LocationPropertyConditionOperator
 {
     Equals,
     Contains,
+    In,
 }
@@ -0,0 +1,394 @@
+package qub;
+
+import java.util.Arrays;
+
+/**
+ * An immutable set of data row indexes within a daily report. Each set is stored as whichever is
+ * smaller of a sorted array of data row indexes and a bitmap with one bit per data row, so sparse
+ * sets (such as the data rows of one county) stay small and dense sets (such as the data rows of
+ * one country) can be combined a word at a time.
+ */
+public class Covid19RowBitmap
+{
+    private static final int[] noRows = new int[0];
+
+    private final int dataRowCount;
+    private final int count;
+    /**
+     * The sorted data row indexes of a sparse set, or null if this set is dense.
+     */
+    private final int[] rows;
+    /**
+     * The bitmap of a dense set, or null if this set is sparse.
+     */
+    private final long[] words;
+
+    private Covid19RowBitmap(int dataRowCount, int count, int[] rows, long[] words)
+    {
+        this.dataRowCount = dataRowCount;
+        this.count = count;
+        this.rows = rows;
+        this.words = words;
+    }
+
+    /**
+     * Create a new Covid19RowBitmap that doesn't contain any data rows.
+     * @param dataRowCount The number of data rows in the daily report.
+     * @return The new Covid19RowBitmap.
+     */
+    public static Covid19RowBitmap createEmpty(int dataRowCount)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(dataRowCount, 0, "dataRowCount");
+
+        return new Covid19RowBitmap(dataRowCount, 0, Covid19RowBitmap.noRows, null);
+    }
+
+    /**
+     * Create a new Covid19RowBitmap that contains every data row.
+     * @param dataRowCount The number of data rows in the daily report.
+     * @return The new Covid19RowBitmap.
+     */
+    public static Covid19RowBitmap createAll(int dataRowCount)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(dataRowCount, 0, "dataRowCount");
+
+        final long[] words = new long[Covid19RowBitmap.getWordCount(dataRowCount)];
+        Arrays.fill(words, -1L);
+        if ((dataRowCount & 63) != 0)
+        {
+            words[words.length - 1] = (1L << dataRowCount) - 1;
+        }
+        return Covid19RowBitmap.create(dataRowCount, dataRowCount, words);
+    }
+
+    /**
+     * Create a new Covid19RowBitmap that contains the provided data rows.
+     * @param dataRowCount The number of data rows in the daily report.
+     * @param rows The data row indexes, in increasing order, without duplicates, and less than
+     *             dataRowCount. Only the first count values are used, and the array is not
+     *             modified or kept.
+     * @param count The number of data row indexes in rows.
+     * @return The new Covid19RowBitmap.
+     */
+    public static Covid19RowBitmap create(int dataRowCount, int[] rows, int count)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(dataRowCount, 0, "dataRowCount");
+        PreCondition.assertNotNull(rows, "rows");
+        PreCondition.assertBetween(0, count, rows.length, "count");
+
+        Covid19RowBitmap result;
+        if (Covid19RowBitmap.isDense(dataRowCount, count))
+        {
+            final long[] words = new long[Covid19RowBitmap.getWordCount(dataRowCount)];
+            for (int i = 0; i < count; ++i)
+            {
+                words[rows[i] >> 6] |= (1L << rows[i]);
+            }
+            result = new Covid19RowBitmap(dataRowCount, count, null, words);
+        }
+        else
+        {
+            result = new Covid19RowBitmap(dataRowCount, count, count == 0 ? Covid19RowBitmap.noRows : Arrays.copyOf(rows, count), null);
+        }
+        return result;
+    }
+
+    /**
+     * Create a Covid19RowBitmap from a bitmap that contains count set bits, converting it to a
+     * sorted array if the set is sparse.
+     */
+    private static Covid19RowBitmap create(int dataRowCount, int count, long[] words)
+    {
+        Covid19RowBitmap result;
+        if (Covid19RowBitmap.isDense(dataRowCount, count))
+        {
+            result = new Covid19RowBitmap(dataRowCount, count, null, words);
+        }
+        else
+        {
+            final int[] rows = new int[count];
+            int rowIndex = 0;
+            for (int wordIndex = 0; wordIndex < words.length; ++wordIndex)
+            {
+                long word = words[wordIndex];
+                while (word != 0)
+                {
+                    rows[rowIndex] = (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+                    ++rowIndex;
+                    word &= word - 1;
+                }
+            }
+            result = new Covid19RowBitmap(dataRowCount, count, count == 0 ? Covid19RowBitmap.noRows : rows, null);
+        }
+        return result;
+    }
+
+    /**
+     * Get whether or not a set with the provided number of data rows is smaller as a bitmap than
+     * as a sorted array of 32-bit data row indexes.
+     */
+    private static boolean isDense(int dataRowCount, int count)
+    {
+        return count > 0 && (long)count * 32 >= Covid19RowBitmap.getWordCount(dataRowCount) * 64L;
+    }
+
+    private static int getWordCount(int dataRowCount)
+    {
+        return (dataRowCount + 63) >> 6;
+    }
+
+    /**
+     * Get the number of data rows in the daily report that this set's data rows come from.
+     * @return The number of data rows in the daily report that this set's data rows come from.
+     */
+    public int getDataRowCount()
+    {
+        return this.dataRowCount;
+    }
+
+    /**
+     * Get the number of data rows in this set.
+     * @return The number of data rows in this set.
+     */
+    public int getCount()
+    {
+        return this.count;
+    }
+
+    /**
+     * Get whether or not this set is stored as a bitmap instead of as a sorted array.
+     * @return Whether or not this set is stored as a bitmap instead of as a sorted array.
+     */
+    public boolean isDense()
+    {
+        return this.words != null;
+    }
+
+    /**
+     * Get whether or not this set contains the provided data row.
+     * @param row The index of the data row.
+     * @return Whether or not this set contains the provided data row.
+     */
+    public boolean contains(int row)
+    {
+        boolean result;
+        if (row < 0 || this.dataRowCount <= row)
+        {
+            result = false;
+        }
+        else if (this.words != null)
+        {
+            result = (this.words[row >> 6] & (1L << row)) != 0;
+        }
+        else
+        {
+            result = Arrays.binarySearch(this.rows, row) >= 0;
+        }
+        return result;
+    }
+
+    /**
+     * Get the smallest data row in this set that is greater than or equal to the provided data
+     * row. Iterating with nextRow(row + 1) visits every data row in this set in increasing order.
+     * @param fromRow The data row to start looking at.
+     * @return The smallest data row in this set that is greater than or equal to fromRow, or -1 if
+     * there isn't one.
+     */
+    public int nextRow(int fromRow)
+    {
+        final int startRow = Math.max(fromRow, 0);
+
+        int result = -1;
+        if (startRow < this.dataRowCount)
+        {
+            if (this.words != null)
+            {
+                int wordIndex = startRow >> 6;
+                long word = this.words[wordIndex] & (-1L << startRow);
+                while (true)
+                {
+                    if (word != 0)
+                    {
+                        result = (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+                        break;
+                    }
+                    ++wordIndex;
+                    if (wordIndex == this.words.length)
+                    {
+                        break;
+                    }
+                    word = this.words[wordIndex];
+                }
+            }
+            else
+            {
+                int index = Arrays.binarySearch(this.rows, startRow);
+                if (index < 0)
+                {
+                    index = -index - 1;
+                }
+                if (index < this.rows.length)
+                {
+                    result = this.rows[index];
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the sum of the provided values at the data rows in this set.
+     * @param values The values of each data row.
+     * @return The sum of the provided values at the data rows in this set.
+     */
+    public int sum(int[] values)
+    {
+        PreCondition.assertNotNull(values, "values");
+        PreCondition.assertGreaterThanOrEqualTo(values.length, this.dataRowCount, "values.length");
+
+        int result = 0;
+        if (this.words != null)
+        {
+            for (int wordIndex = 0; wordIndex < this.words.length; ++wordIndex)
+            {
+                long word = this.words[wordIndex];
+                while (word != 0)
+                {
+                    result += values[(wordIndex << 6) + Long.numberOfTrailingZeros(word)];
+                    word &= word - 1;
+                }
+            }
+        }
+        else
+        {
+            for (final int row : this.rows)
+            {
+                result += values[row];
+            }
+        }
+        return result;
+    }
+
+    private long[] toWords()
+    {
+        long[] result;
+        if (this.words != null)
+        {
+            result = this.words;
+        }
+        else
+        {
+            result = new long[Covid19RowBitmap.getWordCount(this.dataRowCount)];
+            for (final int row : this.rows)
+            {
+                result[row >> 6] |= (1L << row);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the data rows that are in both this set and the provided set.
+     * @param rhs The other set.
+     * @return The data rows that are in both this set and the provided set.
+     */
+    public Covid19RowBitmap and(Covid19RowBitmap rhs)
+    {
+        PreCondition.assertNotNull(rhs, "rhs");
+        PreCondition.assertEqual(this.dataRowCount, rhs.dataRowCount, "rhs.getDataRowCount()");
+
+        Covid19RowBitmap result;
+        if (this.words == null || rhs.words == null)
+        {
+            // Check each row of the sparse set against the other set.
+            final Covid19RowBitmap sparse = this.words == null ? this : rhs;
+            final Covid19RowBitmap other = (sparse == this) ? rhs : this;
+            final int[] rows = new int[Math.min(sparse.count, other.count)];
+            int count = 0;
+            for (final int row : sparse.rows)
+            {
+                if (count == rows.length)
+                {
+                    break;
+                }
+                if (other.contains(row))
+                {
+                    rows[count] = row;
+                    ++count;
+                }
+            }
+            result = new Covid19RowBitmap(this.dataRowCount, count, count == 0 ? Covid19RowBitmap.noRows : Arrays.copyOf(rows, count), null);
+        }
+        else
+        {
+            final long[] words = new long[this.words.length];
+            int count = 0;
+            for (int wordIndex = 0; wordIndex < words.length; ++wordIndex)
+            {
+                words[wordIndex] = this.words[wordIndex] & rhs.words[wordIndex];
+                count += Long.bitCount(words[wordIndex]);
+            }
+            result = Covid19RowBitmap.create(this.dataRowCount, count, words);
+        }
+        return result;
+    }
+
+    /**
+     * Get the data rows that are in this set, the provided set, or both.
+     * @param rhs The other set.
+     * @return The data rows that are in this set, the provided set, or both.
+     */
+    public Covid19RowBitmap or(Covid19RowBitmap rhs)
+    {
+        PreCondition.assertNotNull(rhs, "rhs");
+        PreCondition.assertEqual(this.dataRowCount, rhs.dataRowCount, "rhs.getDataRowCount()");
+
+        Covid19RowBitmap result;
+        if (rhs.count == 0)
+        {
+            result = this;
+        }
+        else if (this.count == 0)
+        {
+            result = rhs;
+        }
+        else if (this.words == null && rhs.words == null && !Covid19RowBitmap.isDense(this.dataRowCount, this.count + rhs.count))
+        {
+            // Merge the two sorted arrays.
+            final int[] rows = new int[this.count + rhs.count];
+            int count = 0;
+            int lhsIndex = 0;
+            int rhsIndex = 0;
+            while (lhsIndex < this.count || rhsIndex < rhs.count)
+            {
+                final int lhsRow = lhsIndex < this.count ? this.rows[lhsIndex] : Integer.MAX_VALUE;
+                final int rhsRow = rhsIndex < rhs.count ? rhs.rows[rhsIndex] : Integer.MAX_VALUE;
+                if (lhsRow <= rhsRow)
+                {
+                    ++lhsIndex;
+                }
+                if (rhsRow <= lhsRow)
+                {
+                    ++rhsIndex;
+                }
+                rows[count] = Math.min(lhsRow, rhsRow);
+                ++count;
+            }
+            result = new Covid19RowBitmap(this.dataRowCount, count, Arrays.copyOf(rows, count), null);
+        }
+        else
+        {
+            final long[] lhsWords = this.toWords();
+            final long[] rhsWords = rhs.toWords();
+            final long[] words = new long[lhsWords.length];
+            int count = 0;
+            for (int wordIndex = 0; wordIndex < words.length; ++wordIndex)
+            {
+                words[wordIndex] = lhsWords[wordIndex] | rhsWords[wordIndex];
+                count += Long.bitCount(words[wordIndex]);
+            }
+            result = Covid19RowBitmap.create(this.dataRowCount, count, words);
+        }
+        return result;
+    }
+}
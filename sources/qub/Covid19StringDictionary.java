@@ -0,0 +1,301 @@
+package qub;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A dictionary that maps each distinct string to a small integer code and to a single canonical
+ * String instance. The location strings of the daily reports (county, state/province, and
+ * country/region) repeat in every daily report, so sharing one dictionary between all of the
+ * daily reports of a data source means that each distinct value is only stored once.
+ * Codes are assigned in the order that strings are added, starting at 0, and never change. All of
+ * the methods are thread-safe, and getString(int) doesn't lock so that it can be called from
+ * tight loops. Strings are never removed, so a dictionary holds every string that was ever added
+ * to it until it is no longer referenced. Owners that outlive their data should replace their
+ * dictionary when the data is replaced.
+ */
+public class Covid19StringDictionary
+{
+    /**
+     * The code that represents a null string.
+     */
+    public static final int nullCode = -1;
+
+    /**
+     * The maximum number of compiled conditions that are remembered by getCompiledCondition().
+     */
+    private static final int maximumCompiledConditionCount = 256;
+
+    /**
+     * The strings indexed by their codes. The array is replaced instead of being modified in a way
+     * that would hide existing strings, so unlocked readers that know a code always find its
+     * string.
+     */
+    private volatile String[] strings;
+    private byte[][] stringBytes;
+    private int[] stringHashes;
+    private volatile int count;
+    /**
+     * An open-addressing hash table of (code + 1) values. 0 marks an empty slot.
+     */
+    private int[] table;
+    private volatile Covid19SubstringIndex substringIndex;
+    /**
+     * The conditions that have been compiled against this dictionary, keyed by their text so that a
+     * condition that is modified after it was compiled is compiled again.
+     */
+    private final HashMap<String,Covid19CompiledLocationCondition> compiledConditions;
+
+    private Covid19StringDictionary()
+    {
+        this.strings = new String[64];
+        this.stringBytes = new byte[64][];
+        this.stringHashes = new int[64];
+        this.table = new int[128];
+        this.compiledConditions = new HashMap<>();
+    }
+
+    public static Covid19StringDictionary create()
+    {
+        return new Covid19StringDictionary();
+    }
+
+    /**
+     * Get the number of distinct strings in this dictionary.
+     * @return The number of distinct strings in this dictionary.
+     */
+    public int getCount()
+    {
+        return this.count;
+    }
+
+    /**
+     * Get the code of the provided string, adding the string to this dictionary if it isn't in
+     * this dictionary yet.
+     * @param value The string to get the code of.
+     * @return The code of the provided string, or nullCode if the string is null.
+     */
+    public int getCode(String value)
+    {
+        int result = Covid19StringDictionary.nullCode;
+        if (value != null)
+        {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            result = this.getCode(bytes, 0, bytes.length);
+        }
+        return result;
+    }
+
+    /**
+     * Get the code of the string whose UTF-8 encoding is the provided byte range, adding the
+     * string to this dictionary if it isn't in this dictionary yet. No String is created unless
+     * the string is new.
+     * @param bytes The bytes that contain the UTF-8 encoded string.
+     * @param startIndex The index of the first byte of the string.
+     * @param length The number of bytes in the string.
+     * @return The code of the string.
+     */
+    public synchronized int getCode(byte[] bytes, int startIndex, int length)
+    {
+        PreCondition.assertNotNull(bytes, "bytes");
+        PreCondition.assertBetween(0, startIndex, bytes.length, "startIndex");
+        PreCondition.assertBetween(0, length, bytes.length - startIndex, "length");
+
+        final int hash = Covid19StringDictionary.hash(bytes, startIndex, length);
+        final int mask = this.table.length - 1;
+        int slot = hash & mask;
+        int result = Covid19StringDictionary.nullCode;
+        while (result == Covid19StringDictionary.nullCode)
+        {
+            final int tableValue = this.table[slot];
+            if (tableValue == 0)
+            {
+                result = this.add(bytes, startIndex, length, hash, slot);
+            }
+            else
+            {
+                final int code = tableValue - 1;
+                if (this.stringHashes[code] == hash && Covid19StringDictionary.bytesEqual(this.stringBytes[code], bytes, startIndex, length))
+                {
+                    result = code;
+                }
+                else
+                {
+                    slot = (slot + 1) & mask;
+                }
+            }
+        }
+
+        PostCondition.assertGreaterThanOrEqualTo(result, 0, "result");
+
+        return result;
+    }
+
+    /**
+     * Get the canonical String instance of the string whose UTF-8 encoding is the provided byte
+     * range, adding the string to this dictionary if it isn't in this dictionary yet.
+     * @param bytes The bytes that contain the UTF-8 encoded string.
+     * @param startIndex The index of the first byte of the string.
+     * @param length The number of bytes in the string.
+     * @return The canonical String instance.
+     */
+    public String getString(byte[] bytes, int startIndex, int length)
+    {
+        return this.getString(this.getCode(bytes, startIndex, length));
+    }
+
+    /**
+     * Get the string that has the provided code.
+     * @param code The code of the string.
+     * @return The string that has the provided code, or null if the code is nullCode.
+     */
+    public String getString(int code)
+    {
+        PreCondition.assertBetween(Covid19StringDictionary.nullCode, code, this.getCount() - 1, "code");
+
+        return code == Covid19StringDictionary.nullCode ? null : this.strings[code];
+    }
+
+    /**
+     * Get the canonical String instance that is equal to the provided string, adding the string to
+     * this dictionary if it isn't in this dictionary yet.
+     * @param value The string to canonicalize.
+     * @return The canonical String instance, or null if the provided string is null.
+     */
+    public String canonicalize(String value)
+    {
+        return value == null ? null : this.getString(this.getCode(value));
+    }
+
+    /**
+     * Get the substring index of this dictionary's strings. The index is created the first time
+     * that it is requested and is shared by every Contains condition that is compiled against this
+     * dictionary.
+     * @return The substring index of this dictionary's strings.
+     */
+    public Covid19SubstringIndex getSubstringIndex()
+    {
+        Covid19SubstringIndex result = this.substringIndex;
+        if (result == null)
+        {
+            synchronized (this)
+            {
+                result = this.substringIndex;
+                if (result == null)
+                {
+                    result = Covid19SubstringIndex.create(this);
+                    this.substringIndex = result;
+                }
+            }
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Get the provided condition compiled against this dictionary. Compiled conditions are
+     * remembered, so a condition that is evaluated against many daily reports that share this
+     * dictionary is only compiled once. If more than a few hundred distinct conditions are
+     * compiled, then the remembered conditions are forgotten and are compiled again when they are
+     * next requested.
+     * @param condition The condition to compile.
+     * @return The compiled condition.
+     */
+    public Covid19CompiledLocationCondition getCompiledCondition(Covid19LocationCondition condition)
+    {
+        PreCondition.assertNotNull(condition, "condition");
+
+        final String conditionText = condition.toString();
+        Covid19CompiledLocationCondition result;
+        synchronized (this.compiledConditions)
+        {
+            result = this.compiledConditions.get(conditionText);
+        }
+        if (result == null)
+        {
+            result = Covid19CompiledLocationCondition.compile(condition, this);
+            synchronized (this.compiledConditions)
+            {
+                if (this.compiledConditions.size() >= Covid19StringDictionary.maximumCompiledConditionCount)
+                {
+                    this.compiledConditions.clear();
+                }
+                this.compiledConditions.put(conditionText, result);
+            }
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    private int add(byte[] bytes, int startIndex, int length, int hash, int slot)
+    {
+        final int code = this.count;
+        String[] strings = this.strings;
+        if (code == strings.length)
+        {
+            final int newCapacity = strings.length * 2;
+            strings = Arrays.copyOf(strings, newCapacity);
+            this.stringBytes = Arrays.copyOf(this.stringBytes, newCapacity);
+            this.stringHashes = Arrays.copyOf(this.stringHashes, newCapacity);
+        }
+
+        this.stringBytes[code] = Arrays.copyOfRange(bytes, startIndex, startIndex + length);
+        strings[code] = new String(this.stringBytes[code], StandardCharsets.UTF_8);
+        this.stringHashes[code] = hash;
+        this.table[slot] = code + 1;
+        this.strings = strings;
+        this.count = code + 1;
+
+        // Keep the table at most half full so that probe sequences stay short.
+        if (this.count * 2 > this.table.length)
+        {
+            this.rehash(this.table.length * 2);
+        }
+
+        return code;
+    }
+
+    private void rehash(int newTableLength)
+    {
+        final int[] newTable = new int[newTableLength];
+        final int mask = newTableLength - 1;
+        for (int code = 0; code < this.count; ++code)
+        {
+            int slot = this.stringHashes[code] & mask;
+            while (newTable[slot] != 0)
+            {
+                slot = (slot + 1) & mask;
+            }
+            newTable[slot] = code + 1;
+        }
+        this.table = newTable;
+    }
+
+    private static int hash(byte[] bytes, int startIndex, int length)
+    {
+        // FNV-1a, followed by a final mix so that the low bits are well distributed.
+        int result = 0x811C9DC5;
+        final int endIndex = startIndex + length;
+        for (int i = startIndex; i < endIndex; ++i)
+        {
+            result ^= bytes[i];
+            result *= 0x01000193;
+        }
+        return result ^ (result >>> 16);
+    }
+
+    private static boolean bytesEqual(byte[] lhs, byte[] rhs, int rhsStartIndex, int rhsLength)
+    {
+        boolean result = (lhs.length == rhsLength);
+        for (int i = 0; result && i < rhsLength; ++i)
+        {
+            result = (lhs[i] == rhs[rhsStartIndex + i]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,199 @@
+package qub;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+
+/**
+ * A trigram index over the strings of a Covid19StringDictionary that finds the codes of every
+ * string that contains a substring. Each query only verifies the strings that contain all of the
+ * substring's trigrams, and the result is a set of codes, so a Contains condition can check a
+ * location code with a bit lookup instead of searching the location's string. Strings that are
+ * added to the dictionary after the index is created are indexed the next time that the index is
+ * queried. All of the methods are thread-safe.
+ */
+public class Covid19SubstringIndex
+{
+    private static final int gramLength = 3;
+
+    private final Covid19StringDictionary stringDictionary;
+    /**
+     * The codes of the strings that contain each trigram, in increasing order.
+     */
+    private final HashMap<Long,Postings> postings;
+    private int indexedCount;
+
+    private Covid19SubstringIndex(Covid19StringDictionary stringDictionary)
+    {
+        PreCondition.assertNotNull(stringDictionary, "stringDictionary");
+
+        this.stringDictionary = stringDictionary;
+        this.postings = new HashMap<>();
+    }
+
+    /**
+     * Create a new Covid19SubstringIndex over the strings of the provided dictionary.
+     * @param stringDictionary The dictionary to index.
+     * @return The new Covid19SubstringIndex.
+     */
+    public static Covid19SubstringIndex create(Covid19StringDictionary stringDictionary)
+    {
+        return new Covid19SubstringIndex(stringDictionary);
+    }
+
+    /**
+     * Get the dictionary that this index covers.
+     * @return The dictionary that this index covers.
+     */
+    public Covid19StringDictionary getStringDictionary()
+    {
+        return this.stringDictionary;
+    }
+
+    /**
+     * Get the number of the dictionary's strings that have been indexed.
+     * @return The number of the dictionary's strings that have been indexed.
+     */
+    public synchronized int getIndexedCount()
+    {
+        return this.indexedCount;
+    }
+
+    /**
+     * Get the codes of the dictionary's strings that contain the provided substring. Every string
+     * that is in the dictionary when this method is called is checked.
+     * @param substring The substring to look for.
+     * @return The codes of the strings that contain the provided substring.
+     */
+    public synchronized BitSet getCodesContaining(String substring)
+    {
+        PreCondition.assertNotNull(substring, "substring");
+
+        this.update();
+
+        final BitSet result = new BitSet(this.indexedCount);
+        if (substring.length() < Covid19SubstringIndex.gramLength)
+        {
+            // A short substring doesn't have a trigram to narrow the candidates with.
+            for (int code = 0; code < this.indexedCount; ++code)
+            {
+                if (this.stringDictionary.getString(code).contains(substring))
+                {
+                    result.set(code);
+                }
+            }
+        }
+        else
+        {
+            for (final int code : this.getCandidateCodes(substring))
+            {
+                if (this.stringDictionary.getString(code).contains(substring))
+                {
+                    result.set(code);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Index the strings that have been added to the dictionary since the last update.
+     */
+    private void update()
+    {
+        final int count = this.stringDictionary.getCount();
+        for (int code = this.indexedCount; code < count; ++code)
+        {
+            final String value = this.stringDictionary.getString(code);
+            for (int startIndex = 0; startIndex + Covid19SubstringIndex.gramLength <= value.length(); ++startIndex)
+            {
+                final Long gram = Covid19SubstringIndex.getGram(value, startIndex);
+                Postings gramPostings = this.postings.get(gram);
+                if (gramPostings == null)
+                {
+                    gramPostings = new Postings();
+                    this.postings.put(gram, gramPostings);
+                }
+                gramPostings.add(code);
+            }
+        }
+        this.indexedCount = count;
+    }
+
+    /**
+     * Get the codes of the strings that contain every trigram of the provided substring, in
+     * increasing order.
+     */
+    private int[] getCandidateCodes(String substring)
+    {
+        final int gramCount = substring.length() - Covid19SubstringIndex.gramLength + 1;
+        final Postings[] gramPostings = new Postings[gramCount];
+        int[] result = null;
+        for (int startIndex = 0; startIndex < gramCount; ++startIndex)
+        {
+            gramPostings[startIndex] = this.postings.get(Covid19SubstringIndex.getGram(substring, startIndex));
+            if (gramPostings[startIndex] == null)
+            {
+                result = new int[0];
+                break;
+            }
+        }
+
+        if (result == null)
+        {
+            // Intersect the shortest lists first so that the candidates shrink as fast as possible.
+            Arrays.sort(gramPostings, (Postings lhs, Postings rhs) -> Integer.compare(lhs.count, rhs.count));
+            result = Arrays.copyOf(gramPostings[0].codes, gramPostings[0].count);
+            for (int i = 1; i < gramPostings.length && result.length > 0; ++i)
+            {
+                final Postings other = gramPostings[i];
+                int count = 0;
+                for (final int code : result)
+                {
+                    if (Arrays.binarySearch(other.codes, 0, other.count, code) >= 0)
+                    {
+                        result[count] = code;
+                        ++count;
+                    }
+                }
+                result = Arrays.copyOf(result, count);
+            }
+        }
+        return result;
+    }
+
+    private static Long getGram(String value, int startIndex)
+    {
+        return ((long)value.charAt(startIndex) << 32) |
+            ((long)value.charAt(startIndex + 1) << 16) |
+            (long)value.charAt(startIndex + 2);
+    }
+
+    private static class Postings
+    {
+        private int[] codes;
+        private int count;
+
+        private Postings()
+        {
+            this.codes = new int[4];
+        }
+
+        /**
+         * Add the provided code if it isn't already the last code. Codes are indexed in increasing
+         * order, so this keeps the codes sorted and distinct.
+         */
+        private void add(int code)
+        {
+            if (this.count == 0 || this.codes[this.count - 1] != code)
+            {
+                if (this.count == this.codes.length)
+                {
+                    this.codes = Arrays.copyOf(this.codes, this.codes.length * 2);
+                }
+                this.codes[this.count] = code;
+                ++this.count;
+            }
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package qub;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+
+/**
+ * An Aho-Corasick automaton that finds which of a set of substring patterns each string of a
+ * Covid19StringDictionary contains. Every string is scanned once for all of the patterns, no
+ * matter how many patterns there are, and the codes of the strings that contain each pattern are
+ * remembered, so the Contains conditions of many locations can share one scan of each distinct
+ * location string. Strings that are added to the dictionary after the matcher is created are
+ * scanned the next time that the matcher is queried. All of the methods are thread-safe.
+ */
+public class Covid19SubstringMatcher
+{
+    private static final int rootNode = 0;
+    private static final int noNode = -1;
+
+    private final Covid19StringDictionary stringDictionary;
+    private final String[] patterns;
+    private final HashMap<String,Integer> patternIndexes;
+    /**
+     * The index of the empty pattern, which every string contains, or -1 if there isn't one.
+     */
+    private final int emptyPatternIndex;
+
+    /**
+     * The trie edges, keyed by the source node in the upper bits and the character in the lower
+     * 16 bits.
+     */
+    private final HashMap<Long,Integer> transitions;
+    private int nodeCount;
+    private int[] nodeParents;
+    private char[] nodeCharacters;
+    private int[] nodeDepths;
+    /**
+     * The node of the longest proper suffix of each node's string that is also in the trie.
+     */
+    private int[] failures;
+    /**
+     * The index of the pattern that ends at each node, or -1 if no pattern ends there.
+     */
+    private int[] nodePatternIndexes;
+    /**
+     * The nearest node along each node's failure chain that ends a pattern, or -1 if there isn't
+     * one.
+     */
+    private int[] outputLinks;
+
+    /**
+     * The codes of the dictionary's strings that contain each pattern.
+     */
+    private final BitSet[] matchingCodes;
+    private int scannedCount;
+
+    private Covid19SubstringMatcher(Covid19StringDictionary stringDictionary, Iterable<String> patterns)
+    {
+        PreCondition.assertNotNull(stringDictionary, "stringDictionary");
+        PreCondition.assertNotNull(patterns, "patterns");
+
+        this.stringDictionary = stringDictionary;
+        this.patternIndexes = new HashMap<>();
+        final List<String> distinctPatterns = List.create();
+        for (final String pattern : patterns)
+        {
+            PreCondition.assertNotNull(pattern, "pattern");
+
+            if (!this.patternIndexes.containsKey(pattern))
+            {
+                this.patternIndexes.put(pattern, distinctPatterns.getCount());
+                distinctPatterns.add(pattern);
+            }
+        }
+        this.patterns = new String[distinctPatterns.getCount()];
+        this.matchingCodes = new BitSet[this.patterns.length];
+        for (int i = 0; i < this.patterns.length; ++i)
+        {
+            this.patterns[i] = distinctPatterns.get(i);
+            this.matchingCodes[i] = new BitSet();
+        }
+        this.emptyPatternIndex = this.getPatternIndex("");
+
+        this.transitions = new HashMap<>();
+        this.nodeParents = new int[16];
+        this.nodeCharacters = new char[16];
+        this.nodeDepths = new int[16];
+        this.nodePatternIndexes = new int[16];
+        this.addNode(Covid19SubstringMatcher.noNode, '\0');
+        for (int patternIndex = 0; patternIndex < this.patterns.length; ++patternIndex)
+        {
+            if (patternIndex != this.emptyPatternIndex)
+            {
+                this.addPattern(this.patterns[patternIndex], patternIndex);
+            }
+        }
+        this.createFailures();
+    }
+
+    /**
+     * Create a new Covid19SubstringMatcher that finds the provided patterns in the strings of the
+     * provided dictionary.
+     * @param stringDictionary The dictionary whose strings will be matched.
+     * @param patterns The substrings to look for. Duplicate patterns are only kept once.
+     * @return The new Covid19SubstringMatcher.
+     */
+    public static Covid19SubstringMatcher create(Covid19StringDictionary stringDictionary, Iterable<String> patterns)
+    {
+        return new Covid19SubstringMatcher(stringDictionary, patterns);
+    }
+
+    /**
+     * Get the dictionary whose strings this matcher matches.
+     * @return The dictionary whose strings this matcher matches.
+     */
+    public Covid19StringDictionary getStringDictionary()
+    {
+        return this.stringDictionary;
+    }
+
+    /**
+     * Get the distinct patterns that this matcher looks for, in the order that they were first
+     * provided.
+     * @return The distinct patterns that this matcher looks for.
+     */
+    public Iterable<String> getPatterns()
+    {
+        return Iterable.create(this.patterns);
+    }
+
+    /**
+     * Get the index of the provided pattern.
+     * @param pattern The pattern to get the index of.
+     * @return The index of the provided pattern, or -1 if this matcher doesn't look for it.
+     */
+    public int getPatternIndex(String pattern)
+    {
+        final Integer result = pattern == null ? null : this.patternIndexes.get(pattern);
+        return result == null ? -1 : result;
+    }
+
+    /**
+     * Get the number of the dictionary's strings that have been scanned.
+     * @return The number of the dictionary's strings that have been scanned.
+     */
+    public synchronized int getScannedCount()
+    {
+        return this.scannedCount;
+    }
+
+    /**
+     * Get the indexes of the patterns that the provided string contains.
+     * @param value The string to scan.
+     * @return The indexes of the patterns that the provided string contains, in increasing order.
+     */
+    public int[] getMatches(String value)
+    {
+        PreCondition.assertNotNull(value, "value");
+
+        final BitSet matches = new BitSet(this.patterns.length);
+        this.addMatches(value, matches);
+        return matches.stream().toArray();
+    }
+
+    /**
+     * Get the codes of the dictionary's strings that contain the pattern with the provided index.
+     * Every string that is in the dictionary when this method is called is checked.
+     * @param patternIndex The index of the pattern.
+     * @return The codes of the strings that contain the pattern.
+     */
+    public synchronized BitSet getCodesContaining(int patternIndex)
+    {
+        PreCondition.assertBetween(0, patternIndex, this.patterns.length - 1, "patternIndex");
+
+        final int count = this.stringDictionary.getCount();
+        if (this.scannedCount < count)
+        {
+            final BitSet matches = new BitSet(this.patterns.length);
+            for (int code = this.scannedCount; code < count; ++code)
+            {
+                matches.clear();
+                this.addMatches(this.stringDictionary.getString(code), matches);
+                for (int matchIndex = matches.nextSetBit(0); matchIndex >= 0; matchIndex = matches.nextSetBit(matchIndex + 1))
+                {
+                    this.matchingCodes[matchIndex].set(code);
+                }
+            }
+            this.scannedCount = count;
+        }
+        return (BitSet)this.matchingCodes[patternIndex].clone();
+    }
+
+    private void addMatches(String value, BitSet matches)
+    {
+        if (this.emptyPatternIndex != -1)
+        {
+            matches.set(this.emptyPatternIndex);
+        }
+
+        int node = Covid19SubstringMatcher.rootNode;
+        final int length = value.length();
+        for (int i = 0; i < length; ++i)
+        {
+            node = this.getNextNode(node, value.charAt(i));
+            int outputNode = this.nodePatternIndexes[node] != -1 ? node : this.outputLinks[node];
+            while (outputNode != Covid19SubstringMatcher.noNode)
+            {
+                matches.set(this.nodePatternIndexes[outputNode]);
+                outputNode = this.outputLinks[outputNode];
+            }
+        }
+    }
+
+    /**
+     * Follow the failure links from the provided node until there is an edge for the provided
+     * character.
+     */
+    private int getNextNode(int node, char character)
+    {
+        int currentNode = node;
+        Integer result = this.getChild(currentNode, character);
+        while (result == null && currentNode != Covid19SubstringMatcher.rootNode)
+        {
+            currentNode = this.failures[currentNode];
+            result = this.getChild(currentNode, character);
+        }
+        return result == null ? Covid19SubstringMatcher.rootNode : result;
+    }
+
+    private Integer getChild(int node, char character)
+    {
+        return this.transitions.get(((long)node << 16) | character);
+    }
+
+    private int addNode(int parent, char character)
+    {
+        final int result = this.nodeCount;
+        if (result == this.nodeParents.length)
+        {
+            final int newCapacity = this.nodeParents.length * 2;
+            this.nodeParents = Arrays.copyOf(this.nodeParents, newCapacity);
+            this.nodeCharacters = Arrays.copyOf(this.nodeCharacters, newCapacity);
+            this.nodeDepths = Arrays.copyOf(this.nodeDepths, newCapacity);
+            this.nodePatternIndexes = Arrays.copyOf(this.nodePatternIndexes, newCapacity);
+        }
+        this.nodeParents[result] = parent;
+        this.nodeCharacters[result] = character;
+        this.nodeDepths[result] = parent == Covid19SubstringMatcher.noNode ? 0 : this.nodeDepths[parent] + 1;
+        this.nodePatternIndexes[result] = -1;
+        ++this.nodeCount;
+        return result;
+    }
+
+    private void addPattern(String pattern, int patternIndex)
+    {
+        int node = Covid19SubstringMatcher.rootNode;
+        for (int i = 0; i < pattern.length(); ++i)
+        {
+            final char character = pattern.charAt(i);
+            final Integer child = this.getChild(node, character);
+            if (child != null)
+            {
+                node = child;
+            }
+            else
+            {
+                final int newNode = this.addNode(node, character);
+                this.transitions.put(((long)node << 16) | character, newNode);
+                node = newNode;
+            }
+        }
+        this.nodePatternIndexes[node] = patternIndex;
+    }
+
+    /**
+     * Compute the failure and output links of every node. The nodes are visited in order of
+     * depth, so the links of each node's parent and shorter suffixes are already known.
+     */
+    private void createFailures()
+    {
+        final Integer[] nodesByDepth = new Integer[this.nodeCount];
+        for (int node = 0; node < this.nodeCount; ++node)
+        {
+            nodesByDepth[node] = node;
+        }
+        Arrays.sort(nodesByDepth, (Integer lhs, Integer rhs) -> Integer.compare(this.nodeDepths[lhs], this.nodeDepths[rhs]));
+
+        this.failures = new int[this.nodeCount];
+        this.outputLinks = new int[this.nodeCount];
+        for (final int node : nodesByDepth)
+        {
+            final int parent = this.nodeParents[node];
+            int failure = Covid19SubstringMatcher.rootNode;
+            if (parent != Covid19SubstringMatcher.noNode && parent != Covid19SubstringMatcher.rootNode)
+            {
+                failure = this.getNextNode(this.failures[parent], this.nodeCharacters[node]);
+            }
+            this.failures[node] = failure;
+
+            if (node == Covid19SubstringMatcher.rootNode || failure == Covid19SubstringMatcher.rootNode)
+            {
+                this.outputLinks[node] = Covid19SubstringMatcher.noNode;
+            }
+            else
+            {
+                this.outputLinks[node] = this.nodePatternIndexes[failure] != -1 ? failure : this.outputLinks[failure];
+            }
+        }
+    }
+}
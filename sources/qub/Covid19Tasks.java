@@ -0,0 +1,88 @@
+package qub;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * The places where the Covid-19 data is processed on more than one thread. Everything else in
+ * this project runs on the calling thread.
+ */
+public interface Covid19Tasks
+{
+    /**
+     * Run the provided tasks with at most the provided number of tasks running at the same time.
+     * If any of the tasks fail, then the error of the first failed task is thrown.
+     * @param tasks The tasks to run.
+     * @param parallelism The maximum number of tasks that will run at the same time. A parallelism
+     *                    of 1 runs the tasks on the calling thread.
+     * @return The results of the tasks, in the same order as the tasks.
+     */
+    static <T> List<T> runAll(Iterable<Function0<T>> tasks, int parallelism)
+    {
+        PreCondition.assertNotNull(tasks, "tasks");
+        PreCondition.assertGreaterThanOrEqualTo(parallelism, 1, "parallelism");
+
+        final List<T> result = List.create();
+        final int taskCount = tasks.getCount();
+        if (parallelism == 1 || taskCount <= 1)
+        {
+            for (final Function0<T> task : tasks)
+            {
+                result.add(task.run());
+            }
+        }
+        else
+        {
+            final ArrayList<Callable<T>> callables = new ArrayList<>(taskCount);
+            for (final Function0<T> task : tasks)
+            {
+                callables.add(task::run);
+            }
+
+            final ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, taskCount));
+            try
+            {
+                for (final Future<T> future : pool.invokeAll(callables))
+                {
+                    result.add(future.get());
+                }
+            }
+            catch (ExecutionException e)
+            {
+                throw Exceptions.asRuntime(e.getCause());
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw Exceptions.asRuntime(e);
+            }
+            finally
+            {
+                pool.shutdown();
+            }
+        }
+
+        PostCondition.assertNotNull(result, "result");
+        PostCondition.assertEqual(taskCount, result.getCount(), "result.getCount()");
+
+        return result;
+    }
+
+    /**
+     * Start running the provided task on a new background thread. The background thread won't
+     * keep the process alive.
+     * @param name The name of the background thread.
+     * @param task The task to run.
+     * @return The running task.
+     */
+    static <T> Covid19BackgroundTask<T> startInBackground(String name, Function0<T> task)
+    {
+        PreCondition.assertNotNullAndNotEmpty(name, "name");
+        PreCondition.assertNotNull(task, "task");
+
+        return Covid19BackgroundTask.start(name, task);
+    }
+}
@@ -0,0 +1,334 @@
+package qub;
+
+import java.util.HashMap;
+
+/**
+ * The confirmed cases of a fixed set of locations over time. Each location's confirmed cases are
+ * stored in a dense int array that is indexed by epoch day, so looking up a location's confirmed
+ * cases for a date is an array access instead of a scan over the date's daily report. Dates are
+ * added one daily report at a time, and each daily report is scanned once for all of the locations,
+ * so the time series can be built in one pass over the history and then updated as daily reports
+ * are added, changed, or deleted.
+ */
+public class Covid19TimeSeries
+{
+    private final List<Covid19Location> locations;
+    private final Covid19LocationCondition locationsCondition;
+    private final Covid19LocationAggregator locationAggregator;
+    private final HashMap<String,Integer> locationIndexes;
+    private int firstEpochDay;
+    /**
+     * The confirmed cases of each location, indexed by location index and then by the epoch day
+     * minus firstEpochDay.
+     */
+    private int[][] confirmedCases;
+    /**
+     * Whether or not a daily report has been added for each day, indexed by the epoch day minus
+     * firstEpochDay.
+     */
+    private boolean[] datesReported;
+    private int dateCount;
+    private final HashMap<Integer,Iterable<Covid19Issue>> issues;
+
+    private Covid19TimeSeries(Iterable<Covid19Location> locations)
+    {
+        PreCondition.assertNotNull(locations, "locations");
+
+        this.locations = List.create();
+        this.locations.addAll(locations);
+        this.locationsCondition = Covid19TimeSeries.getLocationsCondition(this.locations);
+        this.locationAggregator = Covid19LocationAggregator.create(this.locations);
+        this.locationIndexes = new HashMap<>();
+        for (int i = 0; i < this.locations.getCount(); ++i)
+        {
+            this.locationIndexes.putIfAbsent(this.locations.get(i).getName(), i);
+        }
+        this.confirmedCases = new int[this.locations.getCount()][0];
+        this.datesReported = new boolean[0];
+        this.issues = new HashMap<>();
+    }
+
+    /**
+     * Create a new empty time series for the provided locations.
+     * @param locations The locations to track the confirmed cases of.
+     * @return The new time series.
+     */
+    public static Covid19TimeSeries create(Iterable<Covid19Location> locations)
+    {
+        return new Covid19TimeSeries(locations);
+    }
+
+    /**
+     * Get a condition that matches the data rows that match any of the provided locations, or null
+     * if every data row can match one of the locations.
+     * @param locations The locations to get the condition for.
+     * @return A condition that matches the data rows that match any of the provided locations.
+     */
+    static Covid19LocationCondition getLocationsCondition(Iterable<Covid19Location> locations)
+    {
+        PreCondition.assertNotNull(locations, "locations");
+
+        Covid19LocationGroupCondition result = Covid19LocationGroupCondition.create(Covid19LocationGroupConditionOperator.Or);
+        for (final Covid19Location location : locations)
+        {
+            final Covid19LocationCondition locationCondition = location.getCondition();
+            if (locationCondition == null)
+            {
+                result = null;
+                break;
+            }
+            result.addCondition(locationCondition);
+        }
+        return result;
+    }
+
+    /**
+     * Get the locations that this time series tracks.
+     * @return The locations that this time series tracks.
+     */
+    public Iterable<Covid19Location> getLocations()
+    {
+        return this.locations;
+    }
+
+    /**
+     * Get a condition that matches the data rows that are needed to compute this time series, or
+     * null if every data row is needed.
+     * @return A condition that matches the data rows that are needed to compute this time series.
+     */
+    public Covid19LocationCondition getLocationsCondition()
+    {
+        return this.locationsCondition;
+    }
+
+    /**
+     * Get whether or not this time series tracks exactly the provided locations, in the same order.
+     * @param locations The locations to compare against.
+     * @return Whether or not this time series tracks exactly the provided locations.
+     */
+    public boolean hasLocations(Iterable<Covid19Location> locations)
+    {
+        PreCondition.assertNotNull(locations, "locations");
+
+        boolean result = (this.locations.getCount() == locations.getCount());
+        if (result)
+        {
+            int index = 0;
+            for (final Covid19Location location : locations)
+            {
+                if (!this.locations.get(index).toString().equals(location.toString()))
+                {
+                    result = false;
+                    break;
+                }
+                ++index;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the number of dates that have daily reports in this time series.
+     * @return The number of dates that have daily reports in this time series.
+     */
+    public synchronized int getDateCount()
+    {
+        return this.dateCount;
+    }
+
+    /**
+     * Get whether or not this time series contains the daily report for the provided date.
+     * @param date The date to look for.
+     * @return Whether or not this time series contains the daily report for the provided date.
+     */
+    public synchronized boolean contains(DateTime date)
+    {
+        PreCondition.assertNotNull(date, "date");
+
+        final int dayIndex = Covid19DailyReportFileIndex.getEpochDay(date) - this.firstEpochDay;
+        return 0 <= dayIndex && dayIndex < this.datesReported.length && this.datesReported[dayIndex];
+    }
+
+    /**
+     * Add the confirmed cases of each location in the provided daily report to this time series,
+     * replacing any values that were previously added for the provided date.
+     * @param date The date of the daily report.
+     * @param dailyReport The daily report. It must contain at least the data rows that match
+     *                    getLocationsCondition().
+     * @param issues The issues that were reported when the daily report was loaded.
+     * @return This object for method chaining.
+     */
+    public Covid19TimeSeries set(DateTime date, Covid19DailyReport dailyReport, Iterable<Covid19Issue> issues)
+    {
+        PreCondition.assertNotNull(date, "date");
+        PreCondition.assertNotNull(dailyReport, "dailyReport");
+        PreCondition.assertNotNull(issues, "issues");
+
+        // The daily report is scanned before this time series is locked, so that daily reports that
+        // are loaded in parallel are also aggregated in parallel.
+        final int epochDay = Covid19DailyReportFileIndex.getEpochDay(date);
+        final int[] confirmedCasesSums = this.locationAggregator.getConfirmedCasesSums(dailyReport);
+        final List<Covid19Issue> issueList = issues.toList();
+
+        synchronized (this)
+        {
+            this.ensureCapacity(epochDay);
+
+            final int dayIndex = epochDay - this.firstEpochDay;
+            for (int locationIndex = 0; locationIndex < this.confirmedCases.length; ++locationIndex)
+            {
+                this.confirmedCases[locationIndex][dayIndex] = confirmedCasesSums[locationIndex];
+            }
+            if (!this.datesReported[dayIndex])
+            {
+                this.datesReported[dayIndex] = true;
+                ++this.dateCount;
+            }
+            this.issues.put(epochDay, issueList);
+        }
+
+        return this;
+    }
+
+    /**
+     * Make sure that the arrays of this time series include the provided epoch day.
+     */
+    private void ensureCapacity(int epochDay)
+    {
+        if (this.datesReported.length == 0)
+        {
+            this.firstEpochDay = epochDay;
+        }
+
+        final int lastEpochDay = this.firstEpochDay + this.datesReported.length - 1;
+        if (epochDay < this.firstEpochDay || lastEpochDay < epochDay)
+        {
+            // Grow by at least a month so that adding consecutive days doesn't copy every time.
+            final int newFirstEpochDay = Math.min(this.firstEpochDay, epochDay);
+            final int newLength = Math.max(Math.max(lastEpochDay, epochDay) - newFirstEpochDay + 1, this.datesReported.length + 32);
+            final int offset = this.firstEpochDay - newFirstEpochDay;
+
+            final boolean[] newDatesReported = new boolean[newLength];
+            System.arraycopy(this.datesReported, 0, newDatesReported, offset, this.datesReported.length);
+            this.datesReported = newDatesReported;
+
+            for (int locationIndex = 0; locationIndex < this.confirmedCases.length; ++locationIndex)
+            {
+                final int[] newConfirmedCases = new int[newLength];
+                System.arraycopy(this.confirmedCases[locationIndex], 0, newConfirmedCases, offset, this.confirmedCases[locationIndex].length);
+                this.confirmedCases[locationIndex] = newConfirmedCases;
+            }
+
+            this.firstEpochDay = newFirstEpochDay;
+        }
+    }
+
+    /**
+     * Remove the provided date from this time series.
+     * @param date The date to remove.
+     * @return Whether or not the date was in this time series.
+     */
+    public synchronized boolean remove(DateTime date)
+    {
+        PreCondition.assertNotNull(date, "date");
+
+        final boolean result = this.contains(date);
+        if (result)
+        {
+            final int epochDay = Covid19DailyReportFileIndex.getEpochDay(date);
+            this.datesReported[epochDay - this.firstEpochDay] = false;
+            this.issues.remove(epochDay);
+            --this.dateCount;
+        }
+        return result;
+    }
+
+    /**
+     * Get a copy of this time series that doesn't contain the provided dates. This time series is
+     * not modified, so callers that are still reading it aren't affected.
+     * @param dates The dates to leave out of the returned time series.
+     * @return A copy of this time series that doesn't contain the provided dates.
+     */
+    public synchronized Covid19TimeSeries without(Iterable<DateTime> dates)
+    {
+        PreCondition.assertNotNull(dates, "dates");
+
+        final Covid19TimeSeries result = new Covid19TimeSeries(this.locations);
+        result.firstEpochDay = this.firstEpochDay;
+        result.datesReported = this.datesReported.clone();
+        for (int locationIndex = 0; locationIndex < this.confirmedCases.length; ++locationIndex)
+        {
+            result.confirmedCases[locationIndex] = this.confirmedCases[locationIndex].clone();
+        }
+        result.dateCount = this.dateCount;
+        result.issues.putAll(this.issues);
+        for (final DateTime date : dates)
+        {
+            result.remove(date);
+        }
+        return result;
+    }
+
+    /**
+     * Remove every date from this time series.
+     * @return This object for method chaining.
+     */
+    public synchronized Covid19TimeSeries clear()
+    {
+        this.confirmedCases = new int[this.locations.getCount()][0];
+        this.datesReported = new boolean[0];
+        this.dateCount = 0;
+        this.issues.clear();
+
+        return this;
+    }
+
+    /**
+     * Get the issues that were reported when the daily report for the provided date was loaded.
+     * @param date The date of the daily report.
+     * @return The issues that were reported when the daily report for the provided date was
+     * loaded, or a NotFoundException if this time series doesn't contain the date.
+     */
+    public synchronized Result<Iterable<Covid19Issue>> getIssues(DateTime date)
+    {
+        PreCondition.assertNotNull(date, "date");
+
+        return Result.create(() ->
+        {
+            final Iterable<Covid19Issue> result = this.issues.get(Covid19DailyReportFileIndex.getEpochDay(date));
+            if (result == null)
+            {
+                throw new NotFoundException("No daily report found for the date " + QubCovid19.toString(date) + ".");
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Get the confirmed cases of the location with the provided name on the provided date.
+     * @param locationName The name of the location.
+     * @param date The date to get the confirmed cases for.
+     * @return The confirmed cases of the location on the provided date, or a NotFoundException if
+     * the location isn't tracked by this time series or if this time series doesn't contain the
+     * date.
+     */
+    public synchronized Result<Integer> getConfirmedCases(String locationName, DateTime date)
+    {
+        PreCondition.assertNotNullAndNotEmpty(locationName, "locationName");
+        PreCondition.assertNotNull(date, "date");
+
+        return Result.create(() ->
+        {
+            final Integer locationIndex = this.locationIndexes.get(locationName);
+            if (locationIndex == null)
+            {
+                throw new NotFoundException("No location named " + Strings.escapeAndQuote(locationName) + " found.");
+            }
+            if (!this.contains(date))
+            {
+                throw new NotFoundException("No daily report found for the date " + QubCovid19.toString(date) + ".");
+            }
+            return this.confirmedCases[locationIndex][Covid19DailyReportFileIndex.getEpochDay(date) - this.firstEpochDay];
+        });
+    }
+}
@@ -71,7 +71,7 @@ public interface QubCovid19
                         .setRequired("operator", "conditions")
                         .setAdditionalProperties(false),
                     JSONSchema.create()
-                        .setDescription("A location condition that evaluates an expression based on the properties of a Covid-19 data row.")
+                        .setDescription("A location condition that compares a property of a Covid-19 data row against a value.")
                         .setType(JSONSchemaType.Object)
                         .addProperty("propertyName", JSONSchema.create()
                             .setDescription("The name of the property that will be checked.")
@@ -86,6 +86,31 @@ public interface QubCovid19
                             .setType(JSONSchemaType.String)
                             .setMinLength(1)
                         )
+                        .setRequired("propertyName", "operator", "expectedPropertyValue"),
+                    JSONSchema.create()
+                        .setDescription("A location condition that checks whether a property of a Covid-19 data row is one of several values.")
+                        .setType(JSONSchemaType.Object)
+                        .addProperty("propertyName", JSONSchema.create()
+                            .setDescription("The name of the property that will be checked.")
+                            .setEnum("countryOrRegion", "stateOrProvince", "county")
+                        )
+                        .addProperty("operator", JSONSchema.create()
+                            .setDescription("The operator to use when checking the property.")
+                            .setEnum("In")
+                        )
+                        .addProperty("expectedPropertyValue", JSONSchema.create()
+                            .setDescription("The expected property values to check against. A null value matches data rows that don't have the property.")
+                            .setType(JSONSchemaType.Array)
+                            .setItems(JSONSchema.create()
+                                .setOneOf(
+                                    JSONSchema.create()
+                                        .setType(JSONSchemaType.String)
+                                        .setMinLength(1),
+                                    JSONSchema.create()
+                                        .setType(JSONSchemaType.Null)
+                                )
+                            )
+                        )
                         .setRequired("propertyName", "operator", "expectedPropertyValue")
                 )
             );
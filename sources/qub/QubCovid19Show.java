@@ -1,7 +1,5 @@
 package qub;
 
-import java.util.Objects;
-
 public interface QubCovid19Show
 {
     static void addAction(CommandLineActions actions)
@@ -21,6 +19,11 @@ public interface QubCovid19Show
         QubCovid19ShowParameters result = null;
 
         final CommandLineParameters parameters = action.createCommandLineParameters(process);
+        final CommandLineParameterBoolean backgroundRefreshParameter = parameters.addBoolean("background-refresh")
+            .setDescription("Show the locally available data while the data is refreshed in the background.");
+        final CommandLineParameter<String> refreshTimeToLiveParameter = parameters.addString("refresh-time-to-live")
+            .setValueName("<minutes>")
+            .setDescription("The number of minutes after a refresh that the data won't be refreshed again.");
         final CommandLineParameterProfiler profilerParameter = parameters.addProfiler(process, QubCovid19.class);
         final CommandLineParameterHelp helpParameter = parameters.addHelp();
         final CommandLineParameterVerbose verboseParameter = parameters.addVerbose(process);
@@ -34,8 +37,13 @@ public interface QubCovid19Show
 
             final Folder projectDataFolder = process.getQubProjectDataFolder().await();
             final Git git = Git.create(process);
-            final Covid19DataSource dataSource = Covid19GitDataSource.create(projectDataFolder, git);
-            result = new QubCovid19ShowParameters(output, verbose, projectDataFolder, dataSource);
+            final String refreshTimeToLiveMinutes = refreshTimeToLiveParameter.getValue().await();
+            final Covid19DataSource dataSource = Covid19GitDataSource.create(projectDataFolder, git, process.getClock())
+                .setRefreshTimeToLive(Strings.isNullOrEmpty(refreshTimeToLiveMinutes)
+                    ? null
+                    : Duration.minutes(Integers.parse(refreshTimeToLiveMinutes).await()));
+            result = new QubCovid19ShowParameters(output, verbose, projectDataFolder, dataSource)
+                .setBackgroundRefresh(backgroundRefreshParameter.getValue().await());
         }
 
         return result;
@@ -53,141 +61,216 @@ public interface QubCovid19Show
 
         try (final Disposable logStream = logStreams.getLogStream())
         {
-            output.write("Refreshing data...").await();
-            dataSource.refreshData(verbose).await();
-            output.writeLine(" Done.").await();
-            output.writeLine().await();
-
-            final Set<Covid19Issue> issues = Set.create();
-            final Covid19Summary summary = dataSource.getDataSummary(issues::add).await();
-            final DateTime mostRecentDateReported = summary.getMostRecentDateReported();
-            final CharacterTableFormat summaryFormat = CharacterTableFormat.create()
-                .setNewLine('\n')
-                .setColumnSeparator(' ')
-                .setColumnHorizontalAlignment(1, HorizontalAlignment.Right);
-            output.writeLine("Summary:").await();
-            CharacterTable.create()
-                .addRow("Dates reported:", Integers.toString(summary.getDatesReportedCount()))
-                .addRow("Countries reported:", Integers.toString(summary.getCountriesReportedCount()))
-                .addRow("Most recent report:", QubCovid19.toString(mostRecentDateReported))
-                .toString(output, summaryFormat).await();
-            output.writeLine().await();
-            output.writeLine().await();
-
-            final File configurationJsonFile = QubCovid19.getConfigurationFile(dataFolder);
-            Covid19Configuration configuration = Covid19Configuration.parse(configurationJsonFile)
-                .catchError(FileNotFoundException.class)
-                .await();
-            if (configuration == null)
+            if (!parameters.getBackgroundRefresh())
             {
-                configuration = QubCovid19.getDefaultConfiguration();
-                try (final CharacterWriteStream configurationJsonWriteStream = configurationJsonFile.getContentsCharacterWriteStream().await())
-                {
-                    configuration.toString(configurationJsonWriteStream, JSONFormat.pretty).await();
-                }
-            }
-
-            final Iterable<Covid19Location> locations = configuration.getLocations();
-
-            final Iterable<Integer> previousDays = Iterable.create(1, 3, 7, 30);
-
-            final CharacterTableFormat confirmedCasesFormat = CharacterTableFormat.create()
-                .setNewLine('\n')
-                .setTopBorder('-')
-                .setLeftBorder("| ")
-                .setColumnSeparator(" | ")
-                .setRightBorder(" |")
-                .setBottomBorder('-');
+                output.write("Refreshing data...").await();
+                dataSource.refreshData(verbose).await();
+                output.writeLine(" Done.").await();
+                output.writeLine().await();
 
-            final int previousDaysCount = previousDays.getCount();
-            for (int i = 0; i < previousDaysCount + 1; ++i)
-            {
-                confirmedCasesFormat.setColumnHorizontalAlignment(i + 1, HorizontalAlignment.Right);
+                QubCovid19Show.writeReport(output, dataFolder, dataSource);
             }
-
-            output.writeLine("Confirmed Cases:").await();
-            final CharacterTable confirmedCasesTable = QubCovid19Show.createConfirmedCasesTable(mostRecentDateReported, previousDays, locations, dataSource, issues::add);
-            confirmedCasesTable.toString(output, confirmedCasesFormat).await();
-            output.writeLine().await();
-            output.writeLine().await();
-
-            output.writeLine("Confirmed Cases Average Change Per Day:").await();
-            final CharacterTable confirmedCasesAverageChangePerDayTable = QubCovid19Show.createConfirmedCasesAverageChangePerDayTable(mostRecentDateReported, previousDays, locations, dataSource, issues::add);
-            confirmedCasesAverageChangePerDayTable.toString(output, confirmedCasesFormat).await();
-            output.writeLine().await();
-
-            if (issues.any())
+            else
             {
-                output.writeLine().await();
-
-                output.writeLine("Issues:").await();
-                int issueNumber = 0;
-                for (final Covid19Issue issue : issues)
+                // The refresh's verbose logs are buffered so that they don't interleave with the
+                // report that is written while the refresh runs.
+                final InMemoryCharacterToByteStream refreshVerbose = InMemoryCharacterToByteStream.create();
+                final Covid19BackgroundTask<Covid19DataChanges> refresh = Covid19Tasks.startInBackground("COVID-19 background refresh",
+                    () -> dataSource.refreshData(refreshVerbose).await());
+
+                final Covid19Summary localSummary = dataSource.getDataSummary(issue -> {})
+                    .catchError()
+                    .await();
+                if (localSummary == null || localSummary.getDatesReportedCount() == 0)
                 {
-                    ++issueNumber;
+                    output.write("Refreshing data...").await();
+                    QubCovid19Show.awaitRefresh(refresh, refreshVerbose, verbose);
+                    output.writeLine(" Done.").await();
+                    output.writeLine().await();
 
-                    output.writeLine(issueNumber + ". " + issue.getMessage()).await();
+                    QubCovid19Show.writeReport(output, dataFolder, dataSource);
+                }
+                else
+                {
+                    QubCovid19Show.writeReport(output, dataFolder, dataSource);
+
+                    output.write("Checking for newer data...").await();
+                    Covid19DataChanges changes;
+                    try
+                    {
+                        changes = QubCovid19Show.awaitRefresh(refresh, refreshVerbose, verbose);
+                    }
+                    catch (RuntimeException error)
+                    {
+                        changes = null;
+
+                        // The locally available data has already been shown, so a failed refresh
+                        // is only a warning.
+                        output.writeLine(" Failed.").await();
+                        output.writeLine("Warning: The data could not be refreshed: " + error.getMessage()).await();
+                    }
+
+                    if (changes != null)
+                    {
+                        if (!changes.any())
+                        {
+                            output.writeLine(" No newer data found.").await();
+                        }
+                        else
+                        {
+                            output.writeLine(" Newer data found.").await();
+                            output.writeLine().await();
+
+                            QubCovid19Show.writeReport(output, dataFolder, dataSource);
+                        }
+                    }
                 }
             }
+        }
+    }
 
-            output.writeLine().await();
+    /**
+     * Wait for the provided background refresh to finish and then write its buffered verbose logs
+     * to the provided verbose stream.
+     * @param refresh The background refresh.
+     * @param refreshVerbose The stream that the background refresh wrote its verbose logs to.
+     * @param verbose The stream to write the background refresh's verbose logs to.
+     * @return The changes that were made by the refresh.
+     */
+    static Covid19DataChanges awaitRefresh(Covid19BackgroundTask<Covid19DataChanges> refresh, InMemoryCharacterToByteStream refreshVerbose, CharacterWriteStream verbose)
+    {
+        PreCondition.assertNotNull(refresh, "refresh");
+        PreCondition.assertNotNull(refreshVerbose, "refreshVerbose");
+        PreCondition.assertNotNull(verbose, "verbose");
+
+        try
+        {
+            return refresh.await();
+        }
+        finally
+        {
+            verbose.write(refreshVerbose.getText().await()).await();
         }
     }
 
-    static CharacterTable createConfirmedCasesTable(DateTime reportStartDate, Iterable<Integer> previousDays, Iterable<Covid19Location> locations, Covid19DataSource dataSource, Action1<Covid19Issue> onIssue)
+    /**
+     * Write the summary, the confirmed cases tables, and any issues to the provided output stream.
+     * @param output The stream to write the report to.
+     * @param dataFolder The data folder that contains the configuration file.
+     * @param dataSource The data source to report on.
+     */
+    static void writeReport(IndentedCharacterWriteStream output, Folder dataFolder, Covid19DataSource dataSource)
     {
-        PreCondition.assertNotNull(reportStartDate, "reportStartDate");
-        PreCondition.assertNotNull(previousDays, "previousDays");
-        PreCondition.assertNotNull(locations, "locations");
+        PreCondition.assertNotNull(output, "output");
+        PreCondition.assertNotNull(dataFolder, "dataFolder");
         PreCondition.assertNotNull(dataSource, "dataSource");
-        PreCondition.assertNotNull(onIssue, "onIssue");
 
-        final MutableMap<String,List<Integer>> locationDataRows = Map.create();
-        for (final Covid19Location location : locations)
+        final Set<Covid19Issue> issues = Set.create();
+        final Covid19Summary summary = dataSource.getDataSummary(issues::add).await();
+        final DateTime mostRecentDateReported = summary.getMostRecentDateReported();
+        final CharacterTableFormat summaryFormat = CharacterTableFormat.create()
+            .setNewLine('\n')
+            .setColumnSeparator(' ')
+            .setColumnHorizontalAlignment(1, HorizontalAlignment.Right);
+        output.writeLine("Summary:").await();
+        CharacterTable.create()
+            .addRow("Dates reported:", Integers.toString(summary.getDatesReportedCount()))
+            .addRow("Countries reported:", Integers.toString(summary.getCountriesReportedCount()))
+            .addRow("Most recent report:", QubCovid19.toString(mostRecentDateReported))
+            .toString(output, summaryFormat).await();
+        output.writeLine().await();
+        output.writeLine().await();
+
+        final File configurationJsonFile = QubCovid19.getConfigurationFile(dataFolder);
+        Covid19Configuration configuration = Covid19Configuration.parse(configurationJsonFile)
+            .catchError(FileNotFoundException.class)
+            .await();
+        if (configuration == null)
         {
-            locationDataRows.set(location.getName(), List.create());
+            configuration = QubCovid19.getDefaultConfiguration();
+            try (final CharacterWriteStream configurationJsonWriteStream = configurationJsonFile.getContentsCharacterWriteStream().await())
+            {
+                configuration.toString(configurationJsonWriteStream, JSONFormat.pretty).await();
+            }
         }
 
-        final Covid19DailyReport reportStartDateDailyReport = dataSource.getDailyReport(reportStartDate, onIssue).await();
-        for (final Covid19Location location : locations)
+        final Iterable<Covid19Location> locations = configuration.getLocations();
+
+        final Iterable<Integer> previousDays = Iterable.create(1, 3, 7, 30);
+
+        final CharacterTableFormat confirmedCasesFormat = CharacterTableFormat.create()
+            .setNewLine('\n')
+            .setTopBorder('-')
+            .setLeftBorder("| ")
+            .setColumnSeparator(" | ")
+            .setRightBorder(" |")
+            .setBottomBorder('-');
+
+        final int previousDaysCount = previousDays.getCount();
+        for (int i = 0; i < previousDaysCount + 1; ++i)
         {
-            final int confirmedCases = Integers.sum(reportStartDateDailyReport.getDataRows()
-                .where(location::matches)
-                .map(Covid19DailyReportDataRow::getConfirmedCases)
-                .where(Objects::nonNull));
-            locationDataRows.get(location.getName()).await()
-                .add(confirmedCases);
+            confirmedCasesFormat.setColumnHorizontalAlignment(i + 1, HorizontalAlignment.Right);
         }
 
-        for (final Integer daysAgo : previousDays)
+        final QubCovid19ShowPlan plan = QubCovid19ShowPlan.create(mostRecentDateReported, previousDays, locations)
+            .run(dataSource, issues::add)
+            .await();
+
+        output.writeLine("Confirmed Cases:").await();
+        final CharacterTable confirmedCasesTable = QubCovid19Show.createConfirmedCasesTable(plan);
+        confirmedCasesTable.toString(output, confirmedCasesFormat).await();
+        output.writeLine().await();
+        output.writeLine().await();
+
+        output.writeLine("Confirmed Cases Average Change Per Day:").await();
+        final CharacterTable confirmedCasesAverageChangePerDayTable = QubCovid19Show.createConfirmedCasesAverageChangePerDayTable(plan);
+        confirmedCasesAverageChangePerDayTable.toString(output, confirmedCasesFormat).await();
+        output.writeLine().await();
+
+        if (issues.any())
         {
-            final DateTime previousDay = reportStartDate.minus(Duration.days(daysAgo));
-            final Covid19DailyReport previousDailyReport = dataSource.getDailyReport(previousDay, onIssue).await();
-            for (final Covid19Location location : locations)
+            output.writeLine().await();
+
+            output.writeLine("Issues:").await();
+            int issueNumber = 0;
+            for (final Covid19Issue issue : issues)
             {
-                final int confirmedCases = Integers.sum(previousDailyReport.getDataRows()
-                    .where(location::matches)
-                    .map(Covid19DailyReportDataRow::getConfirmedCases)
-                    .where(Objects::nonNull));
-                locationDataRows.get(location.getName()).await()
-                    .add(confirmedCases);
+                ++issueNumber;
+
+                output.writeLine(issueNumber + ". " + issue.getMessage()).await();
             }
         }
 
+        output.writeLine().await();
+    }
+
+    static CharacterTable createConfirmedCasesTable(QubCovid19ShowPlan plan)
+    {
+        PreCondition.assertNotNull(plan, "plan");
+        PreCondition.assertTrue(plan.hasRun(), "plan.hasRun()");
+
         final CharacterTable result = CharacterTable.create();
 
+        final Iterable<Integer> previousDays = plan.getPreviousDays();
         final List<String> headerRow = List.create("Location");
-        headerRow.add(QubCovid19.toString(reportStartDate));
+        headerRow.add(QubCovid19.toString(plan.getReportStartDate()));
         if (!Iterable.isNullOrEmpty(previousDays))
         {
             headerRow.addAll(previousDays.map((Integer daysAgo) -> daysAgo + " days ago"));
         }
         result.addRow(headerRow);
 
-        for (final MapEntry<String,List<Integer>> locationRowData : locationDataRows)
+        final int reportDateCount = plan.getReportDates().getCount();
+        int locationIndex = 0;
+        for (final Covid19Location location : plan.getLocations())
         {
-            result.addRow(List.create(locationRowData.getKey())
-                .addAll(locationRowData.getValue().map(Integers::toString)));
+            final List<String> row = List.create(location.getName());
+            for (int reportDateIndex = 0; reportDateIndex < reportDateCount; ++reportDateIndex)
+            {
+                row.add(Integers.toString(plan.getConfirmedCases(locationIndex, reportDateIndex)));
+            }
+            result.addRow(row);
+            ++locationIndex;
         }
 
         PostCondition.assertNotNull(result, "result");
@@ -195,50 +278,14 @@ public interface QubCovid19Show
         return result;
     }
 
-    static CharacterTable createConfirmedCasesAverageChangePerDayTable(DateTime reportStartDate, Iterable<Integer> previousDays, Iterable<Covid19Location> locations, Covid19DataSource dataSource, Action1<Covid19Issue> onIssue)
+    static CharacterTable createConfirmedCasesAverageChangePerDayTable(QubCovid19ShowPlan plan)
     {
-        PreCondition.assertNotNull(reportStartDate, "reportStartDate");
-        PreCondition.assertNotNull(previousDays, "previousDays");
-        PreCondition.assertNotNull(locations, "locations");
-        PreCondition.assertNotNull(dataSource, "dataSource");
-        PreCondition.assertNotNull(onIssue, "onIssue");
-
-        final MutableMap<String,Integer> locationReportStartDateConfirmedCases = Map.create();
-        final Covid19DailyReport dailyReport = dataSource.getDailyReport(reportStartDate, onIssue).await();
-        for (final Covid19Location location : locations)
-        {
-            final int confirmedCases = Integers.sum(dailyReport.getDataRows()
-                .where(location::matches)
-                .map(Covid19DailyReportDataRow::getConfirmedCases)
-                .where(Objects::nonNull));
-            locationReportStartDateConfirmedCases.set(location.getName(), confirmedCases);
-        }
-
-        final MutableMap<String,List<Integer>> locationDataRows = Map.create();
-        for (final Covid19Location location : locations)
-        {
-            locationDataRows.set(location.getName(), List.create());
-        }
-
-        for (final Integer daysAgo : previousDays)
-        {
-            final DateTime previousDay = reportStartDate.minus(Duration.days(daysAgo));
-            final Covid19DailyReport previousDailyReport = dataSource.getDailyReport(previousDay, onIssue).await();
-            for (final Covid19Location location : locations)
-            {
-                final int locationReportStartDateConfirmedCasesCount = locationReportStartDateConfirmedCases.get(location.getName()).await();
-                final int previousConfirmedCases = Integers.sum(previousDailyReport.getDataRows()
-                    .where(location::matches)
-                    .map(Covid19DailyReportDataRow::getConfirmedCases)
-                    .where(Objects::nonNull));
-                final int averageConfirmedCasesChangePerDay = (locationReportStartDateConfirmedCasesCount - previousConfirmedCases) / daysAgo;
-                locationDataRows.get(location.getName()).await()
-                    .add(averageConfirmedCasesChangePerDay);
-            }
-        }
+        PreCondition.assertNotNull(plan, "plan");
+        PreCondition.assertTrue(plan.hasRun(), "plan.hasRun()");
 
         final CharacterTable result = CharacterTable.create();
 
+        final Iterable<Integer> previousDays = plan.getPreviousDays();
         final List<String> headerRow = List.create("Location");
         if (!Iterable.isNullOrEmpty(previousDays))
         {
@@ -246,10 +293,21 @@ public interface QubCovid19Show
         }
         result.addRow(headerRow);
 
-        for (final MapEntry<String,List<Integer>> locationRowData : locationDataRows)
+        int locationIndex = 0;
+        for (final Covid19Location location : plan.getLocations())
         {
-            result.addRow(List.create(locationRowData.getKey())
-                .addAll(locationRowData.getValue().map(Integers::toString)));
+            final List<String> row = List.create(location.getName());
+            final int reportStartDateConfirmedCases = plan.getConfirmedCases(locationIndex, 0);
+            int reportDateIndex = 1;
+            for (final Integer daysAgo : previousDays)
+            {
+                final int previousConfirmedCases = plan.getConfirmedCases(locationIndex, reportDateIndex);
+                final int averageConfirmedCasesChangePerDay = (reportStartDateConfirmedCases - previousConfirmedCases) / daysAgo;
+                row.add(Integers.toString(averageConfirmedCasesChangePerDay));
+                ++reportDateIndex;
+            }
+            result.addRow(row);
+            ++locationIndex;
         }
 
         PostCondition.assertNotNull(result, "result");
@@ -257,6 +315,26 @@ public interface QubCovid19Show
         return result;
     }
 
+    /**
+     * Get the dates that the confirmed cases tables report on: the report start date followed by
+     * each of the previous days.
+     * @param reportStartDate The most recent date in the tables.
+     * @param previousDays The numbers of days before the report start date to report on.
+     * @return The dates that the confirmed cases tables report on.
+     */
+    static Iterable<DateTime> getReportDates(DateTime reportStartDate, Iterable<Integer> previousDays)
+    {
+        PreCondition.assertNotNull(reportStartDate, "reportStartDate");
+        PreCondition.assertNotNull(previousDays, "previousDays");
+
+        final List<DateTime> result = List.create(reportStartDate);
+        for (final Integer daysAgo : previousDays)
+        {
+            result.add(reportStartDate.minus(Duration.days(daysAgo)));
+        }
+        return result;
+    }
+
     static String toString(DateTime date)
     {
         PreCondition.assertNotNull(date, "date");
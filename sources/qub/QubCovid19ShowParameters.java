@@ -9,6 +9,7 @@ public class QubCovid19ShowParameters
     private final VerboseCharacterToByteWriteStream verbose;
     private final Folder dataFolder;
     private final Covid19DataSource dataSource;
+    private boolean backgroundRefresh;
 
     /**
      * Create a new application parameters object.
@@ -59,4 +60,27 @@ public class QubCovid19ShowParameters
     {
         return this.dataSource;
     }
+
+    /**
+     * Get whether or not the locally available data should be shown while the data is refreshed
+     * in the background.
+     * @return Whether or not the data should be refreshed in the background.
+     */
+    public boolean getBackgroundRefresh()
+    {
+        return this.backgroundRefresh;
+    }
+
+    /**
+     * Set whether or not the locally available data should be shown while the data is refreshed
+     * in the background.
+     * @param backgroundRefresh Whether or not the data should be refreshed in the background.
+     * @return This object for method chaining.
+     */
+    public QubCovid19ShowParameters setBackgroundRefresh(boolean backgroundRefresh)
+    {
+        this.backgroundRefresh = backgroundRefresh;
+
+        return this;
+    }
 }
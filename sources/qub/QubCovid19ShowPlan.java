@@ -0,0 +1,129 @@
+package qub;
+
+/**
+ * The locations and dates that the show action's tables report on, and once the plan has been run,
+ * the confirmed cases of each location on each of those dates. Every table is created from the
+ * same plan, so each daily report is fetched and aggregated once per run no matter how many tables
+ * are rendered.
+ */
+public class QubCovid19ShowPlan
+{
+    private final DateTime reportStartDate;
+    private final List<Integer> previousDays;
+    private final List<Covid19Location> locations;
+    private final Iterable<DateTime> reportDates;
+    /**
+     * The confirmed cases of each location, indexed by location index and then by report date
+     * index.
+     */
+    private int[][] confirmedCases;
+
+    private QubCovid19ShowPlan(DateTime reportStartDate, Iterable<Integer> previousDays, Iterable<Covid19Location> locations)
+    {
+        PreCondition.assertNotNull(reportStartDate, "reportStartDate");
+        PreCondition.assertNotNull(previousDays, "previousDays");
+        PreCondition.assertNotNull(locations, "locations");
+
+        this.reportStartDate = reportStartDate;
+        this.previousDays = List.create();
+        this.previousDays.addAll(previousDays);
+        this.locations = List.create();
+        this.locations.addAll(locations);
+        this.reportDates = QubCovid19Show.getReportDates(reportStartDate, this.previousDays);
+    }
+
+    /**
+     * Create a new QubCovid19ShowPlan.
+     * @param reportStartDate The most recent date that the tables report on.
+     * @param previousDays The numbers of days before the report start date that the tables report
+     *                     on.
+     * @param locations The locations that the tables report on.
+     * @return The new QubCovid19ShowPlan.
+     */
+    public static QubCovid19ShowPlan create(DateTime reportStartDate, Iterable<Integer> previousDays, Iterable<Covid19Location> locations)
+    {
+        return new QubCovid19ShowPlan(reportStartDate, previousDays, locations);
+    }
+
+    public DateTime getReportStartDate()
+    {
+        return this.reportStartDate;
+    }
+
+    public Iterable<Integer> getPreviousDays()
+    {
+        return this.previousDays;
+    }
+
+    public Iterable<Covid19Location> getLocations()
+    {
+        return this.locations;
+    }
+
+    /**
+     * Get the dates that this plan reports on: the report start date followed by each of the
+     * previous days.
+     * @return The dates that this plan reports on.
+     */
+    public Iterable<DateTime> getReportDates()
+    {
+        return this.reportDates;
+    }
+
+    /**
+     * Get whether or not this plan has been run.
+     * @return Whether or not this plan has been run.
+     */
+    public boolean hasRun()
+    {
+        return this.confirmedCases != null;
+    }
+
+    /**
+     * Get the confirmed cases of every location on every report date from the provided data source.
+     * @param dataSource The data source to get the confirmed cases from.
+     * @param onIssue The action that will be called when an issue is found in a daily report.
+     * @return This object for method chaining, or a NotFoundException if one of the report dates
+     * doesn't have a daily report.
+     */
+    public Result<QubCovid19ShowPlan> run(Covid19DataSource dataSource, Action1<Covid19Issue> onIssue)
+    {
+        PreCondition.assertNotNull(dataSource, "dataSource");
+        PreCondition.assertNotNull(onIssue, "onIssue");
+
+        return Result.create(() ->
+        {
+            final Covid19TimeSeries timeSeries = dataSource.getTimeSeries(this.locations, this.reportDates, onIssue).await();
+
+            final int[][] confirmedCases = new int[this.locations.getCount()][this.reportDates.getCount()];
+            int reportDateIndex = 0;
+            for (final DateTime reportDate : this.reportDates)
+            {
+                for (int locationIndex = 0; locationIndex < confirmedCases.length; ++locationIndex)
+                {
+                    confirmedCases[locationIndex][reportDateIndex] = timeSeries.getConfirmedCases(this.locations.get(locationIndex).getName(), reportDate).await();
+                }
+                ++reportDateIndex;
+            }
+            this.confirmedCases = confirmedCases;
+
+            return this;
+        });
+    }
+
+    /**
+     * Get the confirmed cases of the location at the provided index on the report date at the
+     * provided index.
+     * @param locationIndex The index of the location in getLocations().
+     * @param reportDateIndex The index of the date in getReportDates().
+     * @return The confirmed cases of the location on the report date.
+     */
+    public int getConfirmedCases(int locationIndex, int reportDateIndex)
+    {
+        PreCondition.assertTrue(this.hasRun(), "this.hasRun()");
+        PreCondition.assertBetween(0, locationIndex, this.locations.getCount() - 1, "locationIndex");
+        PreCondition.assertBetween(0, reportDateIndex, this.reportDates.getCount() - 1, "reportDateIndex");
+
+        return this.confirmedCases[locationIndex][reportDateIndex];
+    }
+}
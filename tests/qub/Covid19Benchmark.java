@@ -0,0 +1,262 @@
+package qub;
+
+/**
+ * A small micro-benchmark harness for the skipped benchmark tests. Each measured iteration is
+ * timed individually so that percentiles can be reported, the bytes allocated by the measuring
+ * thread are recorded when the JVM supports it, and the garbage collections that happen while
+ * measuring are counted so that allocation-heavy code paths show up as GC pressure too.
+ */
+public class Covid19Benchmark
+{
+    private final String name;
+    private int warmupIterations;
+    private int measurementIterations;
+
+    private Covid19Benchmark(String name)
+    {
+        PreCondition.assertNotNullAndNotEmpty(name, "name");
+
+        this.name = name;
+        this.warmupIterations = 10;
+        this.measurementIterations = 50;
+    }
+
+    public static Covid19Benchmark create(String name)
+    {
+        return new Covid19Benchmark(name);
+    }
+
+    public String getName()
+    {
+        return this.name;
+    }
+
+    public int getWarmupIterations()
+    {
+        return this.warmupIterations;
+    }
+
+    public Covid19Benchmark setWarmupIterations(int warmupIterations)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(warmupIterations, 0, "warmupIterations");
+
+        this.warmupIterations = warmupIterations;
+
+        return this;
+    }
+
+    public int getMeasurementIterations()
+    {
+        return this.measurementIterations;
+    }
+
+    public Covid19Benchmark setMeasurementIterations(int measurementIterations)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(measurementIterations, 1, "measurementIterations");
+
+        this.measurementIterations = measurementIterations;
+
+        return this;
+    }
+
+    /**
+     * Run the provided operation for the warmup iterations and then for the measurement
+     * iterations.
+     * @param operation The operation to measure.
+     * @return The measurements of the operation.
+     */
+    public Covid19BenchmarkResult run(Action0 operation)
+    {
+        PreCondition.assertNotNull(operation, "operation");
+
+        for (int i = 0; i < this.warmupIterations; ++i)
+        {
+            operation.run();
+        }
+
+        final long[] iterationNanoseconds = new long[this.measurementIterations];
+        final long startGarbageCollectionCount = Covid19Benchmark.getGarbageCollectionCount();
+        final long startGarbageCollectionMilliseconds = Covid19Benchmark.getGarbageCollectionMilliseconds();
+        final long startAllocatedBytes = Covid19Benchmark.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < this.measurementIterations; ++i)
+        {
+            final long startTime = System.nanoTime();
+            operation.run();
+            iterationNanoseconds[i] = System.nanoTime() - startTime;
+        }
+        final long endAllocatedBytes = Covid19Benchmark.getCurrentThreadAllocatedBytes();
+        final long endGarbageCollectionMilliseconds = Covid19Benchmark.getGarbageCollectionMilliseconds();
+        final long endGarbageCollectionCount = Covid19Benchmark.getGarbageCollectionCount();
+
+        final long allocatedBytes = (startAllocatedBytes < 0 || endAllocatedBytes < 0)
+            ? -1
+            : endAllocatedBytes - startAllocatedBytes;
+        final long garbageCollectionCount = (startGarbageCollectionCount < 0 || endGarbageCollectionCount < 0)
+            ? -1
+            : endGarbageCollectionCount - startGarbageCollectionCount;
+        final long garbageCollectionMilliseconds = (startGarbageCollectionMilliseconds < 0 || endGarbageCollectionMilliseconds < 0)
+            ? -1
+            : endGarbageCollectionMilliseconds - startGarbageCollectionMilliseconds;
+        return new Covid19BenchmarkResult(this.name, iterationNanoseconds, allocatedBytes, garbageCollectionCount, garbageCollectionMilliseconds);
+    }
+
+    /**
+     * Get the number of bytes that have been allocated by the current thread, or -1 if the JVM
+     * doesn't support measuring it.
+     * @return The number of bytes that have been allocated by the current thread.
+     */
+    public static long getCurrentThreadAllocatedBytes()
+    {
+        long result = -1;
+        final java.lang.management.ThreadMXBean threadBean = java.lang.management.ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean)
+        {
+            final com.sun.management.ThreadMXBean sunThreadBean = (com.sun.management.ThreadMXBean)threadBean;
+            if (sunThreadBean.isThreadAllocatedMemorySupported() && sunThreadBean.isThreadAllocatedMemoryEnabled())
+            {
+                result = sunThreadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the total number of garbage collections that have happened in the JVM, or -1 if none of
+     * the garbage collectors report it.
+     * @return The total number of garbage collections that have happened in the JVM.
+     */
+    public static long getGarbageCollectionCount()
+    {
+        long result = -1;
+        for (final java.lang.management.GarbageCollectorMXBean garbageCollectorBean : java.lang.management.ManagementFactory.getGarbageCollectorMXBeans())
+        {
+            final long collectionCount = garbageCollectorBean.getCollectionCount();
+            if (collectionCount >= 0)
+            {
+                result = Math.max(result, 0) + collectionCount;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the total number of milliseconds that the JVM's garbage collectors have spent
+     * collecting, or -1 if none of the garbage collectors report it.
+     * @return The total number of milliseconds that have been spent collecting garbage.
+     */
+    public static long getGarbageCollectionMilliseconds()
+    {
+        long result = -1;
+        for (final java.lang.management.GarbageCollectorMXBean garbageCollectorBean : java.lang.management.ManagementFactory.getGarbageCollectorMXBeans())
+        {
+            final long collectionMilliseconds = garbageCollectorBean.getCollectionTime();
+            if (collectionMilliseconds >= 0)
+            {
+                result = Math.max(result, 0) + collectionMilliseconds;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the number of bytes that are used by reachable objects on the heap. Garbage collection is
+     * requested a few times first so that the result mostly excludes garbage.
+     * @return The number of bytes that are used on the heap.
+     */
+    public static long getUsedHeapBytes()
+    {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; ++i)
+        {
+            System.gc();
+            try
+            {
+                Thread.sleep(50);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Write the provided line of text to standard output.
+     * @param text The text to write.
+     */
+    public static void printLine(String text)
+    {
+        PreCondition.assertNotNull(text, "text");
+
+        System.out.println(text);
+    }
+
+    /**
+     * Write the provided formatted line of text to standard output.
+     * @param format The format of the text to write.
+     * @param arguments The arguments to insert into the format.
+     */
+    public static void printLine(String format, Object... arguments)
+    {
+        PreCondition.assertNotNullAndNotEmpty(format, "format");
+        PreCondition.assertNotNull(arguments, "arguments");
+
+        Covid19Benchmark.printLine(String.format(format, arguments));
+    }
+
+    /**
+     * Write the provided table to standard output.
+     * @param table The table to write.
+     */
+    public static void print(CharacterTable table)
+    {
+        PreCondition.assertNotNull(table, "table");
+
+        Covid19Benchmark.printLine(table.toString(CharacterTableFormat.create()
+            .setNewLine('\n')
+            .setColumnSeparator(" | ")));
+    }
+
+    /**
+     * Write the provided title and then the provided benchmark results as a table to standard
+     * output.
+     * @param title The title to write above the results.
+     * @param results The results to write.
+     */
+    public static void print(String title, Iterable<Covid19BenchmarkResult> results)
+    {
+        PreCondition.assertNotNullAndNotEmpty(title, "title");
+        PreCondition.assertNotNull(results, "results");
+
+        Covid19Benchmark.printLine(title);
+        Covid19Benchmark.print(results);
+    }
+
+    /**
+     * Write the provided benchmark results as a table to standard output.
+     * @param results The results to write.
+     */
+    public static void print(Iterable<Covid19BenchmarkResult> results)
+    {
+        PreCondition.assertNotNull(results, "results");
+
+        final CharacterTable table = CharacterTable.create()
+            .addRow("Benchmark", "ops/s", "p50 (us)", "p90 (us)", "p99 (us)", "max (us)", "alloc/op (bytes)", "alloc rate (MB/s)", "gc count", "gc time (ms)");
+        for (final Covid19BenchmarkResult result : results)
+        {
+            table.addRow(
+                result.getName(),
+                String.format("%.1f", result.getOperationsPerSecond()),
+                Long.toString(result.getPercentileNanoseconds(50) / 1000),
+                Long.toString(result.getPercentileNanoseconds(90) / 1000),
+                Long.toString(result.getPercentileNanoseconds(99) / 1000),
+                Long.toString(result.getPercentileNanoseconds(100) / 1000),
+                result.getAllocatedBytesPerOperation() < 0 ? "n/a" : Long.toString(result.getAllocatedBytesPerOperation()),
+                result.getAllocatedBytesPerSecond() < 0 ? "n/a" : String.format("%.1f", result.getAllocatedBytesPerSecond() / (1024 * 1024)),
+                result.getGarbageCollectionCount() < 0 ? "n/a" : Long.toString(result.getGarbageCollectionCount()),
+                result.getGarbageCollectionMilliseconds() < 0 ? "n/a" : Long.toString(result.getGarbageCollectionMilliseconds()));
+        }
+        Covid19Benchmark.print(table);
+    }
+}
@@ -0,0 +1,110 @@
+package qub;
+
+import java.util.Arrays;
+
+/**
+ * The measurements of a single Covid19Benchmark run.
+ */
+public class Covid19BenchmarkResult
+{
+    private final String name;
+    private final long[] sortedIterationNanoseconds;
+    private final long totalNanoseconds;
+    private final long allocatedBytes;
+    private final long garbageCollectionCount;
+    private final long garbageCollectionMilliseconds;
+
+    Covid19BenchmarkResult(String name, long[] iterationNanoseconds, long allocatedBytes, long garbageCollectionCount, long garbageCollectionMilliseconds)
+    {
+        PreCondition.assertNotNullAndNotEmpty(name, "name");
+        PreCondition.assertNotNull(iterationNanoseconds, "iterationNanoseconds");
+        PreCondition.assertGreaterThanOrEqualTo(iterationNanoseconds.length, 1, "iterationNanoseconds.length");
+
+        this.name = name;
+        this.sortedIterationNanoseconds = iterationNanoseconds.clone();
+        Arrays.sort(this.sortedIterationNanoseconds);
+        long totalNanoseconds = 0;
+        for (final long nanoseconds : iterationNanoseconds)
+        {
+            totalNanoseconds += nanoseconds;
+        }
+        this.totalNanoseconds = totalNanoseconds;
+        this.allocatedBytes = allocatedBytes;
+        this.garbageCollectionCount = garbageCollectionCount;
+        this.garbageCollectionMilliseconds = garbageCollectionMilliseconds;
+    }
+
+    public String getName()
+    {
+        return this.name;
+    }
+
+    public int getIterationCount()
+    {
+        return this.sortedIterationNanoseconds.length;
+    }
+
+    public double getOperationsPerSecond()
+    {
+        return this.totalNanoseconds == 0
+            ? Double.POSITIVE_INFINITY
+            : this.getIterationCount() * 1_000_000_000.0 / this.totalNanoseconds;
+    }
+
+    /**
+     * Get the nearest-rank percentile of the iteration durations.
+     * @param percentile The percentile to get, between 0 and 100.
+     * @return The iteration duration in nanoseconds at the provided percentile.
+     */
+    public long getPercentileNanoseconds(int percentile)
+    {
+        PreCondition.assertBetween(0, percentile, 100, "percentile");
+
+        final int rank = (int)Math.ceil(percentile / 100.0 * this.sortedIterationNanoseconds.length);
+        return this.sortedIterationNanoseconds[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Get the number of bytes that were allocated per iteration, or -1 if allocation couldn't be
+     * measured.
+     * @return The number of bytes that were allocated per iteration.
+     */
+    public long getAllocatedBytesPerOperation()
+    {
+        return this.allocatedBytes < 0
+            ? -1
+            : this.allocatedBytes / this.getIterationCount();
+    }
+
+    /**
+     * Get the number of bytes that were allocated per second of measured time, or -1 if allocation
+     * couldn't be measured.
+     * @return The number of bytes that were allocated per second of measured time.
+     */
+    public double getAllocatedBytesPerSecond()
+    {
+        return this.allocatedBytes < 0 || this.totalNanoseconds == 0
+            ? -1
+            : this.allocatedBytes * 1_000_000_000.0 / this.totalNanoseconds;
+    }
+
+    /**
+     * Get the number of garbage collections that happened while measuring, or -1 if garbage
+     * collections couldn't be counted.
+     * @return The number of garbage collections that happened while measuring.
+     */
+    public long getGarbageCollectionCount()
+    {
+        return this.garbageCollectionCount;
+    }
+
+    /**
+     * Get the number of milliseconds that were spent collecting garbage while measuring, or -1 if
+     * it couldn't be measured.
+     * @return The number of milliseconds that were spent collecting garbage while measuring.
+     */
+    public long getGarbageCollectionMilliseconds()
+    {
+        return this.garbageCollectionMilliseconds;
+    }
+}
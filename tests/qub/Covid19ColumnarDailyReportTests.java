@@ -0,0 +1,241 @@
+package qub;
+
+public interface Covid19ColumnarDailyReportTests
+{
+    static Covid19ColumnarDailyReport createDailyReport(Covid19StringDictionary stringDictionary)
+    {
+        return Covid19ColumnarDailyReport.create(stringDictionary, Iterable.create(
+            Covid19DailyReportDataRow.create()
+                .setCounty("King")
+                .setStateOrProvince("Washington")
+                .setCountryOrRegion("US")
+                .setConfirmedCases(10),
+            Covid19DailyReportDataRow.create()
+                .setCounty("Pierce")
+                .setStateOrProvince("Washington")
+                .setCountryOrRegion("US"),
+            Covid19DailyReportDataRow.create()
+                .setStateOrProvince("Oregon")
+                .setCountryOrRegion("US")
+                .setConfirmedCases(5),
+            Covid19DailyReportDataRow.create()
+                .setCountryOrRegion("Italy")
+                .setConfirmedCases(20)));
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(Covid19ColumnarDailyReport.class, () ->
+        {
+            runner.testGroup("create(Covid19StringDictionary)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19ColumnarDailyReport.create((Covid19StringDictionary)null),
+                        new PreConditionFailure("stringDictionary cannot be null."));
+                });
+
+                runner.test("with dictionary", (Test test) ->
+                {
+                    final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                    final Covid19ColumnarDailyReport dailyReport = Covid19ColumnarDailyReport.create(stringDictionary);
+                    test.assertSame(stringDictionary, dailyReport.getStringDictionary());
+                    test.assertEqual(0, dailyReport.getDataRowCount());
+                    test.assertEqual(Iterable.create(), dailyReport.getDataRows());
+                    test.assertEqual(Covid19DailyReport.create(), dailyReport);
+                });
+            });
+
+            runner.testGroup("create(Covid19StringDictionary,Iterable<Covid19DailyReportDataRow>)", () ->
+            {
+                runner.test("with null dataRows", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19ColumnarDailyReport.create(Covid19StringDictionary.create(), null),
+                        new PreConditionFailure("dataRows cannot be null."));
+                });
+
+                runner.test("with data rows", (Test test) ->
+                {
+                    final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                    final Covid19ColumnarDailyReport dailyReport = Covid19ColumnarDailyReportTests.createDailyReport(stringDictionary);
+                    test.assertEqual(4, dailyReport.getDataRowCount());
+                    test.assertEqual(Covid19DailyReport.create(
+                            Covid19DailyReportDataRow.create()
+                                .setCounty("King")
+                                .setStateOrProvince("Washington")
+                                .setCountryOrRegion("US")
+                                .setConfirmedCases(10),
+                            Covid19DailyReportDataRow.create()
+                                .setCounty("Pierce")
+                                .setStateOrProvince("Washington")
+                                .setCountryOrRegion("US"),
+                            Covid19DailyReportDataRow.create()
+                                .setStateOrProvince("Oregon")
+                                .setCountryOrRegion("US")
+                                .setConfirmedCases(5),
+                            Covid19DailyReportDataRow.create()
+                                .setCountryOrRegion("Italy")
+                                .setConfirmedCases(20)),
+                        dailyReport);
+
+                    test.assertEqual(stringDictionary.getCode("Washington"), dailyReport.getStateOrProvinceCode(0));
+                    test.assertEqual(Covid19StringDictionary.nullCode, dailyReport.getCountyCode(2));
+                    test.assertTrue(dailyReport.hasConfirmedCases(0));
+                    test.assertFalse(dailyReport.hasConfirmedCases(1));
+                    test.assertEqual(0, dailyReport.getConfirmedCases(1));
+                });
+
+                runner.test("with more data rows than fit in one bitmap word", (Test test) ->
+                {
+                    final List<Covid19DailyReportDataRow> dataRows = List.create();
+                    for (int i = 0; i < 200; ++i)
+                    {
+                        final Covid19DailyReportDataRow dataRow = Covid19DailyReportDataRow.create()
+                            .setCountryOrRegion("Country " + (i % 7));
+                        if (i % 3 != 0)
+                        {
+                            dataRow.setConfirmedCases(i);
+                        }
+                        dataRows.add(dataRow);
+                    }
+                    final Covid19ColumnarDailyReport dailyReport = Covid19ColumnarDailyReport.create(Covid19StringDictionary.create(), dataRows);
+                    test.assertEqual(dataRows, dailyReport.getDataRows());
+                });
+            });
+
+            runner.testGroup("getConfirmedCasesSum()", () ->
+            {
+                runner.test("with data rows", (Test test) ->
+                {
+                    final Covid19ColumnarDailyReport dailyReport = Covid19ColumnarDailyReportTests.createDailyReport(Covid19StringDictionary.create());
+                    test.assertEqual(35, dailyReport.getConfirmedCasesSum());
+                });
+            });
+
+            runner.testGroup("getConfirmedCasesSum(Covid19LocationCondition)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final Covid19ColumnarDailyReport dailyReport = Covid19ColumnarDailyReportTests.createDailyReport(Covid19StringDictionary.create());
+                    test.assertEqual(35, dailyReport.getConfirmedCasesSum(null));
+                });
+
+                runner.test("with condition", (Test test) ->
+                {
+                    final Covid19ColumnarDailyReport dailyReport = Covid19ColumnarDailyReportTests.createDailyReport(Covid19StringDictionary.create());
+                    test.assertEqual(10, dailyReport.getConfirmedCasesSum(Covid19LocationCondition.stateOrProvinceEquals("Washington")));
+                    test.assertEqual(15, dailyReport.getConfirmedCasesSum(Covid19LocationCondition.countryOrRegionEquals("US")));
+                });
+            });
+
+            runner.testGroup("createLocationIndex()", () ->
+            {
+                runner.test("with no location index", (Test test) ->
+                {
+                    final Covid19ColumnarDailyReport dailyReport = Covid19ColumnarDailyReportTests.createDailyReport(Covid19StringDictionary.create());
+                    test.assertNull(dailyReport.getLocationIndex());
+                    test.assertSame(dailyReport, dailyReport.createLocationIndex());
+                    final Covid19LocationIndex locationIndex = dailyReport.getLocationIndex();
+                    test.assertNotNull(locationIndex);
+                    test.assertEqual(4, locationIndex.getDataRowCount());
+                    test.assertSame(dailyReport.getStringDictionary(), locationIndex.getStringDictionary());
+                });
+
+                runner.test("with location index", (Test test) ->
+                {
+                    final Covid19ColumnarDailyReport dailyReport = Covid19ColumnarDailyReportTests.createDailyReport(Covid19StringDictionary.create())
+                        .createLocationIndex();
+                    final Covid19LocationIndex locationIndex = dailyReport.getLocationIndex();
+                    test.assertSame(dailyReport, dailyReport.createLocationIndex());
+                    test.assertSame(locationIndex, dailyReport.getLocationIndex());
+                });
+
+                runner.test("after a data row is added", (Test test) ->
+                {
+                    final Covid19ColumnarDailyReport dailyReport = Covid19ColumnarDailyReportTests.createDailyReport(Covid19StringDictionary.create())
+                        .createLocationIndex();
+                    dailyReport.addDataRow(Covid19DailyReportDataRow.create().setCountryOrRegion("Italy").setConfirmedCases(1));
+                    test.assertNull(dailyReport.getLocationIndex());
+                    test.assertEqual(21, dailyReport.createLocationIndex().getConfirmedCasesSum(Covid19LocationCondition.countryOrRegionEquals("Italy")));
+                });
+            });
+
+            runner.testGroup("getConfirmedCasesSum(Covid19LocationCondition) with location index", () ->
+            {
+                final Action1<Covid19LocationCondition> getConfirmedCasesSumTest = (Covid19LocationCondition condition) ->
+                {
+                    runner.test("with " + condition, (Test test) ->
+                    {
+                        final Covid19ColumnarDailyReport dailyReport = Covid19ColumnarDailyReportTests.createDailyReport(Covid19StringDictionary.create());
+                        final Covid19ColumnarDailyReport indexedDailyReport = Covid19ColumnarDailyReportTests.createDailyReport(Covid19StringDictionary.create())
+                            .createLocationIndex();
+                        test.assertEqual(dailyReport.getConfirmedCasesSum(condition), indexedDailyReport.getConfirmedCasesSum(condition));
+                        test.assertEqual(dailyReport.where(condition).getDataRows(), indexedDailyReport.where(condition).getDataRows());
+                    });
+                };
+
+                getConfirmedCasesSumTest.run(Covid19LocationCondition.stateOrProvinceEquals("Washington"));
+                getConfirmedCasesSumTest.run(Covid19LocationCondition.countryOrRegionEquals("Canada"));
+                getConfirmedCasesSumTest.run(Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.countyPropertyName, Covid19LocationPropertyConditionOperator.Equals, null));
+                getConfirmedCasesSumTest.run(Covid19LocationCondition.countryOrRegionIn("Italy", "Canada", "US"));
+                getConfirmedCasesSumTest.run(Covid19LocationCondition.and(
+                    Covid19LocationCondition.countryOrRegionEquals("US"),
+                    Covid19LocationCondition.countyContains("e")));
+                getConfirmedCasesSumTest.run(Covid19LocationCondition.or(
+                    Covid19LocationCondition.countryOrRegionEquals("Italy"),
+                    Covid19LocationCondition.countyContains("e")));
+                getConfirmedCasesSumTest.run(Covid19LocationCondition.and(
+                    Covid19LocationCondition.countryOrRegionEquals("US"),
+                    Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.confirmedCasesPropertyName, Covid19LocationPropertyConditionOperator.Equals, 5)));
+                getConfirmedCasesSumTest.run(Covid19LocationCondition.and());
+                getConfirmedCasesSumTest.run(Covid19LocationCondition.or());
+            });
+
+            runner.testGroup("getConfirmedCasesSum(int,int,int)", () ->
+            {
+                runner.test("with any codes", (Test test) ->
+                {
+                    final Covid19ColumnarDailyReport dailyReport = Covid19ColumnarDailyReportTests.createDailyReport(Covid19StringDictionary.create());
+                    test.assertEqual(35, dailyReport.getConfirmedCasesSum(Covid19ColumnarDailyReport.anyCode, Covid19ColumnarDailyReport.anyCode, Covid19ColumnarDailyReport.anyCode));
+                });
+
+                runner.test("with country code", (Test test) ->
+                {
+                    final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                    final Covid19ColumnarDailyReport dailyReport = Covid19ColumnarDailyReportTests.createDailyReport(stringDictionary);
+                    test.assertEqual(15, dailyReport.getConfirmedCasesSum(Covid19ColumnarDailyReport.anyCode, Covid19ColumnarDailyReport.anyCode, stringDictionary.getCode("US")));
+                });
+
+                runner.test("with null county code", (Test test) ->
+                {
+                    final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                    final Covid19ColumnarDailyReport dailyReport = Covid19ColumnarDailyReportTests.createDailyReport(stringDictionary);
+                    test.assertEqual(5, dailyReport.getConfirmedCasesSum(Covid19StringDictionary.nullCode, Covid19ColumnarDailyReport.anyCode, stringDictionary.getCode("US")));
+                });
+            });
+
+            runner.testGroup("where(Covid19LocationCondition)", () ->
+            {
+                runner.test("with condition", (Test test) ->
+                {
+                    final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                    final Covid19ColumnarDailyReport dailyReport = Covid19ColumnarDailyReportTests.createDailyReport(stringDictionary);
+                    final Covid19ColumnarDailyReport filteredDailyReport = dailyReport.where(Covid19LocationCondition.stateOrProvinceEquals("Washington"));
+                    test.assertSame(stringDictionary, filteredDailyReport.getStringDictionary());
+                    test.assertEqual(
+                        Iterable.create(
+                            Covid19DailyReportDataRow.create()
+                                .setCounty("King")
+                                .setStateOrProvince("Washington")
+                                .setCountryOrRegion("US")
+                                .setConfirmedCases(10),
+                            Covid19DailyReportDataRow.create()
+                                .setCounty("Pierce")
+                                .setStateOrProvince("Washington")
+                                .setCountryOrRegion("US")),
+                        filteredDailyReport.getDataRows());
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,298 @@
+package qub;
+
+public interface Covid19CompiledLocationConditionTests
+{
+    static Iterable<Covid19DailyReportDataRow> createDataRows()
+    {
+        return Iterable.create(
+            Covid19DailyReportDataRow.create(),
+            Covid19DailyReportDataRow.create()
+                .setCounty("King")
+                .setStateOrProvince("Washington")
+                .setCountryOrRegion("US")
+                .setConfirmedCases(10),
+            Covid19DailyReportDataRow.create()
+                .setCounty("Pierce")
+                .setStateOrProvince("Washington")
+                .setCountryOrRegion("US"),
+            Covid19DailyReportDataRow.create()
+                .setStateOrProvince("Oregon")
+                .setCountryOrRegion("US")
+                .setConfirmedCases(105),
+            Covid19DailyReportDataRow.create()
+                .setCountryOrRegion("Italy")
+                .setConfirmedCases(20));
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(Covid19CompiledLocationCondition.class, () ->
+        {
+            runner.testGroup("compile(Covid19LocationCondition)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19CompiledLocationCondition.compile(null),
+                        new PreConditionFailure("condition cannot be null."));
+                });
+
+                runner.test("with condition", (Test test) ->
+                {
+                    final Covid19CompiledLocationCondition compiledCondition = Covid19CompiledLocationCondition.compile(Covid19LocationCondition.countyEquals("King"));
+                    test.assertNotNull(compiledCondition);
+                    test.assertNotNull(compiledCondition.getStringDictionary());
+                });
+            });
+
+            runner.testGroup("compile(Covid19LocationCondition,Covid19StringDictionary)", () ->
+            {
+                runner.test("with null condition", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19CompiledLocationCondition.compile(null, Covid19StringDictionary.create()),
+                        new PreConditionFailure("condition cannot be null."));
+                });
+
+                runner.test("with null stringDictionary", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19CompiledLocationCondition.compile(Covid19LocationCondition.countyEquals("King"), null),
+                        new PreConditionFailure("stringDictionary cannot be null."));
+                });
+
+                runner.test("adds the expected strings to the dictionary", (Test test) ->
+                {
+                    final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                    final Covid19CompiledLocationCondition compiledCondition = Covid19CompiledLocationCondition.compile(
+                        Covid19LocationCondition.or(
+                            Covid19LocationCondition.countyEquals("King"),
+                            Covid19LocationCondition.stateOrProvinceEquals("Oregon")),
+                        stringDictionary);
+                    test.assertSame(stringDictionary, compiledCondition.getStringDictionary());
+                    test.assertEqual(2, stringDictionary.getCount());
+                    test.assertEqual(0, stringDictionary.getCode("King"));
+                    test.assertEqual(1, stringDictionary.getCode("Oregon"));
+                });
+            });
+
+            runner.testGroup("compile(Covid19LocationCondition,Covid19StringDictionary,Covid19SubstringMatcher)", () ->
+            {
+                runner.test("with null condition", (Test test) ->
+                {
+                    final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                    test.assertThrows(() -> Covid19CompiledLocationCondition.compile(null, stringDictionary, Covid19SubstringMatcher.create(stringDictionary, Iterable.create())),
+                        new PreConditionFailure("condition cannot be null."));
+                });
+
+                runner.test("with null stringDictionary", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19CompiledLocationCondition.compile(Covid19LocationCondition.countyEquals("King"), null, Covid19SubstringMatcher.create(Covid19StringDictionary.create(), Iterable.create())),
+                        new PreConditionFailure("stringDictionary cannot be null."));
+                });
+
+                runner.test("with null substringMatcher", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19CompiledLocationCondition.compile(Covid19LocationCondition.countyEquals("King"), Covid19StringDictionary.create(), null),
+                        new PreConditionFailure("substringMatcher cannot be null."));
+                });
+
+                runner.test("with substringMatcher from a different dictionary", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19CompiledLocationCondition.compile(Covid19LocationCondition.countyEquals("King"), Covid19StringDictionary.create(), Covid19SubstringMatcher.create(Covid19StringDictionary.create(), Iterable.create())),
+                        new PreConditionFailure("stringDictionary == substringMatcher.getStringDictionary() cannot be false."));
+                });
+
+                final Action2<String,Covid19LocationCondition> compileTest = (String testName, Covid19LocationCondition condition) ->
+                {
+                    runner.test(testName, (Test test) ->
+                    {
+                        final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                        final Covid19SubstringMatcher substringMatcher = Covid19SubstringMatcher.create(stringDictionary, Iterable.create("er", "gon", "US"));
+                        final Covid19CompiledLocationCondition compiledCondition = Covid19CompiledLocationCondition.compile(condition, stringDictionary, substringMatcher);
+                        test.assertSame(stringDictionary, compiledCondition.getStringDictionary());
+                        for (final Covid19DailyReportDataRow dataRow : Covid19CompiledLocationConditionTests.createDataRows())
+                        {
+                            final boolean expected = condition.matches(dataRow);
+                            test.assertEqual(expected, compiledCondition.matches(dataRow));
+
+                            final Integer confirmedCases = dataRow.getConfirmedCases();
+                            test.assertEqual(expected,
+                                compiledCondition.matches(
+                                    stringDictionary.getCode(dataRow.getCounty()),
+                                    stringDictionary.getCode(dataRow.getStateOrProvince()),
+                                    stringDictionary.getCode(dataRow.getCountryOrRegion()),
+                                    confirmedCases != null,
+                                    confirmedCases == null ? 0 : confirmedCases));
+                        }
+                    });
+                };
+
+                compileTest.run("with county contains pattern", Covid19LocationCondition.countyContains("er"));
+                compileTest.run("with county contains other substring", Covid19LocationCondition.countyContains("in"));
+                compileTest.run("with shared patterns", Covid19LocationCondition.or(
+                    Covid19LocationCondition.stateOrProvinceContains("gon"),
+                    Covid19LocationCondition.and(
+                        Covid19LocationCondition.countryOrRegionContains("US"),
+                        Covid19LocationCondition.countyContains("er"))));
+                compileTest.run("with county equals", Covid19LocationCondition.countyEquals("King"));
+            });
+
+            runner.testGroup("matches()", () ->
+            {
+                final Action2<String,Covid19LocationCondition> matchesTest = (String testName, Covid19LocationCondition condition) ->
+                {
+                    runner.test(testName, (Test test) ->
+                    {
+                        final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                        final Covid19CompiledLocationCondition compiledCondition = Covid19CompiledLocationCondition.compile(condition, stringDictionary);
+                        for (final Covid19DailyReportDataRow dataRow : Covid19CompiledLocationConditionTests.createDataRows())
+                        {
+                            final boolean expected = condition.matches(dataRow);
+                            test.assertEqual(expected, compiledCondition.matches(dataRow));
+
+                            final Integer confirmedCases = dataRow.getConfirmedCases();
+                            test.assertEqual(expected,
+                                compiledCondition.matches(
+                                    stringDictionary.getCode(dataRow.getCounty()),
+                                    stringDictionary.getCode(dataRow.getStateOrProvince()),
+                                    stringDictionary.getCode(dataRow.getCountryOrRegion()),
+                                    confirmedCases != null,
+                                    confirmedCases == null ? 0 : confirmedCases));
+                        }
+                    });
+                };
+
+                matchesTest.run("with county equals", Covid19LocationCondition.countyEquals("King"));
+                matchesTest.run("with county equals null", Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.countyPropertyName, Covid19LocationPropertyConditionOperator.Equals, null));
+                matchesTest.run("with county equals number", Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.countyPropertyName, Covid19LocationPropertyConditionOperator.Equals, 10));
+                matchesTest.run("with county contains", Covid19LocationCondition.countyContains("er"));
+                matchesTest.run("with county contains null", Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.countyPropertyName, Covid19LocationPropertyConditionOperator.Contains, null));
+                matchesTest.run("with state or province equals", Covid19LocationCondition.stateOrProvinceEquals("Washington"));
+                matchesTest.run("with state or province equals unknown value", Covid19LocationCondition.stateOrProvinceEquals("Texas"));
+                matchesTest.run("with state or province contains", Covid19LocationCondition.stateOrProvinceContains("gon"));
+                matchesTest.run("with country or region equals", Covid19LocationCondition.countryOrRegionEquals("US"));
+                matchesTest.run("with country or region contains empty", Covid19LocationCondition.countryOrRegionContains(""));
+                matchesTest.run("with confirmed cases equals", Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.confirmedCasesPropertyName, Covid19LocationPropertyConditionOperator.Equals, 10));
+                matchesTest.run("with confirmed cases equals null", Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.confirmedCasesPropertyName, Covid19LocationPropertyConditionOperator.Equals, null));
+                matchesTest.run("with confirmed cases equals double", Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.confirmedCasesPropertyName, Covid19LocationPropertyConditionOperator.Equals, 10.0));
+                matchesTest.run("with confirmed cases equals string", Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.confirmedCasesPropertyName, Covid19LocationPropertyConditionOperator.Equals, "10"));
+                matchesTest.run("with confirmed cases contains string", Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.confirmedCasesPropertyName, Covid19LocationPropertyConditionOperator.Contains, "0"));
+                matchesTest.run("with confirmed cases contains number", Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.confirmedCasesPropertyName, Covid19LocationPropertyConditionOperator.Contains, 0));
+                matchesTest.run("with county in", Covid19LocationCondition.countyIn("King", "Pierce", "Spokane"));
+                matchesTest.run("with county in one value", Covid19LocationCondition.countyIn("King"));
+                matchesTest.run("with county in no values", Covid19LocationCondition.countyIn());
+                matchesTest.run("with county in null", Covid19LocationCondition.countyIn((String)null));
+                matchesTest.run("with county in values and null", Covid19LocationCondition.countyIn("King", null));
+                matchesTest.run("with county in number", Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.countyPropertyName, Covid19LocationPropertyConditionOperator.In, Iterable.create(10, "Pierce")));
+                matchesTest.run("with country or region in", Covid19LocationCondition.countryOrRegionIn("Italy", "US"));
+                matchesTest.run("with confirmed cases in", Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.confirmedCasesPropertyName, Covid19LocationPropertyConditionOperator.In, Iterable.create(105, 10, "20")));
+                matchesTest.run("with confirmed cases in null", Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.confirmedCasesPropertyName, Covid19LocationPropertyConditionOperator.In, Iterable.create(20.0, null)));
+                matchesTest.run("with empty and", Covid19LocationCondition.and());
+                matchesTest.run("with empty or", Covid19LocationCondition.or());
+                matchesTest.run("with and of one condition", Covid19LocationCondition.and(Covid19LocationCondition.countyEquals("King")));
+                matchesTest.run("with and", Covid19LocationCondition.and(
+                    Covid19LocationCondition.countryOrRegionEquals("US"),
+                    Covid19LocationCondition.stateOrProvinceEquals("Washington")));
+                matchesTest.run("with or", Covid19LocationCondition.or(
+                    Covid19LocationCondition.countryOrRegionEquals("Italy"),
+                    Covid19LocationCondition.stateOrProvinceEquals("Oregon")));
+                matchesTest.run("with nested ands", Covid19LocationCondition.and(
+                    Covid19LocationCondition.countryOrRegionEquals("US"),
+                    Covid19LocationCondition.and(
+                        Covid19LocationCondition.stateOrProvinceEquals("Washington"),
+                        Covid19LocationCondition.countyContains("K"))));
+                matchesTest.run("with or of ands", Covid19LocationCondition.or(
+                    Covid19LocationCondition.and(
+                        Covid19LocationCondition.countryOrRegionEquals("US"),
+                        Covid19LocationCondition.countyEquals("Pierce")),
+                    Covid19LocationCondition.or(
+                        Covid19LocationCondition.countryOrRegionEquals("Italy"),
+                        Covid19LocationCondition.and())));
+                matchesTest.run("with and that contains an empty or", Covid19LocationCondition.and(
+                    Covid19LocationCondition.countryOrRegionEquals("US"),
+                    Covid19LocationCondition.or()));
+            });
+
+            runner.testGroup("isLocationOnly()", () ->
+            {
+                final Action2<Covid19LocationCondition,Boolean> isLocationOnlyTest = (Covid19LocationCondition condition, Boolean expected) ->
+                {
+                    runner.test("with " + condition, (Test test) ->
+                    {
+                        test.assertEqual(expected, Covid19CompiledLocationCondition.compile(condition).isLocationOnly());
+                    });
+                };
+
+                isLocationOnlyTest.run(Covid19LocationCondition.countyEquals("King"), true);
+                isLocationOnlyTest.run(Covid19LocationCondition.countryOrRegionContains("U"), true);
+                isLocationOnlyTest.run(Covid19LocationCondition.or(), true);
+                isLocationOnlyTest.run(Covid19LocationCondition.stateOrProvinceIn("Washington", "Oregon"), true);
+                isLocationOnlyTest.run(Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.confirmedCasesPropertyName, Covid19LocationPropertyConditionOperator.In, Iterable.create(10, 20)), false);
+                isLocationOnlyTest.run(Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.confirmedCasesPropertyName, Covid19LocationPropertyConditionOperator.Equals, 10), false);
+                isLocationOnlyTest.run(Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.confirmedCasesPropertyName, Covid19LocationPropertyConditionOperator.Equals, null), false);
+                isLocationOnlyTest.run(
+                    Covid19LocationCondition.or(
+                        Covid19LocationCondition.countyEquals("King"),
+                        Covid19LocationCondition.stateOrProvinceContains("Wash")),
+                    true);
+                isLocationOnlyTest.run(
+                    Covid19LocationCondition.and(
+                        Covid19LocationCondition.countyContains("King"),
+                        Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.confirmedCasesPropertyName, Covid19LocationPropertyConditionOperator.Contains, "1")),
+                    false);
+            });
+
+            runner.testGroup("getLocationCodes()", () ->
+            {
+                final Action2<Covid19LocationCondition,String[]> getLocationCodesTest = (Covid19LocationCondition condition, String[] expectedLocations) ->
+                {
+                    runner.test("with " + condition, (Test test) ->
+                    {
+                        final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                        final int[] locationCodes = Covid19CompiledLocationCondition.compile(condition, stringDictionary).getLocationCodes();
+                        if (expectedLocations == null)
+                        {
+                            test.assertNull(locationCodes);
+                        }
+                        else
+                        {
+                            test.assertNotNull(locationCodes);
+                            test.assertEqual(expectedLocations.length, locationCodes.length);
+                            for (int i = 0; i < expectedLocations.length; ++i)
+                            {
+                                final String expectedLocation = expectedLocations[i];
+                                test.assertEqual(
+                                    "*".equals(expectedLocation) ? Covid19ColumnarDailyReport.anyCode : stringDictionary.getCode(expectedLocation),
+                                    locationCodes[i]);
+                            }
+                        }
+                    });
+                };
+
+                getLocationCodesTest.run(Covid19LocationCondition.countyEquals("King"), new String[] { "King", "*", "*" });
+                getLocationCodesTest.run(Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.stateOrProvincePropertyName, Covid19LocationPropertyConditionOperator.Equals, null), new String[] { "*", null, "*" });
+                getLocationCodesTest.run(Covid19LocationCondition.and(), new String[] { "*", "*", "*" });
+                getLocationCodesTest.run(Covid19LocationCondition.or(), null);
+                getLocationCodesTest.run(Covid19LocationCondition.countyContains("King"), null);
+                getLocationCodesTest.run(Covid19LocationCondition.countyIn("King"), new String[] { "King", "*", "*" });
+                getLocationCodesTest.run(Covid19LocationCondition.countyIn("King", "Pierce"), null);
+                getLocationCodesTest.run(Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.confirmedCasesPropertyName, Covid19LocationPropertyConditionOperator.Equals, 10), null);
+                getLocationCodesTest.run(
+                    Covid19LocationCondition.and(
+                        Covid19LocationCondition.countryOrRegionEquals("US"),
+                        Covid19LocationCondition.and(
+                            Covid19LocationCondition.stateOrProvinceEquals("Washington"),
+                            Covid19LocationCondition.countryOrRegionEquals("US"))),
+                    new String[] { "*", "Washington", "US" });
+                getLocationCodesTest.run(
+                    Covid19LocationCondition.and(
+                        Covid19LocationCondition.countryOrRegionEquals("US"),
+                        Covid19LocationCondition.countryOrRegionEquals("Italy")),
+                    null);
+                getLocationCodesTest.run(
+                    Covid19LocationCondition.or(
+                        Covid19LocationCondition.countryOrRegionEquals("US"),
+                        Covid19LocationCondition.countryOrRegionEquals("Italy")),
+                    null);
+            });
+        });
+    }
+}
@@ -0,0 +1,643 @@
+package qub;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Micro-benchmarks for parsing and querying daily reports. These are skipped by default because
+ * they take a while to run and their results are only meaningful when they are compared by a
+ * person.
+ */
+public interface Covid19DailyReportBenchmarks
+{
+    /**
+     * The number of rows in a county-level daily report from the CSSE data set.
+     */
+    int countyLevelRowCount = 3300;
+
+    static byte[] createDailyReportBytes(int rowCount)
+    {
+        return Covid19GitDataSourceBenchmarks.createDailyReportContents(0, rowCount).getBytes(StandardCharsets.UTF_8);
+    }
+
+    static ByteReadStream createByteReadStream(byte[] bytes)
+    {
+        return InMemoryByteStream.create(bytes).endOfStream();
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(Covid19DailyReport.class, () ->
+        {
+            runner.test("benchmark CSVDocument parsing against streaming parsing", runner.skip(), (Test test) ->
+            {
+                final byte[] bytes = Covid19DailyReportBenchmarks.createDailyReportBytes(Covid19DailyReportBenchmarks.countyLevelRowCount);
+                final Path filePath = Path.parse("/benchmark/05-20-2020.csv");
+
+                final Covid19BenchmarkResult csvDocumentResult = Covid19Benchmark.create("CSV.parse() + parse(CSVDocument)")
+                    .run(() ->
+                    {
+                        final CSVDocument csvDocument = CSV.parse(Covid19DailyReportBenchmarks.createByteReadStream(bytes)).await();
+                        Covid19DailyReport.parse(csvDocument, filePath, issue -> {}).await();
+                    });
+
+                final Covid19BenchmarkResult streamingResult = Covid19Benchmark.create("parse(ByteReadStream)")
+                    .run(() ->
+                    {
+                        Covid19DailyReport.parse(Covid19DailyReportBenchmarks.createByteReadStream(bytes), filePath, issue -> {}).await();
+                    });
+
+                final Covid19BenchmarkResult firstRowResult = Covid19Benchmark.create("Covid19DailyReportReader (first row)")
+                    .run(() ->
+                    {
+                        Covid19DailyReportReader.create(Covid19DailyReportBenchmarks.createByteReadStream(bytes), filePath, issue -> {}).await()
+                            .readDataRow().await();
+                    });
+
+                Covid19Benchmark.print(Iterable.create(csvDocumentResult, streamingResult, firstRowResult));
+
+                test.assertTrue(streamingResult.getAllocatedBytesPerOperation() <= csvDocumentResult.getAllocatedBytesPerOperation());
+            });
+
+            runner.test("measure the heap used by a full history load with and without a string dictionary", runner.skip(), (Test test) ->
+            {
+                // Roughly the number of daily reports in the CSSE data set by the end of 2020.
+                final int dayCount = 340;
+                final Path filePath = Path.parse("/benchmark/05-20-2020.csv");
+                final List<byte[]> dailyReportBytes = List.create();
+                for (int dayIndex = 0; dayIndex < dayCount; ++dayIndex)
+                {
+                    dailyReportBytes.add(Covid19GitDataSourceBenchmarks.createDailyReportContents(dayIndex, Covid19DailyReportBenchmarks.countyLevelRowCount).getBytes(StandardCharsets.UTF_8));
+                }
+
+                final long[] usedHeapBytes = new long[2];
+                for (int i = 0; i < usedHeapBytes.length; ++i)
+                {
+                    final Covid19StringDictionary stringDictionary = (i == 0 ? null : Covid19StringDictionary.create());
+                    final long startUsedHeapBytes = Covid19Benchmark.getUsedHeapBytes();
+                    final List<Covid19DailyReport> dailyReports = List.create();
+                    for (final byte[] bytes : dailyReportBytes)
+                    {
+                        dailyReports.add(Covid19DailyReport.parse(Covid19DailyReportBenchmarks.createByteReadStream(bytes), filePath, null, stringDictionary, issue -> {}).await());
+                    }
+                    usedHeapBytes[i] = Covid19Benchmark.getUsedHeapBytes() - startUsedHeapBytes;
+                    test.assertEqual(dayCount, dailyReports.getCount());
+                }
+
+                Covid19Benchmark.printLine("%d daily reports with %d rows each:", dayCount, Covid19DailyReportBenchmarks.countyLevelRowCount);
+                Covid19Benchmark.printLine("  without string dictionary: %,d bytes", usedHeapBytes[0]);
+                Covid19Benchmark.printLine("  with string dictionary:    %,d bytes", usedHeapBytes[1]);
+
+                test.assertTrue(usedHeapBytes[1] < usedHeapBytes[0]);
+            });
+
+            runner.test("benchmark parsing column mappings", runner.skip(), (Test test) ->
+            {
+                final Covid19DailyReportHeaderLayout[] headerLayouts = Covid19DailyReportHeaderLayout.values();
+                final int[] confirmedCasesColumnIndexSums = new int[1];
+
+                final Covid19BenchmarkResult parseResult = Covid19Benchmark.create("Covid19DailyReportColumnMapping.parse() x 1000")
+                    .setMeasurementIterations(500)
+                    .run(() ->
+                    {
+                        int confirmedCasesColumnIndexSum = 0;
+                        for (int i = 0; i < 1000; ++i)
+                        {
+                            confirmedCasesColumnIndexSum += Covid19DailyReportColumnMapping.parse(headerLayouts[i % headerLayouts.length].getHeaders()).await().getConfirmedCasesColumnIndex();
+                        }
+                        confirmedCasesColumnIndexSums[0] = confirmedCasesColumnIndexSum;
+                    });
+
+                Covid19Benchmark.print(Iterable.create(parseResult));
+
+                test.assertEqual(250 * (3 + 3 + 7 + 7), confirmedCasesColumnIndexSums[0]);
+            });
+
+            runner.test("benchmark parsing generated daily reports at 1x, 10x, and 100x scale", runner.skip(), (Test test) ->
+            {
+                final List<Covid19BenchmarkResult> results = List.create();
+                for (final int scale : Iterable.create(1, 10, 100))
+                {
+                    // Sub-county data: every row is a distinct county.
+                    final int rowCount = 4000 * scale;
+                    final Covid19DatasetGenerator generator = Covid19DatasetGenerator.create()
+                        .setRowCount(rowCount)
+                        .setCountyCount(rowCount)
+                        .setStateOrProvinceCount(60 * scale)
+                        .setErrorRate(0.001)
+                        .setHeaderLayout(Covid19DailyReportHeaderLayout.WithRates);
+                    final byte[] bytes = generator.createDailyReportContents(0).getBytes(StandardCharsets.UTF_8);
+                    final Path filePath = Path.parse("/benchmark/" + generator.getDailyReportFileName(0));
+                    final int[] issueCounts = new int[1];
+                    final int[] dataRowCounts = new int[1];
+                    final int[] confirmedCasesSums = new int[1];
+                    final int measurementIterations = Math.max(5, 50 / scale);
+
+                    results.add(Covid19Benchmark.create("parse(ByteReadStream) with " + rowCount + " rows")
+                        .setWarmupIterations(2)
+                        .setMeasurementIterations(measurementIterations)
+                        .run(() ->
+                        {
+                            issueCounts[0] = 0;
+                            dataRowCounts[0] = Covid19DailyReport.parse(Covid19DailyReportBenchmarks.createByteReadStream(bytes), filePath, issue -> ++issueCounts[0]).await()
+                                .getDataRowCount();
+                        }));
+
+                    results.add(Covid19Benchmark.create("parse(ByteReadStream) with " + rowCount + " rows and a string dictionary")
+                        .setWarmupIterations(2)
+                        .setMeasurementIterations(measurementIterations)
+                        .run(() ->
+                        {
+                            confirmedCasesSums[0] = Covid19DailyReport.parse(Covid19DailyReportBenchmarks.createByteReadStream(bytes), filePath, null, Covid19StringDictionary.create(), issue -> {}).await()
+                                .getConfirmedCasesSum(Covid19LocationCondition.and());
+                        }));
+
+                    test.assertEqual(rowCount, dataRowCounts[0]);
+                    test.assertEqual(generator.getErrorRowCount(0), issueCounts[0]);
+                    test.assertEqual(generator.getConfirmedCasesSum(0), confirmedCasesSums[0]);
+                }
+                Covid19Benchmark.print(results);
+            });
+
+            runner.test("benchmark summing confirmed cases for a location", runner.skip(), (Test test) ->
+            {
+                final byte[] bytes = Covid19DailyReportBenchmarks.createDailyReportBytes(Covid19DailyReportBenchmarks.countyLevelRowCount);
+                final Path filePath = Path.parse("/benchmark/05-20-2020.csv");
+                final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                final Covid19DailyReport rowDailyReport = Covid19DailyReport.parse(Covid19DailyReportBenchmarks.createByteReadStream(bytes), filePath, issue -> {}).await();
+                final Covid19ColumnarDailyReport columnarDailyReport = (Covid19ColumnarDailyReport)Covid19DailyReport.parse(Covid19DailyReportBenchmarks.createByteReadStream(bytes), filePath, null, stringDictionary, issue -> {}).await();
+                final Covid19LocationCondition condition = Covid19LocationCondition.stateOrProvinceEquals("State 7");
+                final int stateOrProvinceCode = stringDictionary.getCode("State 7");
+                final int[] sums = new int[4];
+
+                final Covid19BenchmarkResult iterableResult = Covid19Benchmark.create("Integers.sum(getDataRows().where())")
+                    .setMeasurementIterations(500)
+                    .run(() ->
+                    {
+                        sums[0] = Integers.sum(rowDailyReport.getDataRows()
+                            .where(condition::matches)
+                            .map(Covid19DailyReportDataRow::getConfirmedCases)
+                            .where((Integer confirmedCases) -> confirmedCases != null));
+                    });
+
+                final Covid19BenchmarkResult rowResult = Covid19Benchmark.create("rows getConfirmedCasesSum(condition)")
+                    .setMeasurementIterations(500)
+                    .run(() ->
+                    {
+                        sums[1] = rowDailyReport.getConfirmedCasesSum(condition);
+                    });
+
+                final Covid19BenchmarkResult columnarConditionResult = Covid19Benchmark.create("columnar getConfirmedCasesSum(condition)")
+                    .setMeasurementIterations(500)
+                    .run(() ->
+                    {
+                        sums[2] = columnarDailyReport.getConfirmedCasesSum(condition);
+                    });
+
+                final Covid19BenchmarkResult columnarCodesResult = Covid19Benchmark.create("columnar getConfirmedCasesSum(codes)")
+                    .setMeasurementIterations(500)
+                    .run(() ->
+                    {
+                        sums[3] = columnarDailyReport.getConfirmedCasesSum(Covid19ColumnarDailyReport.anyCode, stateOrProvinceCode, Covid19ColumnarDailyReport.anyCode);
+                    });
+
+                Covid19Benchmark.print(Iterable.create(iterableResult, rowResult, columnarConditionResult, columnarCodesResult));
+
+                test.assertEqual(sums[0], sums[1]);
+                test.assertEqual(sums[0], sums[2]);
+                test.assertEqual(sums[0], sums[3]);
+            });
+
+            runner.test("benchmark summing confirmed cases with and without a location index", runner.skip(), (Test test) ->
+            {
+                final byte[] bytes = Covid19DailyReportBenchmarks.createDailyReportBytes(Covid19DailyReportBenchmarks.countyLevelRowCount);
+                final Path filePath = Path.parse("/benchmark/05-20-2020.csv");
+                final Covid19ColumnarDailyReport dailyReport = (Covid19ColumnarDailyReport)Covid19DailyReport.parse(Covid19DailyReportBenchmarks.createByteReadStream(bytes), filePath, null, Covid19StringDictionary.create(), issue -> {}).await();
+                final Covid19ColumnarDailyReport indexedDailyReport = (Covid19ColumnarDailyReport)Covid19DailyReport.parse(Covid19DailyReportBenchmarks.createByteReadStream(bytes), filePath, null, Covid19StringDictionary.create(), issue -> {}).await();
+                indexedDailyReport.createLocationIndex();
+                final Covid19LocationCondition[] conditions = new Covid19LocationCondition[]
+                {
+                    Covid19LocationCondition.countyEquals("County 7"),
+                    Covid19LocationCondition.stateOrProvinceEquals("State 7"),
+                    Covid19LocationCondition.stateOrProvinceIn("State 1", "State 2", "State 3"),
+                    Covid19LocationCondition.and(
+                        Covid19LocationCondition.stateOrProvinceEquals("State 7"),
+                        Covid19LocationCondition.countyContains("7")),
+                };
+                final int[][] sums = new int[2][conditions.length];
+
+                final Covid19BenchmarkResult scanResult = Covid19Benchmark.create("getConfirmedCasesSum(condition) without index")
+                    .setMeasurementIterations(500)
+                    .run(() ->
+                    {
+                        for (int i = 0; i < conditions.length; ++i)
+                        {
+                            sums[0][i] = dailyReport.getConfirmedCasesSum(conditions[i]);
+                        }
+                    });
+
+                final Covid19BenchmarkResult indexedResult = Covid19Benchmark.create("getConfirmedCasesSum(condition) with index")
+                    .setMeasurementIterations(500)
+                    .run(() ->
+                    {
+                        for (int i = 0; i < conditions.length; ++i)
+                        {
+                            sums[1][i] = indexedDailyReport.getConfirmedCasesSum(conditions[i]);
+                        }
+                    });
+
+                Covid19Benchmark.print(Iterable.create(scanResult, indexedResult));
+
+                for (int i = 0; i < conditions.length; ++i)
+                {
+                    test.assertEqual(sums[0][i], sums[1][i]);
+                }
+            });
+
+            runner.test("benchmark Contains conditions with and without a substring index", runner.skip(), (Test test) ->
+            {
+                final byte[] bytes = Covid19DailyReportBenchmarks.createDailyReportBytes(Covid19DailyReportBenchmarks.countyLevelRowCount);
+                final Path filePath = Path.parse("/benchmark/05-20-2020.csv");
+                final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                final Covid19ColumnarDailyReport dailyReport = (Covid19ColumnarDailyReport)Covid19DailyReport.parse(Covid19DailyReportBenchmarks.createByteReadStream(bytes), filePath, null, stringDictionary, issue -> {}).await();
+                final String expectedSubstring = "County 17";
+                final Covid19CompiledLocationCondition compiledCondition = Covid19CompiledLocationCondition.compile(Covid19LocationCondition.countyContains(expectedSubstring), stringDictionary);
+                final int dataRowCount = dailyReport.getDataRowCount();
+                final int[] matchCounts = new int[2];
+
+                final Covid19BenchmarkResult scanResult = Covid19Benchmark.create("String.contains() per data row")
+                    .setMeasurementIterations(500)
+                    .run(() ->
+                    {
+                        int matchCount = 0;
+                        for (int dataRowIndex = 0; dataRowIndex < dataRowCount; ++dataRowIndex)
+                        {
+                            final int countyCode = dailyReport.getCountyCode(dataRowIndex);
+                            if (countyCode != Covid19StringDictionary.nullCode && stringDictionary.getString(countyCode).contains(expectedSubstring))
+                            {
+                                ++matchCount;
+                            }
+                        }
+                        matchCounts[0] = matchCount;
+                    });
+
+                final Covid19BenchmarkResult indexedResult = Covid19Benchmark.create("Covid19SubstringIndex codes per data row")
+                    .setMeasurementIterations(500)
+                    .run(() ->
+                    {
+                        int matchCount = 0;
+                        for (int dataRowIndex = 0; dataRowIndex < dataRowCount; ++dataRowIndex)
+                        {
+                            if (compiledCondition.matches(dailyReport.getCountyCode(dataRowIndex), dailyReport.getStateOrProvinceCode(dataRowIndex), dailyReport.getCountryOrRegionCode(dataRowIndex), true, 0))
+                            {
+                                ++matchCount;
+                            }
+                        }
+                        matchCounts[1] = matchCount;
+                    });
+
+                Covid19Benchmark.print(Iterable.create(scanResult, indexedResult));
+
+                test.assertEqual(matchCounts[0], matchCounts[1]);
+            });
+
+            runner.test("benchmark many Contains conditions with and without a shared substring matcher", runner.skip(), (Test test) ->
+            {
+                final byte[] bytes = Covid19DailyReportBenchmarks.createDailyReportBytes(Covid19DailyReportBenchmarks.countyLevelRowCount);
+                final Path filePath = Path.parse("/benchmark/05-20-2020.csv");
+                final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                Covid19DailyReport.parse(Covid19DailyReportBenchmarks.createByteReadStream(bytes), filePath, null, stringDictionary, issue -> {}).await();
+                final List<String> substrings = List.create();
+                for (int i = 0; i < 200; ++i)
+                {
+                    substrings.add("County " + i + "1");
+                }
+                final int codeCount = stringDictionary.getCount();
+                final long[] matchCounts = new long[2];
+
+                final Covid19BenchmarkResult substringIndexResult = Covid19Benchmark.create("Covid19SubstringIndex query per substring")
+                    .setMeasurementIterations(20)
+                    .run(() ->
+                    {
+                        final Covid19SubstringIndex substringIndex = Covid19SubstringIndex.create(stringDictionary);
+                        long matchCount = 0;
+                        for (final String substring : substrings)
+                        {
+                            matchCount += substringIndex.getCodesContaining(substring).cardinality();
+                        }
+                        matchCounts[0] = matchCount;
+                    });
+
+                final Covid19BenchmarkResult substringMatcherResult = Covid19Benchmark.create("Covid19SubstringMatcher scan of every string")
+                    .setMeasurementIterations(20)
+                    .run(() ->
+                    {
+                        final Covid19SubstringMatcher substringMatcher = Covid19SubstringMatcher.create(stringDictionary, substrings);
+                        long matchCount = 0;
+                        for (int patternIndex = 0; patternIndex < substrings.getCount(); ++patternIndex)
+                        {
+                            matchCount += substringMatcher.getCodesContaining(patternIndex).cardinality();
+                        }
+                        matchCounts[1] = matchCount;
+                    });
+
+                Covid19Benchmark.print(String.format("%d substrings against %d distinct strings:", substrings.getCount(), codeCount),
+                    Iterable.create(substringIndexResult, substringMatcherResult));
+
+                test.assertEqual(matchCounts[0], matchCounts[1]);
+            });
+
+            runner.test("benchmark compiled location conditions against interpreted location conditions", runner.skip(), (Test test) ->
+            {
+                final byte[] bytes = Covid19DailyReportBenchmarks.createDailyReportBytes(Covid19DailyReportBenchmarks.countyLevelRowCount);
+                final Path filePath = Path.parse("/benchmark/05-20-2020.csv");
+                final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                final Iterable<Covid19DailyReportDataRow> dataRows = Covid19DailyReport.parse(Covid19DailyReportBenchmarks.createByteReadStream(bytes), filePath, issue -> {}).await().getDataRows().toList();
+                final Covid19ColumnarDailyReport columnarDailyReport = (Covid19ColumnarDailyReport)Covid19DailyReport.parse(Covid19DailyReportBenchmarks.createByteReadStream(bytes), filePath, null, stringDictionary, issue -> {}).await();
+                final Covid19LocationCondition condition = Covid19LocationCondition.and(
+                    Covid19LocationCondition.countryOrRegionEquals("US"),
+                    Covid19LocationCondition.or(
+                        Covid19LocationCondition.stateOrProvinceEquals("State 7"),
+                        Covid19LocationCondition.stateOrProvinceEquals("State 13"),
+                        Covid19LocationCondition.and(
+                            Covid19LocationCondition.stateOrProvinceEquals("State 21"),
+                            Covid19LocationCondition.countyContains("County 1"))));
+                final Covid19CompiledLocationCondition compiledCondition = Covid19CompiledLocationCondition.compile(condition, stringDictionary);
+                final int[] matchCounts = new int[3];
+
+                final Covid19BenchmarkResult interpretedResult = Covid19Benchmark.create("Covid19LocationCondition.matches(dataRow)")
+                    .setMeasurementIterations(500)
+                    .run(() ->
+                    {
+                        int matchCount = 0;
+                        for (final Covid19DailyReportDataRow dataRow : dataRows)
+                        {
+                            if (condition.matches(dataRow))
+                            {
+                                ++matchCount;
+                            }
+                        }
+                        matchCounts[0] = matchCount;
+                    });
+
+                final Covid19BenchmarkResult compiledResult = Covid19Benchmark.create("Covid19CompiledLocationCondition.matches(dataRow)")
+                    .setMeasurementIterations(500)
+                    .run(() ->
+                    {
+                        int matchCount = 0;
+                        for (final Covid19DailyReportDataRow dataRow : dataRows)
+                        {
+                            if (compiledCondition.matches(dataRow))
+                            {
+                                ++matchCount;
+                            }
+                        }
+                        matchCounts[1] = matchCount;
+                    });
+
+                final Covid19BenchmarkResult compiledCodesResult = Covid19Benchmark.create("Covid19CompiledLocationCondition.matches(codes)")
+                    .setMeasurementIterations(500)
+                    .run(() ->
+                    {
+                        int matchCount = 0;
+                        final int dataRowCount = columnarDailyReport.getDataRowCount();
+                        for (int dataRowIndex = 0; dataRowIndex < dataRowCount; ++dataRowIndex)
+                        {
+                            if (compiledCondition.matches(
+                                columnarDailyReport.getCountyCode(dataRowIndex),
+                                columnarDailyReport.getStateOrProvinceCode(dataRowIndex),
+                                columnarDailyReport.getCountryOrRegionCode(dataRowIndex),
+                                columnarDailyReport.hasConfirmedCases(dataRowIndex),
+                                columnarDailyReport.getConfirmedCases(dataRowIndex)))
+                            {
+                                ++matchCount;
+                            }
+                        }
+                        matchCounts[2] = matchCount;
+                    });
+
+                Covid19Benchmark.print(Iterable.create(interpretedResult, compiledResult, compiledCodesResult));
+
+                test.assertEqual(matchCounts[0], matchCounts[1]);
+                test.assertEqual(matchCounts[0], matchCounts[2]);
+            });
+
+            runner.test("benchmark In conditions against Or conditions", runner.skip(), (Test test) ->
+            {
+                final byte[] bytes = Covid19DailyReportBenchmarks.createDailyReportBytes(Covid19DailyReportBenchmarks.countyLevelRowCount);
+                final Path filePath = Path.parse("/benchmark/05-20-2020.csv");
+                final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                final Iterable<Covid19DailyReportDataRow> dataRows = Covid19DailyReport.parse(Covid19DailyReportBenchmarks.createByteReadStream(bytes), filePath, issue -> {}).await().getDataRows().toList();
+                final Covid19ColumnarDailyReport columnarDailyReport = (Covid19ColumnarDailyReport)Covid19DailyReport.parse(Covid19DailyReportBenchmarks.createByteReadStream(bytes), filePath, null, stringDictionary, issue -> {}).await();
+
+                // 50 states, half of which are in the daily report.
+                final String[] states = new String[50];
+                final Covid19LocationGroupCondition orCondition = Covid19LocationCondition.or();
+                for (int i = 0; i < states.length; ++i)
+                {
+                    states[i] = "State " + (i * 2);
+                    orCondition.addCondition(Covid19LocationCondition.stateOrProvinceEquals(states[i]));
+                }
+                final Covid19LocationCondition inCondition = Covid19LocationCondition.stateOrProvinceIn(states);
+                final Covid19LocationCondition[] conditions = new Covid19LocationCondition[] { orCondition, inCondition };
+                final String[] conditionNames = new String[] { "Or", "In" };
+                final List<Covid19BenchmarkResult> results = List.create();
+                final List<Integer> matchCounts = List.create();
+
+                for (int i = 0; i < conditions.length; ++i)
+                {
+                    final Covid19LocationCondition condition = conditions[i];
+                    final String conditionName = conditionNames[i];
+                    final Covid19CompiledLocationCondition compiledCondition = Covid19CompiledLocationCondition.compile(condition, stringDictionary);
+                    final int[] matchCount = new int[1];
+
+                    results.add(Covid19Benchmark.create(conditionName + ": Covid19LocationCondition.matches(dataRow)")
+                        .setMeasurementIterations(500)
+                        .run(() ->
+                        {
+                            matchCount[0] = 0;
+                            for (final Covid19DailyReportDataRow dataRow : dataRows)
+                            {
+                                if (condition.matches(dataRow))
+                                {
+                                    ++matchCount[0];
+                                }
+                            }
+                        }));
+                    matchCounts.add(matchCount[0]);
+
+                    results.add(Covid19Benchmark.create(conditionName + ": Covid19CompiledLocationCondition.matches(dataRow)")
+                        .setMeasurementIterations(500)
+                        .run(() ->
+                        {
+                            matchCount[0] = 0;
+                            for (final Covid19DailyReportDataRow dataRow : dataRows)
+                            {
+                                if (compiledCondition.matches(dataRow))
+                                {
+                                    ++matchCount[0];
+                                }
+                            }
+                        }));
+                    matchCounts.add(matchCount[0]);
+
+                    results.add(Covid19Benchmark.create(conditionName + ": Covid19CompiledLocationCondition.matches(codes)")
+                        .setMeasurementIterations(500)
+                        .run(() ->
+                        {
+                            matchCount[0] = 0;
+                            final int dataRowCount = columnarDailyReport.getDataRowCount();
+                            for (int dataRowIndex = 0; dataRowIndex < dataRowCount; ++dataRowIndex)
+                            {
+                                if (compiledCondition.matches(
+                                    columnarDailyReport.getCountyCode(dataRowIndex),
+                                    columnarDailyReport.getStateOrProvinceCode(dataRowIndex),
+                                    columnarDailyReport.getCountryOrRegionCode(dataRowIndex),
+                                    columnarDailyReport.hasConfirmedCases(dataRowIndex),
+                                    columnarDailyReport.getConfirmedCases(dataRowIndex)))
+                                {
+                                    ++matchCount[0];
+                                }
+                            }
+                        }));
+                    matchCounts.add(matchCount[0]);
+                }
+
+                Covid19Benchmark.print(results);
+
+                for (final Integer matchCount : matchCounts)
+                {
+                    test.assertEqual(matchCounts.get(0), matchCount);
+                }
+            });
+
+            runner.test("benchmark summing confirmed cases for many locations", runner.skip(), (Test test) ->
+            {
+                final byte[] bytes = Covid19DailyReportBenchmarks.createDailyReportBytes(Covid19DailyReportBenchmarks.countyLevelRowCount);
+                final Path filePath = Path.parse("/benchmark/05-20-2020.csv");
+                final Covid19ColumnarDailyReport columnarDailyReport = (Covid19ColumnarDailyReport)Covid19DailyReport.parse(Covid19DailyReportBenchmarks.createByteReadStream(bytes), filePath, null, Covid19StringDictionary.create(), issue -> {}).await();
+
+                // One location per state, one per county, and a few that can't be looked up by
+                // their location codes.
+                final List<Covid19Location> locations = List.create();
+                for (int state = 0; state < 60; ++state)
+                {
+                    locations.add(Covid19Location.create("State " + state, Covid19LocationCondition.and(
+                        Covid19LocationCondition.countryOrRegionEquals("US"),
+                        Covid19LocationCondition.stateOrProvinceEquals("State " + state))));
+                }
+                for (int county = 0; county < 200; ++county)
+                {
+                    locations.add(Covid19Location.create("County " + county, Covid19LocationCondition.countyEquals("County " + (county * 16))));
+                }
+                for (int digit = 0; digit < 10; ++digit)
+                {
+                    locations.add(Covid19Location.create("Counties ending with " + digit, Covid19LocationCondition.countyContains(digit + "")));
+                }
+                final Covid19LocationAggregator aggregator = Covid19LocationAggregator.create(locations);
+                final int[][] confirmedCasesSums = new int[2][];
+
+                final Covid19BenchmarkResult perLocationResult = Covid19Benchmark.create("getConfirmedCasesSum(condition) per location")
+                    .setMeasurementIterations(20)
+                    .run(() ->
+                    {
+                        final int[] sums = new int[locations.getCount()];
+                        for (int locationIndex = 0; locationIndex < sums.length; ++locationIndex)
+                        {
+                            sums[locationIndex] = columnarDailyReport.getConfirmedCasesSum(locations.get(locationIndex).getCondition());
+                        }
+                        confirmedCasesSums[0] = sums;
+                    });
+
+                final Covid19BenchmarkResult aggregatorResult = Covid19Benchmark.create("Covid19LocationAggregator.getConfirmedCasesSums()")
+                    .setMeasurementIterations(20)
+                    .run(() ->
+                    {
+                        confirmedCasesSums[1] = aggregator.getConfirmedCasesSums(columnarDailyReport);
+                    });
+
+                Covid19Benchmark.print(Iterable.create(perLocationResult, aggregatorResult));
+
+                for (int locationIndex = 0; locationIndex < locations.getCount(); ++locationIndex)
+                {
+                    test.assertEqual(confirmedCasesSums[0][locationIndex], confirmedCasesSums[1][locationIndex]);
+                }
+            });
+
+            runner.test("benchmark evaluating location conditions across a history with and without a match cache", runner.skip(), (Test test) ->
+            {
+                final int dayCount = 100;
+                final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                final List<Covid19ColumnarDailyReport> dailyReports = List.create();
+                for (int dayIndex = 0; dayIndex < dayCount; ++dayIndex)
+                {
+                    final byte[] bytes = Covid19GitDataSourceBenchmarks.createDailyReportContents(dayIndex, Covid19DailyReportBenchmarks.countyLevelRowCount).getBytes(StandardCharsets.UTF_8);
+                    dailyReports.add((Covid19ColumnarDailyReport)Covid19DailyReport.parse(Covid19DailyReportBenchmarks.createByteReadStream(bytes), Path.parse("/benchmark/" + dayIndex + ".csv"), null, stringDictionary, issue -> {}).await());
+                }
+
+                final List<Covid19CompiledLocationCondition> conditions = List.create();
+                for (int digit = 0; digit < 10; ++digit)
+                {
+                    conditions.add(Covid19CompiledLocationCondition.compile(
+                        Covid19LocationCondition.or(
+                            Covid19LocationCondition.countyContains("County " + digit),
+                            Covid19LocationCondition.stateOrProvinceContains(digit + "")),
+                        stringDictionary));
+                }
+                final long[] matchCounts = new long[2];
+
+                final Covid19BenchmarkResult uncachedResult = Covid19Benchmark.create("matches(codes) for every data row")
+                    .setWarmupIterations(2)
+                    .setMeasurementIterations(5)
+                    .run(() ->
+                    {
+                        long matchCount = 0;
+                        for (final Covid19ColumnarDailyReport dailyReport : dailyReports)
+                        {
+                            final int dataRowCount = dailyReport.getDataRowCount();
+                            for (int dataRowIndex = 0; dataRowIndex < dataRowCount; ++dataRowIndex)
+                            {
+                                for (final Covid19CompiledLocationCondition condition : conditions)
+                                {
+                                    if (condition.matches(
+                                        dailyReport.getCountyCode(dataRowIndex),
+                                        dailyReport.getStateOrProvinceCode(dataRowIndex),
+                                        dailyReport.getCountryOrRegionCode(dataRowIndex),
+                                        false,
+                                        0))
+                                    {
+                                        ++matchCount;
+                                    }
+                                }
+                            }
+                        }
+                        matchCounts[0] = matchCount;
+                    });
+
+                final Covid19BenchmarkResult cachedResult = Covid19Benchmark.create("Covid19LocationMatchCache.getMatches()")
+                    .setWarmupIterations(2)
+                    .setMeasurementIterations(5)
+                    .run(() ->
+                    {
+                        final Covid19LocationMatchCache matchCache = Covid19LocationMatchCache.create(conditions);
+                        long matchCount = 0;
+                        for (final Covid19ColumnarDailyReport dailyReport : dailyReports)
+                        {
+                            final int dataRowCount = dailyReport.getDataRowCount();
+                            for (int dataRowIndex = 0; dataRowIndex < dataRowCount; ++dataRowIndex)
+                            {
+                                matchCount += matchCache.getMatches(
+                                    dailyReport.getCountyCode(dataRowIndex),
+                                    dailyReport.getStateOrProvinceCode(dataRowIndex),
+                                    dailyReport.getCountryOrRegionCode(dataRowIndex)).length;
+                            }
+                        }
+                        matchCounts[1] = matchCount;
+                    });
+
+                Covid19Benchmark.print(Iterable.create(uncachedResult, cachedResult));
+
+                test.assertEqual(matchCounts[0], matchCounts[1]);
+            });
+        });
+    }
+}
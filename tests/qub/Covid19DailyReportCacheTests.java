@@ -0,0 +1,141 @@
+package qub;
+
+public interface Covid19DailyReportCacheTests
+{
+    static Covid19DailyReport createDailyReport(int rowCount)
+    {
+        final List<Covid19DailyReportDataRow> dataRows = List.create();
+        for (int i = 0; i < rowCount; ++i)
+        {
+            dataRows.add(Covid19DailyReportDataRow.create()
+                .setCountryOrRegion("country-" + i)
+                .setConfirmedCases(i));
+        }
+        return Covid19DailyReport.create(dataRows);
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(Covid19DailyReportCache.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final Covid19DailyReportCache cache = Covid19DailyReportCache.create();
+                test.assertNotNull(cache);
+                test.assertEqual(Covid19DailyReportCache.defaultMaximumReportCount, cache.getMaximumReportCount());
+                test.assertEqual(Covid19DailyReportCache.defaultMaximumWeight, cache.getMaximumWeight());
+                test.assertEqual(0, cache.getReportCount());
+                test.assertEqual(0L, cache.getWeight());
+                test.assertEqual(0L, cache.getHitCount());
+                test.assertEqual(0L, cache.getMissCount());
+            });
+
+            runner.testGroup("get(DateTime,Action1<Covid19Issue>)", () ->
+            {
+                runner.test("with null date", (Test test) ->
+                {
+                    final Covid19DailyReportCache cache = Covid19DailyReportCache.create();
+                    test.assertThrows(() -> cache.get(null, issue -> {}),
+                        new PreConditionFailure("date cannot be null."));
+                });
+
+                runner.test("with null onIssue", (Test test) ->
+                {
+                    final Covid19DailyReportCache cache = Covid19DailyReportCache.create();
+                    test.assertThrows(() -> cache.get(DateTime.create(2020, 3, 1), null),
+                        new PreConditionFailure("onIssue cannot be null."));
+                });
+
+                runner.test("with missing date", (Test test) ->
+                {
+                    final Covid19DailyReportCache cache = Covid19DailyReportCache.create();
+                    test.assertThrows(() -> cache.get(DateTime.create(2020, 3, 1), issue -> {}).await(),
+                        new NotFoundException("No daily report is cached for the date 3/1/2020."));
+                    test.assertEqual(0L, cache.getHitCount());
+                    test.assertEqual(1L, cache.getMissCount());
+                });
+
+                runner.test("with cached date", (Test test) ->
+                {
+                    final Covid19DailyReportCache cache = Covid19DailyReportCache.create();
+                    final Covid19DailyReport dailyReport = Covid19DailyReportCacheTests.createDailyReport(3);
+                    final Covid19Issue issue = Covid19Issue.create("fake-issue");
+                    cache.set(DateTime.create(2020, 3, 1), dailyReport, Iterable.create(issue));
+
+                    final List<Covid19Issue> issues = List.create();
+                    test.assertSame(dailyReport, cache.get(DateTime.create(2020, 3, 1), issues::add).await());
+                    test.assertEqual(Iterable.create(issue), issues);
+                    test.assertEqual(1L, cache.getHitCount());
+                    test.assertEqual(0L, cache.getMissCount());
+                    test.assertEqual(3L, cache.getWeight());
+                });
+            });
+
+            runner.testGroup("set(DateTime,Covid19DailyReport,Iterable<Covid19Issue>)", () ->
+            {
+                runner.test("with more reports than the maximum report count", (Test test) ->
+                {
+                    final Covid19DailyReportCache cache = Covid19DailyReportCache.create()
+                        .setMaximumReportCount(2);
+                    cache.set(DateTime.create(2020, 3, 1), Covid19DailyReportCacheTests.createDailyReport(1), Iterable.create());
+                    cache.set(DateTime.create(2020, 3, 2), Covid19DailyReportCacheTests.createDailyReport(1), Iterable.create());
+                    cache.get(DateTime.create(2020, 3, 1), issue -> {}).await();
+                    cache.set(DateTime.create(2020, 3, 3), Covid19DailyReportCacheTests.createDailyReport(1), Iterable.create());
+
+                    test.assertEqual(2, cache.getReportCount());
+                    test.assertTrue(cache.contains(DateTime.create(2020, 3, 1)));
+                    test.assertFalse(cache.contains(DateTime.create(2020, 3, 2)));
+                    test.assertTrue(cache.contains(DateTime.create(2020, 3, 3)));
+                    test.assertEqual(1L, cache.getEvictionCount());
+                });
+
+                runner.test("with more rows than the maximum weight", (Test test) ->
+                {
+                    final Covid19DailyReportCache cache = Covid19DailyReportCache.create()
+                        .setMaximumWeight(5);
+                    cache.set(DateTime.create(2020, 3, 1), Covid19DailyReportCacheTests.createDailyReport(3), Iterable.create());
+                    cache.set(DateTime.create(2020, 3, 2), Covid19DailyReportCacheTests.createDailyReport(2), Iterable.create());
+                    cache.set(DateTime.create(2020, 3, 3), Covid19DailyReportCacheTests.createDailyReport(2), Iterable.create());
+
+                    test.assertEqual(2, cache.getReportCount());
+                    test.assertEqual(4L, cache.getWeight());
+                    test.assertFalse(cache.contains(DateTime.create(2020, 3, 1)));
+                });
+
+                runner.test("with a report that is heavier than the maximum weight", (Test test) ->
+                {
+                    final Covid19DailyReportCache cache = Covid19DailyReportCache.create()
+                        .setMaximumWeight(5);
+                    cache.set(DateTime.create(2020, 3, 1), Covid19DailyReportCacheTests.createDailyReport(6), Iterable.create());
+
+                    test.assertEqual(0, cache.getReportCount());
+                    test.assertEqual(0L, cache.getWeight());
+                });
+            });
+
+            runner.testGroup("remove(DateTime)", () ->
+            {
+                runner.test("with cached date", (Test test) ->
+                {
+                    final Covid19DailyReportCache cache = Covid19DailyReportCache.create();
+                    cache.set(DateTime.create(2020, 3, 1), Covid19DailyReportCacheTests.createDailyReport(3), Iterable.create());
+
+                    test.assertTrue(cache.remove(DateTime.create(2020, 3, 1)));
+                    test.assertFalse(cache.remove(DateTime.create(2020, 3, 1)));
+                    test.assertEqual(0L, cache.getWeight());
+                });
+            });
+
+            runner.test("clear()", (Test test) ->
+            {
+                final Covid19DailyReportCache cache = Covid19DailyReportCache.create();
+                cache.set(DateTime.create(2020, 3, 1), Covid19DailyReportCacheTests.createDailyReport(3), Iterable.create());
+                cache.set(DateTime.create(2020, 3, 2), Covid19DailyReportCacheTests.createDailyReport(3), Iterable.create());
+
+                test.assertSame(cache, cache.clear());
+                test.assertEqual(0, cache.getReportCount());
+                test.assertEqual(0L, cache.getWeight());
+            });
+        });
+    }
+}
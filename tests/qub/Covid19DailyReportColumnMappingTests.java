@@ -192,6 +192,15 @@ public interface Covid19DailyReportColumnMappingTests
                     test.assertEqual(0, mapping.getConfirmedCasesColumnIndex());
                 });
 
+                runner.test("with byte order mark before the first column", (Test test) ->
+                {
+                    final Covid19DailyReportColumnMapping mapping = Covid19DailyReportColumnMapping.parse(Iterable.create("\uFEFFProvince/State", "Country/Region", "Confirmed")).await();
+                    test.assertNotNull(mapping);
+                    test.assertEqual(0, mapping.getStateOrProvinceColumnIndex());
+                    test.assertEqual(1, mapping.getCountryOrRegionColumnIndex());
+                    test.assertEqual(2, mapping.getConfirmedCasesColumnIndex());
+                });
+
                 runner.test("with multiple county column matches", (Test test) ->
                 {
                     test.assertThrows(() -> Covid19DailyReportColumnMapping.parse(Iterable.create("Admin2", "admin2")).await(),
@@ -216,6 +225,21 @@ public interface Covid19DailyReportColumnMappingTests
                         new ParseException("The daily report has multiple columns with a recognized confirmed cases header [Confirmed]"));
                 });
             });
+
+            runner.testGroup("getMappedColumnIndexes()", () ->
+            {
+                runner.test("with no mapped columns", (Test test) ->
+                {
+                    final Covid19DailyReportColumnMapping mapping = Covid19DailyReportColumnMapping.create();
+                    test.assertEqual(Iterable.create(), mapping.getMappedColumnIndexes());
+                });
+
+                runner.test("with all columns mapped", (Test test) ->
+                {
+                    final Covid19DailyReportColumnMapping mapping = Covid19DailyReportColumnMapping.parse("FIPS", "Confirmed", "Lat", "Country_Region", "Admin2", "Province_State", "Combined_Key").await();
+                    test.assertEqual(Iterable.create(1, 3, 4, 5), mapping.getMappedColumnIndexes());
+                });
+            });
         });
     }
 }
@@ -0,0 +1,180 @@
+package qub;
+
+public interface Covid19DailyReportFileIndexTests
+{
+    static Folder createDailyReportsFolder(Test test, String... fileNames)
+    {
+        final InMemoryFileSystem fileSystem = InMemoryFileSystem.create(test.getClock());
+        fileSystem.createRoot("/").await();
+        final Folder result = fileSystem.getFolder("/daily_reports/").await();
+        for (final String fileName : fileNames)
+        {
+            result.setFileContentsAsString(fileName, "").await();
+        }
+        return result;
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(Covid19DailyReportFileIndex.class, () ->
+        {
+            runner.testGroup("create(Iterable<File>)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19DailyReportFileIndex.create((Iterable<File>)null),
+                        new PreConditionFailure("dailyReportFiles cannot be null."));
+                });
+
+                runner.test("with empty", (Test test) ->
+                {
+                    final Covid19DailyReportFileIndex index = Covid19DailyReportFileIndex.create(Iterable.create());
+                    test.assertNotNull(index);
+                    test.assertEqual(0, index.getCount());
+                    test.assertEqual(Iterable.create(), index.getFiles());
+                    test.assertNull(index.getMostRecentDate());
+                    test.assertNull(index.getMostRecentFile());
+                    test.assertFalse(index.contains(DateTime.create(2020, 3, 1)));
+                });
+
+                runner.test("with unsorted files", (Test test) ->
+                {
+                    final Folder folder = Covid19DailyReportFileIndexTests.createDailyReportsFolder(test, "03-02-2020.csv", "01-22-2020.csv", "02-29-2020.csv", "README.md");
+                    final Covid19DailyReportFileIndex index = Covid19DailyReportFileIndex.create(folder.getFiles().await());
+                    test.assertEqual(3, index.getCount());
+                    test.assertEqual(
+                        Iterable.create(
+                            DateTime.create(2020, 1, 22),
+                            DateTime.create(2020, 2, 29),
+                            DateTime.create(2020, 3, 2)),
+                        index.getDates());
+                    test.assertEqual(DateTime.create(2020, 3, 2), index.getMostRecentDate());
+                    test.assertEqual(folder.getFile("03-02-2020.csv").await(), index.getMostRecentFile());
+                });
+            });
+
+            runner.testGroup("create(Folder)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19DailyReportFileIndex.create((Folder)null),
+                        new PreConditionFailure("dailyReportsFolder cannot be null."));
+                });
+
+                runner.test("with only CSV files indexed", (Test test) ->
+                {
+                    final Folder folder = Covid19DailyReportFileIndexTests.createDailyReportsFolder(test, "01-22-2020.csv", "01-23-2020.txt", ".gitignore");
+                    final Covid19DailyReportFileIndex index = Covid19DailyReportFileIndex.create(folder).await();
+                    test.assertEqual(1, index.getCount());
+                    test.assertEqual(Iterable.create(folder.getFile("01-22-2020.csv").await()), index.getFiles());
+                });
+            });
+
+            runner.testGroup("getFile(DateTime)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final Covid19DailyReportFileIndex index = Covid19DailyReportFileIndex.create(Iterable.create());
+                    test.assertThrows(() -> index.getFile(null),
+                        new PreConditionFailure("date cannot be null."));
+                });
+
+                runner.test("with date that isn't indexed", (Test test) ->
+                {
+                    final Folder folder = Covid19DailyReportFileIndexTests.createDailyReportsFolder(test, "01-22-2020.csv", "01-24-2020.csv");
+                    final Covid19DailyReportFileIndex index = Covid19DailyReportFileIndex.create(folder).await();
+                    test.assertThrows(() -> index.getFile(DateTime.create(2020, 1, 23)).await(),
+                        new NotFoundException("No daily report found for the date 1/23/2020."));
+                    test.assertThrows(() -> index.getFile(DateTime.create(2020, 1, 25)).await(),
+                        new NotFoundException("No daily report found for the date 1/25/2020."));
+                });
+
+                runner.test("with date that is indexed", (Test test) ->
+                {
+                    final Folder folder = Covid19DailyReportFileIndexTests.createDailyReportsFolder(test, "01-22-2020.csv", "01-24-2020.csv");
+                    final Covid19DailyReportFileIndex index = Covid19DailyReportFileIndex.create(folder).await();
+                    test.assertEqual(folder.getFile("01-24-2020.csv").await(), index.getFile(DateTime.create(2020, 1, 24)).await());
+                });
+            });
+
+            runner.testGroup("getFiles(DateTime,DateTime)", () ->
+            {
+                runner.test("with range that covers some files", (Test test) ->
+                {
+                    final Folder folder = Covid19DailyReportFileIndexTests.createDailyReportsFolder(test, "01-22-2020.csv", "01-24-2020.csv", "01-27-2020.csv", "02-01-2020.csv");
+                    final Covid19DailyReportFileIndex index = Covid19DailyReportFileIndex.create(folder).await();
+                    test.assertEqual(
+                        Iterable.create(
+                            folder.getFile("01-24-2020.csv").await(),
+                            folder.getFile("01-27-2020.csv").await()),
+                        index.getFiles(DateTime.create(2020, 1, 23), DateTime.create(2020, 1, 27)));
+                });
+
+                runner.test("with range that covers no files", (Test test) ->
+                {
+                    final Folder folder = Covid19DailyReportFileIndexTests.createDailyReportsFolder(test, "01-22-2020.csv", "01-24-2020.csv");
+                    final Covid19DailyReportFileIndex index = Covid19DailyReportFileIndex.create(folder).await();
+                    test.assertEqual(Iterable.create(), index.getFiles(DateTime.create(2020, 2, 1), DateTime.create(2020, 2, 28)));
+                });
+            });
+
+            runner.testGroup("getMostRecentDate(DateTime)", () ->
+            {
+                final Action2<DateTime,DateTime> getMostRecentDateTest = (DateTime date, DateTime expected) ->
+                {
+                    runner.test("with " + QubCovid19.toString(date), (Test test) ->
+                    {
+                        final Folder folder = Covid19DailyReportFileIndexTests.createDailyReportsFolder(test, "01-22-2020.csv", "01-24-2020.csv", "01-27-2020.csv");
+                        final Covid19DailyReportFileIndex index = Covid19DailyReportFileIndex.create(folder).await();
+                        test.assertEqual(expected, index.getMostRecentDate(date));
+                    });
+                };
+
+                getMostRecentDateTest.run(DateTime.create(2020, 1, 21), null);
+                getMostRecentDateTest.run(DateTime.create(2020, 1, 22), DateTime.create(2020, 1, 22));
+                getMostRecentDateTest.run(DateTime.create(2020, 1, 26), DateTime.create(2020, 1, 24));
+                getMostRecentDateTest.run(DateTime.create(2020, 5, 1), DateTime.create(2020, 1, 27));
+            });
+
+            runner.testGroup("withChanges(Iterable<File>,Iterable<DateTime>)", () ->
+            {
+                runner.test("with added and removed files", (Test test) ->
+                {
+                    final Folder folder = Covid19DailyReportFileIndexTests.createDailyReportsFolder(test, "01-22-2020.csv", "01-24-2020.csv", "01-27-2020.csv");
+                    final Covid19DailyReportFileIndex index = Covid19DailyReportFileIndex.create(folder).await();
+                    folder.setFileContentsAsString("01-23-2020.csv", "").await();
+                    folder.setFileContentsAsString("01-28-2020.csv", "").await();
+
+                    final Covid19DailyReportFileIndex newIndex = index.withChanges(
+                        Iterable.create(
+                            folder.getFile("01-28-2020.csv").await(),
+                            folder.getFile("01-23-2020.csv").await()),
+                        Iterable.create(DateTime.create(2020, 1, 24)));
+                    test.assertEqual(
+                        Iterable.create(
+                            DateTime.create(2020, 1, 22),
+                            DateTime.create(2020, 1, 23),
+                            DateTime.create(2020, 1, 27),
+                            DateTime.create(2020, 1, 28)),
+                        newIndex.getDates());
+                    test.assertEqual(3, index.getCount());
+                    test.assertTrue(index.contains(DateTime.create(2020, 1, 24)));
+                });
+            });
+
+            runner.testGroup("getEpochDay(DateTime)", () ->
+            {
+                runner.test("with 1/1/1970", (Test test) ->
+                {
+                    test.assertEqual(0, Covid19DailyReportFileIndex.getEpochDay(DateTime.create(1970, 1, 1)));
+                });
+
+                runner.test("round trip with 2/29/2020", (Test test) ->
+                {
+                    final DateTime date = DateTime.create(2020, 2, 29);
+                    test.assertEqual(date, Covid19DailyReportFileIndex.getDate(Covid19DailyReportFileIndex.getEpochDay(date)));
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,90 @@
+package qub;
+
+/**
+ * The header rows that the CSSE daily reports have used over time, along with the date of the
+ * first daily report that used each one.
+ */
+public enum Covid19DailyReportHeaderLayout
+{
+    /**
+     * The layout of the first daily reports, which only had state/province-level rows.
+     */
+    Original(DateTime.create(2020, 1, 22),
+        "Province/State", "Country/Region", "Last Update", "Confirmed", "Deaths", "Recovered"),
+
+    /**
+     * The original layout with the coordinates of each row added.
+     */
+    WithCoordinates(DateTime.create(2020, 3, 1),
+        "Province/State", "Country/Region", "Last Update", "Confirmed", "Deaths", "Recovered", "Latitude", "Longitude"),
+
+    /**
+     * The layout that added county-level rows for the US and renamed the location columns.
+     */
+    WithCounties(DateTime.create(2020, 3, 22),
+        "FIPS", "Admin2", "Province_State", "Country_Region", "Last_Update", "Lat", "Long_", "Confirmed", "Deaths", "Recovered", "Active", "Combined_Key"),
+
+    /**
+     * The county-level layout with incidence rate and case-fatality ratio columns added.
+     */
+    WithRates(DateTime.create(2020, 5, 29),
+        "FIPS", "Admin2", "Province_State", "Country_Region", "Last_Update", "Lat", "Long_", "Confirmed", "Deaths", "Recovered", "Active", "Combined_Key", "Incidence_Rate", "Case-Fatality_Ratio");
+
+    private final DateTime firstDate;
+    private final Iterable<String> headers;
+
+    Covid19DailyReportHeaderLayout(DateTime firstDate, String... headers)
+    {
+        this.firstDate = firstDate;
+        this.headers = Iterable.create(headers);
+    }
+
+    /**
+     * Get the date of the first daily report that used this layout.
+     * @return The date of the first daily report that used this layout.
+     */
+    public DateTime getFirstDate()
+    {
+        return this.firstDate;
+    }
+
+    /**
+     * Get the column headers of this layout, in the order that they appear in the header row.
+     * @return The column headers of this layout.
+     */
+    public Iterable<String> getHeaders()
+    {
+        return this.headers;
+    }
+
+    /**
+     * Get the layout that the daily report for the provided date used. Dates before the first
+     * daily report use the original layout, and dates after the last layout change use the most
+     * recent layout.
+     * @param date The date of the daily report.
+     * @return The layout that the daily report for the provided date used.
+     */
+    public static Covid19DailyReportHeaderLayout get(DateTime date)
+    {
+        PreCondition.assertNotNull(date, "date");
+
+        final int dateKey = Covid19DailyReportHeaderLayout.getDateKey(date);
+        Covid19DailyReportHeaderLayout result = Covid19DailyReportHeaderLayout.Original;
+        for (final Covid19DailyReportHeaderLayout layout : Covid19DailyReportHeaderLayout.values())
+        {
+            if (Covid19DailyReportHeaderLayout.getDateKey(layout.getFirstDate()) <= dateKey)
+            {
+                result = layout;
+            }
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    private static int getDateKey(DateTime date)
+    {
+        return (date.getYear() * 100 + date.getMonth()) * 100 + date.getDayOfMonth();
+    }
+}
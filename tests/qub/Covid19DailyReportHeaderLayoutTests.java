@@ -0,0 +1,56 @@
+package qub;
+
+public interface Covid19DailyReportHeaderLayoutTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(Covid19DailyReportHeaderLayout.class, () ->
+        {
+            runner.testGroup("get(DateTime)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19DailyReportHeaderLayout.get(null),
+                        new PreConditionFailure("date cannot be null."));
+                });
+
+                final Action2<DateTime,Covid19DailyReportHeaderLayout> getTest = (DateTime date, Covid19DailyReportHeaderLayout expected) ->
+                {
+                    runner.test("with " + date, (Test test) ->
+                    {
+                        test.assertEqual(expected, Covid19DailyReportHeaderLayout.get(date));
+                    });
+                };
+
+                getTest.run(DateTime.create(2019, 12, 31), Covid19DailyReportHeaderLayout.Original);
+                getTest.run(DateTime.create(2020, 1, 22), Covid19DailyReportHeaderLayout.Original);
+                getTest.run(DateTime.create(2020, 2, 29), Covid19DailyReportHeaderLayout.Original);
+                getTest.run(DateTime.create(2020, 3, 1), Covid19DailyReportHeaderLayout.WithCoordinates);
+                getTest.run(DateTime.create(2020, 3, 21), Covid19DailyReportHeaderLayout.WithCoordinates);
+                getTest.run(DateTime.create(2020, 3, 22), Covid19DailyReportHeaderLayout.WithCounties);
+                getTest.run(DateTime.create(2020, 5, 29), Covid19DailyReportHeaderLayout.WithRates);
+                getTest.run(DateTime.create(2023, 3, 10), Covid19DailyReportHeaderLayout.WithRates);
+            });
+
+            runner.testGroup("getHeaders()", () ->
+            {
+                final Action4<Covid19DailyReportHeaderLayout,Integer,Integer,Integer> getHeadersTest = (Covid19DailyReportHeaderLayout layout, Integer expectedCountyColumnIndex, Integer expectedStateOrProvinceColumnIndex, Integer expectedConfirmedCasesColumnIndex) ->
+                {
+                    runner.test("with " + layout, (Test test) ->
+                    {
+                        final Covid19DailyReportColumnMapping mapping = Covid19DailyReportColumnMapping.parse(layout.getHeaders()).await();
+                        test.assertEqual(expectedCountyColumnIndex, mapping.getCountyColumnIndex());
+                        test.assertEqual(expectedStateOrProvinceColumnIndex, mapping.getStateOrProvinceColumnIndex());
+                        test.assertEqual(expectedStateOrProvinceColumnIndex + 1, mapping.getCountryOrRegionColumnIndex());
+                        test.assertEqual(expectedConfirmedCasesColumnIndex, mapping.getConfirmedCasesColumnIndex());
+                    });
+                };
+
+                getHeadersTest.run(Covid19DailyReportHeaderLayout.Original, null, 0, 3);
+                getHeadersTest.run(Covid19DailyReportHeaderLayout.WithCoordinates, null, 0, 3);
+                getHeadersTest.run(Covid19DailyReportHeaderLayout.WithCounties, 1, 2, 7);
+                getHeadersTest.run(Covid19DailyReportHeaderLayout.WithRates, 1, 2, 7);
+            });
+        });
+    }
+}
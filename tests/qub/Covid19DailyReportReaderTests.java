@@ -0,0 +1,283 @@
+package qub;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public interface Covid19DailyReportReaderTests
+{
+    static ByteReadStream createByteReadStream(String text)
+    {
+        return InMemoryByteStream.create(text.getBytes(StandardCharsets.UTF_8)).endOfStream();
+    }
+
+    static Covid19DailyReportReader createReader(String text, Action1<Covid19Issue> onIssue)
+    {
+        return Covid19DailyReportReader.create(Covid19DailyReportReaderTests.createByteReadStream(text), Path.parse("/fake/file.csv"), onIssue).await();
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(Covid19DailyReportReader.class, () ->
+        {
+            runner.testGroup("create(ByteReadStream,Path,Action1<Covid19Issue>)", () ->
+            {
+                runner.test("with null byteReadStream", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19DailyReportReader.create(null, Path.parse("/fake/file.csv"), issue -> {}),
+                        new PreConditionFailure("byteReadStream cannot be null."));
+                });
+
+                runner.test("with null filePath", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19DailyReportReader.create(Covid19DailyReportReaderTests.createByteReadStream(""), null, issue -> {}),
+                        new PreConditionFailure("filePath cannot be null."));
+                });
+
+                runner.test("with null onIssue", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19DailyReportReader.create(Covid19DailyReportReaderTests.createByteReadStream(""), Path.parse("/fake/file.csv"), null),
+                        new PreConditionFailure("onIssue cannot be null."));
+                });
+
+                runner.test("with empty stream", (Test test) ->
+                {
+                    final Covid19DailyReportReader reader = Covid19DailyReportReaderTests.createReader("", issue -> {});
+                    test.assertNull(reader.getColumnMapping());
+                    test.assertNull(reader.readDataRow().await());
+                });
+
+                runner.test("with byte order mark before the header row", (Test test) ->
+                {
+                    final Covid19DailyReportReader reader = Covid19DailyReportReaderTests.createReader("\uFEFFProvince/State,Country/Region,Confirmed\n", issue -> {});
+                    test.assertEqual(0, reader.getColumnMapping().getStateOrProvinceColumnIndex());
+                    test.assertEqual(1, reader.getColumnMapping().getCountryOrRegionColumnIndex());
+                    test.assertEqual(2, reader.getColumnMapping().getConfirmedCasesColumnIndex());
+                });
+            });
+
+            runner.testGroup("readDataRow()", () ->
+            {
+                runner.test("with quoted cells and CRLF line endings", (Test test) ->
+                {
+                    final Covid19DailyReportReader reader = Covid19DailyReportReaderTests.createReader(
+                        "Admin2,Province_State,Country_Region,Confirmed,Combined_Key\r\n" +
+                        "\"King, \"\"Seattle\"\"\",Washington,US,10,\"King, Washington, US\"\r\n" +
+                        "\r\n" +
+                        ",Lombardia,Italy,20,\r\n",
+                        issue -> {});
+                    test.assertEqual(
+                        Covid19DailyReportDataRow.create()
+                            .setCounty("King, \"Seattle\"")
+                            .setStateOrProvince("Washington")
+                            .setCountryOrRegion("US")
+                            .setConfirmedCases(10),
+                        reader.readDataRow().await());
+                    test.assertEqual(
+                        Covid19DailyReportDataRow.create()
+                            .setStateOrProvince("Lombardia")
+                            .setCountryOrRegion("Italy")
+                            .setConfirmedCases(20),
+                        reader.readDataRow().await());
+                    test.assertNull(reader.readDataRow().await());
+                    test.assertNull(reader.readDataRow().await());
+                });
+
+                runner.test("with quoted cells in columns that aren't projected", (Test test) ->
+                {
+                    final Covid19DailyReportReader reader = Covid19DailyReportReaderTests.createReader(
+                        "Lat,Country_Region,Long_,Confirmed,Combined_Key,Incident_Rate\n" +
+                        "\"4,5\",Italy,,5,\"Lombardia, \"\"Italy\"\"\",\n",
+                        issue -> {});
+                    test.assertEqual(
+                        Covid19DailyReportDataRow.create()
+                            .setCountryOrRegion("Italy")
+                            .setConfirmedCases(5),
+                        reader.readDataRow().await());
+                    test.assertNull(reader.readDataRow().await());
+                });
+
+                runner.test("with invalid confirmed cases", (Test test) ->
+                {
+                    final List<Covid19Issue> issues = List.create();
+                    final Covid19DailyReportReader reader = Covid19DailyReportReaderTests.createReader(
+                        "Province_State,Country_Region,Confirmed\n" +
+                        "Washington,US,-5",
+                        issues::add);
+                    test.assertEqual(
+                        Covid19DailyReportDataRow.create()
+                            .setStateOrProvince("Washington")
+                            .setCountryOrRegion("US"),
+                        reader.readDataRow().await());
+                    test.assertEqual(1, issues.getCount());
+                    test.assertEqual(Path.parse("/fake/file.csv"), issues.first().getFilePath());
+                });
+            });
+
+            runner.testGroup("setLocationCondition(Covid19LocationCondition)", () ->
+            {
+                runner.test("with condition that matches some rows", (Test test) ->
+                {
+                    final List<Covid19Issue> issues = List.create();
+                    final Covid19DailyReportReader reader = Covid19DailyReportReaderTests.createReader(
+                        "Admin2,Province_State,Country_Region,Confirmed\n" +
+                        "King,Washington,US,10\n" +
+                        ",Lombardia,Italy,-1\n" +
+                        "Pierce,Washington,US,5\n",
+                        issues::add);
+                    test.assertSame(reader, reader.setLocationCondition(Covid19LocationCondition.stateOrProvinceEquals("Washington")));
+                    test.assertEqual(
+                        Covid19DailyReportDataRow.create()
+                            .setCounty("King")
+                            .setStateOrProvince("Washington")
+                            .setCountryOrRegion("US")
+                            .setConfirmedCases(10),
+                        reader.readDataRow().await());
+                    test.assertEqual(
+                        Covid19DailyReportDataRow.create()
+                            .setCounty("Pierce")
+                            .setStateOrProvince("Washington")
+                            .setCountryOrRegion("US")
+                            .setConfirmedCases(5),
+                        reader.readDataRow().await());
+                    test.assertNull(reader.readDataRow().await());
+                    test.assertEqual(Iterable.create(), issues);
+                });
+
+                runner.test("with condition on confirmed cases", (Test test) ->
+                {
+                    final Covid19DailyReportReader reader = Covid19DailyReportReaderTests.createReader(
+                        "Country_Region,Confirmed\n" +
+                        "US,10\n" +
+                        "Italy,\n",
+                        issue -> {})
+                        .setLocationCondition(Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.confirmedCasesPropertyName, Covid19LocationPropertyConditionOperator.Equals, null));
+                    test.assertEqual(
+                        Covid19DailyReportDataRow.create()
+                            .setCountryOrRegion("Italy"),
+                        reader.readDataRow().await());
+                    test.assertNull(reader.readDataRow().await());
+                });
+            });
+
+            runner.testGroup("setStringDictionary(Covid19StringDictionary)", () ->
+            {
+                runner.test("with dictionary", (Test test) ->
+                {
+                    final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                    final String us = stringDictionary.canonicalize(new String("US"));
+                    final Covid19DailyReportReader reader = Covid19DailyReportReaderTests.createReader(
+                        "Admin2,Province_State,Country_Region,Confirmed\n" +
+                        "King,Washington,US,1\n" +
+                        "Pierce,Washington,US,2\n",
+                        issue -> {});
+                    test.assertSame(reader, reader.setStringDictionary(stringDictionary));
+                    test.assertSame(stringDictionary, reader.getStringDictionary());
+
+                    final Covid19DailyReportDataRow firstDataRow = reader.readDataRow().await();
+                    final Covid19DailyReportDataRow secondDataRow = reader.readDataRow().await();
+                    test.assertSame(us, firstDataRow.getCountryOrRegion());
+                    test.assertSame(us, secondDataRow.getCountryOrRegion());
+                    test.assertSame(firstDataRow.getStateOrProvince(), secondDataRow.getStateOrProvince());
+                    test.assertEqual(4, stringDictionary.getCount());
+                });
+            });
+
+            runner.testGroup("readDataRows(Function1<Covid19DailyReportDataRow,Boolean>)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final Covid19DailyReportReader reader = Covid19DailyReportReaderTests.createReader("", issue -> {});
+                    test.assertThrows(() -> reader.readDataRows(null),
+                        new PreConditionFailure("onDataRow cannot be null."));
+                });
+
+                runner.test("with early stop", (Test test) ->
+                {
+                    final Covid19DailyReportReader reader = Covid19DailyReportReaderTests.createReader(
+                        "Country_Region,Confirmed\n" +
+                        "A,1\n" +
+                        "B,2\n" +
+                        "C,3\n",
+                        issue -> {});
+                    final List<String> countries = List.create();
+                    test.assertEqual(2, reader.readDataRows((Covid19DailyReportDataRow dataRow) ->
+                    {
+                        countries.add(dataRow.getCountryOrRegion());
+                        return !dataRow.getCountryOrRegion().equals("B");
+                    }).await());
+                    test.assertEqual(Iterable.create("A", "B"), countries);
+                    test.assertEqual(
+                        Covid19DailyReportDataRow.create()
+                            .setCountryOrRegion("C")
+                            .setConfirmedCases(3),
+                        reader.readDataRow().await());
+                });
+            });
+
+            runner.testGroup("getProjectedColumns(Covid19DailyReportColumnMapping)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19DailyReportReader.getProjectedColumns(null),
+                        new PreConditionFailure("columnMapping cannot be null."));
+                });
+
+                runner.test("with no mapped columns", (Test test) ->
+                {
+                    test.assertEqual(0, Covid19DailyReportReader.getProjectedColumns(Covid19DailyReportColumnMapping.create()).length);
+                });
+
+                runner.test("with county-level header row", (Test test) ->
+                {
+                    final Covid19DailyReportColumnMapping columnMapping = Covid19DailyReportColumnMapping.parse(
+                        "FIPS", "Admin2", "Province_State", "Country_Region", "Last_Update", "Lat", "Long_", "Confirmed", "Deaths", "Recovered", "Active", "Combined_Key").await();
+                    final boolean[] projectedColumns = Covid19DailyReportReader.getProjectedColumns(columnMapping);
+                    test.assertTrue(Arrays.equals(
+                        new boolean[] { false, true, true, true, false, false, false, true },
+                        projectedColumns));
+                });
+            });
+
+            runner.testGroup("getLocationColumns(Covid19DailyReportColumnMapping)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19DailyReportReader.getLocationColumns(null),
+                        new PreConditionFailure("columnMapping cannot be null."));
+                });
+
+                runner.test("with county-level header row", (Test test) ->
+                {
+                    final Covid19DailyReportColumnMapping columnMapping = Covid19DailyReportColumnMapping.parse(
+                        "FIPS", "Admin2", "Province_State", "Country_Region", "Last_Update", "Lat", "Long_", "Confirmed").await();
+                    test.assertTrue(Arrays.equals(
+                        new boolean[] { false, true, true, true },
+                        Covid19DailyReportReader.getLocationColumns(columnMapping)));
+                });
+            });
+
+            runner.testGroup("parseDigits(String)", () ->
+            {
+                final Action2<String,Integer> parseDigitsTest = (String cell, Integer expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(cell), (Test test) ->
+                    {
+                        test.assertEqual(expected, Covid19DailyReportReader.parseDigits(cell));
+                    });
+                };
+
+                parseDigitsTest.run(null, -1);
+                parseDigitsTest.run("", -1);
+                parseDigitsTest.run("0", 0);
+                parseDigitsTest.run("007", 7);
+                parseDigitsTest.run("12345", 12345);
+                parseDigitsTest.run("999999999", 999999999);
+                parseDigitsTest.run("1000000000", -1);
+                parseDigitsTest.run("-5", -1);
+                parseDigitsTest.run("+5", -1);
+                parseDigitsTest.run("5.0", -1);
+                parseDigitsTest.run(" 5", -1);
+            });
+        });
+    }
+}
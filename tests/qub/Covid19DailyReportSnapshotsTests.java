@@ -0,0 +1,169 @@
+package qub;
+
+import java.util.Arrays;
+
+public interface Covid19DailyReportSnapshotsTests
+{
+    static Covid19DailyReportSnapshots createSnapshots(Test test)
+    {
+        final InMemoryFileSystem fileSystem = InMemoryFileSystem.create(test.getClock());
+        fileSystem.createRoot("/").await();
+        return Covid19DailyReportSnapshots.create(fileSystem.getFolder("/snapshots/").await());
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(Covid19DailyReportSnapshots.class, () ->
+        {
+            runner.test("create(Folder)", (Test test) ->
+            {
+                test.assertThrows(() -> Covid19DailyReportSnapshots.create(null),
+                    new PreConditionFailure("snapshotsFolder cannot be null."));
+            });
+
+            runner.testGroup("read(DateTime,String,Action1<Covid19Issue>)", () ->
+            {
+                runner.test("with no snapshot", (Test test) ->
+                {
+                    final Covid19DailyReportSnapshots snapshots = Covid19DailyReportSnapshotsTests.createSnapshots(test);
+                    test.assertThrows(() -> snapshots.read(DateTime.create(2020, 3, 1), "abc", issue -> {}).await(),
+                        new NotFoundException("No snapshot exists for the date 3/1/2020."));
+                });
+
+                runner.test("with different source key", (Test test) ->
+                {
+                    final Covid19DailyReportSnapshots snapshots = Covid19DailyReportSnapshotsTests.createSnapshots(test);
+                    snapshots.write(DateTime.create(2020, 3, 1), "abc", Covid19DailyReport.create(), Iterable.create()).await();
+                    test.assertThrows(() -> snapshots.read(DateTime.create(2020, 3, 1), "def", issue -> {}).await(),
+                        new NotFoundException("The snapshot for the date 3/1/2020 is out of date or malformed."));
+                });
+
+                runner.test("with malformed snapshot", (Test test) ->
+                {
+                    final Covid19DailyReportSnapshots snapshots = Covid19DailyReportSnapshotsTests.createSnapshots(test);
+                    snapshots.getSnapshotsFolder().setFileContentsAsString("03-01-2020.snapshot", "not a snapshot").await();
+                    test.assertThrows(() -> snapshots.read(DateTime.create(2020, 3, 1), "abc", issue -> {}).await(),
+                        new NotFoundException("The snapshot for the date 3/1/2020 is out of date or malformed."));
+                });
+
+                runner.test("with matching source key", (Test test) ->
+                {
+                    final Covid19DailyReportSnapshots snapshots = Covid19DailyReportSnapshotsTests.createSnapshots(test);
+                    final Covid19DailyReport dailyReport = Covid19DailyReport.create(
+                        Covid19DailyReportDataRow.create()
+                            .setCounty("King")
+                            .setStateOrProvince("Washington")
+                            .setCountryOrRegion("US")
+                            .setConfirmedCases(10),
+                        Covid19DailyReportDataRow.create()
+                            .setStateOrProvince("Washington")
+                            .setCountryOrRegion("US"),
+                        Covid19DailyReportDataRow.create()
+                            .setCountryOrRegion("Italy")
+                            .setConfirmedCases(0));
+                    final Covid19Issue issue = Covid19Issue.create("fake-issue")
+                        .setFilePath(Path.parse("/COVID-19/03-01-2020.csv"));
+                    snapshots.write(DateTime.create(2020, 3, 1), "abc", dailyReport, Iterable.create(issue)).await();
+
+                    final List<Covid19Issue> issues = List.create();
+                    test.assertEqual(dailyReport, snapshots.read(DateTime.create(2020, 3, 1), "abc", issues::add).await());
+                    test.assertEqual(Iterable.create(issue), issues);
+                });
+            });
+
+            runner.testGroup("write(DateTime,String,Covid19DailyReport,Iterable<Covid19Issue>)", () ->
+            {
+                runner.test("with existing snapshot", (Test test) ->
+                {
+                    final Covid19DailyReportSnapshots snapshots = Covid19DailyReportSnapshotsTests.createSnapshots(test);
+                    snapshots.write(DateTime.create(2020, 3, 1), "abc", Covid19DailyReport.create(), Iterable.create()).await();
+                    final Covid19DailyReport dailyReport = Covid19DailyReport.create(
+                        Covid19DailyReportDataRow.create()
+                            .setCountryOrRegion("Italy")
+                            .setConfirmedCases(5));
+                    snapshots.write(DateTime.create(2020, 3, 1), "def", dailyReport, Iterable.create()).await();
+
+                    test.assertEqual(dailyReport, snapshots.read(DateTime.create(2020, 3, 1), "def", issue -> {}).await());
+                    test.assertEqual(Iterable.create("03-01-2020.snapshot"), snapshots.getSnapshotsFolder().getFiles().await().map(File::getName));
+                });
+            });
+
+            runner.testGroup("decode(byte[],String,Covid19StringDictionary,List<Covid19Issue>)", () ->
+            {
+                final Function0<byte[]> encode = () -> Covid19DailyReportSnapshots.encode(
+                    "abc",
+                    Covid19DailyReport.create(
+                        Covid19DailyReportDataRow.create()
+                            .setCounty("King")
+                            .setStateOrProvince("Washington")
+                            .setCountryOrRegion("US")
+                            .setConfirmedCases(10)),
+                    Iterable.create(Covid19Issue.create("fake-issue")));
+
+                runner.test("with string count that is too large", (Test test) ->
+                {
+                    final byte[] snapshotBytes = encode.run();
+                    // The string count follows the magic number, the format version, and the source key.
+                    snapshotBytes[13] = 0x7F;
+                    final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                    final List<Covid19Issue> issues = List.create();
+                    test.assertThrows(() -> Covid19DailyReportSnapshots.decode(snapshotBytes, "abc", stringDictionary, issues).await(),
+                        new ParseException("The snapshot's string count 2130706435 is more than the rest of the snapshot can hold."));
+                    test.assertEqual(0, stringDictionary.getCount());
+                    test.assertEqual(0, issues.getCount());
+                });
+
+                runner.test("with negative string count", (Test test) ->
+                {
+                    final byte[] snapshotBytes = encode.run();
+                    snapshotBytes[13] = (byte)0xFF;
+                    final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                    test.assertThrows(() -> Covid19DailyReportSnapshots.decode(snapshotBytes, "abc", stringDictionary, List.create()).await(),
+                        new ParseException("The snapshot's string count -16777213 is more than the rest of the snapshot can hold."));
+                    test.assertEqual(0, stringDictionary.getCount());
+                });
+
+                runner.test("with truncated issues", (Test test) ->
+                {
+                    final byte[] encodedBytes = encode.run();
+                    // Remove all but 3 of the bytes that follow the issue count.
+                    final byte[] snapshotBytes = Arrays.copyOf(encodedBytes, encodedBytes.length - 11);
+                    final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                    final List<Covid19Issue> issues = List.create();
+                    test.assertThrows(() -> Covid19DailyReportSnapshots.decode(snapshotBytes, "abc", stringDictionary, issues).await(),
+                        new ParseException("The snapshot's issue count 1 is more than the rest of the snapshot can hold."));
+                    test.assertEqual(0, stringDictionary.getCount());
+                    test.assertEqual(0, issues.getCount());
+                });
+
+                runner.test("with valid snapshot", (Test test) ->
+                {
+                    final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                    final List<Covid19Issue> issues = List.create();
+                    final Covid19DailyReport dailyReport = Covid19DailyReportSnapshots.decode(encode.run(), "abc", stringDictionary, issues).await();
+                    test.assertEqual(3, stringDictionary.getCount());
+                    test.assertEqual(1, dailyReport.getDataRows().getCount());
+                    test.assertEqual(Iterable.create(Covid19Issue.create("fake-issue")), issues);
+                });
+            });
+
+            runner.testGroup("delete(DateTime)", () ->
+            {
+                runner.test("with no snapshot", (Test test) ->
+                {
+                    final Covid19DailyReportSnapshots snapshots = Covid19DailyReportSnapshotsTests.createSnapshots(test);
+                    snapshots.delete(DateTime.create(2020, 3, 1)).await();
+                });
+
+                runner.test("with snapshot", (Test test) ->
+                {
+                    final Covid19DailyReportSnapshots snapshots = Covid19DailyReportSnapshotsTests.createSnapshots(test);
+                    snapshots.write(DateTime.create(2020, 3, 1), "abc", Covid19DailyReport.create(), Iterable.create()).await();
+                    snapshots.delete(DateTime.create(2020, 3, 1)).await();
+                    test.assertThrows(() -> snapshots.read(DateTime.create(2020, 3, 1), "abc", issue -> {}).await(),
+                        new NotFoundException("No snapshot exists for the date 3/1/2020."));
+                });
+            });
+        });
+    }
+}
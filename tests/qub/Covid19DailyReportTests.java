@@ -204,6 +204,16 @@ public interface Covid19DailyReportTests
                             .setCountryOrRegion("fake-country-2")
                             .setConfirmedCases(300)));
 
+                parseTest.run("with byte order mark before the header row",
+                    CSVDocument.create(
+                        CSVRow.create("\uFEFFProvince/State", "Country/Region", "Confirmed"),
+                        CSVRow.create("fake-state", "fake-country", "200")),
+                    Iterable.create(
+                        Covid19DailyReportDataRow.create()
+                            .setStateOrProvince("fake-state")
+                            .setCountryOrRegion("fake-country")
+                            .setConfirmedCases(200)));
+
                 parseTest.run("with columns in a different order",
                     CSVDocument.create(
                         CSVRow.create("Province_State", "Confirmed", "Admin2", "Country_Region"),
@@ -505,6 +515,90 @@ public interface Covid19DailyReportTests
                             .setStateOrProvince("fake-state")
                             .setCountryOrRegion("fake-country")));
             });
+
+            runner.testGroup("parse(ByteReadStream,Path,Covid19LocationCondition,Covid19StringDictionary,Action1<Covid19Issue>)", () ->
+            {
+                runner.test("with string dictionary", (Test test) ->
+                {
+                    final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                    final Covid19DailyReport dailyReport = Covid19DailyReport.parse(
+                        Covid19DailyReportReaderTests.createByteReadStream(
+                            "Province_State,Country_Region,Confirmed\n" +
+                            "Washington,US,10\n" +
+                            ",Italy,\n"),
+                        Path.parse("/fake/file.csv"),
+                        null,
+                        stringDictionary,
+                        issue -> {}).await();
+                    test.assertInstanceOf(dailyReport, Covid19ColumnarDailyReport.class);
+                    test.assertEqual(
+                        Iterable.create(
+                            Covid19DailyReportDataRow.create()
+                                .setStateOrProvince("Washington")
+                                .setCountryOrRegion("US")
+                                .setConfirmedCases(10),
+                            Covid19DailyReportDataRow.create()
+                                .setCountryOrRegion("Italy")),
+                        dailyReport.getDataRows());
+                });
+            });
+
+            runner.testGroup("getConfirmedCasesSum(Covid19LocationCondition)", () ->
+            {
+                final Covid19DailyReport dailyReport = Covid19DailyReport.create(
+                    Covid19DailyReportDataRow.create()
+                        .setStateOrProvince("Washington")
+                        .setCountryOrRegion("US")
+                        .setConfirmedCases(10),
+                    Covid19DailyReportDataRow.create()
+                        .setStateOrProvince("Oregon")
+                        .setCountryOrRegion("US"),
+                    Covid19DailyReportDataRow.create()
+                        .setCountryOrRegion("Italy")
+                        .setConfirmedCases(20));
+
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertEqual(30, dailyReport.getConfirmedCasesSum(null));
+                });
+
+                runner.test("with condition that matches some data rows", (Test test) ->
+                {
+                    test.assertEqual(10, dailyReport.getConfirmedCasesSum(Covid19LocationCondition.countryOrRegionEquals("US")));
+                });
+
+                runner.test("with condition that matches no data rows", (Test test) ->
+                {
+                    test.assertEqual(0, dailyReport.getConfirmedCasesSum(Covid19LocationCondition.countryOrRegionEquals("Spain")));
+                });
+            });
+
+            runner.testGroup("where(Covid19LocationCondition)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final Covid19DailyReport dailyReport = Covid19DailyReport.create();
+                    test.assertThrows(() -> dailyReport.where(null),
+                        new PreConditionFailure("locationCondition cannot be null."));
+                });
+
+                runner.test("with condition", (Test test) ->
+                {
+                    final Covid19DailyReport dailyReport = Covid19DailyReport.create(
+                        Covid19DailyReportDataRow.create()
+                            .setCountryOrRegion("US")
+                            .setConfirmedCases(10),
+                        Covid19DailyReportDataRow.create()
+                            .setCountryOrRegion("Italy")
+                            .setConfirmedCases(20));
+                    test.assertEqual(
+                        Covid19DailyReport.create(
+                            Covid19DailyReportDataRow.create()
+                                .setCountryOrRegion("Italy")
+                                .setConfirmedCases(20)),
+                        dailyReport.where(Covid19LocationCondition.countryOrRegionEquals("Italy")));
+                });
+            });
         });
     }
 }
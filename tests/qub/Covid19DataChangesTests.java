@@ -0,0 +1,53 @@
+package qub;
+
+public interface Covid19DataChangesTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(Covid19DataChanges.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final Covid19DataChanges changes = Covid19DataChanges.create();
+                test.assertNotNull(changes);
+                test.assertFalse(changes.isAll());
+                test.assertFalse(changes.any());
+                test.assertNull(changes.getPreviousCommitId());
+                test.assertNull(changes.getCurrentCommitId());
+                test.assertEqual(Iterable.create(), changes.getChangedDates());
+                test.assertEqual(Iterable.create(), changes.getDeletedDates());
+            });
+
+            runner.test("all()", (Test test) ->
+            {
+                final Covid19DataChanges changes = Covid19DataChanges.all();
+                test.assertNotNull(changes);
+                test.assertTrue(changes.isAll());
+                test.assertTrue(changes.any());
+                test.assertThrows(() -> changes.addAddedFilePath(Path.parse("01-22-2020.csv")),
+                    new PreConditionFailure("this.isAll() cannot be true."));
+            });
+
+            runner.testGroup("getChangedDates()", () ->
+            {
+                runner.test("with added, modified, and deleted files", (Test test) ->
+                {
+                    final Covid19DataChanges changes = Covid19DataChanges.create()
+                        .addAddedFilePath(Path.parse("csse_covid_19_data/csse_covid_19_daily_reports/05-21-2020.csv"))
+                        .addModifiedFilePath(Path.parse("csse_covid_19_data/csse_covid_19_daily_reports/03-02-2020.csv"))
+                        .addModifiedFilePath(Path.parse("csse_covid_19_data/csse_covid_19_daily_reports/README.csv"))
+                        .addDeletedFilePath(Path.parse("csse_covid_19_data/csse_covid_19_daily_reports/01-22-2020.csv"));
+                    test.assertTrue(changes.any());
+                    test.assertEqual(
+                        Iterable.create(
+                            DateTime.create(2020, 5, 21),
+                            DateTime.create(2020, 3, 2)),
+                        changes.getChangedDates());
+                    test.assertEqual(
+                        Iterable.create(DateTime.create(2020, 1, 22)),
+                        changes.getDeletedDates());
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,121 @@
+package qub;
+
+public interface Covid19DataSourceTests
+{
+    static Covid19InMemoryDataSource createDataSource()
+    {
+        return Covid19InMemoryDataSource.create()
+            .setDailyReport(DateTime.create(2020, 3, 1), Covid19DailyReport.create(
+                Covid19DailyReportDataRow.create()
+                    .setStateOrProvince("Washington")
+                    .setCountryOrRegion("US")
+                    .setConfirmedCases(10),
+                Covid19DailyReportDataRow.create()
+                    .setCountryOrRegion("Italy")
+                    .setConfirmedCases(20)))
+            .setDailyReport(DateTime.create(2020, 3, 2), Covid19DailyReport.create(
+                Covid19DailyReportDataRow.create()
+                    .setCountryOrRegion("Italy")
+                    .setConfirmedCases(30)));
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(Covid19DataSource.class, () ->
+        {
+            runner.testGroup("getDailyReport(DateTime,Covid19LocationCondition,Action1<Covid19Issue>)", () ->
+            {
+                runner.test("with null date", (Test test) ->
+                {
+                    final Covid19DataSource dataSource = Covid19DataSourceTests.createDataSource();
+                    test.assertThrows(() -> dataSource.getDailyReport(null, Covid19LocationCondition.countryOrRegionEquals("US"), issue -> {}),
+                        new PreConditionFailure("date cannot be null."));
+                });
+
+                runner.test("with null condition", (Test test) ->
+                {
+                    final Covid19DataSource dataSource = Covid19DataSourceTests.createDataSource();
+                    test.assertEqual(
+                        dataSource.getDailyReport(DateTime.create(2020, 3, 1), issue -> {}).await(),
+                        dataSource.getDailyReport(DateTime.create(2020, 3, 1), null, issue -> {}).await());
+                });
+
+                runner.test("with condition", (Test test) ->
+                {
+                    final Covid19DataSource dataSource = Covid19DataSourceTests.createDataSource();
+                    test.assertEqual(
+                        Iterable.create(
+                            Covid19DailyReportDataRow.create()
+                                .setCountryOrRegion("Italy")
+                                .setConfirmedCases(20)),
+                        dataSource.getDailyReport(DateTime.create(2020, 3, 1), Covid19LocationCondition.countryOrRegionEquals("Italy"), issue -> {}).await().getDataRows());
+                });
+            });
+
+            runner.testGroup("getDailyReports(Iterable<DateTime>,Action1<Covid19Issue>)", () ->
+            {
+                runner.test("with null dates", (Test test) ->
+                {
+                    final Covid19DataSource dataSource = Covid19DataSourceTests.createDataSource();
+                    test.assertThrows(() -> dataSource.getDailyReports(null, issue -> {}),
+                        new PreConditionFailure("dates cannot be null."));
+                });
+
+                runner.test("with empty dates", (Test test) ->
+                {
+                    final Covid19DataSource dataSource = Covid19DataSourceTests.createDataSource();
+                    test.assertEqual(Iterable.create(), dataSource.getDailyReports(Iterable.create(), issue -> {}).await());
+                });
+
+                runner.test("with dates that exist", (Test test) ->
+                {
+                    final Covid19DataSource dataSource = Covid19DataSourceTests.createDataSource();
+                    test.assertEqual(
+                        Iterable.create(
+                            dataSource.getDailyReport(DateTime.create(2020, 3, 2), issue -> {}).await(),
+                            dataSource.getDailyReport(DateTime.create(2020, 3, 1), issue -> {}).await()),
+                        dataSource.getDailyReports(Iterable.create(DateTime.create(2020, 3, 2), DateTime.create(2020, 3, 1)), issue -> {}).await());
+                });
+
+                runner.test("with a date that doesn't exist", (Test test) ->
+                {
+                    final Covid19DataSource dataSource = Covid19DataSourceTests.createDataSource();
+                    test.assertThrows(() -> dataSource.getDailyReports(Iterable.create(DateTime.create(2020, 3, 1), DateTime.create(2020, 3, 5)), issue -> {}).await(),
+                        new NotFoundException("No daily report found for the date 3/5/2020."));
+                });
+            });
+
+            runner.testGroup("getTimeSeries(Iterable<Covid19Location>,Iterable<DateTime>,Action1<Covid19Issue>)", () ->
+            {
+                runner.test("with null locations", (Test test) ->
+                {
+                    final Covid19DataSource dataSource = Covid19DataSourceTests.createDataSource();
+                    test.assertThrows(() -> dataSource.getTimeSeries(null, Iterable.create(), issue -> {}),
+                        new PreConditionFailure("locations cannot be null."));
+                });
+
+                runner.test("with dates that exist", (Test test) ->
+                {
+                    final Covid19DataSource dataSource = Covid19DataSourceTests.createDataSource();
+                    final Covid19TimeSeries timeSeries = dataSource.getTimeSeries(
+                        Iterable.create(
+                            Covid19Location.create("Global"),
+                            Covid19Location.create("Italy", Covid19LocationCondition.countryOrRegionEquals("Italy"))),
+                        Iterable.create(DateTime.create(2020, 3, 2), DateTime.create(2020, 3, 1)),
+                        issue -> {}).await();
+                    test.assertEqual(2, timeSeries.getDateCount());
+                    test.assertEqual(30, timeSeries.getConfirmedCases("Global", DateTime.create(2020, 3, 1)).await());
+                    test.assertEqual(20, timeSeries.getConfirmedCases("Italy", DateTime.create(2020, 3, 1)).await());
+                    test.assertEqual(30, timeSeries.getConfirmedCases("Italy", DateTime.create(2020, 3, 2)).await());
+                });
+
+                runner.test("with a date that doesn't exist", (Test test) ->
+                {
+                    final Covid19DataSource dataSource = Covid19DataSourceTests.createDataSource();
+                    test.assertThrows(() -> dataSource.getTimeSeries(Iterable.create(Covid19Location.create("Global")), Iterable.create(DateTime.create(2020, 3, 5)), issue -> {}).await(),
+                        new NotFoundException("No daily report found for the date 3/5/2020."));
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,534 @@
+package qub;
+
+/**
+ * Generates synthetic daily reports in the CSSE data set's format so that benchmarks and stress
+ * tests can run at sizes beyond the real data set without network access. Every generated value
+ * is a pure function of the generator's settings, the day index, and the row index, so a daily
+ * report can be regenerated (or its expected values computed) without keeping the whole data set
+ * in memory.
+ */
+public class Covid19DatasetGenerator
+{
+    /**
+     * The ways that an injected error can corrupt a data row's confirmed cases. Each of them makes
+     * the row report exactly one issue when it is parsed.
+     */
+    private static final int negativeConfirmedCasesError = 0;
+    private static final int invalidConfirmedCasesError = 1;
+    private static final int emptyConfirmedCasesError = 2;
+    private static final int missingConfirmedCasesError = 3;
+    private static final int errorKindCount = 4;
+
+    private DateTime startDate;
+    private int dayCount;
+    private int rowCount;
+    private int countyCount;
+    private int stateOrProvinceCount;
+    private int countryOrRegionCount;
+    private double errorRate;
+    private long seed;
+    private Covid19DailyReportHeaderLayout headerLayout;
+    private int daysPerCommit;
+
+    private Covid19DatasetGenerator()
+    {
+        this.startDate = Covid19DailyReportHeaderLayout.Original.getFirstDate();
+        this.dayCount = 30;
+        this.rowCount = Covid19DailyReportBenchmarks.countyLevelRowCount;
+        this.countyCount = Covid19DailyReportBenchmarks.countyLevelRowCount;
+        this.stateOrProvinceCount = 60;
+        this.countryOrRegionCount = 190;
+        this.daysPerCommit = 1;
+    }
+
+    public static Covid19DatasetGenerator create()
+    {
+        return new Covid19DatasetGenerator();
+    }
+
+    public DateTime getStartDate()
+    {
+        return this.startDate;
+    }
+
+    public Covid19DatasetGenerator setStartDate(DateTime startDate)
+    {
+        PreCondition.assertNotNull(startDate, "startDate");
+
+        this.startDate = startDate;
+
+        return this;
+    }
+
+    public int getDayCount()
+    {
+        return this.dayCount;
+    }
+
+    public Covid19DatasetGenerator setDayCount(int dayCount)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(dayCount, 0, "dayCount");
+
+        this.dayCount = dayCount;
+
+        return this;
+    }
+
+    public int getRowCount()
+    {
+        return this.rowCount;
+    }
+
+    /**
+     * Set the number of data rows in each daily report. Every layout gets the same number of
+     * rows, even the layouts that didn't have county-level rows, so that the size of the data set
+     * doesn't depend on its dates.
+     * @param rowCount The number of data rows in each daily report.
+     * @return This object for method chaining.
+     */
+    public Covid19DatasetGenerator setRowCount(int rowCount)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(rowCount, 0, "rowCount");
+
+        this.rowCount = rowCount;
+
+        return this;
+    }
+
+    public int getCountyCount()
+    {
+        return this.countyCount;
+    }
+
+    /**
+     * Set the number of distinct county strings. Row n is in county (n % countyCount), county c
+     * is in state/province (c % stateOrProvinceCount), and state/province s is in country/region
+     * (s % countryOrRegionCount).
+     * @param countyCount The number of distinct county strings.
+     * @return This object for method chaining.
+     */
+    public Covid19DatasetGenerator setCountyCount(int countyCount)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(countyCount, 1, "countyCount");
+
+        this.countyCount = countyCount;
+
+        return this;
+    }
+
+    public int getStateOrProvinceCount()
+    {
+        return this.stateOrProvinceCount;
+    }
+
+    public Covid19DatasetGenerator setStateOrProvinceCount(int stateOrProvinceCount)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(stateOrProvinceCount, 1, "stateOrProvinceCount");
+
+        this.stateOrProvinceCount = stateOrProvinceCount;
+
+        return this;
+    }
+
+    public int getCountryOrRegionCount()
+    {
+        return this.countryOrRegionCount;
+    }
+
+    public Covid19DatasetGenerator setCountryOrRegionCount(int countryOrRegionCount)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(countryOrRegionCount, 1, "countryOrRegionCount");
+
+        this.countryOrRegionCount = countryOrRegionCount;
+
+        return this;
+    }
+
+    public double getErrorRate()
+    {
+        return this.errorRate;
+    }
+
+    /**
+     * Set the fraction of data rows that have an invalid or missing confirmed cases value. Each
+     * of these rows reports one issue when it is parsed.
+     * @param errorRate The fraction of data rows that have an error, between 0 and 1.
+     * @return This object for method chaining.
+     */
+    public Covid19DatasetGenerator setErrorRate(double errorRate)
+    {
+        PreCondition.assertTrue(0 <= errorRate && errorRate <= 1, "0 <= errorRate && errorRate <= 1");
+
+        this.errorRate = errorRate;
+
+        return this;
+    }
+
+    public long getSeed()
+    {
+        return this.seed;
+    }
+
+    /**
+     * Set the seed that decides which data rows have errors and what kind of errors they have.
+     * @param seed The seed that decides which data rows have errors.
+     * @return This object for method chaining.
+     */
+    public Covid19DatasetGenerator setSeed(long seed)
+    {
+        this.seed = seed;
+
+        return this;
+    }
+
+    public Covid19DailyReportHeaderLayout getHeaderLayout()
+    {
+        return this.headerLayout;
+    }
+
+    /**
+     * Set the header layout that every daily report uses.
+     * @param headerLayout The header layout that every daily report uses, or null to use the
+     *                     layout that the CSSE data set used on each daily report's date.
+     * @return This object for method chaining.
+     */
+    public Covid19DatasetGenerator setHeaderLayout(Covid19DailyReportHeaderLayout headerLayout)
+    {
+        this.headerLayout = headerLayout;
+
+        return this;
+    }
+
+    public int getDaysPerCommit()
+    {
+        return this.daysPerCommit;
+    }
+
+    /**
+     * Set the number of daily reports that are added in each commit of a generated git
+     * repository.
+     * @param daysPerCommit The number of daily reports that are added in each commit.
+     * @return This object for method chaining.
+     */
+    public Covid19DatasetGenerator setDaysPerCommit(int daysPerCommit)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(daysPerCommit, 1, "daysPerCommit");
+
+        this.daysPerCommit = daysPerCommit;
+
+        return this;
+    }
+
+    public DateTime getDate(int dayIndex)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(dayIndex, 0, "dayIndex");
+
+        return this.startDate.plus(Duration.days(dayIndex));
+    }
+
+    public Iterable<DateTime> getDates()
+    {
+        final List<DateTime> result = List.create();
+        for (int dayIndex = 0; dayIndex < this.dayCount; ++dayIndex)
+        {
+            result.add(this.getDate(dayIndex));
+        }
+        return result;
+    }
+
+    public String getDailyReportFileName(int dayIndex)
+    {
+        return Covid19GitDataSourceBenchmarks.getDailyReportFileName(this.getDate(dayIndex));
+    }
+
+    public Covid19DailyReportHeaderLayout getHeaderLayout(int dayIndex)
+    {
+        return this.headerLayout != null ? this.headerLayout : Covid19DailyReportHeaderLayout.get(this.getDate(dayIndex));
+    }
+
+    public String getCounty(int row)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(row, 0, "row");
+
+        return "County " + (row % this.countyCount);
+    }
+
+    public String getStateOrProvince(int row)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(row, 0, "row");
+
+        return "State " + ((row % this.countyCount) % this.stateOrProvinceCount);
+    }
+
+    public String getCountryOrRegion(int row)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(row, 0, "row");
+
+        return "Country " + (((row % this.countyCount) % this.stateOrProvinceCount) % this.countryOrRegionCount);
+    }
+
+    /**
+     * Get the confirmed cases of the provided row on the provided day. Every row's confirmed
+     * cases grow from one day to the next.
+     * @param dayIndex The index of the day.
+     * @param row The index of the row.
+     * @return The confirmed cases of the row, ignoring any error that is injected into it.
+     */
+    public int getConfirmedCases(int dayIndex, int row)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(dayIndex, 0, "dayIndex");
+        PreCondition.assertGreaterThanOrEqualTo(row, 0, "row");
+
+        return (dayIndex + 1) * (1 + row % 17);
+    }
+
+    /**
+     * Get whether an error is injected into the provided row on the provided day.
+     * @param dayIndex The index of the day.
+     * @param row The index of the row.
+     * @return Whether an error is injected into the row.
+     */
+    public boolean isErrorRow(int dayIndex, int row)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(dayIndex, 0, "dayIndex");
+        PreCondition.assertGreaterThanOrEqualTo(row, 0, "row");
+
+        // The top 53 bits of the hash are a uniformly distributed double in [0, 1).
+        return this.errorRate > 0 &&
+            (this.getRowHash(dayIndex, row) >>> 11) * 0x1.0p-53 < this.errorRate;
+    }
+
+    /**
+     * Get the number of rows that have an error injected into them on the provided day. This is
+     * the number of issues that parsing the day's daily report reports.
+     * @param dayIndex The index of the day.
+     * @return The number of rows that have an error injected into them.
+     */
+    public int getErrorRowCount(int dayIndex)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(dayIndex, 0, "dayIndex");
+
+        int result = 0;
+        for (int row = 0; row < this.rowCount; ++row)
+        {
+            if (this.isErrorRow(dayIndex, row))
+            {
+                ++result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the sum of the valid confirmed cases of every row on the provided day.
+     * @param dayIndex The index of the day.
+     * @return The sum of the valid confirmed cases of every row.
+     */
+    public int getConfirmedCasesSum(int dayIndex)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(dayIndex, 0, "dayIndex");
+
+        int result = 0;
+        for (int row = 0; row < this.rowCount; ++row)
+        {
+            if (!this.isErrorRow(dayIndex, row))
+            {
+                result += this.getConfirmedCases(dayIndex, row);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Create the contents of the daily report for the provided day.
+     * @param dayIndex The index of the day.
+     * @return The contents of the daily report.
+     */
+    public String createDailyReportContents(int dayIndex)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(dayIndex, 0, "dayIndex");
+
+        final Iterable<String> headers = this.getHeaderLayout(dayIndex).getHeaders();
+        final CharacterList result = CharacterList.create();
+        result.addAll(String.join(",", headers));
+        result.add('\n');
+
+        final DateTime date = this.getDate(dayIndex);
+        final boolean hasCounty = headers.contains("Admin2");
+        for (int row = 0; row < this.rowCount; ++row)
+        {
+            final int errorKind = this.isErrorRow(dayIndex, row)
+                ? (int)Long.remainderUnsigned(this.getRowHash(dayIndex, row), Covid19DatasetGenerator.errorKindCount)
+                : -1;
+            final int confirmedCases = this.getConfirmedCases(dayIndex, row);
+
+            boolean firstCell = true;
+            for (final String header : headers)
+            {
+                if (errorKind == Covid19DatasetGenerator.missingConfirmedCasesError && header.equals("Confirmed"))
+                {
+                    // Truncate the row before its confirmed cases column.
+                    break;
+                }
+
+                if (firstCell)
+                {
+                    firstCell = false;
+                }
+                else
+                {
+                    result.add(',');
+                }
+
+                switch (header)
+                {
+                    case "FIPS":
+                        result.addAll(Integers.toString(10000 + row % this.countyCount));
+                        break;
+
+                    case "Admin2":
+                        result.addAll(this.getCounty(row));
+                        break;
+
+                    case "Province/State":
+                    case "Province_State":
+                        result.addAll(this.getStateOrProvince(row));
+                        break;
+
+                    case "Country/Region":
+                    case "Country_Region":
+                        result.addAll(this.getCountryOrRegion(row));
+                        break;
+
+                    case "Last Update":
+                        result.addAll(date.getMonth() + "/" + date.getDayOfMonth() + "/" + date.getYear() + " 23:59");
+                        break;
+
+                    case "Last_Update":
+                        result.addAll(String.format("%04d-%02d-%02d 23:59:00", date.getYear(), date.getMonth(), date.getDayOfMonth()));
+                        break;
+
+                    case "Latitude":
+                    case "Lat":
+                        result.addAll(Double.toString((row % 180) - 89.5));
+                        break;
+
+                    case "Longitude":
+                    case "Long_":
+                        result.addAll(Double.toString((row % 360) - 179.5));
+                        break;
+
+                    case "Confirmed":
+                        if (errorKind == Covid19DatasetGenerator.negativeConfirmedCasesError)
+                        {
+                            result.addAll(Integers.toString(-confirmedCases));
+                        }
+                        else if (errorKind == Covid19DatasetGenerator.invalidConfirmedCasesError)
+                        {
+                            result.addAll("unknown");
+                        }
+                        else if (errorKind != Covid19DatasetGenerator.emptyConfirmedCasesError)
+                        {
+                            result.addAll(Integers.toString(confirmedCases));
+                        }
+                        break;
+
+                    case "Deaths":
+                        result.addAll(Integers.toString(confirmedCases / 50));
+                        break;
+
+                    case "Recovered":
+                        result.addAll(Integers.toString(confirmedCases / 3));
+                        break;
+
+                    case "Active":
+                        result.addAll(Integers.toString(confirmedCases - confirmedCases / 50 - confirmedCases / 3));
+                        break;
+
+                    case "Combined_Key":
+                        result.add('"');
+                        if (hasCounty)
+                        {
+                            result.addAll(this.getCounty(row) + ", ");
+                        }
+                        result.addAll(this.getStateOrProvince(row) + ", " + this.getCountryOrRegion(row));
+                        result.add('"');
+                        break;
+
+                    case "Incidence_Rate":
+                        result.addAll(Double.toString(confirmedCases / 10.0));
+                        break;
+
+                    case "Case-Fatality_Ratio":
+                        result.addAll(Double.toString(2.0 * (1 + row % 17) / 100));
+                        break;
+                }
+            }
+            result.add('\n');
+        }
+        return result.toString(true);
+    }
+
+    /**
+     * Write every daily report into the daily reports folder of the provided repository folder.
+     * @param repositoryFolder The folder that has the same layout as the CSSE repository.
+     */
+    public void writeDailyReports(Folder repositoryFolder)
+    {
+        PreCondition.assertNotNull(repositoryFolder, "repositoryFolder");
+
+        final Folder dailyReportsFolder = repositoryFolder.getFolder(Covid19GitDataSourceBenchmarks.dailyReportsFolderPath).await();
+        for (int dayIndex = 0; dayIndex < this.dayCount; ++dayIndex)
+        {
+            dailyReportsFolder.setFileContentsAsString(this.getDailyReportFileName(dayIndex), this.createDailyReportContents(dayIndex)).await();
+        }
+    }
+
+    /**
+     * Create a git repository in the provided folder that adds the daily reports over a series of
+     * commits, the way that the CSSE repository did. The folder can be used as the "COVID-19"
+     * folder of a Covid19GitDataSource's project data folder, or it can be cloned from by setting
+     * a Covid19GitDataSource's repository URL to it.
+     * @param git The git object used to create the repository.
+     * @param repositoryFolder The folder to create the repository in.
+     */
+    public void writeGitRepository(Git git, Folder repositoryFolder)
+    {
+        PreCondition.assertNotNull(git, "git");
+        PreCondition.assertNotNull(repositoryFolder, "repositoryFolder");
+
+        if (!repositoryFolder.exists().await())
+        {
+            repositoryFolder.create().await();
+        }
+        Covid19GitDataSourceBenchmarks.runGit(git, repositoryFolder, "init", "--quiet");
+
+        final Folder dailyReportsFolder = repositoryFolder.getFolder(Covid19GitDataSourceBenchmarks.dailyReportsFolderPath).await();
+        for (int dayIndex = 0; dayIndex < this.dayCount; ++dayIndex)
+        {
+            final String fileName = this.getDailyReportFileName(dayIndex);
+            dailyReportsFolder.setFileContentsAsString(fileName, this.createDailyReportContents(dayIndex)).await();
+            if ((dayIndex + 1) % this.daysPerCommit == 0 || dayIndex == this.dayCount - 1)
+            {
+                Covid19GitDataSourceBenchmarks.commitAll(git, repositoryFolder, "Daily reports through " + fileName);
+            }
+        }
+    }
+
+    /**
+     * Get a well-mixed hash of the provided row on the provided day. This is SplitMix64's
+     * finalizer applied to the seed, the day index, and the row index in turn.
+     */
+    private long getRowHash(int dayIndex, int row)
+    {
+        return Covid19DatasetGenerator.mix(Covid19DatasetGenerator.mix(Covid19DatasetGenerator.mix(this.seed) + dayIndex) + row);
+    }
+
+    private static long mix(long value)
+    {
+        long result = value + 0x9E3779B97F4A7C15L;
+        result = (result ^ (result >>> 30)) * 0xBF58476D1CE4E5B9L;
+        result = (result ^ (result >>> 27)) * 0x94D049BB133111EBL;
+        return result ^ (result >>> 31);
+    }
+}
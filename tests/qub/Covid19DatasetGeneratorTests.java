@@ -0,0 +1,249 @@
+package qub;
+
+import java.nio.charset.StandardCharsets;
+
+public interface Covid19DatasetGeneratorTests
+{
+    static Folder createRepositoryFolder(Test test)
+    {
+        final InMemoryFileSystem fileSystem = InMemoryFileSystem.create(test.getClock());
+        fileSystem.createRoot("/").await();
+        return fileSystem.getFolder("/COVID-19/").await();
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(Covid19DatasetGenerator.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final Covid19DatasetGenerator generator = Covid19DatasetGenerator.create();
+                test.assertEqual(DateTime.create(2020, 1, 22), generator.getStartDate());
+                test.assertEqual(30, generator.getDayCount());
+                test.assertEqual(Covid19DailyReportBenchmarks.countyLevelRowCount, generator.getRowCount());
+                test.assertEqual(Covid19DailyReportBenchmarks.countyLevelRowCount, generator.getCountyCount());
+                test.assertEqual(60, generator.getStateOrProvinceCount());
+                test.assertEqual(190, generator.getCountryOrRegionCount());
+                test.assertEqual(0.0, generator.getErrorRate());
+                test.assertEqual(0L, generator.getSeed());
+                test.assertNull(generator.getHeaderLayout());
+                test.assertEqual(1, generator.getDaysPerCommit());
+            });
+
+            runner.testGroup("setters", () ->
+            {
+                runner.test("with negative dayCount", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19DatasetGenerator.create().setDayCount(-1),
+                        new PreConditionFailure("dayCount (-1) must be greater than or equal to 0."));
+                });
+
+                runner.test("with zero countyCount", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19DatasetGenerator.create().setCountyCount(0),
+                        new PreConditionFailure("countyCount (0) must be greater than or equal to 1."));
+                });
+
+                runner.test("with errorRate greater than 1", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19DatasetGenerator.create().setErrorRate(1.5),
+                        new PreConditionFailure("0 <= errorRate && errorRate <= 1 cannot be false."));
+                });
+
+                runner.test("with zero daysPerCommit", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19DatasetGenerator.create().setDaysPerCommit(0),
+                        new PreConditionFailure("daysPerCommit (0) must be greater than or equal to 1."));
+                });
+
+                runner.test("with valid values", (Test test) ->
+                {
+                    final Covid19DatasetGenerator generator = Covid19DatasetGenerator.create();
+                    test.assertSame(generator, generator
+                        .setStartDate(DateTime.create(2020, 3, 22))
+                        .setDayCount(3)
+                        .setRowCount(10)
+                        .setCountyCount(5)
+                        .setStateOrProvinceCount(2)
+                        .setCountryOrRegionCount(1)
+                        .setErrorRate(0.5)
+                        .setSeed(7)
+                        .setHeaderLayout(Covid19DailyReportHeaderLayout.Original)
+                        .setDaysPerCommit(2));
+                    test.assertEqual(DateTime.create(2020, 3, 22), generator.getStartDate());
+                    test.assertEqual(3, generator.getDayCount());
+                    test.assertEqual(10, generator.getRowCount());
+                    test.assertEqual(5, generator.getCountyCount());
+                    test.assertEqual(2, generator.getStateOrProvinceCount());
+                    test.assertEqual(1, generator.getCountryOrRegionCount());
+                    test.assertEqual(0.5, generator.getErrorRate());
+                    test.assertEqual(7L, generator.getSeed());
+                    test.assertEqual(Covid19DailyReportHeaderLayout.Original, generator.getHeaderLayout());
+                    test.assertEqual(2, generator.getDaysPerCommit());
+                    test.assertEqual(
+                        Iterable.create(DateTime.create(2020, 3, 22), DateTime.create(2020, 3, 23), DateTime.create(2020, 3, 24)),
+                        generator.getDates());
+                });
+            });
+
+            runner.testGroup("getHeaderLayout(int)", () ->
+            {
+                runner.test("with no header layout", (Test test) ->
+                {
+                    final Covid19DatasetGenerator generator = Covid19DatasetGenerator.create();
+                    test.assertEqual(Covid19DailyReportHeaderLayout.Original, generator.getHeaderLayout(0));
+                    test.assertEqual(Covid19DailyReportHeaderLayout.WithCoordinates, generator.getHeaderLayout(39));
+                    test.assertEqual(Covid19DailyReportHeaderLayout.WithCounties, generator.getHeaderLayout(60));
+                    test.assertEqual(Covid19DailyReportHeaderLayout.WithRates, generator.getHeaderLayout(1000));
+                });
+
+                runner.test("with header layout", (Test test) ->
+                {
+                    final Covid19DatasetGenerator generator = Covid19DatasetGenerator.create()
+                        .setHeaderLayout(Covid19DailyReportHeaderLayout.WithCounties);
+                    test.assertEqual(Covid19DailyReportHeaderLayout.WithCounties, generator.getHeaderLayout(0));
+                    test.assertEqual(Covid19DailyReportHeaderLayout.WithCounties, generator.getHeaderLayout(1000));
+                });
+            });
+
+            runner.testGroup("createDailyReportContents(int)", () ->
+            {
+                runner.test("with negative", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19DatasetGenerator.create().createDailyReportContents(-1),
+                        new PreConditionFailure("dayIndex (-1) must be greater than or equal to 0."));
+                });
+
+                runner.test("with original layout", (Test test) ->
+                {
+                    final Covid19DatasetGenerator generator = Covid19DatasetGenerator.create()
+                        .setRowCount(2)
+                        .setCountyCount(2)
+                        .setStateOrProvinceCount(2)
+                        .setCountryOrRegionCount(1);
+                    test.assertEqual(
+                        "Province/State,Country/Region,Last Update,Confirmed,Deaths,Recovered\n" +
+                        "State 0,Country 0,1/22/2020 23:59,1,0,0\n" +
+                        "State 1,Country 0,1/22/2020 23:59,2,0,0\n",
+                        generator.createDailyReportContents(0));
+                });
+
+                runner.test("with county layout", (Test test) ->
+                {
+                    final Covid19DatasetGenerator generator = Covid19DatasetGenerator.create()
+                        .setRowCount(2)
+                        .setCountyCount(2)
+                        .setStateOrProvinceCount(2)
+                        .setCountryOrRegionCount(1)
+                        .setHeaderLayout(Covid19DailyReportHeaderLayout.WithCounties);
+                    test.assertEqual(
+                        "FIPS,Admin2,Province_State,Country_Region,Last_Update,Lat,Long_,Confirmed,Deaths,Recovered,Active,Combined_Key\n" +
+                        "10000,County 0,State 0,Country 0,2020-01-23 23:59:00,-89.5,-179.5,2,0,0,2,\"County 0, State 0, Country 0\"\n" +
+                        "10001,County 1,State 1,Country 0,2020-01-23 23:59:00,-88.5,-178.5,4,0,1,3,\"County 1, State 1, Country 0\"\n",
+                        generator.createDailyReportContents(1));
+                });
+
+                runner.test("with the same settings", (Test test) ->
+                {
+                    final Covid19DatasetGenerator generator = Covid19DatasetGenerator.create()
+                        .setRowCount(100)
+                        .setErrorRate(0.2)
+                        .setSeed(3);
+                    test.assertEqual(generator.createDailyReportContents(5), generator.createDailyReportContents(5));
+                    test.assertNotEqual(generator.createDailyReportContents(5), generator.setSeed(4).createDailyReportContents(5));
+                });
+            });
+
+            runner.testGroup("getErrorRowCount(int)", () ->
+            {
+                runner.test("with no error rate", (Test test) ->
+                {
+                    final Covid19DatasetGenerator generator = Covid19DatasetGenerator.create();
+                    test.assertEqual(0, generator.getErrorRowCount(0));
+                });
+
+                runner.test("with error rate of 1", (Test test) ->
+                {
+                    final Covid19DatasetGenerator generator = Covid19DatasetGenerator.create()
+                        .setRowCount(50)
+                        .setErrorRate(1);
+                    test.assertEqual(50, generator.getErrorRowCount(0));
+                    test.assertEqual(0, generator.getConfirmedCasesSum(0));
+                });
+            });
+
+            runner.testGroup("parsing generated daily reports", () ->
+            {
+                final Action1<Covid19DailyReportHeaderLayout> parseTest = (Covid19DailyReportHeaderLayout headerLayout) ->
+                {
+                    runner.test("with " + headerLayout, (Test test) ->
+                    {
+                        final Covid19DatasetGenerator generator = Covid19DatasetGenerator.create()
+                            .setDayCount(3)
+                            .setRowCount(200)
+                            .setCountyCount(50)
+                            .setStateOrProvinceCount(10)
+                            .setCountryOrRegionCount(3)
+                            .setErrorRate(0.25)
+                            .setSeed(5)
+                            .setHeaderLayout(headerLayout);
+                        final boolean hasCounty = headerLayout.getHeaders().contains("Admin2");
+
+                        for (int dayIndex = 0; dayIndex < generator.getDayCount(); ++dayIndex)
+                        {
+                            final byte[] bytes = generator.createDailyReportContents(dayIndex).getBytes(StandardCharsets.UTF_8);
+                            final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                            final List<Covid19Issue> issues = List.create();
+                            final Covid19DailyReport dailyReport = Covid19DailyReport.parse(
+                                Covid19DailyReportBenchmarks.createByteReadStream(bytes),
+                                Path.parse("/COVID-19/" + generator.getDailyReportFileName(dayIndex)),
+                                null,
+                                stringDictionary,
+                                issues::add).await();
+
+                            test.assertEqual(200, dailyReport.getDataRowCount());
+                            test.assertTrue(generator.getErrorRowCount(dayIndex) > 0);
+                            test.assertEqual(generator.getErrorRowCount(dayIndex), issues.getCount());
+                            test.assertEqual(generator.getConfirmedCasesSum(dayIndex), dailyReport.getConfirmedCasesSum(Covid19LocationCondition.and()));
+                            test.assertEqual(hasCounty ? 50 + 10 + 3 : 10 + 3, stringDictionary.getCount());
+                        }
+                    });
+                };
+
+                for (final Covid19DailyReportHeaderLayout headerLayout : Covid19DailyReportHeaderLayout.values())
+                {
+                    parseTest.run(headerLayout);
+                }
+            });
+
+            runner.testGroup("writeDailyReports(Folder)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19DatasetGenerator.create().writeDailyReports(null),
+                        new PreConditionFailure("repositoryFolder cannot be null."));
+                });
+
+                runner.test("with folder", (Test test) ->
+                {
+                    final Folder repositoryFolder = Covid19DatasetGeneratorTests.createRepositoryFolder(test);
+                    final Covid19DatasetGenerator generator = Covid19DatasetGenerator.create()
+                        .setStartDate(DateTime.create(2020, 2, 28))
+                        .setDayCount(3)
+                        .setRowCount(5);
+                    generator.writeDailyReports(repositoryFolder);
+
+                    final Folder dailyReportsFolder = repositoryFolder.getFolder(Covid19GitDataSourceBenchmarks.dailyReportsFolderPath).await();
+                    test.assertEqual("02-28-2020.csv", generator.getDailyReportFileName(0));
+                    test.assertEqual("02-29-2020.csv", generator.getDailyReportFileName(1));
+                    test.assertEqual("03-01-2020.csv", generator.getDailyReportFileName(2));
+                    for (int dayIndex = 0; dayIndex < generator.getDayCount(); ++dayIndex)
+                    {
+                        test.assertEqual(generator.createDailyReportContents(dayIndex), dailyReportsFolder.getFileContentsAsString(generator.getDailyReportFileName(dayIndex)).await());
+                    }
+                    test.assertTrue(dailyReportsFolder.getFileContentsAsString("03-01-2020.csv").await().startsWith(String.join(",", Covid19DailyReportHeaderLayout.WithCoordinates.getHeaders())));
+                });
+            });
+        });
+    }
+}
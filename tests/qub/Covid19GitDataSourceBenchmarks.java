@@ -0,0 +1,284 @@
+package qub;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks for Covid19GitDataSource that run against local git repositories. These are skipped
+ * by default because they need git and a real file system, and because they take a while to run.
+ */
+public interface Covid19GitDataSourceBenchmarks
+{
+    String dailyReportsFolderPath = "csse_covid_19_data/csse_covid_19_daily_reports/";
+    String timeSeriesFolderPath = "csse_covid_19_data/csse_covid_19_time_series/";
+    String archivedDataFolderPath = "archived_data/archived_daily_case_updates/";
+
+    static void runGit(Git git, Folder workingFolder, String... arguments)
+    {
+        final List<String> errorLines = List.create();
+        final int exitCode = git.getProcessBuilder().await()
+            .addArguments(arguments)
+            .setWorkingFolder(workingFolder)
+            .redirectErrorLines(errorLines::add)
+            .run()
+            .await();
+        if (exitCode != 0)
+        {
+            throw new RuntimeException("\"git " + String.join(" ", arguments) + "\" failed with exit code " + exitCode + ": " + String.join("\n", errorLines));
+        }
+    }
+
+    static void commitAll(Git git, Folder repositoryFolder, String message)
+    {
+        Covid19GitDataSourceBenchmarks.runGit(git, repositoryFolder, "add", "--all");
+        Covid19GitDataSourceBenchmarks.runGit(git, repositoryFolder, "-c", "user.name=benchmark", "-c", "user.email=benchmark@example.com", "commit", "--quiet", "--message", message);
+    }
+
+    static String createDailyReportContents(int dayIndex, int rowCount)
+    {
+        final CharacterList result = CharacterList.create();
+        result.addAll("FIPS,Admin2,Province_State,Country_Region,Last_Update,Lat,Long_,Confirmed,Deaths,Recovered,Active,Combined_Key\n");
+        for (int row = 0; row < rowCount; ++row)
+        {
+            result.addAll(Integers.toString(10000 + row) + ",County " + row + ",State " + (row % 60) + ",US,2020-05-21 02:32:54,33.0,-86.0," + (dayIndex * 7 + row) + ",0,0,0,\"County " + row + ", State " + (row % 60) + ", US\"\n");
+        }
+        return result.toString(true);
+    }
+
+    static String getDailyReportFileName(DateTime date)
+    {
+        return String.format("%02d-%02d-%04d.csv", date.getMonth(), date.getDayOfMonth(), date.getYear());
+    }
+
+    /**
+     * Create a bare repository fixture that looks like the CSSEGISandData repository: a daily
+     * reports folder with one file per day, large time series files that are rewritten with every
+     * commit, and archived data that is never read by qub-covid-19.
+     * @param git The git object used to create the fixture.
+     * @param fixturesFolder The folder to create the fixture in.
+     * @param dayCount The number of daily reports (and commits) in the fixture.
+     * @param rowCount The number of rows in each daily report.
+     * @return The folder that contains the non-bare source repository of the fixture.
+     */
+    static Folder createRepositoryFixture(Git git, Folder fixturesFolder, int dayCount, int rowCount)
+    {
+        final Folder sourceFolder = fixturesFolder.getFolder("source").await();
+        sourceFolder.create().await();
+        Covid19GitDataSourceBenchmarks.runGit(git, sourceFolder, "init", "--quiet");
+
+        final Folder archivedDataFolder = sourceFolder.getFolder(Covid19GitDataSourceBenchmarks.archivedDataFolderPath).await();
+        for (int i = 0; i < dayCount; ++i)
+        {
+            archivedDataFolder.setFileContentsAsString("archive-" + i + ".csv", Covid19GitDataSourceBenchmarks.createDailyReportContents(i, rowCount)).await();
+        }
+
+        final Folder dailyReportsFolder = sourceFolder.getFolder(Covid19GitDataSourceBenchmarks.dailyReportsFolderPath).await();
+        final Folder timeSeriesFolder = sourceFolder.getFolder(Covid19GitDataSourceBenchmarks.timeSeriesFolderPath).await();
+        final DateTime firstDate = DateTime.create(2020, 1, 22);
+        for (int dayIndex = 0; dayIndex < dayCount; ++dayIndex)
+        {
+            final DateTime date = firstDate.plus(Duration.days(dayIndex));
+            dailyReportsFolder.setFileContentsAsString(Covid19GitDataSourceBenchmarks.getDailyReportFileName(date), Covid19GitDataSourceBenchmarks.createDailyReportContents(dayIndex, rowCount)).await();
+            timeSeriesFolder.setFileContentsAsString("time_series_covid19_confirmed_US.csv", Covid19GitDataSourceBenchmarks.createDailyReportContents(dayIndex, rowCount * 4)).await();
+            Covid19GitDataSourceBenchmarks.commitAll(git, sourceFolder, "Day " + dayIndex);
+        }
+
+        Covid19GitDataSourceBenchmarks.runGit(git, fixturesFolder, "clone", "--quiet", "--bare", sourceFolder.toString(), "origin.git");
+        Covid19GitDataSourceBenchmarks.runGit(git, fixturesFolder.getFolder("origin.git").await(), "config", "uploadpack.allowFilter", "true");
+        Covid19GitDataSourceBenchmarks.runGit(git, sourceFolder, "remote", "add", "origin", fixturesFolder.getFolder("origin.git").await().toString());
+
+        return sourceFolder;
+    }
+
+    /**
+     * Add one more day of data to the fixture and push it to the bare repository.
+     */
+    static void pushNextDay(Git git, Folder sourceFolder, int dayIndex, int rowCount)
+    {
+        final DateTime date = DateTime.create(2020, 1, 22).plus(Duration.days(dayIndex));
+        sourceFolder.getFolder(Covid19GitDataSourceBenchmarks.dailyReportsFolderPath).await()
+            .setFileContentsAsString(Covid19GitDataSourceBenchmarks.getDailyReportFileName(date), Covid19GitDataSourceBenchmarks.createDailyReportContents(dayIndex, rowCount)).await();
+        sourceFolder.getFolder(Covid19GitDataSourceBenchmarks.timeSeriesFolderPath).await()
+            .setFileContentsAsString("time_series_covid19_confirmed_US.csv", Covid19GitDataSourceBenchmarks.createDailyReportContents(dayIndex, rowCount * 4)).await();
+        Covid19GitDataSourceBenchmarks.commitAll(git, sourceFolder, "Day " + dayIndex);
+        Covid19GitDataSourceBenchmarks.runGit(git, sourceFolder, "push", "--quiet", "origin", "HEAD");
+    }
+
+    static long getDiskUsage(Folder folder)
+    {
+        try (final Stream<java.nio.file.Path> paths = Files.walk(Paths.get(folder.toString())))
+        {
+            return paths
+                .filter(Files::isRegularFile)
+                .mapToLong((java.nio.file.Path path) -> path.toFile().length())
+                .sum();
+        }
+        catch (IOException e)
+        {
+            throw Exceptions.asRuntime(e);
+        }
+    }
+
+    static Folder createTemporaryFolder(Test test)
+    {
+        try
+        {
+            final java.nio.file.Path temporaryFolderPath = Files.createTempDirectory("qub-covid-19-benchmark-");
+            return test.getFileSystem().getFolder(temporaryFolderPath.toString()).await();
+        }
+        catch (IOException e)
+        {
+            throw Exceptions.asRuntime(e);
+        }
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(Covid19GitDataSource.class, () ->
+        {
+            runner.test("benchmark clone modes against a local bare repository", runner.skip(), (Test test) ->
+            {
+                final int dayCount = 120;
+                final int rowCount = 3000;
+
+                final Git git = Git.create((DesktopProcess)test.getProcess());
+                final Folder temporaryFolder = Covid19GitDataSourceBenchmarks.createTemporaryFolder(test);
+                try
+                {
+                    final Folder fixturesFolder = temporaryFolder.getFolder("fixtures").await();
+                    final Folder sourceFolder = Covid19GitDataSourceBenchmarks.createRepositoryFixture(git, fixturesFolder, dayCount, rowCount);
+                    final String repositoryUrl = "file://" + fixturesFolder.getFolder("origin.git").await().toString();
+
+                    int nextDayIndex = dayCount;
+                    final CharacterTable resultsTable = CharacterTable.create()
+                        .addRow("Clone mode", "Clone (ms)", "Pull (ms)", "Disk usage (bytes)", "Daily reports");
+                    for (final Covid19GitCloneMode cloneMode : Covid19GitCloneMode.values())
+                    {
+                        final Folder projectDataFolder = temporaryFolder.getFolder(cloneMode.toString()).await();
+                        final Covid19GitDataSource dataSource = Covid19GitDataSource.create(projectDataFolder, git, test.getClock())
+                            .setRepositoryUrl(repositoryUrl)
+                            .setCloneMode(cloneMode);
+
+                        final long cloneStartTime = System.nanoTime();
+                        dataSource.refreshData(InMemoryCharacterToByteStream.create()).await();
+                        final long cloneMilliseconds = (System.nanoTime() - cloneStartTime) / 1_000_000;
+
+                        Covid19GitDataSourceBenchmarks.pushNextDay(git, sourceFolder, nextDayIndex++, rowCount);
+
+                        final long pullStartTime = System.nanoTime();
+                        final Covid19DataChanges changes = dataSource.refreshData(InMemoryCharacterToByteStream.create()).await();
+                        final long pullMilliseconds = (System.nanoTime() - pullStartTime) / 1_000_000;
+                        test.assertEqual(1, changes.getAddedFilePaths().getCount());
+
+                        final long diskUsage = Covid19GitDataSourceBenchmarks.getDiskUsage(dataSource.getGitRepositoryFolder());
+                        final Covid19Summary summary = dataSource.getDataSummary(issue -> {}).await();
+
+                        resultsTable.addRow(
+                            cloneMode.toString(),
+                            Long.toString(cloneMilliseconds),
+                            Long.toString(pullMilliseconds),
+                            Long.toString(diskUsage),
+                            Integers.toString(summary.getDatesReportedCount()));
+                    }
+
+                    Covid19Benchmark.print(resultsTable);
+                }
+                finally
+                {
+                    temporaryFolder.delete().await();
+                }
+            });
+
+            runner.test("benchmark getDailyReports() parallelism", runner.skip(), (Test test) ->
+            {
+                final int dayCount = 120;
+                final int rowCount = 3300;
+
+                final Git git = Git.create((DesktopProcess)test.getProcess());
+                final Folder temporaryFolder = Covid19GitDataSourceBenchmarks.createTemporaryFolder(test);
+                try
+                {
+                    // The repository folder isn't a real git repository, so there are no blob ids
+                    // and no snapshots. Every load parses the daily report file.
+                    final Folder dailyReportsFolder = temporaryFolder.getFolder("COVID-19/" + Covid19GitDataSourceBenchmarks.dailyReportsFolderPath).await();
+                    final List<DateTime> dates = List.create();
+                    for (int dayIndex = 0; dayIndex < dayCount; ++dayIndex)
+                    {
+                        final DateTime date = DateTime.create(2020, 1, 22).plus(Duration.days(dayIndex));
+                        dailyReportsFolder.setFileContentsAsString(Covid19GitDataSourceBenchmarks.getDailyReportFileName(date), Covid19GitDataSourceBenchmarks.createDailyReportContents(dayIndex, rowCount)).await();
+                        dates.add(date);
+                    }
+
+                    final List<Covid19BenchmarkResult> results = List.create();
+                    final int processorCount = Runtime.getRuntime().availableProcessors();
+                    for (int parallelism = 1; parallelism <= processorCount; parallelism = (parallelism == processorCount ? processorCount + 1 : Math.min(parallelism * 2, processorCount)))
+                    {
+                        final Covid19GitDataSource dataSource = Covid19GitDataSource.create(temporaryFolder, git, test.getClock())
+                            .setParallelism(parallelism);
+                        results.add(Covid19Benchmark.create("getDailyReports() x" + dayCount + " with parallelism " + parallelism)
+                            .setWarmupIterations(2)
+                            .setMeasurementIterations(5)
+                            .run(() ->
+                            {
+                                dataSource.getDailyReportCache().clear();
+                                dataSource.getDailyReports(dates, issue -> {}).await();
+                            }));
+                    }
+                    Covid19Benchmark.print(results);
+                }
+                finally
+                {
+                    temporaryFolder.delete().await();
+                }
+            });
+
+            runner.test("stress getDailyReports() against a generated repository with a long history", runner.skip(), (Test test) ->
+            {
+                // Longer than the CSSE data set's history, so every header layout is used, with a
+                // few malformed rows in each daily report.
+                final Covid19DatasetGenerator generator = Covid19DatasetGenerator.create()
+                    .setDayCount(1500)
+                    .setRowCount(4000)
+                    .setCountyCount(4000)
+                    .setErrorRate(0.0005)
+                    .setDaysPerCommit(30);
+
+                final Git git = Git.create((DesktopProcess)test.getProcess());
+                final Folder temporaryFolder = Covid19GitDataSourceBenchmarks.createTemporaryFolder(test);
+                try
+                {
+                    final long generateStartTime = System.nanoTime();
+                    generator.writeGitRepository(git, temporaryFolder.getFolder("COVID-19").await());
+                    final long generateMilliseconds = (System.nanoTime() - generateStartTime) / 1_000_000;
+
+                    int expectedIssueCount = 0;
+                    for (int dayIndex = 0; dayIndex < generator.getDayCount(); ++dayIndex)
+                    {
+                        expectedIssueCount += generator.getErrorRowCount(dayIndex);
+                    }
+
+                    final Covid19GitDataSource dataSource = Covid19GitDataSource.create(temporaryFolder, git, test.getClock());
+                    final AtomicInteger issueCount = new AtomicInteger();
+                    final long loadStartTime = System.nanoTime();
+                    final Iterable<Covid19DailyReport> dailyReports = dataSource.getDailyReports(generator.getDates(), issue -> issueCount.incrementAndGet()).await();
+                    final long loadMilliseconds = (System.nanoTime() - loadStartTime) / 1_000_000;
+
+                    Covid19Benchmark.printLine("%d daily reports with %d rows each:", generator.getDayCount(), generator.getRowCount());
+                    Covid19Benchmark.printLine("  generate repository: %,d ms", generateMilliseconds);
+                    Covid19Benchmark.printLine("  getDailyReports():   %,d ms", loadMilliseconds);
+                    Covid19Benchmark.printLine("  issues:              %,d", issueCount.get());
+
+                    test.assertEqual(generator.getDayCount(), dailyReports.getCount());
+                    test.assertEqual(expectedIssueCount, issueCount.get());
+                }
+                finally
+                {
+                    temporaryFolder.delete().await();
+                }
+            });
+        });
+    }
+}
@@ -0,0 +1,464 @@
+package qub;
+
+public interface Covid19GitDataSourceTests
+{
+    static Folder createProjectDataFolder(Test test)
+    {
+        final InMemoryFileSystem fileSystem = InMemoryFileSystem.create(test.getClock());
+        fileSystem.createRoot("/").await();
+        return fileSystem.getFolder("/project/").await();
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(Covid19GitDataSource.class, () ->
+        {
+            runner.testGroup("create(Folder,Git,Clock)", () ->
+            {
+                runner.test("with null clock", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        test.assertThrows(() -> Covid19GitDataSource.create(Covid19GitDataSourceTests.createProjectDataFolder(test), Git.create(process), null),
+                            new PreConditionFailure("clock cannot be null."));
+                    }
+                });
+
+                runner.test("with clock", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Covid19GitDataSource dataSource = Covid19GitDataSource.create(Covid19GitDataSourceTests.createProjectDataFolder(test), Git.create(process), test.getClock());
+                        test.assertSame(test.getClock(), dataSource.getClock());
+                    }
+                });
+            });
+
+            runner.testGroup("setRefreshTimeToLive(Duration)", () ->
+            {
+                runner.test("with positive", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Covid19GitDataSource dataSource = Covid19GitDataSource.create(Covid19GitDataSourceTests.createProjectDataFolder(test), Git.create(process), test.getClock());
+                        test.assertNull(dataSource.getRefreshTimeToLive());
+                        test.assertSame(dataSource, dataSource.setRefreshTimeToLive(Duration.minutes(30)));
+                        test.assertEqual(Duration.minutes(30), dataSource.getRefreshTimeToLive());
+                    }
+                });
+            });
+
+            runner.testGroup("refreshData(CharacterWriteStream)", () ->
+            {
+                runner.test("with last refresh within the time to live", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder projectDataFolder = Covid19GitDataSourceTests.createProjectDataFolder(test);
+                        projectDataFolder.createFolder("COVID-19").await();
+                        projectDataFolder.setFileContentsAsString("COVID-19-last-refresh.txt", test.getClock().getCurrentDateTime().minus(Duration.minutes(10)).toString()).await();
+
+                        final Covid19GitDataSource dataSource = Covid19GitDataSource.create(projectDataFolder, Git.create(process), test.getClock())
+                            .setRefreshTimeToLive(Duration.minutes(30));
+                        final InMemoryCharacterToByteStream verbose = InMemoryCharacterToByteStream.create();
+
+                        // This data source hasn't read any data yet, so none of its data can be out
+                        // of date.
+                        test.assertFalse(dataSource.refreshData(verbose).await().any());
+                        test.assertFalse(dataSource.refreshData(verbose).await().any());
+                        test.assertFalse(projectDataFolder.fileExists("COVID-19-refresh.lock").await());
+                    }
+                });
+
+                runner.test("with last refresh within the time to live after reading the data", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder projectDataFolder = Covid19GitDataSourceTests.createProjectDataFolder(test);
+                        Covid19DatasetGenerator.create()
+                            .setDayCount(2)
+                            .setRowCount(5)
+                            .writeDailyReports(projectDataFolder.getFolder("COVID-19").await());
+                        projectDataFolder.setFileContentsAsString("COVID-19-last-refresh.txt",
+                            Covid19GitDataSource.createLastRefreshContents(test.getClock().getCurrentDateTime().minus(Duration.minutes(10)), "fake-commit-id")).await();
+
+                        final Covid19GitDataSource dataSource = Covid19GitDataSource.create(projectDataFolder, Git.create(process), test.getClock())
+                            .setRefreshTimeToLive(Duration.minutes(30));
+                        test.assertEqual(2, dataSource.getDataSummary(issue -> {}).await().getDatesReportedCount());
+
+                        // The data that was read came from the refresh that is being reused.
+                        test.assertFalse(dataSource.refreshData(InMemoryCharacterToByteStream.create()).await().any());
+                    }
+                });
+
+                runner.test("with another process's refresh within the time to live after reading the data", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder projectDataFolder = Covid19GitDataSourceTests.createProjectDataFolder(test);
+                        Covid19DatasetGenerator.create()
+                            .setDayCount(2)
+                            .setRowCount(5)
+                            .writeDailyReports(projectDataFolder.getFolder("COVID-19").await());
+                        projectDataFolder.setFileContentsAsString("COVID-19-last-refresh.txt",
+                            Covid19GitDataSource.createLastRefreshContents(test.getClock().getCurrentDateTime().minus(Duration.minutes(20)), "fake-commit-id")).await();
+
+                        final Covid19GitDataSource dataSource = Covid19GitDataSource.create(projectDataFolder, Git.create(process), test.getClock())
+                            .setRefreshTimeToLive(Duration.minutes(30));
+                        test.assertEqual(2, dataSource.getDataSummary(issue -> {}).await().getDatesReportedCount());
+
+                        projectDataFolder.setFileContentsAsString("COVID-19-last-refresh.txt",
+                            Covid19GitDataSource.createLastRefreshContents(test.getClock().getCurrentDateTime().minus(Duration.minutes(10)), "other-fake-commit-id")).await();
+
+                        // The commits can't be compared without git, so any of the data that was
+                        // read may be out of date.
+                        final Covid19StringDictionary stringDictionary = dataSource.getStringDictionary();
+                        test.assertTrue(dataSource.refreshData(InMemoryCharacterToByteStream.create()).await().isAll());
+                        test.assertNotSame(stringDictionary, dataSource.getStringDictionary());
+                        test.assertSame(dataSource.getStringDictionary(), dataSource.getDailyReportSnapshots().getStringDictionary());
+
+                        test.assertFalse(dataSource.refreshData(InMemoryCharacterToByteStream.create()).await().any());
+                    }
+                });
+
+                runner.test("with another process's refresh of the same commit within the time to live after reading the data", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder projectDataFolder = Covid19GitDataSourceTests.createProjectDataFolder(test);
+                        Covid19DatasetGenerator.create()
+                            .setDayCount(2)
+                            .setRowCount(5)
+                            .writeDailyReports(projectDataFolder.getFolder("COVID-19").await());
+                        projectDataFolder.setFileContentsAsString("COVID-19-last-refresh.txt",
+                            Covid19GitDataSource.createLastRefreshContents(test.getClock().getCurrentDateTime().minus(Duration.minutes(20)), "fake-commit-id")).await();
+
+                        final Covid19GitDataSource dataSource = Covid19GitDataSource.create(projectDataFolder, Git.create(process), test.getClock())
+                            .setRefreshTimeToLive(Duration.minutes(30));
+                        test.assertEqual(2, dataSource.getDataSummary(issue -> {}).await().getDatesReportedCount());
+
+                        projectDataFolder.setFileContentsAsString("COVID-19-last-refresh.txt",
+                            Covid19GitDataSource.createLastRefreshContents(test.getClock().getCurrentDateTime().minus(Duration.minutes(10)), "fake-commit-id")).await();
+
+                        test.assertFalse(dataSource.refreshData(InMemoryCharacterToByteStream.create()).await().any());
+                    }
+                });
+            });
+
+            runner.testGroup("createLastRefreshContents(DateTime,String)", () ->
+            {
+                runner.test("with null commit id", (Test test) ->
+                {
+                    final DateTime refreshTime = DateTime.create(2020, 5, 21);
+                    final String lastRefreshContents = Covid19GitDataSource.createLastRefreshContents(refreshTime, null);
+                    test.assertEqual(refreshTime.toString(), lastRefreshContents);
+                    test.assertEqual(refreshTime, Covid19GitDataSource.parseLastRefreshTime(lastRefreshContents));
+                    test.assertNull(Covid19GitDataSource.parseLastRefreshCommitId(lastRefreshContents));
+                });
+
+                runner.test("with commit id", (Test test) ->
+                {
+                    final DateTime refreshTime = DateTime.create(2020, 5, 21);
+                    final String lastRefreshContents = Covid19GitDataSource.createLastRefreshContents(refreshTime, "abc");
+                    test.assertEqual(refreshTime + "\nabc", lastRefreshContents);
+                    test.assertEqual(refreshTime, Covid19GitDataSource.parseLastRefreshTime(lastRefreshContents));
+                    test.assertEqual("abc", Covid19GitDataSource.parseLastRefreshCommitId(lastRefreshContents));
+                });
+            });
+
+            runner.testGroup("getDailyReports(Iterable<DateTime>,Action1<Covid19Issue>)", () ->
+            {
+                final Function0<Covid19DatasetGenerator> createGenerator = () ->
+                {
+                    return Covid19DatasetGenerator.create()
+                        .setStartDate(DateTime.create(2020, 3, 1))
+                        .setDayCount(3)
+                        .setRowCount(20)
+                        .setErrorRate(0.3)
+                        .setSeed(2);
+                };
+                final Function1<Covid19Issue,String> getIssueFileName = (Covid19Issue issue) ->
+                {
+                    final String filePath = issue.getFilePath().toString();
+                    return filePath.substring(filePath.lastIndexOf('/') + 1);
+                };
+
+                runner.test("with no dates", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Covid19GitDataSource dataSource = Covid19GitDataSource.create(Covid19GitDataSourceTests.createProjectDataFolder(test), Git.create(process), test.getClock());
+                        final List<Covid19Issue> issues = List.create();
+                        test.assertEqual(Iterable.create(), dataSource.getDailyReports(Iterable.create(), issues::add).await());
+                        test.assertEqual(Iterable.create(), issues);
+                    }
+                });
+
+                runner.test("with several dates", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder projectDataFolder = Covid19GitDataSourceTests.createProjectDataFolder(test);
+                        final Covid19DatasetGenerator generator = createGenerator.run();
+                        generator.writeDailyReports(projectDataFolder.getFolder("COVID-19").await());
+                        final Covid19GitDataSource dataSource = Covid19GitDataSource.create(projectDataFolder, Git.create(process), test.getClock())
+                            .setParallelism(2);
+
+                        // Request the dates out of order, so the results and issues must follow
+                        // the requested order instead of the loading order.
+                        final Iterable<Integer> dayIndexes = Iterable.create(2, 0, 1);
+                        final List<DateTime> dates = List.create();
+                        final List<String> expectedIssueFileNames = List.create();
+                        for (final int dayIndex : dayIndexes)
+                        {
+                            dates.add(generator.getDate(dayIndex));
+                            for (int i = 0; i < generator.getErrorRowCount(dayIndex); ++i)
+                            {
+                                expectedIssueFileNames.add(generator.getDailyReportFileName(dayIndex));
+                            }
+                        }
+                        test.assertTrue(expectedIssueFileNames.any());
+
+                        for (int attempt = 0; attempt < 2; ++attempt)
+                        {
+                            // The second attempt gets the daily reports (and their issues) from
+                            // the cache.
+                            final List<Covid19Issue> issues = List.create();
+                            final Iterable<Covid19DailyReport> dailyReports = dataSource.getDailyReports(dates, issues::add).await();
+                            test.assertEqual(3, dailyReports.getCount());
+
+                            final java.util.Iterator<Integer> dayIndexIterator = dayIndexes.iterator();
+                            for (final Covid19DailyReport dailyReport : dailyReports)
+                            {
+                                final int dayIndex = dayIndexIterator.next();
+                                test.assertEqual(20, dailyReport.getDataRowCount());
+                                test.assertEqual(generator.getConfirmedCasesSum(dayIndex), dailyReport.getConfirmedCasesSum(Covid19LocationCondition.and()));
+                            }
+                            test.assertEqual(expectedIssueFileNames, issues.map(getIssueFileName));
+                        }
+                    }
+                });
+
+                runner.test("with a date that doesn't have a daily report", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder projectDataFolder = Covid19GitDataSourceTests.createProjectDataFolder(test);
+                        final Covid19DatasetGenerator generator = createGenerator.run();
+                        generator.writeDailyReports(projectDataFolder.getFolder("COVID-19").await());
+                        final Covid19GitDataSource dataSource = Covid19GitDataSource.create(projectDataFolder, Git.create(process), test.getClock());
+
+                        test.assertThrows(() -> dataSource.getDailyReports(Iterable.create(generator.getDate(0), DateTime.create(2020, 3, 10)), issue -> {}).await(),
+                            new NotFoundException("No daily report found for the date 3/10/2020."));
+                    }
+                });
+            });
+
+            runner.testGroup("getDailyReport(DateTime,Covid19LocationCondition,Action1<Covid19Issue>)", () ->
+            {
+                final Function1<Folder,Covid19DatasetGenerator> writeDailyReports = (Folder projectDataFolder) ->
+                {
+                    final Covid19DatasetGenerator generator = Covid19DatasetGenerator.create()
+                        .setDayCount(1)
+                        .setRowCount(20)
+                        .setCountyCount(20)
+                        .setStateOrProvinceCount(4)
+                        .setCountryOrRegionCount(2)
+                        .setErrorRate(0.25)
+                        .setSeed(5);
+                    generator.writeDailyReports(projectDataFolder.getFolder("COVID-19").await());
+                    return generator;
+                };
+
+                runner.test("with location condition and no cached daily report", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder projectDataFolder = Covid19GitDataSourceTests.createProjectDataFolder(test);
+                        final Covid19DatasetGenerator generator = writeDailyReports.run(projectDataFolder);
+                        final DateTime date = generator.getDate(0);
+                        final Covid19LocationCondition condition = Covid19LocationCondition.countryOrRegionEquals("Country 0");
+                        final Covid19DailyReport fullDailyReport = Covid19DailyReport.parse(
+                            projectDataFolder.getFile("COVID-19/" + Covid19GitDataSourceBenchmarks.dailyReportsFolderPath + generator.getDailyReportFileName(0)).await(),
+                            issue -> {}).await();
+
+                        final Covid19GitDataSource dataSource = Covid19GitDataSource.create(projectDataFolder, Git.create(process), test.getClock());
+                        final List<Covid19Issue> issues = List.create();
+                        final Covid19DailyReport dailyReport = dataSource.getDailyReport(date, condition, issues::add).await();
+
+                        // The condition is pushed down into the parser, so only the matching data
+                        // rows are created (and report issues), and the incomplete daily report
+                        // isn't cached.
+                        test.assertEqual(fullDailyReport.where(condition).getDataRowCount(), dailyReport.getDataRowCount());
+                        test.assertTrue(dailyReport.getDataRowCount() < fullDailyReport.getDataRowCount());
+                        test.assertTrue(issues.getCount() <= generator.getErrorRowCount(0));
+                        test.assertThrows(() -> dataSource.getDailyReportCache().get(date, issue -> {}).await(),
+                            new NotFoundException("No daily report is cached for the date " + QubCovid19.toString(date) + "."));
+                    }
+                });
+
+                runner.test("with location condition and a cached daily report", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder projectDataFolder = Covid19GitDataSourceTests.createProjectDataFolder(test);
+                        final Covid19DatasetGenerator generator = writeDailyReports.run(projectDataFolder);
+                        final DateTime date = generator.getDate(0);
+                        final Covid19LocationCondition condition = Covid19LocationCondition.countryOrRegionEquals("Country 0");
+
+                        final Covid19GitDataSource dataSource = Covid19GitDataSource.create(projectDataFolder, Git.create(process), test.getClock());
+                        final Covid19DailyReport fullDailyReport = dataSource.getDailyReport(date, issue -> {}).await();
+                        final List<Covid19Issue> issues = List.create();
+                        final Covid19DailyReport dailyReport = dataSource.getDailyReport(date, condition, issues::add).await();
+
+                        // The cached daily report is filtered in memory, so the issues from every
+                        // data row are reported.
+                        test.assertEqual(generator.getErrorRowCount(0), issues.getCount());
+                        test.assertEqual(fullDailyReport.where(condition).getDataRowCount(), dailyReport.getDataRowCount());
+                        test.assertTrue(dailyReport.getDataRowCount() < fullDailyReport.getDataRowCount());
+                    }
+                });
+            });
+
+            runner.testGroup("parseRefreshLockOwner(String)", () ->
+            {
+                final Action2<String,String> parseRefreshLockOwnerTest = (String lockContents, String expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(lockContents), (Test test) ->
+                    {
+                        test.assertEqual(expected, Covid19GitDataSource.parseRefreshLockOwner(lockContents));
+                    });
+                };
+
+                parseRefreshLockOwnerTest.run(null, null);
+                parseRefreshLockOwnerTest.run("", null);
+                parseRefreshLockOwnerTest.run("2020-05-21T12:00Z", null);
+                parseRefreshLockOwnerTest.run("abc\n2020-05-21T12:00Z", "abc");
+            });
+
+            runner.testGroup("acquireRefreshLock(CharacterWriteStream)", () ->
+            {
+                runner.test("with no existing lock", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder projectDataFolder = Covid19GitDataSourceTests.createProjectDataFolder(test);
+                        final Covid19GitDataSource dataSource = Covid19GitDataSource.create(projectDataFolder, Git.create(process), test.getClock());
+
+                        final DateTime before = test.getClock().getCurrentDateTime();
+                        dataSource.acquireRefreshLock(InMemoryCharacterToByteStream.create()).await();
+                        final String lockContents = projectDataFolder.getFileContentsAsString("COVID-19-refresh.lock").await();
+                        test.assertEqual(dataSource.getRefreshLockOwner(), Covid19GitDataSource.parseRefreshLockOwner(lockContents));
+                        test.assertFalse(Covid19GitDataSource.parseRefreshLockTime(lockContents).lessThan(before));
+
+                        dataSource.releaseRefreshLock().await();
+                        test.assertFalse(projectDataFolder.fileExists("COVID-19-refresh.lock").await());
+                    }
+                });
+
+                runner.test("with stale lock", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder projectDataFolder = Covid19GitDataSourceTests.createProjectDataFolder(test);
+                        final DateTime staleLockTime = test.getClock().getCurrentDateTime().minus(Duration.hours(1));
+                        projectDataFolder.setFileContentsAsString("COVID-19-refresh.lock", "crashed-owner\n" + staleLockTime).await();
+                        final Covid19GitDataSource dataSource = Covid19GitDataSource.create(projectDataFolder, Git.create(process), test.getClock());
+                        final InMemoryCharacterToByteStream verbose = InMemoryCharacterToByteStream.create();
+
+                        dataSource.acquireRefreshLock(verbose).await();
+                        try
+                        {
+                            test.assertEqual(dataSource.getRefreshLockOwner(), Covid19GitDataSource.parseRefreshLockOwner(projectDataFolder.getFileContentsAsString("COVID-19-refresh.lock").await()));
+                            test.assertTrue(verbose.getText().await().contains("Removed stale refresh lock"));
+                            test.assertFalse(projectDataFolder.fileExists("COVID-19-refresh.lock.break").await());
+                        }
+                        finally
+                        {
+                            dataSource.releaseRefreshLock().await();
+                        }
+                    }
+                });
+
+                runner.test("with stale lock without an owner", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder projectDataFolder = Covid19GitDataSourceTests.createProjectDataFolder(test);
+                        final DateTime staleLockTime = test.getClock().getCurrentDateTime().minus(Duration.hours(1));
+                        projectDataFolder.setFileContentsAsString("COVID-19-refresh.lock", staleLockTime.toString()).await();
+                        final Covid19GitDataSource dataSource = Covid19GitDataSource.create(projectDataFolder, Git.create(process), test.getClock());
+
+                        dataSource.acquireRefreshLock(InMemoryCharacterToByteStream.create()).await();
+                        try
+                        {
+                            test.assertEqual(dataSource.getRefreshLockOwner(), Covid19GitDataSource.parseRefreshLockOwner(projectDataFolder.getFileContentsAsString("COVID-19-refresh.lock").await()));
+                        }
+                        finally
+                        {
+                            dataSource.releaseRefreshLock().await();
+                        }
+                    }
+                });
+            });
+
+            runner.testGroup("heartbeatRefreshLock()", () ->
+            {
+                runner.test("without the lock", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder projectDataFolder = Covid19GitDataSourceTests.createProjectDataFolder(test);
+                        final Covid19GitDataSource dataSource = Covid19GitDataSource.create(projectDataFolder, Git.create(process), test.getClock());
+
+                        test.assertFalse(dataSource.heartbeatRefreshLock().await());
+                        test.assertFalse(projectDataFolder.fileExists("COVID-19-refresh.lock").await());
+                    }
+                });
+
+                runner.test("with the lock", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder projectDataFolder = Covid19GitDataSourceTests.createProjectDataFolder(test);
+                        final Covid19GitDataSource dataSource = Covid19GitDataSource.create(projectDataFolder, Git.create(process), test.getClock());
+
+                        dataSource.acquireRefreshLock(InMemoryCharacterToByteStream.create()).await();
+                        try
+                        {
+                            final DateTime before = test.getClock().getCurrentDateTime();
+                            test.assertTrue(dataSource.heartbeatRefreshLock().await());
+                            final String lockContents = projectDataFolder.getFileContentsAsString("COVID-19-refresh.lock").await();
+                            test.assertEqual(dataSource.getRefreshLockOwner(), Covid19GitDataSource.parseRefreshLockOwner(lockContents));
+                            test.assertFalse(Covid19GitDataSource.parseRefreshLockTime(lockContents).lessThan(before));
+                        }
+                        finally
+                        {
+                            dataSource.releaseRefreshLock().await();
+                        }
+                        test.assertFalse(dataSource.heartbeatRefreshLock().await());
+                    }
+                });
+
+                runner.test("after another process took over the lock", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final Folder projectDataFolder = Covid19GitDataSourceTests.createProjectDataFolder(test);
+                        final Covid19GitDataSource dataSource = Covid19GitDataSource.create(projectDataFolder, Git.create(process), test.getClock());
+
+                        dataSource.acquireRefreshLock(InMemoryCharacterToByteStream.create()).await();
+                        final String otherLockContents = "other-owner\n" + test.getClock().getCurrentDateTime();
+                        projectDataFolder.setFileContentsAsString("COVID-19-refresh.lock", otherLockContents).await();
+
+                        test.assertFalse(dataSource.heartbeatRefreshLock().await());
+                        test.assertEqual(otherLockContents, projectDataFolder.getFileContentsAsString("COVID-19-refresh.lock").await());
+
+                        dataSource.releaseRefreshLock().await();
+                        test.assertEqual(otherLockContents, projectDataFolder.getFileContentsAsString("COVID-19-refresh.lock").await());
+                    }
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,159 @@
+package qub;
+
+public interface Covid19LocationAggregatorTests
+{
+    static Iterable<Covid19DailyReportDataRow> createDataRows()
+    {
+        return Iterable.create(
+            Covid19DailyReportDataRow.create()
+                .setCounty("King")
+                .setStateOrProvince("Washington")
+                .setCountryOrRegion("US")
+                .setConfirmedCases(10),
+            Covid19DailyReportDataRow.create()
+                .setCounty("Pierce")
+                .setStateOrProvince("Washington")
+                .setCountryOrRegion("US"),
+            Covid19DailyReportDataRow.create()
+                .setCounty("Spokane")
+                .setStateOrProvince("Washington")
+                .setCountryOrRegion("US")
+                .setConfirmedCases(3),
+            Covid19DailyReportDataRow.create()
+                .setStateOrProvince("Oregon")
+                .setCountryOrRegion("US")
+                .setConfirmedCases(5),
+            Covid19DailyReportDataRow.create()
+                .setCountryOrRegion("Italy")
+                .setConfirmedCases(20),
+            Covid19DailyReportDataRow.create()
+                .setConfirmedCases(1));
+    }
+
+    static Iterable<Covid19Location> createLocations()
+    {
+        return Iterable.create(
+            Covid19Location.create("Global"),
+            Covid19Location.create("USA", Covid19LocationCondition.countryOrRegionEquals("US")),
+            Covid19Location.create("US again", Covid19LocationCondition.countryOrRegionEquals("US")),
+            Covid19Location.create("Washington", Covid19LocationCondition.and(
+                Covid19LocationCondition.countryOrRegionEquals("US"),
+                Covid19LocationCondition.stateOrProvinceEquals("Washington"))),
+            Covid19Location.create("King", Covid19LocationCondition.countyEquals("King")),
+            Covid19Location.create("US without county", Covid19LocationCondition.and(
+                Covid19LocationCondition.countryOrRegionEquals("US"),
+                Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.countyPropertyName, Covid19LocationPropertyConditionOperator.Equals, null))),
+            Covid19Location.create("Conflicting", Covid19LocationCondition.and(
+                Covid19LocationCondition.countryOrRegionEquals("US"),
+                Covid19LocationCondition.countryOrRegionEquals("Italy"))),
+            Covid19Location.create("Washington or Italy", Covid19LocationCondition.or(
+                Covid19LocationCondition.stateOrProvinceEquals("Washington"),
+                Covid19LocationCondition.countryOrRegionEquals("Italy"))),
+            Covid19Location.create("Contains", Covid19LocationCondition.countyContains("e")),
+            Covid19Location.create("Unknown", Covid19LocationCondition.countryOrRegionEquals("Canada")),
+            Covid19Location.create("Everything", Covid19LocationCondition.and()),
+            Covid19Location.create("Nothing", Covid19LocationCondition.or()),
+            Covid19Location.create("Shared contains", Covid19LocationCondition.or(
+                Covid19LocationCondition.countyContains("e"),
+                Covid19LocationCondition.stateOrProvinceContains("ash"))),
+            Covid19Location.create("Contains empty", Covid19LocationCondition.countryOrRegionContains("")));
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(Covid19LocationAggregator.class, () ->
+        {
+            runner.testGroup("create(Iterable<Covid19Location>)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19LocationAggregator.create(null),
+                        new PreConditionFailure("locations cannot be null."));
+                });
+
+                runner.test("with locations", (Test test) ->
+                {
+                    final Iterable<Covid19Location> locations = Covid19LocationAggregatorTests.createLocations();
+                    final Covid19LocationAggregator aggregator = Covid19LocationAggregator.create(locations);
+                    test.assertEqual(locations, aggregator.getLocations());
+                });
+            });
+
+            runner.testGroup("getConfirmedCasesSums(Covid19DailyReport)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final Covid19LocationAggregator aggregator = Covid19LocationAggregator.create(Covid19LocationAggregatorTests.createLocations());
+                    test.assertThrows(() -> aggregator.getConfirmedCasesSums(null),
+                        new PreConditionFailure("dailyReport cannot be null."));
+                });
+
+                runner.test("with no locations", (Test test) ->
+                {
+                    final Covid19LocationAggregator aggregator = Covid19LocationAggregator.create(Iterable.create());
+                    test.assertEqual(0, aggregator.getConfirmedCasesSums(Covid19DailyReport.create(Covid19LocationAggregatorTests.createDataRows())).length);
+                });
+
+                final Action2<String,Covid19DailyReport> getConfirmedCasesSumsTest = (String testName, Covid19DailyReport dailyReport) ->
+                {
+                    runner.test(testName, (Test test) ->
+                    {
+                        final Iterable<Covid19Location> locations = Covid19LocationAggregatorTests.createLocations();
+                        final Covid19LocationAggregator aggregator = Covid19LocationAggregator.create(locations);
+                        final int[] confirmedCasesSums = aggregator.getConfirmedCasesSums(dailyReport);
+                        test.assertEqual(locations.getCount(), confirmedCasesSums.length);
+
+                        // The second call reuses the plan from the first call.
+                        final int[] secondConfirmedCasesSums = aggregator.getConfirmedCasesSums(dailyReport);
+
+                        int locationIndex = 0;
+                        for (final Covid19Location location : locations)
+                        {
+                            test.assertEqual(dailyReport.getConfirmedCasesSum(location.getCondition()), confirmedCasesSums[locationIndex]);
+                            test.assertEqual(confirmedCasesSums[locationIndex], secondConfirmedCasesSums[locationIndex]);
+                            ++locationIndex;
+                        }
+                    });
+                };
+
+                getConfirmedCasesSumsTest.run("with empty daily report",
+                    Covid19DailyReport.create());
+                getConfirmedCasesSumsTest.run("with daily report",
+                    Covid19DailyReport.create(Covid19LocationAggregatorTests.createDataRows()));
+                getConfirmedCasesSumsTest.run("with columnar daily report",
+                    Covid19ColumnarDailyReport.create(Covid19StringDictionary.create(), Covid19LocationAggregatorTests.createDataRows()));
+
+                runner.test("with expected sums", (Test test) ->
+                {
+                    final Covid19LocationAggregator aggregator = Covid19LocationAggregator.create(Covid19LocationAggregatorTests.createLocations());
+                    final int[] confirmedCasesSums = aggregator.getConfirmedCasesSums(Covid19ColumnarDailyReport.create(Covid19StringDictionary.create(), Covid19LocationAggregatorTests.createDataRows()));
+                    test.assertEqual(39, confirmedCasesSums[0]);
+                    test.assertEqual(18, confirmedCasesSums[1]);
+                    test.assertEqual(18, confirmedCasesSums[2]);
+                    test.assertEqual(13, confirmedCasesSums[3]);
+                    test.assertEqual(10, confirmedCasesSums[4]);
+                    test.assertEqual(5, confirmedCasesSums[5]);
+                    test.assertEqual(0, confirmedCasesSums[6]);
+                    test.assertEqual(33, confirmedCasesSums[7]);
+                    test.assertEqual(3, confirmedCasesSums[8]);
+                    test.assertEqual(0, confirmedCasesSums[9]);
+                    test.assertEqual(39, confirmedCasesSums[10]);
+                    test.assertEqual(0, confirmedCasesSums[11]);
+                });
+
+                runner.test("with different dictionaries", (Test test) ->
+                {
+                    final Covid19LocationAggregator aggregator = Covid19LocationAggregator.create(Iterable.create(
+                        Covid19Location.create("USA", Covid19LocationCondition.countryOrRegionEquals("US"))));
+
+                    final Covid19StringDictionary stringDictionary1 = Covid19StringDictionary.create();
+                    stringDictionary1.getCode("Italy");
+                    test.assertEqual(18, aggregator.getConfirmedCasesSums(Covid19ColumnarDailyReport.create(stringDictionary1, Covid19LocationAggregatorTests.createDataRows()))[0]);
+
+                    final Covid19StringDictionary stringDictionary2 = Covid19StringDictionary.create();
+                    test.assertEqual(18, aggregator.getConfirmedCasesSums(Covid19ColumnarDailyReport.create(stringDictionary2, Covid19LocationAggregatorTests.createDataRows()))[0]);
+                });
+            });
+        });
+    }
+}
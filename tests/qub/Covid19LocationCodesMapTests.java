@@ -0,0 +1,106 @@
+package qub;
+
+public interface Covid19LocationCodesMapTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(Covid19LocationCodesMap.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final Covid19LocationCodesMap map = Covid19LocationCodesMap.create();
+                test.assertEqual(0, map.getCount());
+                test.assertNull(map.get(0, 1, 2));
+            });
+
+            runner.testGroup("set(int,int,int,int[])", () ->
+            {
+                runner.test("with null value", (Test test) ->
+                {
+                    final Covid19LocationCodesMap map = Covid19LocationCodesMap.create();
+                    test.assertThrows(() -> map.set(0, 1, 2, null),
+                        new PreConditionFailure("value cannot be null."));
+                });
+
+                runner.test("with new codes", (Test test) ->
+                {
+                    final Covid19LocationCodesMap map = Covid19LocationCodesMap.create();
+                    final int[] value = new int[] { 5 };
+                    test.assertSame(map, map.set(0, 1, 2, value));
+                    test.assertEqual(1, map.getCount());
+                    test.assertSame(value, map.get(0, 1, 2));
+                    test.assertNull(map.get(2, 1, 0));
+                });
+
+                runner.test("with existing codes", (Test test) ->
+                {
+                    final Covid19LocationCodesMap map = Covid19LocationCodesMap.create();
+                    final int[] value = new int[] { 6 };
+                    map.set(Covid19StringDictionary.nullCode, Covid19ColumnarDailyReport.anyCode, 2, new int[] { 5 });
+                    map.set(Covid19StringDictionary.nullCode, Covid19ColumnarDailyReport.anyCode, 2, value);
+                    test.assertEqual(1, map.getCount());
+                    test.assertSame(value, map.get(Covid19StringDictionary.nullCode, Covid19ColumnarDailyReport.anyCode, 2));
+                });
+
+                runner.test("with more codes than the initial capacity", (Test test) ->
+                {
+                    final Covid19LocationCodesMap map = Covid19LocationCodesMap.create();
+                    for (int i = 0; i < 1000; ++i)
+                    {
+                        map.set(i, i % 60, 0, new int[] { i });
+                    }
+                    test.assertEqual(1000, map.getCount());
+                    for (int i = 0; i < 1000; ++i)
+                    {
+                        test.assertEqual(i, map.get(i, i % 60, 0)[0]);
+                        test.assertNull(map.get(i, i % 60, 1));
+                    }
+                });
+            });
+
+            runner.testGroup("setAll(Covid19LocationCodesMap)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final Covid19LocationCodesMap map = Covid19LocationCodesMap.create();
+                    test.assertThrows(() -> map.setAll(null),
+                        new PreConditionFailure("map cannot be null."));
+                });
+
+                runner.test("with new and existing codes", (Test test) ->
+                {
+                    final Covid19LocationCodesMap map = Covid19LocationCodesMap.create()
+                        .set(0, 1, 2, new int[] { 5 })
+                        .set(3, 4, 5, new int[] { 6 });
+                    final int[] existingValue = new int[] { 7 };
+                    final int[] newValue = new int[] { 8 };
+                    final Covid19LocationCodesMap otherMap = Covid19LocationCodesMap.create()
+                        .set(3, 4, 5, existingValue)
+                        .set(6, 7, 8, newValue);
+                    test.assertSame(map, map.setAll(otherMap));
+                    test.assertEqual(3, map.getCount());
+                    test.assertEqual(5, map.get(0, 1, 2)[0]);
+                    test.assertSame(existingValue, map.get(3, 4, 5));
+                    test.assertSame(newValue, map.get(6, 7, 8));
+                    test.assertEqual(2, otherMap.getCount());
+                });
+            });
+
+            runner.test("copy()", (Test test) ->
+            {
+                final int[] value = new int[] { 5 };
+                final Covid19LocationCodesMap map = Covid19LocationCodesMap.create()
+                    .set(0, 1, 2, value);
+                final Covid19LocationCodesMap copy = map.copy();
+                test.assertNotSame(map, copy);
+                test.assertEqual(1, copy.getCount());
+                test.assertSame(value, copy.get(0, 1, 2));
+
+                copy.set(3, 4, 5, new int[] { 6 });
+                test.assertEqual(2, copy.getCount());
+                test.assertEqual(1, map.getCount());
+                test.assertNull(map.get(3, 4, 5));
+            });
+        });
+    }
+}
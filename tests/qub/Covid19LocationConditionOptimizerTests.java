@@ -0,0 +1,317 @@
+package qub;
+
+public interface Covid19LocationConditionOptimizerTests
+{
+    static Covid19LocationConditionOptimizer createOptimizer()
+    {
+        return Covid19LocationConditionOptimizer.create()
+            .addDailyReport(Covid19DailyReport.create(Covid19LocationAggregatorTests.createDataRows()));
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(Covid19LocationConditionOptimizer.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final Covid19LocationConditionOptimizer optimizer = Covid19LocationConditionOptimizer.create();
+                test.assertNotNull(optimizer);
+                test.assertEqual(0, optimizer.getDataRowCount());
+            });
+
+            runner.testGroup("addDailyReport(Covid19DailyReport)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final Covid19LocationConditionOptimizer optimizer = Covid19LocationConditionOptimizer.create();
+                    test.assertThrows(() -> optimizer.addDailyReport(null),
+                        new PreConditionFailure("dailyReport cannot be null."));
+                    test.assertEqual(0, optimizer.getDataRowCount());
+                });
+
+                runner.test("with daily report", (Test test) ->
+                {
+                    final Covid19LocationConditionOptimizer optimizer = Covid19LocationConditionOptimizer.create();
+                    test.assertSame(optimizer, optimizer.addDailyReport(Covid19DailyReport.create(Covid19LocationAggregatorTests.createDataRows())));
+                    test.assertEqual(6, optimizer.getDataRowCount());
+                });
+
+                runner.test("with columnar daily report", (Test test) ->
+                {
+                    final Covid19LocationConditionOptimizer optimizer = Covid19LocationConditionOptimizer.create();
+                    test.assertSame(optimizer, optimizer.addDailyReport(Covid19ColumnarDailyReport.create(Covid19StringDictionary.create(), Covid19LocationAggregatorTests.createDataRows())));
+                    test.assertEqual(6, optimizer.getDataRowCount());
+                    test.assertEqual(0.5, optimizer.getSelectivity(Covid19LocationCondition.stateOrProvinceEquals("Washington")));
+                });
+
+                runner.test("with two daily reports", (Test test) ->
+                {
+                    final Covid19LocationConditionOptimizer optimizer = Covid19LocationConditionOptimizerTests.createOptimizer()
+                        .addDailyReport(Covid19DailyReport.create(Covid19LocationAggregatorTests.createDataRows()));
+                    test.assertEqual(12, optimizer.getDataRowCount());
+                    test.assertEqual(0.5, optimizer.getSelectivity(Covid19LocationCondition.stateOrProvinceEquals("Washington")));
+                });
+            });
+
+            runner.testGroup("isAlwaysTrue(Covid19LocationCondition)", () ->
+            {
+                final Action2<Covid19LocationCondition,Boolean> isAlwaysTrueTest = (Covid19LocationCondition condition, Boolean expected) ->
+                {
+                    runner.test("with " + condition, (Test test) ->
+                    {
+                        test.assertEqual(expected, Covid19LocationConditionOptimizer.isAlwaysTrue(condition));
+                    });
+                };
+
+                isAlwaysTrueTest.run(null, false);
+                isAlwaysTrueTest.run(Covid19LocationCondition.and(), true);
+                isAlwaysTrueTest.run(Covid19LocationCondition.or(), false);
+                isAlwaysTrueTest.run(Covid19LocationCondition.and(Covid19LocationCondition.countyEquals("King")), false);
+                isAlwaysTrueTest.run(Covid19LocationCondition.countyEquals("King"), false);
+            });
+
+            runner.testGroup("isAlwaysFalse(Covid19LocationCondition)", () ->
+            {
+                final Action2<Covid19LocationCondition,Boolean> isAlwaysFalseTest = (Covid19LocationCondition condition, Boolean expected) ->
+                {
+                    runner.test("with " + condition, (Test test) ->
+                    {
+                        test.assertEqual(expected, Covid19LocationConditionOptimizer.isAlwaysFalse(condition));
+                    });
+                };
+
+                isAlwaysFalseTest.run(null, false);
+                isAlwaysFalseTest.run(Covid19LocationCondition.and(), false);
+                isAlwaysFalseTest.run(Covid19LocationCondition.or(), true);
+                isAlwaysFalseTest.run(Covid19LocationCondition.or(Covid19LocationCondition.countyEquals("King")), false);
+                isAlwaysFalseTest.run(Covid19LocationCondition.countyEquals("King"), false);
+            });
+
+            runner.testGroup("getSelectivity(Covid19LocationCondition)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final Covid19LocationConditionOptimizer optimizer = Covid19LocationConditionOptimizerTests.createOptimizer();
+                    test.assertThrows(() -> optimizer.getSelectivity(null),
+                        new PreConditionFailure("condition cannot be null."));
+                });
+
+                runner.test("without value statistics", (Test test) ->
+                {
+                    final Covid19LocationConditionOptimizer optimizer = Covid19LocationConditionOptimizer.create();
+                    test.assertEqual(0.5, optimizer.getSelectivity(Covid19LocationCondition.countyEquals("King")));
+                });
+
+                final Action2<Covid19LocationCondition,Double> getSelectivityTest = (Covid19LocationCondition condition, Double expected) ->
+                {
+                    runner.test("with " + condition, (Test test) ->
+                    {
+                        final Covid19LocationConditionOptimizer optimizer = Covid19LocationConditionOptimizerTests.createOptimizer();
+                        test.assertEqual(expected, optimizer.getSelectivity(condition));
+                    });
+                };
+
+                getSelectivityTest.run(Covid19LocationCondition.countyEquals("King"), 1.0 / 6);
+                getSelectivityTest.run(Covid19LocationCondition.countyEquals("Unknown"), 0.0);
+                getSelectivityTest.run(Covid19LocationCondition.countyContains("e"), 2.0 / 6);
+                getSelectivityTest.run(Covid19LocationCondition.stateOrProvinceEquals("Washington"), 0.5);
+                getSelectivityTest.run(Covid19LocationCondition.countryOrRegionEquals("US"), 4.0 / 6);
+                getSelectivityTest.run(Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.countyPropertyName, Covid19LocationPropertyConditionOperator.Equals, null), 3.0 / 6);
+                getSelectivityTest.run(Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.countyPropertyName, Covid19LocationPropertyConditionOperator.Equals, 5), 0.0);
+                getSelectivityTest.run(Covid19LocationCondition.countyIn("King", "Spokane", "King", "Unknown"), 2.0 / 6);
+                getSelectivityTest.run(Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.countyPropertyName, Covid19LocationPropertyConditionOperator.In, Iterable.create("King", null, 5)), 4.0 / 6);
+                getSelectivityTest.run(Covid19LocationCondition.and(), 1.0);
+                getSelectivityTest.run(Covid19LocationCondition.or(), 0.0);
+                getSelectivityTest.run(
+                    Covid19LocationCondition.and(
+                        Covid19LocationCondition.countryOrRegionEquals("US"),
+                        Covid19LocationCondition.stateOrProvinceEquals("Washington")),
+                    (4.0 / 6) * 0.5);
+                getSelectivityTest.run(
+                    Covid19LocationCondition.or(
+                        Covid19LocationCondition.countryOrRegionEquals("Italy"),
+                        Covid19LocationCondition.stateOrProvinceEquals("Washington")),
+                    1 - (1 - 1.0 / 6) * (1 - 0.5));
+            });
+
+            runner.testGroup("getCost(Covid19LocationCondition)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final Covid19LocationConditionOptimizer optimizer = Covid19LocationConditionOptimizerTests.createOptimizer();
+                    test.assertThrows(() -> optimizer.getCost(null),
+                        new PreConditionFailure("condition cannot be null."));
+                });
+
+                runner.test("with Equals condition cheaper than Contains condition", (Test test) ->
+                {
+                    final Covid19LocationConditionOptimizer optimizer = Covid19LocationConditionOptimizerTests.createOptimizer();
+                    test.assertTrue(optimizer.getCost(Covid19LocationCondition.countyEquals("King")) < optimizer.getCost(Covid19LocationCondition.countyContains("King")));
+                });
+
+                runner.test("with empty group", (Test test) ->
+                {
+                    final Covid19LocationConditionOptimizer optimizer = Covid19LocationConditionOptimizerTests.createOptimizer();
+                    test.assertEqual(0.0, optimizer.getCost(Covid19LocationCondition.and()));
+                    test.assertEqual(0.0, optimizer.getCost(Covid19LocationCondition.or()));
+                });
+
+                runner.test("with And group that starts with a selective condition", (Test test) ->
+                {
+                    final Covid19LocationConditionOptimizer optimizer = Covid19LocationConditionOptimizerTests.createOptimizer();
+                    final Covid19LocationCondition selectiveFirst = Covid19LocationCondition.and(
+                        Covid19LocationCondition.countyEquals("King"),
+                        Covid19LocationCondition.countryOrRegionEquals("US"));
+                    final Covid19LocationCondition selectiveLast = Covid19LocationCondition.and(
+                        Covid19LocationCondition.countryOrRegionEquals("US"),
+                        Covid19LocationCondition.countyEquals("King"));
+                    test.assertTrue(optimizer.getCost(selectiveFirst) < optimizer.getCost(selectiveLast));
+                });
+            });
+
+            runner.testGroup("optimize(Covid19LocationCondition)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final Covid19LocationConditionOptimizer optimizer = Covid19LocationConditionOptimizerTests.createOptimizer();
+                    test.assertThrows(() -> optimizer.optimize(null),
+                        new PreConditionFailure("condition cannot be null."));
+                });
+
+                final Action3<String,Covid19LocationCondition,Covid19LocationCondition> optimizeTest = (String testName, Covid19LocationCondition condition, Covid19LocationCondition expected) ->
+                {
+                    runner.test(testName, (Test test) ->
+                    {
+                        final String conditionString = condition.toString();
+                        final Covid19LocationConditionOptimizer optimizer = Covid19LocationConditionOptimizerTests.createOptimizer();
+                        final Covid19LocationCondition optimizedCondition = optimizer.optimize(condition);
+                        test.assertEqual(expected, optimizedCondition);
+                        test.assertEqual(conditionString, condition.toString());
+
+                        for (final Covid19DailyReportDataRow dataRow : Covid19LocationAggregatorTests.createDataRows())
+                        {
+                            test.assertEqual(condition.matches(dataRow), optimizedCondition.matches(dataRow));
+                        }
+                    });
+                };
+
+                optimizeTest.run("with property condition",
+                    Covid19LocationCondition.countyEquals("King"),
+                    Covid19LocationCondition.countyEquals("King"));
+                optimizeTest.run("with empty And group",
+                    Covid19LocationCondition.and(),
+                    Covid19LocationCondition.and());
+                optimizeTest.run("with empty Or group",
+                    Covid19LocationCondition.or(),
+                    Covid19LocationCondition.or());
+                optimizeTest.run("with And group with one condition",
+                    Covid19LocationCondition.and(Covid19LocationCondition.countyEquals("King")),
+                    Covid19LocationCondition.countyEquals("King"));
+                optimizeTest.run("with nested And groups",
+                    Covid19LocationCondition.and(
+                        Covid19LocationCondition.countyEquals("King"),
+                        Covid19LocationCondition.and(
+                            Covid19LocationCondition.stateOrProvinceEquals("Washington"),
+                            Covid19LocationCondition.and(Covid19LocationCondition.countryOrRegionEquals("US")))),
+                    Covid19LocationCondition.and(
+                        Covid19LocationCondition.countyEquals("King"),
+                        Covid19LocationCondition.stateOrProvinceEquals("Washington"),
+                        Covid19LocationCondition.countryOrRegionEquals("US")));
+                optimizeTest.run("with nested Or groups",
+                    Covid19LocationCondition.or(
+                        Covid19LocationCondition.countryOrRegionEquals("US"),
+                        Covid19LocationCondition.or(Covid19LocationCondition.countyContains("e"))),
+                    Covid19LocationCondition.or(
+                        Covid19LocationCondition.countryOrRegionEquals("US"),
+                        Covid19LocationCondition.countyContains("e")));
+                optimizeTest.run("with Or group inside And group",
+                    Covid19LocationCondition.and(
+                        Covid19LocationCondition.countryOrRegionEquals("US"),
+                        Covid19LocationCondition.or(
+                            Covid19LocationCondition.countyEquals("King"),
+                            Covid19LocationCondition.countyEquals("Spokane"))),
+                    Covid19LocationCondition.and(
+                        Covid19LocationCondition.countyIn("King", "Spokane"),
+                        Covid19LocationCondition.countryOrRegionEquals("US")));
+                optimizeTest.run("with duplicate conditions",
+                    Covid19LocationCondition.and(
+                        Covid19LocationCondition.countryOrRegionEquals("US"),
+                        Covid19LocationCondition.countryOrRegionEquals("US"),
+                        Covid19LocationCondition.and(Covid19LocationCondition.countryOrRegionEquals("US"))),
+                    Covid19LocationCondition.countryOrRegionEquals("US"));
+                optimizeTest.run("with always false condition in And group",
+                    Covid19LocationCondition.and(
+                        Covid19LocationCondition.countryOrRegionEquals("US"),
+                        Covid19LocationCondition.or()),
+                    Covid19LocationCondition.or());
+                optimizeTest.run("with always true condition in And group",
+                    Covid19LocationCondition.and(
+                        Covid19LocationCondition.countryOrRegionEquals("US"),
+                        Covid19LocationCondition.and()),
+                    Covid19LocationCondition.countryOrRegionEquals("US"));
+                optimizeTest.run("with always true condition in Or group",
+                    Covid19LocationCondition.or(
+                        Covid19LocationCondition.countryOrRegionEquals("US"),
+                        Covid19LocationCondition.and()),
+                    Covid19LocationCondition.and());
+                optimizeTest.run("with always false condition in Or group",
+                    Covid19LocationCondition.or(
+                        Covid19LocationCondition.countryOrRegionEquals("US"),
+                        Covid19LocationCondition.or()),
+                    Covid19LocationCondition.countryOrRegionEquals("US"));
+                optimizeTest.run("with nested always false condition in Or group",
+                    Covid19LocationCondition.or(
+                        Covid19LocationCondition.countryOrRegionEquals("US"),
+                        Covid19LocationCondition.and(
+                            Covid19LocationCondition.countyEquals("King"),
+                            Covid19LocationCondition.or())),
+                    Covid19LocationCondition.countryOrRegionEquals("US"));
+                optimizeTest.run("with selective condition last in And group",
+                    Covid19LocationCondition.and(
+                        Covid19LocationCondition.countryOrRegionEquals("US"),
+                        Covid19LocationCondition.countyEquals("King")),
+                    Covid19LocationCondition.and(
+                        Covid19LocationCondition.countyEquals("King"),
+                        Covid19LocationCondition.countryOrRegionEquals("US")));
+                optimizeTest.run("with unselective condition last in Or group",
+                    Covid19LocationCondition.or(
+                        Covid19LocationCondition.countyEquals("King"),
+                        Covid19LocationCondition.countryOrRegionEquals("US")),
+                    Covid19LocationCondition.or(
+                        Covid19LocationCondition.countryOrRegionEquals("US"),
+                        Covid19LocationCondition.countyEquals("King")));
+                optimizeTest.run("with Equals conditions for the same property in Or group",
+                    Covid19LocationCondition.or(
+                        Covid19LocationCondition.countryOrRegionEquals("Italy"),
+                        Covid19LocationCondition.countyEquals("King"),
+                        Covid19LocationCondition.countryOrRegionEquals("US"),
+                        Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.countryOrRegionPropertyName, Covid19LocationPropertyConditionOperator.Equals, null),
+                        Covid19LocationCondition.countryOrRegionIn("Italy", "Canada")),
+                    Covid19LocationCondition.or(
+                        Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.countryOrRegionPropertyName, Covid19LocationPropertyConditionOperator.In, Iterable.create("Italy", "US", null, "Canada")),
+                        Covid19LocationCondition.countyEquals("King")));
+                optimizeTest.run("with Equals conditions for the same property in And group",
+                    Covid19LocationCondition.and(
+                        Covid19LocationCondition.countryOrRegionEquals("Italy"),
+                        Covid19LocationCondition.countryOrRegionEquals("US")),
+                    Covid19LocationCondition.and(
+                        Covid19LocationCondition.countryOrRegionEquals("Italy"),
+                        Covid19LocationCondition.countryOrRegionEquals("US")));
+                optimizeTest.run("with Equals conditions that can't be merged in Or group",
+                    Covid19LocationCondition.or(
+                        Covid19LocationCondition.countyContains("Spokane"),
+                        Covid19LocationCondition.countyEquals("King")),
+                    Covid19LocationCondition.or(
+                        Covid19LocationCondition.countyEquals("King"),
+                        Covid19LocationCondition.countyContains("Spokane")));
+                optimizeTest.run("with Contains condition first in And group",
+                    Covid19LocationCondition.and(
+                        Covid19LocationCondition.countyContains("n"),
+                        Covid19LocationCondition.countyEquals("King")),
+                    Covid19LocationCondition.and(
+                        Covid19LocationCondition.countyEquals("King"),
+                        Covid19LocationCondition.countyContains("n")));
+            });
+        });
+    }
+}
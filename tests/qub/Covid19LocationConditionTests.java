@@ -128,6 +128,58 @@ public interface Covid19LocationConditionTests
                 countryOrRegionContainsTest.run("Chi");
             });
 
+            runner.testGroup("countryOrRegionIn(String...)", () ->
+            {
+                runner.test("with null array", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19LocationCondition.countryOrRegionIn((String[])null),
+                        new PreConditionFailure("expectedCountriesOrRegions cannot be null."));
+                });
+
+                final Action1<String[]> countryOrRegionInTest = (String[] expectedPropertyValues) ->
+                {
+                    runner.test("with " + expectedPropertyValues.length + " values", (Test test) ->
+                    {
+                        final Covid19LocationPropertyCondition propertyCondition = Covid19LocationCondition.countryOrRegionIn(expectedPropertyValues);
+                        test.assertNotNull(propertyCondition);
+                        test.assertEqual(Covid19DailyReportDataRow.countryOrRegionPropertyName, propertyCondition.getPropertyName());
+                        test.assertEqual(Covid19LocationPropertyConditionOperator.In, propertyCondition.getOperator());
+                        test.assertEqual(Iterable.create(expectedPropertyValues), propertyCondition.getExpectedPropertyValues());
+                        test.assertEqual(propertyCondition, Covid19LocationCondition.parse(propertyCondition.toJson()).await());
+                    });
+                };
+
+                countryOrRegionInTest.run(new String[0]);
+                countryOrRegionInTest.run(new String[] { "China" });
+                countryOrRegionInTest.run(new String[] { "China", null, "Italy" });
+            });
+
+            runner.testGroup("countryOrRegionIn(String...).matches(Covid19DailyReportDataRow)", () ->
+            {
+                final Action3<Covid19LocationCondition,Covid19DailyReportDataRow,Boolean> matchesTest = (Covid19LocationCondition condition, Covid19DailyReportDataRow dataRow, Boolean expected) ->
+                {
+                    runner.test("with " + condition + " and " + dataRow, (Test test) ->
+                    {
+                        test.assertEqual(expected, condition.matches(dataRow));
+                    });
+                };
+
+                matchesTest.run(Covid19LocationCondition.countryOrRegionIn(), Covid19DailyReportDataRow.create().setCountryOrRegion("China"), false);
+                matchesTest.run(Covid19LocationCondition.countryOrRegionIn("China", "Italy"), Covid19DailyReportDataRow.create().setCountryOrRegion("China"), true);
+                matchesTest.run(Covid19LocationCondition.countryOrRegionIn("China", "Italy"), Covid19DailyReportDataRow.create().setCountryOrRegion("Italy"), true);
+                matchesTest.run(Covid19LocationCondition.countryOrRegionIn("China", "Italy"), Covid19DailyReportDataRow.create().setCountryOrRegion("US"), false);
+                matchesTest.run(Covid19LocationCondition.countryOrRegionIn("China", "Italy"), Covid19DailyReportDataRow.create(), false);
+                matchesTest.run(Covid19LocationCondition.countryOrRegionIn("China", null), Covid19DailyReportDataRow.create(), true);
+                matchesTest.run(
+                    Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.confirmedCasesPropertyName, Covid19LocationPropertyConditionOperator.In, Iterable.create(5, 10.0)),
+                    Covid19DailyReportDataRow.create().setConfirmedCases(10),
+                    true);
+                matchesTest.run(
+                    Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.confirmedCasesPropertyName, Covid19LocationPropertyConditionOperator.In, Iterable.create(5, 10.5)),
+                    Covid19DailyReportDataRow.create().setConfirmedCases(10),
+                    false);
+            });
+
             runner.testGroup("stateOrProvinceEquals(String)", () ->
             {
                 final Action1<String> stateOrProvinceEqualsTest = (String expectedPropertyValue) ->
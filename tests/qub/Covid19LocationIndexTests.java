@@ -0,0 +1,184 @@
+package qub;
+
+public interface Covid19LocationIndexTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(Covid19LocationIndex.class, () ->
+        {
+            runner.testGroup("create(Covid19ColumnarDailyReport)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19LocationIndex.create(null),
+                        new PreConditionFailure("dailyReport cannot be null."));
+                });
+
+                runner.test("with no data rows", (Test test) ->
+                {
+                    final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                    final Covid19LocationIndex locationIndex = Covid19LocationIndex.create(Covid19ColumnarDailyReport.create(stringDictionary));
+                    test.assertEqual(0, locationIndex.getDataRowCount());
+                    test.assertSame(stringDictionary, locationIndex.getStringDictionary());
+                    test.assertEqual(0, locationIndex.getCountryOrRegionRows(Covid19StringDictionary.nullCode).getCount());
+                });
+
+                runner.test("with data rows", (Test test) ->
+                {
+                    final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                    final Covid19LocationIndex locationIndex = Covid19LocationIndex.create(Covid19ColumnarDailyReportTests.createDailyReport(stringDictionary));
+                    test.assertEqual(4, locationIndex.getDataRowCount());
+                    test.assertSame(stringDictionary, locationIndex.getStringDictionary());
+
+                    test.assertEqual(Iterable.create(0), Covid19RowBitmapTests.getRows(locationIndex.getCountyRows(stringDictionary.getCode("King"))));
+                    test.assertEqual(Iterable.create(2, 3), Covid19RowBitmapTests.getRows(locationIndex.getCountyRows(Covid19StringDictionary.nullCode)));
+                    test.assertEqual(Iterable.create(0, 1), Covid19RowBitmapTests.getRows(locationIndex.getStateOrProvinceRows(stringDictionary.getCode("Washington"))));
+                    test.assertEqual(Iterable.create(3), Covid19RowBitmapTests.getRows(locationIndex.getStateOrProvinceRows(Covid19StringDictionary.nullCode)));
+                    test.assertEqual(Iterable.create(0, 1, 2), Covid19RowBitmapTests.getRows(locationIndex.getCountryOrRegionRows(stringDictionary.getCode("US"))));
+                    test.assertEqual(Iterable.create(), Covid19RowBitmapTests.getRows(locationIndex.getCountryOrRegionRows(stringDictionary.getCode("Canada"))));
+                    test.assertEqual(Iterable.create(), Covid19RowBitmapTests.getRows(locationIndex.getCountryOrRegionRows(Covid19StringDictionary.nullCode)));
+                });
+
+                runner.test("with dictionary strings that the daily report doesn't use", (Test test) ->
+                {
+                    final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                    for (int i = 0; i < 1000; ++i)
+                    {
+                        stringDictionary.getCode("Unused " + i);
+                    }
+                    final Covid19LocationIndex locationIndex = Covid19LocationIndex.create(Covid19ColumnarDailyReportTests.createDailyReport(stringDictionary));
+                    test.assertEqual(4, locationIndex.getDataRowCount());
+
+                    test.assertEqual(Iterable.create(1), Covid19RowBitmapTests.getRows(locationIndex.getCountyRows(stringDictionary.getCode("Pierce"))));
+                    test.assertEqual(Iterable.create(), Covid19RowBitmapTests.getRows(locationIndex.getCountyRows(stringDictionary.getCode("Unused 5"))));
+                    test.assertEqual(Iterable.create(3), Covid19RowBitmapTests.getRows(locationIndex.getCountryOrRegionRows(stringDictionary.getCode("Italy"))));
+                    test.assertEqual(Iterable.create(0, 1, 2), Covid19RowBitmapTests.getRows(locationIndex.getRows(Covid19LocationCondition.countryOrRegionContains("U"))));
+                });
+            });
+
+            runner.testGroup("getRows(Covid19LocationCondition)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final Covid19LocationIndex locationIndex = Covid19LocationIndex.create(Covid19ColumnarDailyReportTests.createDailyReport(Covid19StringDictionary.create()));
+                    test.assertThrows(() -> locationIndex.getRows(null),
+                        new PreConditionFailure("condition cannot be null."));
+                });
+
+                final Action2<Covid19LocationCondition,Iterable<Integer>> getRowsTest = (Covid19LocationCondition condition, Iterable<Integer> expected) ->
+                {
+                    runner.test("with " + condition, (Test test) ->
+                    {
+                        final Covid19LocationIndex locationIndex = Covid19LocationIndex.create(Covid19ColumnarDailyReportTests.createDailyReport(Covid19StringDictionary.create()));
+                        final Covid19RowBitmap rows = locationIndex.getRows(condition);
+                        if (expected == null)
+                        {
+                            test.assertNull(rows);
+                        }
+                        else
+                        {
+                            test.assertNotNull(rows);
+                            test.assertEqual(expected, Covid19RowBitmapTests.getRows(rows));
+                        }
+                    });
+                };
+
+                getRowsTest.run(Covid19LocationCondition.countryOrRegionEquals("US"), Iterable.create(0, 1, 2));
+                getRowsTest.run(Covid19LocationCondition.countryOrRegionEquals("us"), Iterable.create());
+                getRowsTest.run(Covid19LocationCondition.countyEquals("Pierce"), Iterable.create(1));
+                getRowsTest.run(Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.countyPropertyName, Covid19LocationPropertyConditionOperator.Equals, null), Iterable.create(2, 3));
+                getRowsTest.run(Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.countyPropertyName, Covid19LocationPropertyConditionOperator.Equals, 5), Iterable.create());
+                getRowsTest.run(Covid19LocationCondition.stateOrProvinceIn("Oregon", "Washington"), Iterable.create(0, 1, 2));
+                getRowsTest.run(Covid19LocationCondition.countryOrRegionIn(), Iterable.create());
+                getRowsTest.run(Covid19LocationCondition.countyContains("e"), Iterable.create(1));
+                getRowsTest.run(Covid19LocationCondition.stateOrProvinceContains("gon"), Iterable.create(2));
+                getRowsTest.run(Covid19LocationCondition.countryOrRegionContains(""), Iterable.create(0, 1, 2, 3));
+                getRowsTest.run(Covid19LocationCondition.countryOrRegionContains("Canada"), Iterable.create());
+                getRowsTest.run(Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.countyPropertyName, Covid19LocationPropertyConditionOperator.Contains, null), Iterable.create(2, 3));
+                getRowsTest.run(Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.countyPropertyName, Covid19LocationPropertyConditionOperator.Contains, 5), Iterable.create());
+                getRowsTest.run(Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.confirmedCasesPropertyName, Covid19LocationPropertyConditionOperator.Equals, 5), null);
+                getRowsTest.run(Covid19LocationCondition.and(), Iterable.create(0, 1, 2, 3));
+                getRowsTest.run(Covid19LocationCondition.or(), Iterable.create());
+                getRowsTest.run(
+                    Covid19LocationCondition.and(
+                        Covid19LocationCondition.countryOrRegionEquals("US"),
+                        Covid19LocationCondition.stateOrProvinceEquals("Washington")),
+                    Iterable.create(0, 1));
+                getRowsTest.run(
+                    Covid19LocationCondition.or(
+                        Covid19LocationCondition.countryOrRegionEquals("Italy"),
+                        Covid19LocationCondition.stateOrProvinceEquals("Oregon")),
+                    Iterable.create(2, 3));
+                getRowsTest.run(
+                    Covid19LocationCondition.and(
+                        Covid19LocationCondition.countryOrRegionEquals("US"),
+                        Covid19LocationCondition.countyContains("e")),
+                    Iterable.create(1));
+                getRowsTest.run(
+                    Covid19LocationCondition.or(
+                        Covid19LocationCondition.countryOrRegionEquals("Italy"),
+                        Covid19LocationCondition.countyContains("e")),
+                    Iterable.create(1, 3));
+                getRowsTest.run(
+                    Covid19LocationCondition.or(
+                        Covid19LocationCondition.countryOrRegionEquals("Italy"),
+                        Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.confirmedCasesPropertyName, Covid19LocationPropertyConditionOperator.Equals, 5)),
+                    null);
+            });
+
+            runner.testGroup("getCandidateRows(Covid19LocationCondition)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final Covid19LocationIndex locationIndex = Covid19LocationIndex.create(Covid19ColumnarDailyReportTests.createDailyReport(Covid19StringDictionary.create()));
+                    test.assertThrows(() -> locationIndex.getCandidateRows(null),
+                        new PreConditionFailure("condition cannot be null."));
+                });
+
+                final Action2<Covid19LocationCondition,Iterable<Integer>> getCandidateRowsTest = (Covid19LocationCondition condition, Iterable<Integer> expected) ->
+                {
+                    runner.test("with " + condition, (Test test) ->
+                    {
+                        final Covid19LocationIndex locationIndex = Covid19LocationIndex.create(Covid19ColumnarDailyReportTests.createDailyReport(Covid19StringDictionary.create()));
+                        final Covid19RowBitmap rows = locationIndex.getCandidateRows(condition);
+                        if (expected == null)
+                        {
+                            test.assertNull(rows);
+                        }
+                        else
+                        {
+                            test.assertNotNull(rows);
+                            test.assertEqual(expected, Covid19RowBitmapTests.getRows(rows));
+                        }
+                    });
+                };
+
+                getCandidateRowsTest.run(Covid19LocationCondition.countryOrRegionEquals("US"), Iterable.create(0, 1, 2));
+                getCandidateRowsTest.run(Covid19LocationCondition.countyContains("e"), Iterable.create(1));
+                getCandidateRowsTest.run(Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.confirmedCasesPropertyName, Covid19LocationPropertyConditionOperator.Equals, 5), null);
+                getCandidateRowsTest.run(Covid19LocationCondition.and(), null);
+                getCandidateRowsTest.run(Covid19LocationCondition.or(), Iterable.create());
+                getCandidateRowsTest.run(
+                    Covid19LocationCondition.and(
+                        Covid19LocationCondition.countryOrRegionEquals("US"),
+                        Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.confirmedCasesPropertyName, Covid19LocationPropertyConditionOperator.Equals, 5)),
+                    Iterable.create(0, 1, 2));
+                getCandidateRowsTest.run(
+                    Covid19LocationCondition.and(
+                        Covid19LocationCondition.countyContains("e"),
+                        Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.confirmedCasesPropertyName, Covid19LocationPropertyConditionOperator.Equals, 5)),
+                    Iterable.create(1));
+                getCandidateRowsTest.run(
+                    Covid19LocationCondition.and(
+                        Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.confirmedCasesPropertyName, Covid19LocationPropertyConditionOperator.Equals, 5),
+                        Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.confirmedCasesPropertyName, Covid19LocationPropertyConditionOperator.Equals, 10)),
+                    null);
+                getCandidateRowsTest.run(
+                    Covid19LocationCondition.or(
+                        Covid19LocationCondition.countryOrRegionEquals("Italy"),
+                        Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.confirmedCasesPropertyName, Covid19LocationPropertyConditionOperator.Equals, 5)),
+                    null);
+            });
+        });
+    }
+}
@@ -0,0 +1,131 @@
+package qub;
+
+public interface Covid19LocationMatchCacheTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(Covid19LocationMatchCache.class, () ->
+        {
+            runner.testGroup("create(Iterable<Covid19CompiledLocationCondition>)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19LocationMatchCache.create(null),
+                        new PreConditionFailure("conditions cannot be null."));
+                });
+
+                runner.test("with condition that checks confirmed cases", (Test test) ->
+                {
+                    final Covid19CompiledLocationCondition condition = Covid19CompiledLocationCondition.compile(
+                        Covid19LocationPropertyCondition.create(Covid19DailyReportDataRow.confirmedCasesPropertyName, Covid19LocationPropertyConditionOperator.Equals, 10));
+                    test.assertThrows(() -> Covid19LocationMatchCache.create(Iterable.create(condition)),
+                        new PreConditionFailure("condition.isLocationOnly() cannot be false."));
+                });
+
+                runner.test("with location conditions", (Test test) ->
+                {
+                    final Covid19LocationMatchCache cache = Covid19LocationMatchCache.create(Iterable.create(
+                        Covid19CompiledLocationCondition.compile(Covid19LocationCondition.countyContains("e"))));
+                    test.assertEqual(1, cache.getConditionCount());
+                    test.assertEqual(0, cache.getCount());
+                });
+            });
+
+            runner.testGroup("getMatches(int,int,int)", () ->
+            {
+                runner.test("with matching and non-matching tuples", (Test test) ->
+                {
+                    final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                    final Covid19LocationMatchCache cache = Covid19LocationMatchCache.create(Iterable.create(
+                        Covid19CompiledLocationCondition.compile(Covid19LocationCondition.countyContains("e"), stringDictionary),
+                        Covid19CompiledLocationCondition.compile(Covid19LocationCondition.or(
+                            Covid19LocationCondition.stateOrProvinceEquals("Washington"),
+                            Covid19LocationCondition.countryOrRegionEquals("Italy")), stringDictionary),
+                        Covid19CompiledLocationCondition.compile(Covid19LocationCondition.stateOrProvinceContains("Oregon"), stringDictionary)));
+                    final int us = stringDictionary.getCode("US");
+                    final int washington = stringDictionary.getCode("Washington");
+                    final int pierce = stringDictionary.getCode("Pierce");
+                    final int king = stringDictionary.getCode("King");
+                    final int italy = stringDictionary.getCode("Italy");
+                    final int nullCode = Covid19StringDictionary.nullCode;
+
+                    final int[] pierceMatches = cache.getMatches(pierce, washington, us);
+                    test.assertEqual(2, pierceMatches.length);
+                    test.assertEqual(0, pierceMatches[0]);
+                    test.assertEqual(1, pierceMatches[1]);
+
+                    final int[] kingMatches = cache.getMatches(king, washington, us);
+                    test.assertEqual(1, kingMatches.length);
+                    test.assertEqual(1, kingMatches[0]);
+
+                    final int[] italyMatches = cache.getMatches(nullCode, nullCode, italy);
+                    test.assertEqual(1, italyMatches.length);
+                    test.assertEqual(1, italyMatches[0]);
+
+                    test.assertEqual(0, cache.getMatches(nullCode, nullCode, us).length);
+                    test.assertEqual(4, cache.getCount());
+
+                    test.assertSame(pierceMatches, cache.getMatches(pierce, washington, us));
+                    test.assertEqual(4, cache.getCount());
+                });
+            });
+
+            runner.testGroup("getMatches(int,int,int,Covid19LocationCodesMap)", () ->
+            {
+                runner.test("with null newMatches", (Test test) ->
+                {
+                    final Covid19LocationMatchCache cache = Covid19LocationMatchCache.create(Iterable.create());
+                    test.assertThrows(() -> cache.getMatches(0, 1, 2, null),
+                        new PreConditionFailure("newMatches cannot be null."));
+                });
+
+                runner.test("with new and cached tuples", (Test test) ->
+                {
+                    final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                    final Covid19LocationMatchCache cache = Covid19LocationMatchCache.create(Iterable.create(
+                        Covid19CompiledLocationCondition.compile(Covid19LocationCondition.countyContains("e"), stringDictionary)));
+                    final int us = stringDictionary.getCode("US");
+                    final int washington = stringDictionary.getCode("Washington");
+                    final int pierce = stringDictionary.getCode("Pierce");
+                    final int king = stringDictionary.getCode("King");
+
+                    final int[] pierceMatches = cache.getMatches(pierce, washington, us);
+                    test.assertEqual(1, cache.getCount());
+
+                    final Covid19LocationCodesMap newMatches = Covid19LocationCodesMap.create();
+                    test.assertSame(pierceMatches, cache.getMatches(pierce, washington, us, newMatches));
+                    test.assertEqual(0, newMatches.getCount());
+
+                    final int[] kingMatches = cache.getMatches(king, washington, us, newMatches);
+                    test.assertEqual(0, kingMatches.length);
+                    test.assertEqual(1, newMatches.getCount());
+                    test.assertEqual(1, cache.getCount());
+                    test.assertSame(kingMatches, cache.getMatches(king, washington, us, newMatches));
+                    test.assertEqual(1, newMatches.getCount());
+
+                    test.assertSame(cache, cache.addMatches(newMatches));
+                    test.assertEqual(2, cache.getCount());
+                    test.assertSame(kingMatches, cache.getMatches(king, washington, us));
+                    test.assertEqual(2, cache.getCount());
+                });
+            });
+
+            runner.testGroup("addMatches(Covid19LocationCodesMap)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final Covid19LocationMatchCache cache = Covid19LocationMatchCache.create(Iterable.create());
+                    test.assertThrows(() -> cache.addMatches(null),
+                        new PreConditionFailure("newMatches cannot be null."));
+                });
+
+                runner.test("with no new matches", (Test test) ->
+                {
+                    final Covid19LocationMatchCache cache = Covid19LocationMatchCache.create(Iterable.create());
+                    test.assertSame(cache, cache.addMatches(Covid19LocationCodesMap.create()));
+                    test.assertEqual(0, cache.getCount());
+                });
+            });
+        });
+    }
+}
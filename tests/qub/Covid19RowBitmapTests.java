@@ -0,0 +1,191 @@
+package qub;
+
+public interface Covid19RowBitmapTests
+{
+    static Iterable<Integer> getRows(Covid19RowBitmap bitmap)
+    {
+        final List<Integer> result = List.create();
+        for (int row = bitmap.nextRow(0); row != -1; row = bitmap.nextRow(row + 1))
+        {
+            result.add(row);
+        }
+        return result;
+    }
+
+    static Covid19RowBitmap create(int dataRowCount, int... rows)
+    {
+        return Covid19RowBitmap.create(dataRowCount, rows, rows.length);
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(Covid19RowBitmap.class, () ->
+        {
+            runner.testGroup("createEmpty(int)", () ->
+            {
+                runner.test("with negative", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19RowBitmap.createEmpty(-1),
+                        new PreConditionFailure("dataRowCount (-1) must be greater than or equal to 0."));
+                });
+
+                runner.test("with 100", (Test test) ->
+                {
+                    final Covid19RowBitmap bitmap = Covid19RowBitmap.createEmpty(100);
+                    test.assertEqual(100, bitmap.getDataRowCount());
+                    test.assertEqual(0, bitmap.getCount());
+                    test.assertFalse(bitmap.contains(0));
+                    test.assertEqual(-1, bitmap.nextRow(0));
+                });
+            });
+
+            runner.testGroup("createAll(int)", () ->
+            {
+                final Action1<Integer> createAllTest = (Integer dataRowCount) ->
+                {
+                    runner.test("with " + dataRowCount, (Test test) ->
+                    {
+                        final Covid19RowBitmap bitmap = Covid19RowBitmap.createAll(dataRowCount);
+                        test.assertEqual(dataRowCount, bitmap.getDataRowCount());
+                        test.assertEqual(dataRowCount, bitmap.getCount());
+                        int expectedRow = 0;
+                        for (final Integer row : Covid19RowBitmapTests.getRows(bitmap))
+                        {
+                            test.assertEqual(expectedRow, row);
+                            ++expectedRow;
+                        }
+                        test.assertEqual(dataRowCount, expectedRow);
+                        test.assertFalse(bitmap.contains(dataRowCount));
+                    });
+                };
+
+                createAllTest.run(0);
+                createAllTest.run(1);
+                createAllTest.run(63);
+                createAllTest.run(64);
+                createAllTest.run(65);
+                createAllTest.run(1000);
+            });
+
+            runner.testGroup("create(int,int[],int)", () ->
+            {
+                runner.test("with null rows", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19RowBitmap.create(10, null, 0),
+                        new PreConditionFailure("rows cannot be null."));
+                });
+
+                runner.test("with count greater than rows length", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19RowBitmap.create(10, new int[] { 1 }, 2),
+                        new PreConditionFailure("count (2) must be between 0 and 1."));
+                });
+
+                runner.test("with sparse rows", (Test test) ->
+                {
+                    final Covid19RowBitmap bitmap = Covid19RowBitmap.create(1000, new int[] { 3, 64, 999, 5 }, 3);
+                    test.assertEqual(1000, bitmap.getDataRowCount());
+                    test.assertEqual(3, bitmap.getCount());
+                    test.assertFalse(bitmap.isDense());
+                    test.assertEqual(Iterable.create(3, 64, 999), Covid19RowBitmapTests.getRows(bitmap));
+                    test.assertTrue(bitmap.contains(64));
+                    test.assertFalse(bitmap.contains(5));
+                    test.assertFalse(bitmap.contains(-1));
+                    test.assertFalse(bitmap.contains(1000));
+                    test.assertEqual(64, bitmap.nextRow(4));
+                    test.assertEqual(999, bitmap.nextRow(65));
+                    test.assertEqual(-1, bitmap.nextRow(1000));
+                });
+
+                runner.test("with dense rows", (Test test) ->
+                {
+                    final Covid19RowBitmap bitmap = Covid19RowBitmapTests.create(10, 0, 2, 4, 9);
+                    test.assertEqual(4, bitmap.getCount());
+                    test.assertTrue(bitmap.isDense());
+                    test.assertEqual(Iterable.create(0, 2, 4, 9), Covid19RowBitmapTests.getRows(bitmap));
+                    test.assertTrue(bitmap.contains(9));
+                    test.assertFalse(bitmap.contains(3));
+                    test.assertEqual(4, bitmap.nextRow(3));
+                    test.assertEqual(-1, bitmap.nextRow(10));
+                });
+            });
+
+            runner.testGroup("sum(int[])", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final Covid19RowBitmap bitmap = Covid19RowBitmapTests.create(3, 1);
+                    test.assertThrows(() -> bitmap.sum(null),
+                        new PreConditionFailure("values cannot be null."));
+                });
+
+                runner.test("with sparse rows", (Test test) ->
+                {
+                    final int[] values = new int[200];
+                    for (int i = 0; i < values.length; ++i)
+                    {
+                        values[i] = i;
+                    }
+                    test.assertEqual(1 + 100 + 199, Covid19RowBitmapTests.create(200, 1, 100, 199).sum(values));
+                });
+
+                runner.test("with dense rows", (Test test) ->
+                {
+                    test.assertEqual(3 + 5, Covid19RowBitmapTests.create(4, 0, 2).sum(new int[] { 3, 4, 5, 6 }));
+                });
+            });
+
+            runner.testGroup("and(Covid19RowBitmap)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final Covid19RowBitmap bitmap = Covid19RowBitmapTests.create(3, 1);
+                    test.assertThrows(() -> bitmap.and(null),
+                        new PreConditionFailure("rhs cannot be null."));
+                });
+
+                final Action3<Covid19RowBitmap,Covid19RowBitmap,Iterable<Integer>> andTest = (Covid19RowBitmap lhs, Covid19RowBitmap rhs, Iterable<Integer> expected) ->
+                {
+                    runner.test("with " + Covid19RowBitmapTests.getRows(lhs) + " and " + Covid19RowBitmapTests.getRows(rhs), (Test test) ->
+                    {
+                        final Covid19RowBitmap result = lhs.and(rhs);
+                        test.assertEqual(expected, Covid19RowBitmapTests.getRows(result));
+                        test.assertEqual(expected.getCount(), result.getCount());
+                        test.assertEqual(expected, Covid19RowBitmapTests.getRows(rhs.and(lhs)));
+                    });
+                };
+
+                andTest.run(Covid19RowBitmapTests.create(1000, 1, 500, 900), Covid19RowBitmapTests.create(1000, 500, 901), Iterable.create(500));
+                andTest.run(Covid19RowBitmapTests.create(1000, 1, 500, 900), Covid19RowBitmap.createAll(1000), Iterable.create(1, 500, 900));
+                andTest.run(Covid19RowBitmapTests.create(1000, 1, 500, 900), Covid19RowBitmap.createEmpty(1000), Iterable.create());
+                andTest.run(Covid19RowBitmapTests.create(10, 0, 1, 2, 3), Covid19RowBitmapTests.create(10, 2, 3, 4, 5), Iterable.create(2, 3));
+            });
+
+            runner.testGroup("or(Covid19RowBitmap)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final Covid19RowBitmap bitmap = Covid19RowBitmapTests.create(3, 1);
+                    test.assertThrows(() -> bitmap.or(null),
+                        new PreConditionFailure("rhs cannot be null."));
+                });
+
+                final Action3<Covid19RowBitmap,Covid19RowBitmap,Iterable<Integer>> orTest = (Covid19RowBitmap lhs, Covid19RowBitmap rhs, Iterable<Integer> expected) ->
+                {
+                    runner.test("with " + Covid19RowBitmapTests.getRows(lhs) + " and " + Covid19RowBitmapTests.getRows(rhs), (Test test) ->
+                    {
+                        final Covid19RowBitmap result = lhs.or(rhs);
+                        test.assertEqual(expected, Covid19RowBitmapTests.getRows(result));
+                        test.assertEqual(expected.getCount(), result.getCount());
+                        test.assertEqual(expected, Covid19RowBitmapTests.getRows(rhs.or(lhs)));
+                    });
+                };
+
+                orTest.run(Covid19RowBitmapTests.create(1000, 1, 500, 900), Covid19RowBitmapTests.create(1000, 500, 901), Iterable.create(1, 500, 900, 901));
+                orTest.run(Covid19RowBitmapTests.create(1000, 1, 500, 900), Covid19RowBitmap.createEmpty(1000), Iterable.create(1, 500, 900));
+                orTest.run(Covid19RowBitmapTests.create(10, 0, 1, 2, 3), Covid19RowBitmapTests.create(10, 2, 3, 4, 5), Iterable.create(0, 1, 2, 3, 4, 5));
+                orTest.run(Covid19RowBitmapTests.create(100, 0, 99), Covid19RowBitmapTests.create(100, 1, 2, 3, 4, 5, 6), Iterable.create(0, 1, 2, 3, 4, 5, 6, 99));
+            });
+        });
+    }
+}
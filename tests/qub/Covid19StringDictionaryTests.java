@@ -0,0 +1,158 @@
+package qub;
+
+import java.nio.charset.StandardCharsets;
+
+public interface Covid19StringDictionaryTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(Covid19StringDictionary.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final Covid19StringDictionary dictionary = Covid19StringDictionary.create();
+                test.assertEqual(0, dictionary.getCount());
+            });
+
+            runner.testGroup("getCode(String)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final Covid19StringDictionary dictionary = Covid19StringDictionary.create();
+                    test.assertEqual(Covid19StringDictionary.nullCode, dictionary.getCode((String)null));
+                    test.assertEqual(0, dictionary.getCount());
+                });
+
+                runner.test("with empty", (Test test) ->
+                {
+                    final Covid19StringDictionary dictionary = Covid19StringDictionary.create();
+                    test.assertEqual(0, dictionary.getCode(""));
+                    test.assertEqual("", dictionary.getString(0));
+                });
+
+                runner.test("with distinct and repeated values", (Test test) ->
+                {
+                    final Covid19StringDictionary dictionary = Covid19StringDictionary.create();
+                    test.assertEqual(0, dictionary.getCode("US"));
+                    test.assertEqual(1, dictionary.getCode("Italy"));
+                    test.assertEqual(0, dictionary.getCode(new String("US")));
+                    test.assertEqual(2, dictionary.getCode("Côte d'Ivoire"));
+                    test.assertEqual(3, dictionary.getCount());
+                });
+
+                runner.test("with more values than the initial capacity", (Test test) ->
+                {
+                    final Covid19StringDictionary dictionary = Covid19StringDictionary.create();
+                    for (int i = 0; i < 1000; ++i)
+                    {
+                        test.assertEqual(i, dictionary.getCode("County " + i));
+                    }
+                    for (int i = 0; i < 1000; ++i)
+                    {
+                        test.assertEqual(i, dictionary.getCode("County " + i));
+                        test.assertEqual("County " + i, dictionary.getString(i));
+                    }
+                    test.assertEqual(1000, dictionary.getCount());
+                });
+            });
+
+            runner.testGroup("getCode(byte[],int,int)", () ->
+            {
+                runner.test("with null bytes", (Test test) ->
+                {
+                    final Covid19StringDictionary dictionary = Covid19StringDictionary.create();
+                    test.assertThrows(() -> dictionary.getCode(null, 0, 0),
+                        new PreConditionFailure("bytes cannot be null."));
+                });
+
+                runner.test("with byte range", (Test test) ->
+                {
+                    final Covid19StringDictionary dictionary = Covid19StringDictionary.create();
+                    final byte[] bytes = "King,Washington,US".getBytes(StandardCharsets.UTF_8);
+                    test.assertEqual(0, dictionary.getCode(bytes, 5, 10));
+                    test.assertEqual(0, dictionary.getCode("Washington"));
+                    test.assertEqual(1, dictionary.getCode(bytes, 16, 2));
+                    test.assertEqual("US", dictionary.getString(1));
+                });
+            });
+
+            runner.testGroup("getString(byte[],int,int)", () ->
+            {
+                runner.test("returns the same instance for equal values", (Test test) ->
+                {
+                    final Covid19StringDictionary dictionary = Covid19StringDictionary.create();
+                    final byte[] bytes = "US,US".getBytes(StandardCharsets.UTF_8);
+                    final String first = dictionary.getString(bytes, 0, 2);
+                    test.assertEqual("US", first);
+                    test.assertSame(first, dictionary.getString(bytes, 3, 2));
+                });
+            });
+
+            runner.testGroup("getString(int)", () ->
+            {
+                runner.test("with nullCode", (Test test) ->
+                {
+                    final Covid19StringDictionary dictionary = Covid19StringDictionary.create();
+                    test.assertNull(dictionary.getString(Covid19StringDictionary.nullCode));
+                });
+            });
+
+            runner.testGroup("canonicalize(String)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final Covid19StringDictionary dictionary = Covid19StringDictionary.create();
+                    test.assertNull(dictionary.canonicalize(null));
+                });
+
+                runner.test("with equal values", (Test test) ->
+                {
+                    final Covid19StringDictionary dictionary = Covid19StringDictionary.create();
+                    final String first = dictionary.canonicalize(new String("Washington"));
+                    test.assertSame(first, dictionary.canonicalize(new String("Washington")));
+                    test.assertEqual(1, dictionary.getCount());
+                });
+            });
+
+            runner.test("getSubstringIndex()", (Test test) ->
+            {
+                final Covid19StringDictionary dictionary = Covid19StringDictionary.create();
+                final Covid19SubstringIndex substringIndex = dictionary.getSubstringIndex();
+                test.assertNotNull(substringIndex);
+                test.assertSame(dictionary, substringIndex.getStringDictionary());
+                test.assertSame(substringIndex, dictionary.getSubstringIndex());
+            });
+
+            runner.testGroup("getCompiledCondition(Covid19LocationCondition)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final Covid19StringDictionary dictionary = Covid19StringDictionary.create();
+                    test.assertThrows(() -> dictionary.getCompiledCondition(null),
+                        new PreConditionFailure("condition cannot be null."));
+                });
+
+                runner.test("with equal conditions", (Test test) ->
+                {
+                    final Covid19StringDictionary dictionary = Covid19StringDictionary.create();
+                    final Covid19CompiledLocationCondition compiledCondition = dictionary.getCompiledCondition(Covid19LocationCondition.countryOrRegionEquals("Italy"));
+                    test.assertSame(dictionary, compiledCondition.getStringDictionary());
+                    test.assertSame(compiledCondition, dictionary.getCompiledCondition(Covid19LocationCondition.countryOrRegionEquals("Italy")));
+                    test.assertNotSame(compiledCondition, dictionary.getCompiledCondition(Covid19LocationCondition.countryOrRegionEquals("US")));
+                });
+
+                runner.test("with condition that was modified after it was compiled", (Test test) ->
+                {
+                    final Covid19StringDictionary dictionary = Covid19StringDictionary.create();
+                    final Covid19LocationPropertyCondition condition = Covid19LocationPropertyCondition.create(
+                        Covid19DailyReportDataRow.countryOrRegionPropertyName, Covid19LocationPropertyConditionOperator.Equals, "Italy");
+                    final Covid19CompiledLocationCondition compiledCondition = dictionary.getCompiledCondition(condition);
+                    condition.setExpectedPropertyValue("US");
+                    final Covid19CompiledLocationCondition recompiledCondition = dictionary.getCompiledCondition(condition);
+                    test.assertNotSame(compiledCondition, recompiledCondition);
+                    test.assertTrue(recompiledCondition.matches(Covid19DailyReportDataRow.create().setCountryOrRegion("US")));
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,108 @@
+package qub;
+
+import java.util.BitSet;
+
+public interface Covid19SubstringIndexTests
+{
+    static Iterable<Integer> getCodes(BitSet codes)
+    {
+        final List<Integer> result = List.create();
+        for (int code = codes.nextSetBit(0); code >= 0; code = codes.nextSetBit(code + 1))
+        {
+            result.add(code);
+        }
+        return result;
+    }
+
+    static Covid19StringDictionary createStringDictionary()
+    {
+        final Covid19StringDictionary result = Covid19StringDictionary.create();
+        result.getCode("Washington");
+        result.getCode("Washington, D.C.");
+        result.getCode("Oregon");
+        result.getCode("King");
+        result.getCode("");
+        result.getCode("Wash");
+        return result;
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(Covid19SubstringIndex.class, () ->
+        {
+            runner.testGroup("create(Covid19StringDictionary)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19SubstringIndex.create(null),
+                        new PreConditionFailure("stringDictionary cannot be null."));
+                });
+
+                runner.test("with dictionary", (Test test) ->
+                {
+                    final Covid19StringDictionary stringDictionary = Covid19SubstringIndexTests.createStringDictionary();
+                    final Covid19SubstringIndex substringIndex = Covid19SubstringIndex.create(stringDictionary);
+                    test.assertSame(stringDictionary, substringIndex.getStringDictionary());
+                    test.assertEqual(0, substringIndex.getIndexedCount());
+                });
+            });
+
+            runner.testGroup("getCodesContaining(String)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final Covid19SubstringIndex substringIndex = Covid19SubstringIndex.create(Covid19StringDictionary.create());
+                    test.assertThrows(() -> substringIndex.getCodesContaining(null),
+                        new PreConditionFailure("substring cannot be null."));
+                });
+
+                final Action2<String,Iterable<Integer>> getCodesContainingTest = (String substring, Iterable<Integer> expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(substring), (Test test) ->
+                    {
+                        final Covid19StringDictionary stringDictionary = Covid19SubstringIndexTests.createStringDictionary();
+                        final Covid19SubstringIndex substringIndex = Covid19SubstringIndex.create(stringDictionary);
+                        test.assertEqual(expected, Covid19SubstringIndexTests.getCodes(substringIndex.getCodesContaining(substring)));
+                        test.assertEqual(stringDictionary.getCount(), substringIndex.getIndexedCount());
+                    });
+                };
+
+                getCodesContainingTest.run("", Iterable.create(0, 1, 2, 3, 4, 5));
+                getCodesContainingTest.run("g", Iterable.create(0, 1, 2, 3));
+                getCodesContainingTest.run("on", Iterable.create(0, 1, 2));
+                getCodesContainingTest.run("Wash", Iterable.create(0, 1, 5));
+                getCodesContainingTest.run("ashington", Iterable.create(0, 1));
+                getCodesContainingTest.run("D.C.", Iterable.create(1));
+                getCodesContainingTest.run("gon", Iterable.create(2));
+                getCodesContainingTest.run("ngo", Iterable.create());
+                getCodesContainingTest.run("Washington, D.C., US", Iterable.create());
+                getCodesContainingTest.run("wash", Iterable.create());
+                getCodesContainingTest.run("xyz", Iterable.create());
+
+                runner.test("with repeated trigrams", (Test test) ->
+                {
+                    final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                    stringDictionary.getCode("aaaa");
+                    stringDictionary.getCode("aaab");
+                    stringDictionary.getCode("baaa");
+                    final Covid19SubstringIndex substringIndex = Covid19SubstringIndex.create(stringDictionary);
+                    test.assertEqual(Iterable.create(0, 1, 2), Covid19SubstringIndexTests.getCodes(substringIndex.getCodesContaining("aaa")));
+                    test.assertEqual(Iterable.create(0), Covid19SubstringIndexTests.getCodes(substringIndex.getCodesContaining("aaaa")));
+                    test.assertEqual(Iterable.create(1), Covid19SubstringIndexTests.getCodes(substringIndex.getCodesContaining("aab")));
+                });
+
+                runner.test("with strings added after a query", (Test test) ->
+                {
+                    final Covid19StringDictionary stringDictionary = Covid19SubstringIndexTests.createStringDictionary();
+                    final Covid19SubstringIndex substringIndex = Covid19SubstringIndex.create(stringDictionary);
+                    test.assertEqual(Iterable.create(0, 1), Covid19SubstringIndexTests.getCodes(substringIndex.getCodesContaining("ashington")));
+
+                    final int code = stringDictionary.getCode("Washington County");
+                    test.assertEqual(6, substringIndex.getIndexedCount());
+                    test.assertEqual(Iterable.create(0, 1, code), Covid19SubstringIndexTests.getCodes(substringIndex.getCodesContaining("ashington")));
+                    test.assertEqual(7, substringIndex.getIndexedCount());
+                });
+            });
+        });
+    }
+}
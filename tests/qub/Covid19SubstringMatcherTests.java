@@ -0,0 +1,139 @@
+package qub;
+
+import java.util.BitSet;
+
+public interface Covid19SubstringMatcherTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(Covid19SubstringMatcher.class, () ->
+        {
+            runner.testGroup("create(Covid19StringDictionary,Iterable<String>)", () ->
+            {
+                runner.test("with null stringDictionary", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19SubstringMatcher.create(null, Iterable.create("a")),
+                        new PreConditionFailure("stringDictionary cannot be null."));
+                });
+
+                runner.test("with null patterns", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19SubstringMatcher.create(Covid19StringDictionary.create(), null),
+                        new PreConditionFailure("patterns cannot be null."));
+                });
+
+                runner.test("with null pattern", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19SubstringMatcher.create(Covid19StringDictionary.create(), Iterable.create("a", null)),
+                        new PreConditionFailure("pattern cannot be null."));
+                });
+
+                runner.test("with duplicate patterns", (Test test) ->
+                {
+                    final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+                    final Covid19SubstringMatcher substringMatcher = Covid19SubstringMatcher.create(stringDictionary, Iterable.create("he", "she", "he", ""));
+                    test.assertSame(stringDictionary, substringMatcher.getStringDictionary());
+                    test.assertEqual(Iterable.create("he", "she", ""), substringMatcher.getPatterns());
+                    test.assertEqual(0, substringMatcher.getPatternIndex("he"));
+                    test.assertEqual(1, substringMatcher.getPatternIndex("she"));
+                    test.assertEqual(2, substringMatcher.getPatternIndex(""));
+                    test.assertEqual(-1, substringMatcher.getPatternIndex("hers"));
+                    test.assertEqual(-1, substringMatcher.getPatternIndex(null));
+                    test.assertEqual(0, substringMatcher.getScannedCount());
+                });
+            });
+
+            runner.testGroup("getMatches(String)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final Covid19SubstringMatcher substringMatcher = Covid19SubstringMatcher.create(Covid19StringDictionary.create(), Iterable.create("a"));
+                    test.assertThrows(() -> substringMatcher.getMatches(null),
+                        new PreConditionFailure("value cannot be null."));
+                });
+
+                final Action3<Iterable<String>,String,Iterable<Integer>> getMatchesTest = (Iterable<String> patterns, String value, Iterable<Integer> expected) ->
+                {
+                    runner.test("with " + patterns + " and " + Strings.escapeAndQuote(value), (Test test) ->
+                    {
+                        final Covid19SubstringMatcher substringMatcher = Covid19SubstringMatcher.create(Covid19StringDictionary.create(), patterns);
+                        final List<Integer> matches = List.create();
+                        for (final int match : substringMatcher.getMatches(value))
+                        {
+                            matches.add(match);
+                        }
+                        test.assertEqual(expected, matches);
+
+                        // The matches must agree with searching for each pattern on its own.
+                        final List<Integer> expectedMatches = List.create();
+                        int patternIndex = 0;
+                        for (final String pattern : substringMatcher.getPatterns())
+                        {
+                            if (value.contains(pattern))
+                            {
+                                expectedMatches.add(patternIndex);
+                            }
+                            ++patternIndex;
+                        }
+                        test.assertEqual(expectedMatches, matches);
+                    });
+                };
+
+                getMatchesTest.run(Iterable.create(), "anything", Iterable.create());
+                getMatchesTest.run(Iterable.create("a"), "", Iterable.create());
+                getMatchesTest.run(Iterable.create(""), "", Iterable.create(0));
+                getMatchesTest.run(Iterable.create("", "x"), "abc", Iterable.create(0));
+                getMatchesTest.run(Iterable.create("he", "she", "his", "hers"), "ushers", Iterable.create(0, 1, 3));
+                getMatchesTest.run(Iterable.create("he", "she", "his", "hers"), "this", Iterable.create(2));
+                getMatchesTest.run(Iterable.create("he", "she", "his", "hers"), "Washington", Iterable.create());
+                getMatchesTest.run(Iterable.create("a", "ab", "bab", "bc", "bca", "c", "caa"), "abccab", Iterable.create(0, 1, 3, 5));
+                getMatchesTest.run(Iterable.create("aaa", "aa", "a"), "aaaa", Iterable.create(0, 1, 2));
+                getMatchesTest.run(Iterable.create("Wash", "ington", "D.C."), "Washington, D.C.", Iterable.create(0, 1, 2));
+                getMatchesTest.run(Iterable.create("abcd", "bcx"), "abcx", Iterable.create(1));
+            });
+
+            runner.testGroup("getCodesContaining(int)", () ->
+            {
+                runner.test("with negative", (Test test) ->
+                {
+                    final Covid19SubstringMatcher substringMatcher = Covid19SubstringMatcher.create(Covid19StringDictionary.create(), Iterable.create("a"));
+                    test.assertThrows(() -> substringMatcher.getCodesContaining(-1),
+                        new PreConditionFailure("patternIndex (-1) must be between 0 and 0."));
+                });
+
+                runner.test("with too large", (Test test) ->
+                {
+                    final Covid19SubstringMatcher substringMatcher = Covid19SubstringMatcher.create(Covid19StringDictionary.create(), Iterable.create("a"));
+                    test.assertThrows(() -> substringMatcher.getCodesContaining(1),
+                        new PreConditionFailure("patternIndex (1) must be between 0 and 0."));
+                });
+
+                runner.test("with dictionary strings", (Test test) ->
+                {
+                    final Covid19StringDictionary stringDictionary = Covid19SubstringIndexTests.createStringDictionary();
+                    final Covid19SubstringMatcher substringMatcher = Covid19SubstringMatcher.create(stringDictionary, Iterable.create("ash", "gon", "", "xyz"));
+                    test.assertEqual(Iterable.create(0, 1, 5), Covid19SubstringIndexTests.getCodes(substringMatcher.getCodesContaining(0)));
+                    test.assertEqual(6, substringMatcher.getScannedCount());
+                    test.assertEqual(Iterable.create(2), Covid19SubstringIndexTests.getCodes(substringMatcher.getCodesContaining(1)));
+                    test.assertEqual(Iterable.create(0, 1, 2, 3, 4, 5), Covid19SubstringIndexTests.getCodes(substringMatcher.getCodesContaining(2)));
+                    test.assertEqual(Iterable.create(), Covid19SubstringIndexTests.getCodes(substringMatcher.getCodesContaining(3)));
+                });
+
+                runner.test("with strings added after a query", (Test test) ->
+                {
+                    final Covid19StringDictionary stringDictionary = Covid19SubstringIndexTests.createStringDictionary();
+                    final Covid19SubstringMatcher substringMatcher = Covid19SubstringMatcher.create(stringDictionary, Iterable.create("gon"));
+                    final BitSet codes = substringMatcher.getCodesContaining(0);
+                    test.assertEqual(Iterable.create(2), Covid19SubstringIndexTests.getCodes(codes));
+
+                    final int code = stringDictionary.getCode("Oregon County");
+                    test.assertEqual(Iterable.create(2, code), Covid19SubstringIndexTests.getCodes(substringMatcher.getCodesContaining(0)));
+                    test.assertEqual(7, substringMatcher.getScannedCount());
+
+                    // Earlier results aren't modified.
+                    test.assertEqual(Iterable.create(2), Covid19SubstringIndexTests.getCodes(codes));
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,82 @@
+package qub;
+
+public interface Covid19TasksTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(Covid19Tasks.class, () ->
+        {
+            runner.testGroup("runAll(Iterable<Function0<T>>,int)", () ->
+            {
+                runner.test("with null tasks", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19Tasks.runAll(null, 1),
+                        new PreConditionFailure("tasks cannot be null."));
+                });
+
+                runner.test("with zero parallelism", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19Tasks.runAll(Iterable.create(), 0),
+                        new PreConditionFailure("parallelism (0) must be greater than or equal to 1."));
+                });
+
+                final Action1<Integer> runAllTest = (Integer parallelism) ->
+                {
+                    runner.test("with " + parallelism + " parallelism", (Test test) ->
+                    {
+                        final List<Function0<Integer>> tasks = List.create();
+                        for (int i = 0; i < 10; ++i)
+                        {
+                            final int value = i;
+                            tasks.add(() -> value * value);
+                        }
+                        test.assertEqual(Iterable.create(0, 1, 4, 9, 16, 25, 36, 49, 64, 81), Covid19Tasks.runAll(tasks, parallelism));
+                    });
+
+                    runner.test("with " + parallelism + " parallelism and a failing task", (Test test) ->
+                    {
+                        final List<Function0<Integer>> tasks = List.create();
+                        tasks.add(() -> 1);
+                        tasks.add(() -> { throw new NotFoundException("blah"); });
+                        tasks.add(() -> 3);
+                        test.assertThrows(() -> Covid19Tasks.runAll(tasks, parallelism),
+                            new NotFoundException("blah"));
+                    });
+                };
+
+                runAllTest.run(1);
+                runAllTest.run(4);
+            });
+
+            runner.testGroup("startInBackground(String,Function0<T>)", () ->
+            {
+                runner.test("with null name", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19Tasks.startInBackground(null, () -> 5),
+                        new PreConditionFailure("name cannot be null."));
+                });
+
+                runner.test("with null task", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19Tasks.startInBackground("fake-name", null),
+                        new PreConditionFailure("task cannot be null."));
+                });
+
+                runner.test("with successful task", (Test test) ->
+                {
+                    final Covid19BackgroundTask<Integer> task = Covid19Tasks.startInBackground("fake-name", () -> 5);
+                    test.assertEqual(5, task.await());
+                    test.assertTrue(task.isDone());
+                });
+
+                runner.test("with failing task", (Test test) ->
+                {
+                    final Covid19BackgroundTask<Integer> task = Covid19Tasks.startInBackground("fake-name", () -> { throw new NotFoundException("blah"); });
+                    test.assertThrows(() -> task.await(),
+                        new NotFoundException("blah"));
+                    test.assertTrue(task.isDone());
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,167 @@
+package qub;
+
+public interface Covid19TimeSeriesTests
+{
+    static Covid19DailyReport createDailyReport(int usConfirmedCases, int italyConfirmedCases)
+    {
+        return Covid19DailyReport.create(
+            Covid19DailyReportDataRow.create()
+                .setStateOrProvince("Washington")
+                .setCountryOrRegion("US")
+                .setConfirmedCases(usConfirmedCases),
+            Covid19DailyReportDataRow.create()
+                .setCountryOrRegion("Italy")
+                .setConfirmedCases(italyConfirmedCases));
+    }
+
+    static Iterable<Covid19Location> createLocations()
+    {
+        return Iterable.create(
+            Covid19Location.create("Global"),
+            Covid19Location.create("USA", Covid19LocationCondition.countryOrRegionEquals("US")));
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(Covid19TimeSeries.class, () ->
+        {
+            runner.testGroup("create(Iterable<Covid19Location>)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19TimeSeries.create(null),
+                        new PreConditionFailure("locations cannot be null."));
+                });
+
+                runner.test("with locations", (Test test) ->
+                {
+                    final Covid19TimeSeries timeSeries = Covid19TimeSeries.create(Covid19TimeSeriesTests.createLocations());
+                    test.assertEqual(0, timeSeries.getDateCount());
+                    test.assertNull(timeSeries.getLocationsCondition());
+                    test.assertTrue(timeSeries.hasLocations(Covid19TimeSeriesTests.createLocations()));
+                    test.assertFalse(timeSeries.hasLocations(Iterable.create(Covid19Location.create("Global"))));
+                });
+            });
+
+            runner.testGroup("set(DateTime,Covid19DailyReport,Iterable<Covid19Issue>)", () ->
+            {
+                runner.test("with dates out of order", (Test test) ->
+                {
+                    final Covid19TimeSeries timeSeries = Covid19TimeSeries.create(Covid19TimeSeriesTests.createLocations());
+                    test.assertSame(timeSeries, timeSeries.set(DateTime.create(2020, 5, 20), Covid19TimeSeriesTests.createDailyReport(10, 20), Iterable.create()));
+                    timeSeries.set(DateTime.create(2020, 3, 1), Covid19TimeSeriesTests.createDailyReport(1, 2), Iterable.create(Covid19Issue.create("fake-issue")));
+                    timeSeries.set(DateTime.create(2020, 9, 1), Covid19TimeSeriesTests.createDailyReport(100, 200), Iterable.create());
+
+                    test.assertEqual(3, timeSeries.getDateCount());
+                    test.assertTrue(timeSeries.contains(DateTime.create(2020, 3, 1)));
+                    test.assertFalse(timeSeries.contains(DateTime.create(2020, 3, 2)));
+                    test.assertEqual(30, timeSeries.getConfirmedCases("Global", DateTime.create(2020, 5, 20)).await());
+                    test.assertEqual(10, timeSeries.getConfirmedCases("USA", DateTime.create(2020, 5, 20)).await());
+                    test.assertEqual(1, timeSeries.getConfirmedCases("USA", DateTime.create(2020, 3, 1)).await());
+                    test.assertEqual(300, timeSeries.getConfirmedCases("Global", DateTime.create(2020, 9, 1)).await());
+                    test.assertEqual(Iterable.create(Covid19Issue.create("fake-issue")), timeSeries.getIssues(DateTime.create(2020, 3, 1)).await());
+                });
+
+                runner.test("with date that is already set", (Test test) ->
+                {
+                    final Covid19TimeSeries timeSeries = Covid19TimeSeries.create(Covid19TimeSeriesTests.createLocations());
+                    timeSeries.set(DateTime.create(2020, 5, 20), Covid19TimeSeriesTests.createDailyReport(10, 20), Iterable.create());
+                    timeSeries.set(DateTime.create(2020, 5, 20), Covid19TimeSeriesTests.createDailyReport(11, 20), Iterable.create());
+                    test.assertEqual(1, timeSeries.getDateCount());
+                    test.assertEqual(11, timeSeries.getConfirmedCases("USA", DateTime.create(2020, 5, 20)).await());
+                });
+            });
+
+            runner.testGroup("getConfirmedCases(String,DateTime)", () ->
+            {
+                runner.test("with unknown location", (Test test) ->
+                {
+                    final Covid19TimeSeries timeSeries = Covid19TimeSeries.create(Covid19TimeSeriesTests.createLocations());
+                    timeSeries.set(DateTime.create(2020, 5, 20), Covid19TimeSeriesTests.createDailyReport(10, 20), Iterable.create());
+                    test.assertThrows(() -> timeSeries.getConfirmedCases("Spain", DateTime.create(2020, 5, 20)).await(),
+                        new NotFoundException("No location named \"Spain\" found."));
+                });
+
+                runner.test("with unknown date", (Test test) ->
+                {
+                    final Covid19TimeSeries timeSeries = Covid19TimeSeries.create(Covid19TimeSeriesTests.createLocations());
+                    test.assertThrows(() -> timeSeries.getConfirmedCases("USA", DateTime.create(2020, 5, 20)).await(),
+                        new NotFoundException("No daily report found for the date 5/20/2020."));
+                });
+            });
+
+            runner.testGroup("remove(DateTime)", () ->
+            {
+                runner.test("with date that isn't in the time series", (Test test) ->
+                {
+                    final Covid19TimeSeries timeSeries = Covid19TimeSeries.create(Covid19TimeSeriesTests.createLocations());
+                    test.assertFalse(timeSeries.remove(DateTime.create(2020, 5, 20)));
+                });
+
+                runner.test("with date that is in the time series", (Test test) ->
+                {
+                    final Covid19TimeSeries timeSeries = Covid19TimeSeries.create(Covid19TimeSeriesTests.createLocations());
+                    timeSeries.set(DateTime.create(2020, 5, 20), Covid19TimeSeriesTests.createDailyReport(10, 20), Iterable.create());
+                    test.assertTrue(timeSeries.remove(DateTime.create(2020, 5, 20)));
+                    test.assertEqual(0, timeSeries.getDateCount());
+                    test.assertFalse(timeSeries.contains(DateTime.create(2020, 5, 20)));
+                });
+            });
+
+            runner.testGroup("without(Iterable<DateTime>)", () ->
+            {
+                runner.test("doesn't modify the original time series", (Test test) ->
+                {
+                    final Covid19TimeSeries timeSeries = Covid19TimeSeries.create(Covid19TimeSeriesTests.createLocations());
+                    timeSeries.set(DateTime.create(2020, 5, 20), Covid19TimeSeriesTests.createDailyReport(10, 20), Iterable.create());
+                    timeSeries.set(DateTime.create(2020, 5, 21), Covid19TimeSeriesTests.createDailyReport(11, 21), Iterable.create());
+
+                    final Covid19TimeSeries result = timeSeries.without(Iterable.create(DateTime.create(2020, 5, 20)));
+                    test.assertEqual(2, timeSeries.getDateCount());
+                    test.assertEqual(1, result.getDateCount());
+                    test.assertFalse(result.contains(DateTime.create(2020, 5, 20)));
+                    test.assertEqual(11, result.getConfirmedCases("USA", DateTime.create(2020, 5, 21)).await());
+                });
+            });
+
+            runner.testGroup("clear()", () ->
+            {
+                runner.test("with dates", (Test test) ->
+                {
+                    final Covid19TimeSeries timeSeries = Covid19TimeSeries.create(Covid19TimeSeriesTests.createLocations());
+                    timeSeries.set(DateTime.create(2020, 5, 20), Covid19TimeSeriesTests.createDailyReport(10, 20), Iterable.create());
+                    test.assertSame(timeSeries, timeSeries.clear());
+                    test.assertEqual(0, timeSeries.getDateCount());
+                    test.assertFalse(timeSeries.contains(DateTime.create(2020, 5, 20)));
+                });
+            });
+
+            runner.testGroup("getLocationsCondition(Iterable<Covid19Location>)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> Covid19TimeSeries.getLocationsCondition(null),
+                        new PreConditionFailure("locations cannot be null."));
+                });
+
+                runner.test("with a location that has no condition", (Test test) ->
+                {
+                    test.assertNull(Covid19TimeSeries.getLocationsCondition(Iterable.create(
+                        Covid19Location.create("Global"),
+                        Covid19Location.create("USA", Covid19LocationCondition.countryOrRegionEquals("US")))));
+                });
+
+                runner.test("with locations that all have conditions", (Test test) ->
+                {
+                    test.assertEqual(
+                        Covid19LocationCondition.or(
+                            Covid19LocationCondition.countryOrRegionEquals("US"),
+                            Covid19LocationCondition.countryOrRegionEquals("Italy")),
+                        Covid19TimeSeries.getLocationsCondition(Iterable.create(
+                            Covid19Location.create("USA", Covid19LocationCondition.countryOrRegionEquals("US")),
+                            Covid19Location.create("Italy", Covid19LocationCondition.countryOrRegionEquals("Italy")))));
+                });
+            });
+        });
+    }
+}
@@ -0,0 +1,130 @@
+package qub;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Micro-benchmarks for the show action's plan and table rendering. These are skipped by default
+ * because they take a while to run and their results are only meaningful when they are compared
+ * by a person.
+ */
+public interface QubCovid19ShowBenchmarks
+{
+    Iterable<Integer> previousDays = Iterable.create(1, 3, 7, 30);
+
+    /**
+     * Create a configuration with the default locations, one location per generated state, and a
+     * few locations that use Contains and In conditions.
+     */
+    static Covid19Configuration createConfiguration()
+    {
+        final Covid19Configuration result = QubCovid19.getDefaultConfiguration();
+        for (int state = 0; state < 60; ++state)
+        {
+            result.addLocation(Covid19Location.create("State " + state,
+                Covid19LocationCondition.and(
+                    Covid19LocationCondition.countryOrRegionEquals("US"),
+                    Covid19LocationCondition.stateOrProvinceEquals("State " + state))));
+        }
+        result.addLocation(Covid19Location.create("Counties ending in 7",
+            Covid19LocationCondition.countyContains("7")));
+        result.addLocation(Covid19Location.create("First states",
+            Covid19LocationCondition.stateOrProvinceIn("State 0", "State 1", "State 2", "State 3")));
+        return result;
+    }
+
+    /**
+     * Create a data source that has a county-level daily report for every date that the show
+     * action reports on when the provided date is the most recent report.
+     */
+    static Covid19InMemoryDataSource createDataSource(DateTime reportStartDate)
+    {
+        final Covid19InMemoryDataSource result = Covid19InMemoryDataSource.create();
+        final Covid19StringDictionary stringDictionary = Covid19StringDictionary.create();
+        int dayIndex = 0;
+        for (final DateTime reportDate : QubCovid19Show.getReportDates(reportStartDate, QubCovid19ShowBenchmarks.previousDays))
+        {
+            final byte[] bytes = Covid19GitDataSourceBenchmarks.createDailyReportContents(dayIndex, Covid19DailyReportBenchmarks.countyLevelRowCount).getBytes(StandardCharsets.UTF_8);
+            final Path filePath = Path.parse("/benchmark/" + Covid19GitDataSourceBenchmarks.getDailyReportFileName(reportDate));
+            result.setDailyReport(reportDate, Covid19DailyReport.parse(Covid19DailyReportBenchmarks.createByteReadStream(bytes), filePath, null, stringDictionary, issue -> {}).await());
+            ++dayIndex;
+        }
+        return result;
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(QubCovid19Show.class, () ->
+        {
+            runner.test("benchmark running a show plan and building its tables", runner.skip(), (Test test) ->
+            {
+                final DateTime reportStartDate = DateTime.create(2020, 5, 20);
+                final Covid19InMemoryDataSource dataSource = QubCovid19ShowBenchmarks.createDataSource(reportStartDate);
+                final Iterable<Covid19Location> locations = QubCovid19ShowBenchmarks.createConfiguration().getLocations();
+                final QubCovid19ShowPlan plan = QubCovid19ShowPlan.create(reportStartDate, QubCovid19ShowBenchmarks.previousDays, locations)
+                    .run(dataSource, issue -> {})
+                    .await();
+                final CharacterTableFormat format = CharacterTableFormat.create()
+                    .setNewLine('\n')
+                    .setTopBorder('-')
+                    .setLeftBorder("| ")
+                    .setColumnSeparator(" | ")
+                    .setRightBorder(" |")
+                    .setBottomBorder('-');
+                final int[] lengths = new int[2];
+
+                final Covid19BenchmarkResult runResult = Covid19Benchmark.create("QubCovid19ShowPlan.run()")
+                    .setMeasurementIterations(50)
+                    .run(() ->
+                    {
+                        QubCovid19ShowPlan.create(reportStartDate, QubCovid19ShowBenchmarks.previousDays, locations)
+                            .run(dataSource, issue -> {})
+                            .await();
+                    });
+
+                final Covid19BenchmarkResult confirmedCasesResult = Covid19Benchmark.create("createConfirmedCasesTable() + toString()")
+                    .setMeasurementIterations(500)
+                    .run(() ->
+                    {
+                        lengths[0] = QubCovid19Show.createConfirmedCasesTable(plan).toString(format).length();
+                    });
+
+                final Covid19BenchmarkResult averageChangeResult = Covid19Benchmark.create("createConfirmedCasesAverageChangePerDayTable() + toString()")
+                    .setMeasurementIterations(500)
+                    .run(() ->
+                    {
+                        lengths[1] = QubCovid19Show.createConfirmedCasesAverageChangePerDayTable(plan).toString(format).length();
+                    });
+
+                Covid19Benchmark.print(String.format("%d locations on %d dates:", locations.getCount(), plan.getReportDates().getCount()),
+                    Iterable.create(runResult, confirmedCasesResult, averageChangeResult));
+
+                test.assertTrue(lengths[0] > 0);
+                test.assertTrue(lengths[1] > 0);
+            });
+
+            runner.test("benchmark writing the show report", runner.skip(), (Test test) ->
+            {
+                final DateTime reportStartDate = DateTime.create(2020, 5, 20);
+                final Covid19InMemoryDataSource dataSource = QubCovid19ShowBenchmarks.createDataSource(reportStartDate);
+                final InMemoryFileSystem fileSystem = InMemoryFileSystem.create(test.getClock());
+                fileSystem.createRoot("/").await();
+                final Folder dataFolder = fileSystem.getFolder("/data/").await();
+                dataFolder.setFileContentsAsString("configuration.json", QubCovid19ShowBenchmarks.createConfiguration().toString()).await();
+                final long[] outputLengths = new long[1];
+
+                final Covid19BenchmarkResult writeReportResult = Covid19Benchmark.create("QubCovid19Show.writeReport()")
+                    .setMeasurementIterations(50)
+                    .run(() ->
+                    {
+                        final InMemoryCharacterToByteStream output = InMemoryCharacterToByteStream.create();
+                        QubCovid19Show.writeReport(IndentedCharacterWriteStream.create(output), dataFolder, dataSource);
+                        outputLengths[0] = output.getText().await().length();
+                    });
+
+                Covid19Benchmark.print(Iterable.create(writeReportResult));
+
+                test.assertTrue(outputLengths[0] > 0);
+            });
+        });
+    }
+}
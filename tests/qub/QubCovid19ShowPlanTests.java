@@ -0,0 +1,128 @@
+package qub;
+
+public interface QubCovid19ShowPlanTests
+{
+    static Iterable<Covid19Location> createLocations()
+    {
+        return Iterable.create(
+            Covid19Location.create("Global"),
+            Covid19Location.create("Italy", Covid19LocationCondition.countryOrRegionEquals("Italy")));
+    }
+
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(QubCovid19ShowPlan.class, () ->
+        {
+            runner.testGroup("create(DateTime,Iterable<Integer>,Iterable<Covid19Location>)", () ->
+            {
+                runner.test("with null reportStartDate", (Test test) ->
+                {
+                    test.assertThrows(() -> QubCovid19ShowPlan.create(null, Iterable.create(1), QubCovid19ShowPlanTests.createLocations()),
+                        new PreConditionFailure("reportStartDate cannot be null."));
+                });
+
+                runner.test("with null previousDays", (Test test) ->
+                {
+                    test.assertThrows(() -> QubCovid19ShowPlan.create(DateTime.create(2020, 3, 2), null, QubCovid19ShowPlanTests.createLocations()),
+                        new PreConditionFailure("previousDays cannot be null."));
+                });
+
+                runner.test("with null locations", (Test test) ->
+                {
+                    test.assertThrows(() -> QubCovid19ShowPlan.create(DateTime.create(2020, 3, 2), Iterable.create(1), null),
+                        new PreConditionFailure("locations cannot be null."));
+                });
+
+                runner.test("with valid arguments", (Test test) ->
+                {
+                    final QubCovid19ShowPlan plan = QubCovid19ShowPlan.create(DateTime.create(2020, 3, 2), Iterable.create(1), QubCovid19ShowPlanTests.createLocations());
+                    test.assertEqual(DateTime.create(2020, 3, 2), plan.getReportStartDate());
+                    test.assertEqual(Iterable.create(1), plan.getPreviousDays());
+                    test.assertEqual(QubCovid19ShowPlanTests.createLocations(), plan.getLocations());
+                    test.assertEqual(Iterable.create(DateTime.create(2020, 3, 2), DateTime.create(2020, 3, 1)), plan.getReportDates());
+                    test.assertFalse(plan.hasRun());
+                });
+            });
+
+            runner.testGroup("run(Covid19DataSource,Action1<Covid19Issue>)", () ->
+            {
+                runner.test("with null dataSource", (Test test) ->
+                {
+                    final QubCovid19ShowPlan plan = QubCovid19ShowPlan.create(DateTime.create(2020, 3, 2), Iterable.create(1), QubCovid19ShowPlanTests.createLocations());
+                    test.assertThrows(() -> plan.run(null, issue -> {}),
+                        new PreConditionFailure("dataSource cannot be null."));
+                });
+
+                runner.test("with null onIssue", (Test test) ->
+                {
+                    final QubCovid19ShowPlan plan = QubCovid19ShowPlan.create(DateTime.create(2020, 3, 2), Iterable.create(1), QubCovid19ShowPlanTests.createLocations());
+                    test.assertThrows(() -> plan.run(Covid19DataSourceTests.createDataSource(), null),
+                        new PreConditionFailure("onIssue cannot be null."));
+                });
+
+                runner.test("with dates that exist", (Test test) ->
+                {
+                    final QubCovid19ShowPlan plan = QubCovid19ShowPlan.create(DateTime.create(2020, 3, 2), Iterable.create(1), QubCovid19ShowPlanTests.createLocations());
+                    test.assertSame(plan, plan.run(Covid19DataSourceTests.createDataSource(), issue -> {}).await());
+                    test.assertTrue(plan.hasRun());
+                    test.assertEqual(30, plan.getConfirmedCases(0, 0));
+                    test.assertEqual(30, plan.getConfirmedCases(0, 1));
+                    test.assertEqual(30, plan.getConfirmedCases(1, 0));
+                    test.assertEqual(20, plan.getConfirmedCases(1, 1));
+                });
+
+                runner.test("with a date that doesn't exist", (Test test) ->
+                {
+                    final QubCovid19ShowPlan plan = QubCovid19ShowPlan.create(DateTime.create(2020, 3, 2), Iterable.create(3), QubCovid19ShowPlanTests.createLocations());
+                    test.assertThrows(() -> plan.run(Covid19DataSourceTests.createDataSource(), issue -> {}).await(),
+                        new NotFoundException("No daily report found for the date 2/28/2020."));
+                    test.assertFalse(plan.hasRun());
+                });
+
+                runner.test("fetches each daily report once", (Test test) ->
+                {
+                    final int[] dailyReportCount = new int[1];
+                    final Covid19InMemoryDataSource dataSource = Covid19DataSourceTests.createDataSource();
+                    final Covid19DataSource countingDataSource = new Covid19DataSource()
+                    {
+                        @Override
+                        public Result<Covid19DataChanges> refreshData(CharacterWriteStream verbose)
+                        {
+                            return dataSource.refreshData(verbose);
+                        }
+
+                        @Override
+                        public Result<Covid19Summary> getDataSummary(Action1<Covid19Issue> onIssue)
+                        {
+                            return dataSource.getDataSummary(onIssue);
+                        }
+
+                        @Override
+                        public Result<Covid19DailyReport> getDailyReport(DateTime date, Action1<Covid19Issue> onIssue)
+                        {
+                            ++dailyReportCount[0];
+                            return dataSource.getDailyReport(date, onIssue);
+                        }
+                    };
+
+                    final QubCovid19ShowPlan plan = QubCovid19ShowPlan.create(DateTime.create(2020, 3, 2), Iterable.create(1), QubCovid19ShowPlanTests.createLocations())
+                        .run(countingDataSource, issue -> {})
+                        .await();
+                    QubCovid19Show.createConfirmedCasesTable(plan);
+                    QubCovid19Show.createConfirmedCasesAverageChangePerDayTable(plan);
+                    test.assertEqual(2, dailyReportCount[0]);
+                });
+            });
+
+            runner.testGroup("getConfirmedCases(int,int)", () ->
+            {
+                runner.test("before run", (Test test) ->
+                {
+                    final QubCovid19ShowPlan plan = QubCovid19ShowPlan.create(DateTime.create(2020, 3, 2), Iterable.create(1), QubCovid19ShowPlanTests.createLocations());
+                    test.assertThrows(() -> plan.getConfirmedCases(0, 0),
+                        new PreConditionFailure("this.hasRun() cannot be false."));
+                });
+            });
+        });
+    }
+}
@@ -36,6 +36,32 @@ public interface QubCovid19ShowTests
                         test.assertSame(process.getOutputWriteStream(), parameters.getOutput());
                         test.assertNotNull(parameters.getDataSource());
                         test.assertInstanceOf(parameters.getDataSource(), Covid19GitDataSource.class);
+                        test.assertFalse(parameters.getBackgroundRefresh());
+                        test.assertNull(((Covid19GitDataSource)parameters.getDataSource()).getRefreshTimeToLive());
+                    }
+                });
+
+                runner.test("with \"--background-refresh\"", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create("--background-refresh"))
+                    {
+                        final CommandLineAction action = CommandLineAction.create("full-action-name", (DesktopProcess actionProcess) -> {});
+                        final QubCovid19ShowParameters parameters = QubCovid19Show.getParameters(process, action);
+                        test.assertNotNull(parameters);
+                        test.assertTrue(parameters.getBackgroundRefresh());
+                    }
+                });
+
+                runner.test("with \"--refresh-time-to-live=30\"", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create("--refresh-time-to-live=30"))
+                    {
+                        final CommandLineAction action = CommandLineAction.create("full-action-name", (DesktopProcess actionProcess) -> {});
+                        final QubCovid19ShowParameters parameters = QubCovid19Show.getParameters(process, action);
+                        test.assertNotNull(parameters);
+                        final Covid19GitDataSource dataSource = (Covid19GitDataSource)parameters.getDataSource();
+                        test.assertEqual(Duration.minutes(30), dataSource.getRefreshTimeToLive());
+                        test.assertSame(process.getClock(), dataSource.getClock());
                     }
                 });
 
@@ -50,11 +76,13 @@ public interface QubCovid19ShowTests
 
                         test.assertEqual(
                             Iterable.create(
-                                "Usage: full-action-name [--profiler] [--help] [--verbose]",
+                                "Usage: full-action-name [--background-refresh] [--refresh-time-to-live=<minutes>] [--profiler] [--help] [--verbose]",
                                 "  Report the current state of the COVID-19 virus in the configured locations.",
-                                "  --profiler:   Whether or not this application should pause before it is run to allow a profiler to be attached.",
-                                "  --help(?):    Show the help message for this application.",
-                                "  --verbose(v): Whether or not to show verbose logs."
+                                "  --background-refresh:   Show the locally available data while the data is refreshed in the background.",
+                                "  --refresh-time-to-live: The number of minutes after a refresh that the data won't be refreshed again.",
+                                "  --profiler:             Whether or not this application should pause before it is run to allow a profiler to be attached.",
+                                "  --help(?):              Show the help message for this application.",
+                                "  --verbose(v):           Whether or not to show verbose logs."
                             ),
                             Strings.getLines(process.getOutputWriteStream().getText().await()));
                         test.assertEqual(-1, process.getExitCode());
@@ -187,6 +215,173 @@ public interface QubCovid19ShowTests
                         JSON.parseObject(dataFolder.getFile("configuration.json").await().getContentsAsString().await()).await());
                 });
 
+                runner.test("with background refresh and no newer data", (Test test) ->
+                {
+                    final InMemoryCharacterToByteStream output = InMemoryCharacterToByteStream.create();
+                    final VerboseCharacterToByteWriteStream verbose = VerboseCharacterToByteWriteStream.create(output)
+                        .setIsVerbose(false);
+                    final InMemoryFileSystem fileSystem = InMemoryFileSystem.create(test.getClock());
+                    fileSystem.createRoot("/").await();
+                    final Folder dataFolder = fileSystem.getFolder("/data/").await();
+                    dataFolder.setFileContentsAsString("configuration.json",
+                        Covid19Configuration.create()
+                            .addLocation(Covid19Location.create("Global"))
+                            .toString()).await();
+                    final Covid19InMemoryDataSource dataSource = Covid19InMemoryDataSource.create();
+                    final Action2<DateTime,Integer> setDailyReport = (DateTime date, Integer confirmedCases) ->
+                    {
+                        dataSource.setDailyReport(date,
+                            Covid19DailyReport.create(
+                                Covid19DailyReportDataRow.create()
+                                    .setCountryOrRegion("China")
+                                    .setConfirmedCases(confirmedCases)));
+                    };
+                    setDailyReport.run(DateTime.create(2020, 3, 7), 100);
+                    setDailyReport.run(DateTime.create(2020, 3, 6), 90);
+                    setDailyReport.run(DateTime.create(2020, 3, 4), 70);
+                    setDailyReport.run(DateTime.create(2020, 2, 29), 30);
+                    setDailyReport.run(DateTime.create(2020, 2, 6), 10);
+                    final QubCovid19ShowParameters parameters = new QubCovid19ShowParameters(output, verbose, dataFolder, dataSource)
+                        .setBackgroundRefresh(true);
+
+                    QubCovid19Show.run(parameters);
+
+                    test.assertEqual(
+                        Iterable.create(
+                            "Summary:",
+                            "Dates reported:            5",
+                            "Countries reported:        1",
+                            "Most recent report: 3/7/2020",
+                            "",
+                            "Confirmed Cases:",
+                            "----------------------------------------------------------------------------",
+                            "| Location | 3/7/2020 | 1 days ago | 3 days ago | 7 days ago | 30 days ago |",
+                            "| Global   |      100 |         90 |         70 |         30 |          10 |",
+                            "----------------------------------------------------------------------------",
+                            "",
+                            "Confirmed Cases Average Change Per Day:",
+                            "-----------------------------------------------------------------",
+                            "| Location | 1 days ago | 3 days ago | 7 days ago | 30 days ago |",
+                            "| Global   |         10 |         10 |         10 |           3 |",
+                            "-----------------------------------------------------------------",
+                            "",
+                            "Checking for newer data... No newer data found."),
+                        Strings.getLines(output.getText().await()));
+                });
+
+                final Iterable<String> backgroundRefreshReportLines = Iterable.create(
+                    "Summary:",
+                    "Dates reported:            5",
+                    "Countries reported:        1",
+                    "Most recent report: 3/7/2020",
+                    "",
+                    "Confirmed Cases:",
+                    "----------------------------------------------------------------------------",
+                    "| Location | 3/7/2020 | 1 days ago | 3 days ago | 7 days ago | 30 days ago |",
+                    "| Global   |      100 |         90 |         70 |         30 |          10 |",
+                    "----------------------------------------------------------------------------",
+                    "",
+                    "Confirmed Cases Average Change Per Day:",
+                    "-----------------------------------------------------------------",
+                    "| Location | 1 days ago | 3 days ago | 7 days ago | 30 days ago |",
+                    "| Global   |         10 |         10 |         10 |           3 |",
+                    "-----------------------------------------------------------------",
+                    "");
+
+                final Action2<String,Action2<Covid19InMemoryDataSource,List<String>>> backgroundRefreshTest = (String testName, Action2<Covid19InMemoryDataSource,List<String>> setup) ->
+                {
+                    runner.test(testName, (Test test) ->
+                    {
+                        final InMemoryCharacterToByteStream output = InMemoryCharacterToByteStream.create();
+                        final VerboseCharacterToByteWriteStream verbose = VerboseCharacterToByteWriteStream.create(output)
+                            .setIsVerbose(false);
+                        final InMemoryFileSystem fileSystem = InMemoryFileSystem.create(test.getClock());
+                        fileSystem.createRoot("/").await();
+                        final Folder dataFolder = fileSystem.getFolder("/data/").await();
+                        dataFolder.setFileContentsAsString("configuration.json",
+                            Covid19Configuration.create()
+                                .addLocation(Covid19Location.create("Global"))
+                                .toString()).await();
+                        final Covid19InMemoryDataSource dataSource = Covid19InMemoryDataSource.create();
+                        final Action2<DateTime,Integer> setDailyReport = (DateTime date, Integer confirmedCases) ->
+                        {
+                            dataSource.setDailyReport(date,
+                                Covid19DailyReport.create(
+                                    Covid19DailyReportDataRow.create()
+                                        .setCountryOrRegion("China")
+                                        .setConfirmedCases(confirmedCases)));
+                        };
+                        setDailyReport.run(DateTime.create(2020, 3, 7), 100);
+                        setDailyReport.run(DateTime.create(2020, 3, 6), 90);
+                        setDailyReport.run(DateTime.create(2020, 3, 4), 70);
+                        setDailyReport.run(DateTime.create(2020, 2, 29), 30);
+                        setDailyReport.run(DateTime.create(2020, 2, 6), 10);
+                        final List<String> expectedLines = List.create();
+                        setup.run(dataSource, expectedLines);
+                        final QubCovid19ShowParameters parameters = new QubCovid19ShowParameters(output, verbose, dataFolder, dataSource)
+                            .setBackgroundRefresh(true);
+
+                        QubCovid19Show.run(parameters);
+
+                        test.assertEqual(expectedLines, Strings.getLines(output.getText().await()));
+                    });
+                };
+
+                backgroundRefreshTest.run("with background refresh and newer data", (Covid19InMemoryDataSource dataSource, List<String> expectedLines) ->
+                {
+                    dataSource.setRefreshDataFunction((CharacterWriteStream refreshVerbose) -> Result.success(Covid19DataChanges.all()));
+                    expectedLines.addAll(backgroundRefreshReportLines);
+                    expectedLines.add("Checking for newer data... Newer data found.");
+                    expectedLines.add("");
+                    expectedLines.addAll(backgroundRefreshReportLines);
+                });
+
+                backgroundRefreshTest.run("with background refresh that fails", (Covid19InMemoryDataSource dataSource, List<String> expectedLines) ->
+                {
+                    dataSource.setRefreshDataFunction((CharacterWriteStream refreshVerbose) -> Result.error(new RuntimeException("Network unreachable.")));
+                    expectedLines.addAll(backgroundRefreshReportLines);
+                    expectedLines.add("Checking for newer data... Failed.");
+                    expectedLines.add("Warning: The data could not be refreshed: Network unreachable.");
+                });
+
+                runner.test("with background refresh within the refresh time to live", (Test test) ->
+                {
+                    try (final FakeDesktopProcess process = FakeDesktopProcess.create())
+                    {
+                        final InMemoryCharacterToByteStream output = InMemoryCharacterToByteStream.create();
+                        final VerboseCharacterToByteWriteStream verbose = VerboseCharacterToByteWriteStream.create(output)
+                            .setIsVerbose(false);
+                        final InMemoryFileSystem fileSystem = InMemoryFileSystem.create(test.getClock());
+                        fileSystem.createRoot("/").await();
+                        final Folder dataFolder = fileSystem.getFolder("/data/").await();
+                        dataFolder.setFileContentsAsString("configuration.json",
+                            Covid19Configuration.create()
+                                .addLocation(Covid19Location.create("Global"))
+                                .toString()).await();
+                        final Folder projectDataFolder = fileSystem.getFolder("/project/").await();
+                        Covid19DatasetGenerator.create()
+                            .setDayCount(31)
+                            .setRowCount(20)
+                            .setCountyCount(20)
+                            .setStateOrProvinceCount(4)
+                            .setCountryOrRegionCount(2)
+                            .writeDailyReports(projectDataFolder.getFolder("COVID-19").await());
+                        projectDataFolder.setFileContentsAsString("COVID-19-last-refresh.txt",
+                            Covid19GitDataSource.createLastRefreshContents(test.getClock().getCurrentDateTime().minus(Duration.minutes(10)), "fake-commit-id")).await();
+                        final Covid19GitDataSource dataSource = Covid19GitDataSource.create(projectDataFolder, Git.create(process), test.getClock())
+                            .setRefreshTimeToLive(Duration.minutes(30));
+                        final QubCovid19ShowParameters parameters = new QubCovid19ShowParameters(output, verbose, dataFolder, dataSource)
+                            .setBackgroundRefresh(true);
+
+                        QubCovid19Show.run(parameters);
+
+                        // Nothing was pulled, so the report is only written once.
+                        final Iterable<String> lines = Strings.getLines(output.getText().await());
+                        test.assertEqual(1, lines.where("Summary:"::equals).getCount());
+                        test.assertEqual("Checking for newer data... No newer data found.", lines.last());
+                    }
+                });
+
                 runner.test("with actual data", runner.skip(), (Test test) ->
                 {
                     final InMemoryCharacterToByteStream output = InMemoryCharacterToByteStream.create();
@@ -201,7 +396,7 @@ public interface QubCovid19ShowTests
                             .addLocation(Covid19Location.create("USA", Covid19LocationCondition.countryOrRegionEquals("US")))
                             .toString()).await();
                     final Git git = Git.create((DesktopProcess)test.getProcess());
-                    final Covid19GitDataSource dataSource = Covid19GitDataSource.create(test.getFileSystem().getFolder("C:/qub/qub/covid-19-java/data/").await(), git);
+                    final Covid19GitDataSource dataSource = Covid19GitDataSource.create(test.getFileSystem().getFolder("C:/qub/qub/covid-19-java/data/").await(), git, test.getClock());
                     final QubCovid19ShowParameters parameters = new QubCovid19ShowParameters(output, verbose, dataFolder, dataSource);
 
                     QubCovid19Show.run(parameters);
@@ -245,6 +440,55 @@ public interface QubCovid19ShowTests
                         JSON.parseObject(dataFolder.getFile("configuration.json").await().getContentsAsString().await()).await());
                 });
             });
+
+            runner.testGroup("createConfirmedCasesTable(QubCovid19ShowPlan)", () ->
+            {
+                runner.test("with null plan", (Test test) ->
+                {
+                    test.assertThrows(() -> QubCovid19Show.createConfirmedCasesTable(null),
+                        new PreConditionFailure("plan cannot be null."));
+                });
+
+                runner.test("with plan that hasn't run", (Test test) ->
+                {
+                    final QubCovid19ShowPlan plan = QubCovid19ShowPlan.create(DateTime.create(2020, 3, 2), Iterable.create(1), Iterable.create(Covid19Location.create("Global")));
+                    test.assertThrows(() -> QubCovid19Show.createConfirmedCasesTable(plan),
+                        new PreConditionFailure("plan.hasRun() cannot be false."));
+                });
+            });
+
+            runner.testGroup("createConfirmedCasesAverageChangePerDayTable(QubCovid19ShowPlan)", () ->
+            {
+                runner.test("with null plan", (Test test) ->
+                {
+                    test.assertThrows(() -> QubCovid19Show.createConfirmedCasesAverageChangePerDayTable(null),
+                        new PreConditionFailure("plan cannot be null."));
+                });
+
+                runner.test("with plan that hasn't run", (Test test) ->
+                {
+                    final QubCovid19ShowPlan plan = QubCovid19ShowPlan.create(DateTime.create(2020, 3, 2), Iterable.create(1), Iterable.create(Covid19Location.create("Global")));
+                    test.assertThrows(() -> QubCovid19Show.createConfirmedCasesAverageChangePerDayTable(plan),
+                        new PreConditionFailure("plan.hasRun() cannot be false."));
+                });
+            });
+
+            runner.testGroup("getReportDates(DateTime,Iterable<Integer>)", () ->
+            {
+                runner.test("with no previous days", (Test test) ->
+                {
+                    test.assertEqual(
+                        Iterable.create(DateTime.create(2020, 5, 20)),
+                        QubCovid19Show.getReportDates(DateTime.create(2020, 5, 20), Iterable.create()));
+                });
+
+                runner.test("with previous days", (Test test) ->
+                {
+                    test.assertEqual(
+                        Iterable.create(DateTime.create(2020, 5, 20), DateTime.create(2020, 5, 19), DateTime.create(2020, 5, 13)),
+                        QubCovid19Show.getReportDates(DateTime.create(2020, 5, 20), Iterable.create(1, 7)));
+                });
+            });
         });
     }
 }